@@ -18,6 +18,7 @@ import ch.ethz.mc.services.internal.FileStorageManagerService;
 import ch.ethz.mc.services.internal.ImageCachingService;
 import ch.ethz.mc.services.internal.LockingService;
 import ch.ethz.mc.services.internal.ModelObjectExchangeService;
+import ch.ethz.mc.services.internal.ParticipantLockingService;
 import ch.ethz.mc.services.internal.ReportGeneratorService;
 import ch.ethz.mc.services.internal.VariablesManagerService;
 import ch.ethz.mc.tools.InternalDateTime;
@@ -53,6 +54,8 @@ public class MC implements ServletContextListener {
 
 	@Getter
 	LockingService								lockingService;
+	@Getter
+	ParticipantLockingService					participantLockingService;
 	
 	ExternalSystemsManagerService				externalServicesManagerService;
 
@@ -104,6 +107,7 @@ public class MC implements ServletContextListener {
 			reportGeneratorService = ReportGeneratorService
 					.start(databaseManagerService);
 			lockingService = LockingService.start();
+			participantLockingService = ParticipantLockingService.start();
 
 			// Internal services which internally require started controller
 			// services
@@ -121,14 +125,16 @@ public class MC implements ServletContextListener {
 			interventionAdministrationManagerService = InterventionAdministrationManagerService
 					.start(databaseManagerService, fileStorageManagerService,
 							variablesManagerService, modelObjectExchangeService,
-							surveyAdministrationManagerService, externalServicesManagerService);
+							surveyAdministrationManagerService, externalServicesManagerService,
+							participantLockingService);
 			surveyExecutionManagerService = SurveyExecutionManagerService.start(
 					databaseManagerService, fileStorageManagerService,
-					variablesManagerService,
+					variablesManagerService, participantLockingService,
 					interventionAdministrationManagerService);
 			interventionExecutionManagerService = InterventionExecutionManagerService
 					.start(databaseManagerService, variablesManagerService,
 							communicationManagerService,
+							participantLockingService,
 							interventionAdministrationManagerService,
 							surveyExecutionManagerService);
 			restManagerService = RESTManagerService.startThreadedService(
@@ -171,6 +177,7 @@ public class MC implements ServletContextListener {
 			restManagerService.stopThreadedService();
 			surveyExecutionManagerService.stop();
 			interventionExecutionManagerService.stop();
+			participantLockingService.stop();
 			surveyAdministrationManagerService.stop();
 			interventionAdministrationManagerService.stop();
 			modelObjectExchangeService.stop();
@@ -486,6 +486,9 @@ public enum AdminMessageStrings {
 	NOTIFICATION__PARTICIPANTS_ORGANIZATION_UNIT_CHANGED,
 	NOTIFICATION__PARTICIPANTS_MONITORING_SWITCHED,
 	NOTIFICATION__PARTICIPANTS_DELETED,
+	NOTIFICATION__PARTICIPANTS_DELETION_FAILED,
+	NOTIFICATION__PARTICIPANTS_DELETION_IN_PROGRESS,
+	NOTIFICATION__PARTICIPANTS_DELETION_STARTED,
 	NOTIFICATION__THE_MESSAGES_WILL_BE_SENT_IN_THE_NEXT_MINUTES,
 	NOTIFICATION__SLIDE_DUPLICATED,
 	NOTIFICATION__SLIDE_DUPLICATION_FAILED,
@@ -136,6 +136,17 @@ public class Constants {
 	@Getter
 	private static int				maxVariableHistory						= 1000;
 
+	// Limits of the participant related caches (-1 can be used to set them to
+	// infinite)
+	@Getter
+	private static int				participantsCacheMaximumSize			= 10000;
+	@Getter
+	private static int				participantsCacheMaximumIdleMinutes		= 60;
+
+	// Disk space the cached image variants may use in the media cache folder
+	@Getter
+	private static int				mediaCacheMaximumSizeInMB				= 1024;
+
 	@Getter
 	private static boolean			mediaUploadSecurityCheck				= true;
 
@@ -158,6 +169,19 @@ public class Constants {
 	@Getter
 	private static String			statisticsFile							= "/mc_data/statistics.properties";
 
+	/**
+	 * Messaging configuration
+	 */
+	// If active, the continuous messaging is performed for several
+	// participants in parallel using the given amount of threads
+	@Getter
+	private static boolean			parallelMessagingActive					= false;
+	@Getter
+	private static int				parallelMessagingThreads				= 4;
+	// Amount of threads handling the received messages
+	@Getter
+	private static int				incomingMessageHandlingThreads			= 4;
+
 	/**
 	 * Simulation configuration
 	 */
@@ -183,6 +207,10 @@ public class Constants {
 	private static String			databasePassword						= "mc";
 	@Getter
 	private static String			databaseName							= "mc";
+	@Getter
+	private static int				databaseConnectionsPerHost				= 100;
+	@Getter
+	private static int				databaseConnectionWaitSeconds			= 120;
 
 	/**
 	 * General Mailing configuration
@@ -41,10 +41,60 @@ public class ImplementationConstants {
 	public static final long	PERIODIC_RULE_EVALUTION_WORKER_SECONDS_SLEEP_BETWEEN_CHECK_CYCLES_WITHOUT_SIMULATOR	= 300;
 	public static final long	PERIODIC_RULE_EVALUTION_WORKER_SECONDS_SLEEP_BETWEEN_CHECK_CYCLES_WITH_SIMULATOR	= 10;
 
+	public static final int		MONITORING_SCHEDULING_PARTICIPANTS_BETWEEN_PRIORITY_CHECKS							= 100;
+	public static final int		MONITORING_SCHEDULING_PARTICIPANTS_PER_WORK_UNIT									= 10;
+
+	public static final int		DATABASE_ID_STREAMING_BATCH_SIZE													= 1000;
+
+	public static final long	BOUNDED_CACHE_IDLE_CHECK_INTERVAL_IN_SECONDS										= 60;
+	public static final double	BOUNDED_CACHE_SHRINK_FACTOR															= 0.9;
+
+	public static final int		COMPILED_CALCULATED_RULES_CACHE_MAXIMUM_SIZE										= 10000;
+	public static final int		COMPILED_CALCULATED_RULES_CACHE_MAXIMUM_IDLE_MINUTES								= 60;
+
+	public static final int		JAVASCRIPT_RULES_ENGINE_POOL_SIZE													= 8;
+	public static final int		JAVASCRIPT_RULES_COMPILED_SCRIPTS_PER_ENGINE										= 1000;
+	public static final long	JAVASCRIPT_RULES_EXECUTION_TIMEOUT_IN_MILLISECONDS									= 5000;
+	public static final int		JAVASCRIPT_RULES_EXECUTION_QUEUE_CAPACITY											= 1000;
+	public static final int		JAVASCRIPT_RULES_TIMEOUT_STRIKES													= 3;
+	public static final int		JAVASCRIPT_RULES_TIMEOUT_STRIKES_WINDOW_IN_MINUTES									= 60;
+	public static final int		JAVASCRIPT_RULES_MAXIMUM_REPLACED_STUCK_THREADS										= 8;
+	public static final int		JAVASCRIPT_RULES_CACHE_MAXIMUM_SIZE													= 10000;
+	public static final int		JAVASCRIPT_RULES_CACHE_MAXIMUM_IDLE_MINUTES											= 60;
+
+	public static final int		RULES_TREE_CACHE_MAXIMUM_SIZE														= 10000;
+	public static final int		RULES_TREE_CACHE_MAXIMUM_IDLE_MINUTES												= 60;
+	public static final int		VARIABLE_STRING_TEMPLATES_CACHE_MAXIMUM_SIZE										= 10000;
+	public static final int		VARIABLE_STRING_TEMPLATES_CACHE_MAXIMUM_IDLE_MINUTES								= 60;
+	public static final int		DIALOG_OPTION_LOOKUP_CACHE_MAXIMUM_SIZE												= 100000;
+	public static final int		DIALOG_OPTION_LOOKUP_CACHE_MAXIMUM_IDLE_MINUTES										= 60;
+	public static final int		DIALOG_OPTION_LOOKUP_VERSION_STRIPES												= 4096;
+	public static final int		CLIENT_ID_FILTER_CACHE_MAXIMUM_SIZE													= 10000;
+	public static final int		CLIENT_ID_FILTER_CACHE_MAXIMUM_IDLE_MINUTES											= 60;
+	public static final int		CLIENT_ID_FILTER_MINIMUM_EXPECTED_INSERTIONS										= 1000;
+	public static final double	CLIENT_ID_FILTER_FALSE_POSITIVE_PROBABILITY											= 0.01;
+	public static final int		MESSAGE_DIFF_INDEX_CACHE_MAXIMUM_SIZE												= 2000;
+	public static final int		MESSAGE_DIFF_INDEX_CACHE_MAXIMUM_IDLE_MINUTES										= 30;
+	public static final int		TEMPLATE_ASSET_CACHE_MAXIMUM_SIZE													= 10000;
+	public static final int		TEMPLATE_ASSET_CACHE_MAXIMUM_IDLE_MINUTES											= 60;
+
+	public static final int		VARIABLES_WITH_VALUES_INITIAL_CAPACITY												= 128;
+
 	public static final long	FINISH_UNFINISHED_SCREENING_SURVEYS_INTERVAL_IN_SECONDS								= 600;
 
 	public static final long	INCOMING_MESSAGE_WORKER_MILLISECONDS_SLEEP_BETWEEN_CHECK_CYCLES						= 250;
+	public static final int		INCOMING_MESSAGE_HANDLING_QUEUE_CAPACITY											= 1000;
+	public static final long	INCOMING_MESSAGE_HANDLING_OFFER_TIMEOUT_IN_MILLISECONDS								= 100;
+	public static final long	INCOMING_MESSAGE_HANDLING_SHUTDOWN_TIMEOUT_IN_SECONDS								= 60;
+	public static final int		EXTERNAL_SYSTEM_MESSAGE_FAN_OUT_QUEUE_CAPACITY										= 100;
+	public static final long	EXTERNAL_SYSTEM_MESSAGE_FAN_OUT_SHUTDOWN_TIMEOUT_IN_SECONDS							= 60;
 	public static final long	OUTGOING_MESSAGE_WORKER_MILLISECONDS_SLEEP_BETWEEN_CHECK_CYCLES						= 250;
+	public static final long	OUTGOING_MESSAGE_QUEUE_SYNCHRONIZATION_INTERVAL_IN_SECONDS							= 60;
+
+	public static final int		PARTICIPANT_LOCKING_STRIPES															= 1024;
+	public static final int		PARTICIPANTS_DELETION_BATCH_SIZE													= 500;
+	public static final int		PARTICIPANTS_DELETION_DIALOG_MESSAGES_CHUNK_SIZE									= 10000;
+	public static final long	PARTICIPANTS_DELETION_SHUTDOWN_TIMEOUT_IN_SECONDS									= 60;
 
 	public static final long	SMS_AND_EMAIL_RETRIEVAL_INTERVAL_IN_SECONDS_WITHOUT_SIMULATOR						= 30;
 	public static final long	SMS_AND_EMAIL_RETRIEVAL_INTERVAL_IN_SECONDS_WITH_SIMULATOR							= 5;
@@ -52,7 +102,13 @@ public class ImplementationConstants {
 	public static final long	EMAIL_SENDING_RETRIES																= 2;
 	public static final long	EMAIL_SENDING_RETRIES_SLEEP_BETWEEN_RETRIES_IN_SECONDS								= 2
 			* 60;
-	public static final int		ASYNC_SENDING_MAXIMUM_THREAD_COUNT													= 25;
+	public static final int		ASYNC_SENDING_WORKER_THREADS														= 25;
+	public static final int		ASYNC_SENDING_QUEUE_CAPACITY														= 1000;
+	public static final int		ASYNC_SENDING_MAXIMUM_CONCURRENT_ASPSMS_REQUESTS									= 10;
+	public static final int		ASYNC_SENDING_MAXIMUM_CONCURRENT_TWILIO_REQUESTS									= 10;
+	public static final int		ASYNC_SENDING_MAXIMUM_CONCURRENT_SMTP_CONNECTIONS									= 5;
+	public static final long	ASYNC_SENDING_BUSY_DELAY_IN_MILLISECONDS											= 250;
+	public static final long	ASYNC_SENDING_SHUTDOWN_TIMEOUT_IN_SECONDS											= 60;
 
 	public static final long	SIMULATOR_TIME_UPDATE_INTERVAL_IN_SECONDS											= 5;
 
@@ -92,6 +148,11 @@ public class ImplementationConstants {
 	public static final float	IMAGE_JPEG_COMPRESSION												= 0.85f;
 	public static final int		IMAGE_MAX_WIDTH														= 1000;
 	public static final int		IMAGE_MAX_HEIGHT													= 1000;
+	public static final String	IMAGE_CACHE_INDEX_FILENAME											= "image-cache.index";
+	public static final int		IMAGE_CACHE_INDEX_SAVING_DELAY_IN_SECONDS							= 60;
+
+	public static final String	TEMPLATE_ASSET_COMPRESSION_FOLDER									= "template-assets";
+	public static final int		TEMPLATE_ASSET_COMPRESSION_MINIMUM_SIZE_IN_BYTE						= 1024;
 
 	// CAUTION: If this is changed it also needs to be adjusted in the web.xml
 	// configuration
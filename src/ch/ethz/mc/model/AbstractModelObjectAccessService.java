@@ -1,8 +1,11 @@
 package ch.ethz.mc.model;
 
 /* ##LICENSE## */
+import java.util.Map;
+
 import org.bson.types.ObjectId;
 import org.jongo.Jongo;
+import org.jongo.MongoCursor;
 
 /**
  * Provides all methods to modify model objects
@@ -44,6 +47,15 @@ public abstract class AbstractModelObjectAccessService {
 		ModelObject.delete(modelObject);
 	}
 
+	/**
+	 * @see ModelObject#updateFields(Class, Map)
+	 */
+	public void updateModelObjectFields(
+			final Class<? extends ModelObject> clazz,
+			final Map<ObjectId, Map<String, Object>> fieldValuesByIds) {
+		ModelObject.updateFields(clazz, fieldValuesByIds);
+	}
+
 	/**
 	 * @see ModelObject#findOne(Class, String, Object...)
 	 */
@@ -80,6 +92,15 @@ public abstract class AbstractModelObjectAccessService {
 		return ModelObject.findIds(clazz, query, parameters);
 	}
 
+	/**
+	 * @see ModelObject#findIdsStreamed(Class, String, Object...)
+	 */
+	public MongoCursor<ObjectId> findModelObjectIdsStreamed(
+			final Class<? extends ModelObject> clazz, final String query,
+			final Object... parameters) {
+		return ModelObject.findIdsStreamed(clazz, query, parameters);
+	}
+
 	/**
 	 * @see ModelObject#findSorted(Class, String, String, Object...)
 	 */
@@ -88,4 +109,15 @@ public abstract class AbstractModelObjectAccessService {
 			final String sort, final Object... parameters) {
 		return ModelObject.findSorted(clazz, query, sort, parameters);
 	}
+
+	/**
+	 * @see ModelObject#aggregate(Class, Class, String[], Object...)
+	 */
+	public <ResultClass> Iterable<ResultClass> aggregateModelObjects(
+			final Class<? extends ModelObject> clazz,
+			final Class<ResultClass> resultClass, final String[] pipeline,
+			final Object... parameters) {
+		return ModelObject.aggregate(clazz, resultClass, pipeline,
+				parameters);
+	}
 }
@@ -0,0 +1,64 @@
+package ch.ethz.mc.model;
+
+/* ##LICENSE## */
+/**
+ * Contains all aggregation pipelines required to aggregate
+ * {@link ModelObject}s in the database; each stage of a pipeline can contain
+ * parameters (#) like the queries in {@link Queries}
+ *
+ * @author Andreas Filler
+ */
+public class Aggregations {
+	/**
+	 * Groups the participants of an intervention by their validity, language
+	 * and the time slot of their creation (parameters: intervention, time slot
+	 * length in milliseconds)
+	 */
+	public static final String[]	PARTICIPANT__STATISTICS_BY_INTERVENTION										= new String[] {
+			"{$match:{'intervention':#}}",
+			"{$group:{'_id':{'monitoringActive':'$monitoringActive','language':'$language','createdTimeSlot':{$floor:{$divide:['$createdTimestamp',#]}}},'participants':{$sum:1},'secondsUsage':{$sum:{$trunc:{$divide:[{$subtract:['$lastLogoutTimestamp','$createdTimestamp']},1000]}}}}}",
+			"{$project:{'_id':0,'monitoringActive':'$_id.monitoringActive','language':'$_id.language','createdTimeSlot':'$_id.createdTimeSlot','participants':1,'secondsUsage':1}}" };
+
+	/**
+	 * Groups the dialog messages of participants by their status and type and
+	 * counts the contained messages (parameters: participants, supervisor
+	 * message, new message separator)
+	 *
+	 * The messages are counted like {@link String#split(String)} does: a
+	 * message without separator is one message, otherwise empty trailing parts
+	 * are ignored.
+	 */
+	public static final String[]	DIALOG_MESSAGE__STATISTICS_BY_PARTICIPANTS									= new String[] {
+			"{$match:{'participant':{$in:#},'supervisorMessage':#}}",
+			"{$group:{'_id':{'status':'$status','type':'$type'},'dialogMessages':{$sum:1},'mediaObjectsViewed':{$sum:{$cond:['$mediaContentViewed',1,0]}},'messages':{$sum:{$let:{'vars':{'parts':{$split:[{$ifNull:['$message','']},#]}},'in':{$cond:[{$eq:[{$size:'$$parts'},1]},1,{$reduce:{'input':{$range:[0,{$size:'$$parts'}]},'initialValue':0,'in':{$cond:[{$eq:[{$arrayElemAt:['$$parts','$$this']},'']},'$$value',{$add:['$$this',1]}]}}}]}}}}}}",
+			"{$project:{'_id':0,'status':'$_id.status','type':'$_id.type','dialogMessages':1,'mediaObjectsViewed':1,'messages':1}}" };
+
+	/**
+	 * Groups the dialog messages of participants with specific statuses by
+	 * the time slot of their answer (parameters: participants, supervisor
+	 * message, statuses, time slot length in milliseconds)
+	 */
+	public static final String[]	DIALOG_MESSAGE__ANSWER_STATISTICS_BY_PARTICIPANTS_AND_STATUSES				= new String[] {
+			"{$match:{'participant':{$in:#},'supervisorMessage':#,'status':{$in:#}}}",
+			"{$group:{'_id':{$floor:{$divide:['$answerReceivedTimestamp',#]}},'dialogMessages':{$sum:1}}}",
+			"{$project:{'_id':0,'answerReceivedTimeSlot':'$_id','dialogMessages':1}}" };
+
+	/**
+	 * Groups the dialog messages of participants with a specific status and
+	 * matching answer by their answer (parameters: participants, supervisor
+	 * message, status, answer regular expression)
+	 */
+	public static final String[]	DIALOG_MESSAGE__ANSWERS_BY_PARTICIPANTS_AND_STATUS_AND_ANSWER				= new String[] {
+			"{$match:{'participant':{$in:#},'supervisorMessage':#,'status':#,'answerReceived':{$regex:#}}}",
+			"{$group:{'_id':'$answerReceived','dialogMessages':{$sum:1}}}",
+			"{$project:{'_id':0,'answerReceived':'$_id','dialogMessages':1}}" };
+
+	/**
+	 * Returns only the participant and sending time of the dialog messages
+	 * with a specific status which should be sent before a specific time
+	 * (parameters: status, timestamp)
+	 */
+	public static final String[]	DIALOG_MESSAGE__SENDING_TIMES_BY_STATUS_AND_SHOULD_BE_SENT_TIMESTAMP_LOWER	= new String[] {
+			"{$match:{'status':#,'shouldBeSentTimestamp':{$lt:#}}}",
+			"{$project:{'_id':0,'dialogMessage':'$_id','participant':1,'shouldBeSentTimestamp':1}}" };
+}
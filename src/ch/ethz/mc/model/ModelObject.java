@@ -4,21 +4,34 @@ package ch.ethz.mc.model;
 import java.io.IOException;
 import java.io.Serializable;
 import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import org.apache.commons.lang3.NotImplementedException;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 import org.bson.types.ObjectId;
+import org.jongo.Aggregate;
+import org.jongo.Find;
 import org.jongo.Jongo;
 import org.jongo.MongoCollection;
+import org.jongo.MongoCursor;
 import org.jongo.marshall.jackson.oid.MongoId;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.AggregationOptions;
+import com.mongodb.AggregationOptions.OutputMode;
+import com.mongodb.BasicDBObject;
+import com.mongodb.Bytes;
 
+import ch.ethz.mc.conf.ImplementationConstants;
+import ch.ethz.mc.model.memory.SystemLoad;
 import ch.ethz.mc.model.ui.UIModelObject;
 import ch.ethz.mc.services.internal.FileStorageManagerService;
 import ch.ethz.mc.tools.CustomObjectMapper;
@@ -59,6 +72,13 @@ public abstract class ModelObject extends AbstractSerializableTable
 	@JsonIgnore
 	private static Jongo						db;
 
+	/**
+	 * {@link SystemLoad} to report the time required for database accesses
+	 */
+	@JsonIgnore
+	private static final SystemLoad			systemLoad			= SystemLoad
+			.getInstance();
+
 	/**
 	 * {@link FileStorageManagerService} object required for file management
 	 */
@@ -155,20 +175,28 @@ public abstract class ModelObject extends AbstractSerializableTable
 		// Nothing, but can be overwritten
 	}
 
+	/**
+	 * Will automatically be called after the deletion was successful
+	 */
+	@JsonIgnore
+	protected void performAfterDelete() {
+		// Nothing, but can be overwritten
+	}
+
 	/**
 	 * Saves {@link ModelObject} to database
 	 */
 	@JsonIgnore
 	protected void save() {
-		synchronized (db) {
-			final MongoCollection collection = db
-					.getCollection(this.getClass().getSimpleName());
+		final MongoCollection collection = db
+				.getCollection(this.getClass().getSimpleName());
 
-			collection.save(this);
+		val startingTime = System.nanoTime();
+		collection.save(this);
+		recordDatabaseAccess(this.getClass(), startingTime);
 
-			log.debug("Saved {} with id {}: {}",
-					this.getClass().getSimpleName(), id, this);
-		}
+		log.debug("Saved {} with id {}: {}",
+				this.getClass().getSimpleName(), id, this);
 	}
 
 	/**
@@ -184,22 +212,23 @@ public abstract class ModelObject extends AbstractSerializableTable
 	@JsonIgnore
 	protected static final <ModelObjectSubclass extends ModelObject> ModelObjectSubclass get(
 			final Class<ModelObjectSubclass> clazz, final ObjectId id) {
-		synchronized (db) {
-			final MongoCollection collection = db
-					.getCollection(clazz.getSimpleName());
-
-			ModelObjectSubclass modelObject = null;
-			try {
-				modelObject = collection.findOne(id).as(clazz);
-				log.debug("Retrieved {} with id {}: {}", clazz.getSimpleName(),
-						id, modelObject);
-			} catch (final Exception e) {
-				log.warn("Could not retrieve {} with id {}: {}",
-						clazz.getSimpleName(), id, e.getMessage());
-			}
-
-			return modelObject;
+		final MongoCollection collection = db
+				.getCollection(clazz.getSimpleName());
+
+		ModelObjectSubclass modelObject = null;
+		val startingTime = System.nanoTime();
+		try {
+			modelObject = collection.findOne(id).as(clazz);
+			log.debug("Retrieved {} with id {}: {}", clazz.getSimpleName(),
+					id, modelObject);
+		} catch (final Exception e) {
+			log.warn("Could not retrieve {} with id {}: {}",
+					clazz.getSimpleName(), id, e.getMessage());
+		} finally {
+			recordDatabaseAccess(clazz, startingTime);
 		}
+
+		return modelObject;
 	}
 
 	/**
@@ -215,33 +244,35 @@ public abstract class ModelObject extends AbstractSerializableTable
 			return;
 		}
 
-		synchronized (db) {
-			final MongoCollection collection = db
-					.getCollection(modelObject.getClass().getSimpleName());
+		final MongoCollection collection = db
+				.getCollection(modelObject.getClass().getSimpleName());
 
-			try {
-				if (modelObject != null) {
-					log.debug(
-							"Perform additionnal deletion steps on class {}...",
-							modelObject.getClass().getSimpleName());
-					modelObject.performOnDelete();
-					log.debug("Additionnal deletion steps done on class {}",
-							modelObject.getClass().getSimpleName());
-				}
-			} catch (final Exception e) {
-				log.warn("Error at recursive deletion: {}", e.getMessage());
+		try {
+			if (modelObject != null) {
+				log.debug(
+						"Perform additionnal deletion steps on class {}...",
+						modelObject.getClass().getSimpleName());
+				modelObject.performOnDelete();
+				log.debug("Additionnal deletion steps done on class {}",
+						modelObject.getClass().getSimpleName());
 			}
+		} catch (final Exception e) {
+			log.warn("Error at recursive deletion: {}", e.getMessage());
+		}
 
-			try {
-				collection.remove(modelObject.getId());
-				log.debug("Removed {} with id {}",
-						modelObject.getClass().getSimpleName(),
-						modelObject.getId());
-			} catch (final Exception e) {
-				log.warn("Could not delete {} with id {}: {}",
-						modelObject.getClass().getSimpleName(),
-						modelObject.getId(), e.getMessage());
-			}
+		try {
+			val startingTime = System.nanoTime();
+			collection.remove(modelObject.getId());
+			recordDatabaseAccess(modelObject.getClass(), startingTime);
+			log.debug("Removed {} with id {}",
+					modelObject.getClass().getSimpleName(),
+					modelObject.getId());
+
+			modelObject.performAfterDelete();
+		} catch (final Exception e) {
+			log.warn("Could not delete {} with id {}: {}",
+					modelObject.getClass().getSimpleName(),
+					modelObject.getId(), e.getMessage());
 		}
 	}
 
@@ -256,31 +287,35 @@ public abstract class ModelObject extends AbstractSerializableTable
 	@JsonIgnore
 	protected static final void delete(final Class<? extends ModelObject> clazz,
 			final ObjectId id) {
-		synchronized (db) {
-			final MongoCollection collection = db
-					.getCollection(clazz.getSimpleName());
+		final MongoCollection collection = db
+				.getCollection(clazz.getSimpleName());
 
-			try {
-				final ModelObject modelObject = get(clazz, id);
-				if (modelObject != null) {
-					log.debug(
-							"Perform additionnal deletion steps on class {}...",
-							modelObject.getClass().getSimpleName());
-					modelObject.performOnDelete();
-					log.debug("Additionnal deletion steps done on class {}",
-							modelObject.getClass().getSimpleName());
-				}
-			} catch (final Exception e) {
-				log.warn("Error at recursive deletion: {}", e.getMessage());
+		final ModelObject modelObject = get(clazz, id);
+		try {
+			if (modelObject != null) {
+				log.debug(
+						"Perform additionnal deletion steps on class {}...",
+						modelObject.getClass().getSimpleName());
+				modelObject.performOnDelete();
+				log.debug("Additionnal deletion steps done on class {}",
+						modelObject.getClass().getSimpleName());
 			}
+		} catch (final Exception e) {
+			log.warn("Error at recursive deletion: {}", e.getMessage());
+		}
 
-			try {
-				collection.remove(id);
-				log.debug("Removed {} with id {}", clazz.getSimpleName(), id);
-			} catch (final Exception e) {
-				log.warn("Could not delete {} with id {}: {}",
-						clazz.getSimpleName(), id, e.getMessage());
+		try {
+			val startingTime = System.nanoTime();
+			collection.remove(id);
+			recordDatabaseAccess(clazz, startingTime);
+			log.debug("Removed {} with id {}", clazz.getSimpleName(), id);
+
+			if (modelObject != null) {
+				modelObject.performAfterDelete();
 			}
+		} catch (final Exception e) {
+			log.warn("Could not delete {} with id {}: {}",
+					clazz.getSimpleName(), id, e.getMessage());
 		}
 	}
 
@@ -298,6 +333,92 @@ public abstract class ModelObject extends AbstractSerializableTable
 		}
 	}
 
+	/**
+	 * Deletes all {@link ModelObject}s fitting to the given query directly in
+	 * the database
+	 *
+	 * Additional deletion steps of the {@link ModelObject}s are NOT performed.
+	 *
+	 * @param clazz
+	 *            The {@link ModelObject} subclass to delete
+	 * @param query
+	 *            The query to find the {@link ModelObject}s to delete
+	 * @param parameters
+	 *            The parameters to fill the query
+	 * @return The number of deleted {@link ModelObject}s
+	 */
+	@JsonIgnore
+	protected static final int deleteAll(
+			final Class<? extends ModelObject> clazz, final String query,
+			final Object... parameters) {
+		final MongoCollection collection = db
+				.getCollection(clazz.getSimpleName());
+
+		try {
+			val startingTime = System.nanoTime();
+			final int deleted = collection.remove(query, parameters).getN();
+			recordDatabaseAccess(clazz, startingTime);
+			log.debug("Removed {} {} with query {}", deleted,
+					clazz.getSimpleName(), query);
+
+			return deleted;
+		} catch (final Exception e) {
+			log.warn("Could not delete {} with query {}: {}",
+					clazz.getSimpleName(), query, e.getMessage());
+
+			return 0;
+		}
+	}
+
+	/**
+	 * Updates single fields of several {@link ModelObject}s in the database
+	 * using one bulk operation, without loading and saving the whole
+	 * {@link ModelObject}s
+	 *
+	 * Additional steps performed when saving a {@link ModelObject} are NOT
+	 * performed.
+	 *
+	 * @param clazz
+	 *            The {@link ModelObject} subclass to update
+	 * @param fieldValuesByIds
+	 *            The new values of the fields to set for each
+	 *            {@link ObjectId} of the {@link ModelObject}s
+	 */
+	@JsonIgnore
+	protected static final void updateFields(
+			final Class<? extends ModelObject> clazz,
+			final Map<ObjectId, Map<String, Object>> fieldValuesByIds) {
+		if (fieldValuesByIds.isEmpty()) {
+			return;
+		}
+
+		val collection = db.getDatabase()
+				.getCollection(clazz.getSimpleName());
+
+		val bulkWriteOperation = collection.initializeUnorderedBulkOperation();
+		for (val fieldValuesById : fieldValuesByIds.entrySet()) {
+			val fieldValues = new BasicDBObject();
+			for (val fieldValue : fieldValuesById.getValue().entrySet()) {
+				val value = fieldValue.getValue();
+				// Enums are stored by name
+				fieldValues.append(fieldValue.getKey(),
+						value instanceof Enum ? ((Enum<?>) value).name()
+								: value);
+			}
+
+			bulkWriteOperation
+					.find(new BasicDBObject("_id", fieldValuesById.getKey()))
+					.updateOne(new BasicDBObject("$set", fieldValues));
+		}
+
+		val startingTime = System.nanoTime();
+		bulkWriteOperation.execute();
+		recordDatabaseAccess(clazz, startingTime);
+
+		log.debug("Updated fields of {} {}", fieldValuesByIds.size(),
+				clazz.getSimpleName());
+	}
+
 	/**
 	 * Find and load a {@link ModelObject} from database
 	 *
@@ -314,30 +435,31 @@ public abstract class ModelObject extends AbstractSerializableTable
 	protected static final <ModelObjectSubclass extends ModelObject> ModelObjectSubclass findOne(
 			final Class<ModelObjectSubclass> clazz, final String query,
 			final Object... parameters) {
-		synchronized (db) {
-			final MongoCollection collection = db
-					.getCollection(clazz.getSimpleName());
-
-			ModelObjectSubclass modelObject = null;
-			try {
-				if (parameters != null && parameters.length > 0) {
-					modelObject = collection.findOne(query, parameters)
-							.as(clazz);
-				} else {
-					modelObject = collection.findOne(query).as(clazz);
-				}
-				log.debug(
-						"Retrieved {} with find one query {} and parameters {}: {}",
-						clazz.getSimpleName(), query, parameters, modelObject);
-			} catch (final Exception e) {
-				log.warn(
-						"Could not retrieve {} with find one query {} and parameters {}: {}",
-						clazz.getSimpleName(), query, parameters,
-						e.getMessage());
+		final MongoCollection collection = db
+				.getCollection(clazz.getSimpleName());
+
+		ModelObjectSubclass modelObject = null;
+		val startingTime = System.nanoTime();
+		try {
+			if (parameters != null && parameters.length > 0) {
+				modelObject = collection.findOne(query, parameters)
+						.as(clazz);
+			} else {
+				modelObject = collection.findOne(query).as(clazz);
 			}
-
-			return modelObject;
+			log.debug(
+					"Retrieved {} with find one query {} and parameters {}: {}",
+					clazz.getSimpleName(), query, parameters, modelObject);
+		} catch (final Exception e) {
+			log.warn(
+					"Could not retrieve {} with find one query {} and parameters {}: {}",
+					clazz.getSimpleName(), query, parameters,
+					e.getMessage());
+		} finally {
+			recordDatabaseAccess(clazz, startingTime);
 		}
+
+		return modelObject;
 	}
 
 	/**
@@ -358,39 +480,40 @@ public abstract class ModelObject extends AbstractSerializableTable
 	protected static final <ModelObjectSubclass extends ModelObject> ModelObjectSubclass findOneSorted(
 			final Class<ModelObjectSubclass> clazz, final String query,
 			final String sort, final Object... parameters) {
-		synchronized (db) {
-			final MongoCollection collection = db
-					.getCollection(clazz.getSimpleName());
+		final MongoCollection collection = db
+				.getCollection(clazz.getSimpleName());
 
-			ModelObjectSubclass modelObject = null;
+		ModelObjectSubclass modelObject = null;
+		val startingTime = System.nanoTime();
+		try {
 			try {
-				try {
-					if (parameters != null && parameters.length > 0) {
-						modelObject = collection.find(query, parameters)
-								.sort(sort).limit(1).as(clazz).iterator()
-								.next();
-					} else {
-						modelObject = collection.find(query).sort(sort).limit(1)
-								.as(clazz).iterator().next();
-					}
-				} catch (final NullPointerException f) {
-					modelObject = null;
-				} catch (final NoSuchElementException f) {
-					modelObject = null;
+				if (parameters != null && parameters.length > 0) {
+					modelObject = collection.find(query, parameters)
+							.sort(sort).limit(1).as(clazz).iterator()
+							.next();
+				} else {
+					modelObject = collection.find(query).sort(sort).limit(1)
+							.as(clazz).iterator().next();
 				}
-				log.debug(
-						"Retrieved {} with find one query {}, sort query {} and parameters {}: {}",
-						clazz.getSimpleName(), query, sort, parameters,
-						modelObject);
-			} catch (final Exception e) {
-				log.warn(
-						"Could not retrieve {} with find one query {}, sort query {} and parameters {}: {}",
-						clazz.getSimpleName(), query, sort, parameters,
-						e.getMessage());
+			} catch (final NullPointerException f) {
+				modelObject = null;
+			} catch (final NoSuchElementException f) {
+				modelObject = null;
 			}
-
-			return modelObject;
+			log.debug(
+					"Retrieved {} with find one query {}, sort query {} and parameters {}: {}",
+					clazz.getSimpleName(), query, sort, parameters,
+					modelObject);
+		} catch (final Exception e) {
+			log.warn(
+					"Could not retrieve {} with find one query {}, sort query {} and parameters {}: {}",
+					clazz.getSimpleName(), query, sort, parameters,
+					e.getMessage());
+		} finally {
+			recordDatabaseAccess(clazz, startingTime);
 		}
+
+		return modelObject;
 	}
 
 	/**
@@ -409,28 +532,28 @@ public abstract class ModelObject extends AbstractSerializableTable
 	protected static final <ModelObjectSubclass extends ModelObject> Iterable<ModelObjectSubclass> find(
 			final Class<ModelObjectSubclass> clazz, final String query,
 			final Object... parameters) {
-		synchronized (db) {
-			final MongoCollection collection = db
-					.getCollection(clazz.getSimpleName());
-
-			Iterable<ModelObjectSubclass> iteratable = null;
-			try {
-				if (parameters != null && parameters.length > 0) {
-					iteratable = collection.find(query, parameters).as(clazz);
-				} else {
-					iteratable = collection.find(query).as(clazz);
-				}
-				log.debug("Retrieved {} with find query {} and parameters {}",
-						clazz.getSimpleName(), query, parameters);
-			} catch (final Exception e) {
-				log.warn(
-						"Could not retrieve {} with find query {} and parameters {}: {}",
-						clazz.getSimpleName(), query, parameters,
-						e.getMessage());
+		final MongoCollection collection = db
+				.getCollection(clazz.getSimpleName());
+
+		Iterable<ModelObjectSubclass> iteratable = null;
+		try {
+			if (parameters != null && parameters.length > 0) {
+				iteratable = new TimedIterable<ModelObjectSubclass>(clazz,
+						collection.find(query, parameters).as(clazz));
+			} else {
+				iteratable = new TimedIterable<ModelObjectSubclass>(clazz,
+						collection.find(query).as(clazz));
 			}
-
-			return iteratable;
+			log.debug("Retrieved {} with find query {} and parameters {}",
+					clazz.getSimpleName(), query, parameters);
+		} catch (final Exception e) {
+			log.warn(
+					"Could not retrieve {} with find query {} and parameters {}: {}",
+					clazz.getSimpleName(), query, parameters,
+					e.getMessage());
 		}
+
+		return iteratable;
 	}
 
 	/**
@@ -449,31 +572,83 @@ public abstract class ModelObject extends AbstractSerializableTable
 	protected static final Iterable<ObjectId> findIds(
 			final Class<? extends ModelObject> clazz, final String query,
 			final Object... parameters) {
-		synchronized (db) {
-			final MongoCollection collection = db
-					.getCollection(clazz.getSimpleName());
+		final MongoCollection collection = db
+				.getCollection(clazz.getSimpleName());
+
+		Iterable<ObjectId> iteratable = null;
+		val startingTime = System.nanoTime();
+		try {
+			if (parameters != null && parameters.length > 0) {
+				iteratable = collection.distinct("_id")
+						.query(query, parameters).as(ObjectId.class);
+			} else {
+				iteratable = collection.distinct("_id").query(query)
+						.as(ObjectId.class);
+			}
+			log.debug(
+					"Retrieved id listing of {} with find query {} and parameters {}",
+					clazz.getSimpleName(), query, parameters);
+		} catch (final Exception e) {
+			log.warn(
+					"Could not retrieve id listing of {} with find query {} and parameters {}: {}",
+					clazz.getSimpleName(), query, parameters,
+					e.getMessage());
+		} finally {
+			recordDatabaseAccess(clazz, startingTime);
+		}
 
-			Iterable<ObjectId> iteratable = null;
-			try {
-				if (parameters != null && parameters.length > 0) {
-					iteratable = collection.distinct("_id")
-							.query(query, parameters).as(ObjectId.class);
-				} else {
-					iteratable = collection.distinct("_id").query(query)
-							.as(ObjectId.class);
-				}
-				log.debug(
-						"Retrieved id listing of {} with find query {} and parameters {}",
-						clazz.getSimpleName(), query, parameters);
-			} catch (final Exception e) {
-				log.warn(
-						"Could not retrieve id listing of {} with find query {} and parameters {}: {}",
-						clazz.getSimpleName(), query, parameters,
-						e.getMessage());
+		return iteratable;
+	}
+
+	/**
+	 * Find {@link ObjectId}s in database and stream them using a cursor, so
+	 * only the {@link ObjectId}s of the current cursor batch are held in
+	 * memory
+	 *
+	 * Caution: The returned {@link MongoCursor} has to be closed after usage
+	 *
+	 * @param clazz
+	 *            The {@link ModelObject} subclass to retrieve
+	 * @param query
+	 *            The query to find the appropriate {@link ModelObject}s
+	 * @param parameters
+	 *            The parameters to fill the query
+	 * @return The retrieved {@link ObjectId}s as {@link MongoCursor} or
+	 *         <code>null</code> if the query failed
+	 */
+	@JsonIgnore
+	protected static final MongoCursor<ObjectId> findIdsStreamed(
+			final Class<? extends ModelObject> clazz, final String query,
+			final Object... parameters) {
+		final MongoCollection collection = db
+				.getCollection(clazz.getSimpleName());
+
+		MongoCursor<ObjectId> cursor = null;
+		try {
+			final Find find;
+			if (parameters != null && parameters.length > 0) {
+				find = collection.find(query, parameters);
+			} else {
+				find = collection.find(query);
 			}
 
-			return iteratable;
+			cursor = find.projection("{_id:1}")
+					.with(dbCursor -> dbCursor
+							.addOption(Bytes.QUERYOPTION_NOTIMEOUT)
+							.batchSize(
+									ImplementationConstants.DATABASE_ID_STREAMING_BATCH_SIZE))
+					.map(result -> (ObjectId) result.get("_id"));
+			log.debug(
+					"Retrieved id cursor of {} with find query {} and parameters {}",
+					clazz.getSimpleName(), query, parameters);
+		} catch (final Exception e) {
+			log.warn(
+					"Could not retrieve id cursor of {} with find query {} and parameters {}: {}",
+					clazz.getSimpleName(), query, parameters,
+					e.getMessage());
 		}
+
+		return cursor;
 	}
 
 	/**
@@ -494,29 +669,150 @@ public abstract class ModelObject extends AbstractSerializableTable
 	protected static final <ModelObjectSubclass extends ModelObject> Iterable<ModelObjectSubclass> findSorted(
 			final Class<ModelObjectSubclass> clazz, final String query,
 			final String sort, final Object... parameters) {
-		synchronized (db) {
-			final MongoCollection collection = db
-					.getCollection(clazz.getSimpleName());
+		final MongoCollection collection = db
+				.getCollection(clazz.getSimpleName());
+
+		Iterable<ModelObjectSubclass> iteratable = null;
+		try {
+			if (parameters != null && parameters.length > 0) {
+				iteratable = new TimedIterable<ModelObjectSubclass>(clazz,
+						collection.find(query, parameters).sort(sort)
+								.as(clazz));
+			} else {
+				iteratable = new TimedIterable<ModelObjectSubclass>(clazz,
+						collection.find(query).sort(sort).as(clazz));
+			}
+			log.debug(
+					"Retrieved {} with find query {}, sort query {} and parameters {}",
+					clazz.getSimpleName(), query, sort, parameters);
+		} catch (final Exception e) {
+			log.warn(
+					"Could not retrieve {} with find query {}, sort query {} and parameters {}: {}",
+					clazz.getSimpleName(), query, sort, parameters,
+					e.getMessage());
+		}
 
-			Iterable<ModelObjectSubclass> iteratable = null;
-			try {
-				if (parameters != null && parameters.length > 0) {
-					iteratable = collection.find(query, parameters).sort(sort)
-							.as(clazz);
+		return iteratable;
+	}
+
+	/**
+	 * Aggregates {@link ModelObject}s in the database, so that only the
+	 * aggregated results have to be loaded
+	 *
+	 * @param clazz
+	 *            The {@link ModelObject} subclass to aggregate
+	 * @param resultClass
+	 *            The class of the aggregated results
+	 * @param pipeline
+	 *            The stages of the aggregation pipeline
+	 * @param parameters
+	 *            The parameters to fill the stages (in the order of their
+	 *            appearance)
+	 * @return The aggregated results as {@link Iterable} (which contains no
+	 *         items if none has been aggregated)
+	 */
+	@JsonIgnore
+	protected static final <ResultClass> Iterable<ResultClass> aggregate(
+			final Class<? extends ModelObject> clazz,
+			final Class<ResultClass> resultClass, final String[] pipeline,
+			final Object... parameters) {
+		final MongoCollection collection = db
+				.getCollection(clazz.getSimpleName());
+
+		Iterable<ResultClass> iteratable = null;
+		val startingTime = System.nanoTime();
+		try {
+			Aggregate aggregate = null;
+			int parameterIndex = 0;
+			for (val stage : pipeline) {
+				val stageParameters = Arrays.copyOfRange(
+						parameters == null ? new Object[0] : parameters,
+						parameterIndex, parameterIndex
+								+ StringUtils.countMatches(stage, "#"));
+				parameterIndex += stageParameters.length;
+
+				if (aggregate == null) {
+					aggregate = collection.aggregate(stage, stageParameters);
 				} else {
-					iteratable = collection.find(query).sort(sort).as(clazz);
+					aggregate = aggregate.and(stage, stageParameters);
 				}
-				log.debug(
-						"Retrieved {} with find query {}, sort query {} and parameters {}",
-						clazz.getSimpleName(), query, sort, parameters);
-			} catch (final Exception e) {
-				log.warn(
-						"Could not retrieve {} with find query {}, sort query {} and parameters {}: {}",
-						clazz.getSimpleName(), query, sort, parameters,
-						e.getMessage());
 			}
 
-			return iteratable;
+			iteratable = aggregate.options(AggregationOptions.builder()
+					.allowDiskUse(true).outputMode(OutputMode.CURSOR).build())
+					.as(resultClass);
+			log.debug("Aggregated {} with pipeline {} and parameters {}",
+					clazz.getSimpleName(), pipeline, parameters);
+		} catch (final Exception e) {
+			log.warn(
+					"Could not aggregate {} with pipeline {} and parameters {}: {}",
+					clazz.getSimpleName(), pipeline, parameters,
+					e.getMessage());
+		} finally {
+			recordDatabaseAccess(clazz, startingTime);
+		}
+
+		return iteratable;
+	}
+
+	/**
+	 * Reports the time required for a database access on the collection of
+	 * the given {@link ModelObject} subclass
+	 *
+	 * @param clazz
+	 * @param startingTime
+	 *            The {@link System#nanoTime()} at the start of the access
+	 */
+	private static void recordDatabaseAccess(
+			final Class<? extends ModelObject> clazz, final long startingTime) {
+		systemLoad.addDatabaseAccessTime(clazz.getSimpleName(),
+				System.nanoTime() - startingTime);
+	}
+
+	/**
+	 * Reports the time required to execute a find query, which happens when
+	 * the first result is requested
+	 */
+	private static class TimedIterable<T> implements Iterable<T> {
+		private final Class<? extends ModelObject>	clazz;
+		private final Iterable<T>					iterable;
+
+		private TimedIterable(final Class<? extends ModelObject> clazz,
+				final Iterable<T> iterable) {
+			this.clazz = clazz;
+			this.iterable = iterable;
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			val iterator = iterable.iterator();
+
+			return new Iterator<T>() {
+				private boolean queryExecuted = false;
+
+				@Override
+				public boolean hasNext() {
+					if (queryExecuted) {
+						return iterator.hasNext();
+					}
+
+					val startingTime = System.nanoTime();
+					try {
+						return iterator.hasNext();
+					} finally {
+						queryExecuted = true;
+						recordDatabaseAccess(clazz, startingTime);
+					}
+				}
+
+				@Override
+				public T next() {
+					if (!queryExecuted) {
+						hasNext();
+					}
+					return iterator.next();
+				}
+			};
 		}
 	}
 }
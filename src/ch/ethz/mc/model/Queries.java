@@ -10,6 +10,7 @@ package ch.ethz.mc.model;
 public class Queries {
 	public static final String	ALL																																																				= "{}";
 	public static final String	OBJECT_ID																																																		= "{'_id':#}";
+	public static final String	OBJECT_IDS																																																		= "{'_id':{$in:#}}";
 
 	public static final String	INTERVENTION__ACTIVE_TRUE																																														= "{'active':true}";
 	public static final String	INTERVENTION__ACTIVE_TRUE_AND_AUTOMATICALLY_FINISH_SCREENING_SURVEYS_TRUE																																		= "{'active':true,'automaticallyFinishScreeningSurveys':true}";
@@ -112,6 +113,7 @@ public class Queries {
 	public static final String	SCREENING_SURVEY_SLIDE_RULE__BY_SCREENING_SURVEY_SLIDE_AND_NEXT_SCREENING_SURVEY_SLIDE_WHEN_FALSE																												= "{'belongingScreeningSurveySlide':#,'nextScreeningSurveySlideWhenFalse':#}";
 
 	public static final String	INTERMEDIATE_SURVEY_AND_FEEDBACK_PARTICIPANT_SHORT_URL__BY_PARTICIPANT																																			= "{'participant':#}";
+	public static final String	INTERMEDIATE_SURVEY_AND_FEEDBACK_PARTICIPANT_SHORT_URL__BY_PARTICIPANTS																																			= "{'participant':{$in:#}}";
 	public static final String	INTERMEDIATE_SURVEY_AND_FEEDBACK_PARTICIPANT_SHORT_URL__BY_SURVEY																																				= "{'survey':#}";
 	public static final String	INTERMEDIATE_SURVEY_AND_FEEDBACK_PARTICIPANT_SHORT_URL__BY_FEEDBACK																																				= "{'feedback':#}";
 	public static final String	INTERMEDIATE_SURVEY_AND_FEEDBACK_PARTICIPANT_SHORT_URL__BY_PARTICIPANT_AND_SURVEY																																= "{'participant':#,'survey':#}";
@@ -163,34 +165,44 @@ public class Queries {
 	public static final String	MEDIA_OBJECT_PARTICIPANT_SHORT_URL__BY_SHORT_ID																																									= "{'shortId':#}";
 	public static final String	MEDIA_OBJECT_PARTICIPANT_SHORT_URL__BY_MEDIA_OBJECT																																								= "{'mediaObject':#}";
 	public static final String	MEDIA_OBJECT_PARTICIPANT_SHORT_URL__BY_DIALOG_MESSAGE																																							= "{'dialogMessage':#}";
+	public static final String	MEDIA_OBJECT_PARTICIPANT_SHORT_URL__BY_DIALOG_MESSAGES																																							= "{'dialogMessage':{$in:#}}";
 	public static final String	MEDIA_OBJECT_PARTICIPANT_SHORT_URL__BY_DIALOG_MESSAGE_AND_MEDIA_OBJECT																																			= "{'dialogMessage':#,'mediaObject':#}";
 	public static final String	MEDIA_OBJECT_PARTICIPANT_SHORT_URL__SORT_BY_SHORT_ID_DESC																																						= "{'shortId':-1}";
 
 	public static final String	PARTICIPANT__BY_INTERVENTION																																													= "{'intervention':#}";
 	public static final String	PARTICIPANT__BY_INTERVENTION_AND_GROUP_AND_MONITORING_ACTIVE_TRUE																																				= "{'intervention':#,'group':#,'monitoringActive':true}";
 	public static final String	PARTICIPANT__BY_INTERVENTION_AND_MONITORING_ACTIVE_TRUE																																							= "{'intervention':#,'monitoringActive':true}";
+	public static final String	PARTICIPANT__BY_SCHEDULED_FOR_DELETION_TRUE																																										= "{'scheduledForDeletion':true}";
 	public static final String	PARTICIPANT__WHERE_LAST_LOGIN_TIME_IS_BIGGER_THAN_LAST_LOGOUT_TIME																																				= "{$where:'this.lastLoginTimestamp > this.lastLogoutTimestamp'}";
 
 	public static final String	DIALOG_OPTION__BY_PARTICIPANT																																													= "{'participant':#}";
+	public static final String	DIALOG_OPTION__BY_PARTICIPANTS																																													= "{'participant':{$in:#}}";
+	public static final String	DIALOG_OPTION__BY_PARTICIPANTS_AND_TYPES																																										= "{'participant':{$in:#},'type':{$in:#}}";
 	public static final String	DIALOG_OPTION__FOR_PARTICIPANT_BY_PARTICIPANT																																									= "{'participant':#,$or:[{'type':'SMS'},{'type':'EMAIL'},{'type':'EXTERNAL_ID'}]}";
 	public static final String	DIALOG_OPTION__FOR_SUPERVISOR_BY_PARTICIPANT																																									= "{'participant':#,$or:[{'type':'SUPERVISOR_SMS'},{'type':'SUPERVISOR_EMAIL'},{'type':'SUPERVISOR_EXTERNAL_ID'}]}";
 	public static final String	DIALOG_OPTION__BY_PARTICIPANT_AND_TYPE																																											= "{'participant':#,'type':#}";
 	public static final String	DIALOG_OPTION__BY_TYPE_AND_DATA																																													= "{'type':#,'data':#}";
 
 	public static final String	DIALOG_STATUS__BY_PARTICIPANT																																													= "{'participant':#}";
+	public static final String	DIALOG_STATUS__BY_PARTICIPANTS																																													= "{'participant':{$in:#}}";
 	public static final String	DIALOG_STATUS__BY_PARTICIPANT_AND_LAST_VISITED_SCREENING_SURVEY_SLIDE_TIMESTAMP_LOWER_AND_DATA_FOR_MONITORING_PARTICIPATION_AVAILABLE_TRUE_AND_SCREENING_SURVEY_PERFORMED_FALSE_AND_MONITORING_PERFORMED_FALSE	= "{'participant':#,'lastVisitedScreeningSurveySlideTimestamp':{$lt:#},'dataForMonitoringParticipationAvailable':true,'screeningSurveyPerformed':false,'monitoringPerformed':false}";
 
 	public static final String	PARTICIPANT_VARIABLE_WITH_VALUE__BY_PARTICIPANT																																									= "{'participant':#}";
+	public static final String	PARTICIPANT_VARIABLE_WITH_VALUE__BY_PARTICIPANTS																																								= "{'participant':{$in:#}}";
+	public static final String	PARTICIPANT_VARIABLE_WITH_VALUE__BY_PARTICIPANTS_AND_DESCRIBES_MEDIA_UPLOAD																																		= "{'participant':{$in:#},'describesMediaUpload':true}";
 	public static final String	PARTICIPANT_VARIABLE_WITH_VALUE__BY_PARTICIPANT_AND_NAME																																						= "{'participant':#,'name':#}";
 	public static final String	PARTICIPANT_VARIABLE_WITH_VALUE__BY_DESCRIBES_MEDIA_UPLOAD_OR_FORMER_VALUE_DESCRIBES_MEDIA_UPLOAD																												= "{$or:[{'describesMediaUpload':#},{'formerVariableValues':{$elemMatch:{'describesMediaUpload':#}}}]}";
 	public static final String	PARTICIPANT_VARIABLE_WITH_VALUE__BY_PARTICIPANT_AND_DESCRIBES_MEDIA_UPLOAD_OR_FORMER_VALUE_DESCRIBES_MEDIA_UPLOAD																								= "{'participant':#, $or:[{'describesMediaUpload':#},{'formerVariableValues':{$elemMatch:{'describesMediaUpload':#}}}]}";
 
 	public static final String	DASHBOARD_MESSAGE__BY_PARTICIPANT																																												= "{'participant':#}";
+	public static final String	DASHBOARD_MESSAGE__BY_PARTICIPANTS																																												= "{'participant':{$in:#}}";
 	public static final String	DASHBOARD_MESSAGE__SORT_BY_ORDER_ASC																																											= "{'order':1}";
 	public static final String	DASHBOARD_MESSAGE__SORT_BY_ORDER_DESC																																											= "{'order':-1}";
 
 	public static final String	DIALOG_MESSAGE__BY_PARTICIPANT																																													= "{'participant':#}";
+	public static final String	DIALOG_MESSAGE__BY_PARTICIPANTS																																													= "{'participant':{$in:#}}";
 	public static final String	DIALOG_MESSAGE__BY_PARTICIPANT_AND_MESSAGE_TYPE																																									= "{'participant':#,'supervisorMessage':#}";
+	public static final String	DIALOG_MESSAGE__BY_PARTICIPANT_AND_MESSAGE_TYPE_AND_TYPE_OR_RELATED_MICRO_DIALOG_MESSAGE																														= "{'participant':#,'supervisorMessage':#,$or:[{'type':#},{'messageExpectsAnswer':true,'relatedMicroDialogMessage':{$ne:null}}]}";
 	public static final String	DIALOG_MESSAGE__BY_PARTICIPANT_AND_ORDER																																										= "{'participant':#,'order':#}";
 	public static final String	DIALOG_MESSAGE__BY_RELATED_MONITORING_MESSAGE_AND_SENT_AFTER_TIMESTAMP																																			= "{'relatedMonitoringMessage':#,'sentTimestamp':{$gt:#}}";
 	public static final String	DIALOG_MESSAGE__BY_PARTICIPANT_AND_STATUS																																										= "{'participant':#,'status':#}";
@@ -200,6 +212,7 @@ public class Queries {
 	public static final String	DIALOG_MESSAGE__BY_PARTICIPANT_AND_RELATED_MONITORING_MESSAGE																																					= "{'participant':#,'relatedMonitoringMessage':#}";
 	public static final String	DIALOG_MESSAGE__BY_PARTICIPANT_AND_RELATED_MICRO_DIALOG																																							= "{'participant':#,'relatedMicroDialogForActivation':#}";
 	public static final String	DIALOG_MESSAGE__BY_PARTICIPANT_AND_CLIENT_ID																																									= "{'participant':#,'clientId':#}";
+	public static final String	DIALOG_MESSAGE__BY_PARTICIPANT_AND_CLIENT_ID_NOT_NULL																																							= "{'participant':#,'clientId':{$ne:null}}";
 	public static final String	DIALOG_MESSAGE__BY_STATUS																																														= "{'status':#}";
 	public static final String	DIALOG_MESSAGE__SORT_BY_ORDER_ASC																																												= "{'order':1}";
 	public static final String	DIALOG_MESSAGE__SORT_BY_ORDER_DESC																																												= "{'order':-1}";
@@ -0,0 +1,167 @@
+package ch.ethz.mc.model.memory;
+
+/* ##LICENSE## */
+import java.util.HashMap;
+
+import ch.ethz.mc.model.persistent.DialogMessage;
+import ch.ethz.mc.model.persistent.Intervention;
+import ch.ethz.mc.model.persistent.Participant;
+import ch.ethz.mc.model.persistent.types.DialogMessageStatusTypes;
+import ch.ethz.mc.model.persistent.types.DialogMessageTypes;
+import lombok.Getter;
+import lombok.val;
+
+/**
+ * Statistics of the micro dialogs based on the {@link DialogMessage}s of one
+ * {@link Participant} or merged of all {@link Participant}s of an
+ * {@link Intervention}; in contrast to the {@link InterventionStatistics} they
+ * depend on the order of the {@link DialogMessage}s and can therefore not be
+ * aggregated in the database
+ *
+ * @author Andreas Filler
+ */
+public class DialogMessageStatistics {
+	/**
+	 * Modification sequence of the {@link DialogMessageStatisticsStore} at the
+	 * beginning of the calculation
+	 */
+	@Getter
+	private final long							calculationSequence;
+
+	@Getter
+	private final HashMap<String, Integer>		microDialogsWithRate;
+	/**
+	 * Amount of transitions between two micro dialogs with the key
+	 * "former-next"
+	 */
+	@Getter
+	private final HashMap<String, Integer>		microDialogTransitions;
+	/**
+	 * Amount of answered, unanswered, deactivated and finally open or
+	 * unanswered messages per micro dialog message
+	 */
+	@Getter
+	private final HashMap<String, Integer[]>	microDialogMessagesWithRates;
+
+	// Only required while the dialog messages of one participant are added
+	private String								formerMicroDialogId;
+	private String								lastOpenOrUnansweredMicroDialogMessageId;
+
+	public DialogMessageStatistics(final long calculationSequence) {
+		this.calculationSequence = calculationSequence;
+
+		microDialogsWithRate = new HashMap<String, Integer>();
+		microDialogTransitions = new HashMap<String, Integer>();
+		microDialogMessagesWithRates = new HashMap<String, Integer[]>();
+	}
+
+	/**
+	 * Adds a {@link DialogMessage} of the {@link Participant}; the
+	 * {@link DialogMessage}s have to be added in their order
+	 *
+	 * @param dialogMessage
+	 */
+	public void add(final DialogMessage dialogMessage) {
+		if (dialogMessage
+				.getStatus() == DialogMessageStatusTypes.SENT_BUT_NOT_WAITING_FOR_ANSWER
+				&& dialogMessage
+						.getType() == DialogMessageTypes.MICRO_DIALOG_ACTIVATION) {
+			val microDialogId = dialogMessage
+					.getRelatedMicroDialogForActivation().toHexString();
+			microDialogsWithRate.put(microDialogId,
+					microDialogsWithRate.getOrDefault(microDialogId, 0) + 1);
+
+			if (formerMicroDialogId != null) {
+				val transition = formerMicroDialogId + "-" + microDialogId;
+				microDialogTransitions.put(transition,
+						microDialogTransitions.getOrDefault(transition, 0) + 1);
+			}
+			formerMicroDialogId = microDialogId;
+		}
+
+		if (dialogMessage.isMessageExpectsAnswer()
+				&& dialogMessage.getRelatedMicroDialogMessage() != null) {
+			val microDialogMessageId = dialogMessage
+					.getRelatedMicroDialogMessage().toHexString();
+
+			val values = microDialogMessagesWithRates.getOrDefault(
+					microDialogMessageId, new Integer[] { 0, 0, 0, 0 });
+
+			switch (dialogMessage.getStatus()) {
+				case SENT_AND_WAITING_FOR_ANSWER:
+					lastOpenOrUnansweredMicroDialogMessageId = microDialogMessageId;
+					break;
+				case SENT_AND_ANSWERED_BY_PARTICIPANT:
+				case SENT_AND_ANSWERED_AND_PROCESSED:
+					values[0]++;
+					break;
+				case SENT_AND_NOT_ANSWERED_AND_PROCESSED:
+					lastOpenOrUnansweredMicroDialogMessageId = microDialogMessageId;
+					values[1]++;
+					break;
+				case SENT_AND_WAITED_FOR_ANSWER_BUT_DEACTIVATED:
+					lastOpenOrUnansweredMicroDialogMessageId = microDialogMessageId;
+					values[2]++;
+					break;
+				default:
+					break;
+			}
+
+			microDialogMessagesWithRates.put(microDialogMessageId, values);
+		}
+	}
+
+	/**
+	 * Completes the statistics after all {@link DialogMessage}s of the
+	 * {@link Participant} have been added
+	 */
+	public void complete() {
+		if (lastOpenOrUnansweredMicroDialogMessageId != null) {
+			val values = microDialogMessagesWithRates.getOrDefault(
+					lastOpenOrUnansweredMicroDialogMessageId,
+					new Integer[] { 0, 0, 0, 0 });
+
+			values[3]++;
+
+			microDialogMessagesWithRates
+					.put(lastOpenOrUnansweredMicroDialogMessageId, values);
+		}
+
+		formerMicroDialogId = null;
+		lastOpenOrUnansweredMicroDialogMessageId = null;
+	}
+
+	/**
+	 * Adds the values of the given (completed) statistics to these statistics
+	 *
+	 * @param other
+	 */
+	public void merge(final DialogMessageStatistics other) {
+		for (val microDialogWithRate : other.microDialogsWithRate
+				.entrySet()) {
+			microDialogsWithRate.put(microDialogWithRate.getKey(),
+					microDialogsWithRate.getOrDefault(
+							microDialogWithRate.getKey(), 0)
+							+ microDialogWithRate.getValue());
+		}
+		for (val microDialogTransition : other.microDialogTransitions
+				.entrySet()) {
+			microDialogTransitions.put(microDialogTransition.getKey(),
+					microDialogTransitions.getOrDefault(
+							microDialogTransition.getKey(), 0)
+							+ microDialogTransition.getValue());
+		}
+		for (val microDialogMessageWithRates : other.microDialogMessagesWithRates
+				.entrySet()) {
+			// Never share the arrays of the other statistics
+			val values = microDialogMessagesWithRates.getOrDefault(
+					microDialogMessageWithRates.getKey(),
+					new Integer[] { 0, 0, 0, 0 });
+			for (int i = 0; i < values.length; i++) {
+				values[i] += microDialogMessageWithRates.getValue()[i];
+			}
+			microDialogMessagesWithRates
+					.put(microDialogMessageWithRates.getKey(), values);
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package ch.ethz.mc.model.memory;
+
+/* ##LICENSE## */
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.types.ObjectId;
+
+import ch.ethz.mc.conf.Constants;
+import ch.ethz.mc.model.persistent.DialogMessage;
+import ch.ethz.mc.model.persistent.Participant;
+import ch.ethz.mc.tools.BoundedCache;
+import lombok.Synchronized;
+import lombok.val;
+
+/**
+ * Keeps the {@link DialogMessageStatistics} of each {@link Participant}
+ * between the statistics creations
+ *
+ * The store is informed whenever {@link DialogMessage}s of a
+ * {@link Participant} get modified, so that only the statistics of
+ * {@link Participant}s with modified {@link DialogMessage}s have to be
+ * calculated again. Statistics calculated while a modification happened are
+ * outdated as well.
+ *
+ * @author Andreas Filler
+ */
+public class DialogMessageStatisticsStore {
+	private static DialogMessageStatisticsStore						instance	= null;
+
+	private final AtomicLong										modificationSequence;
+
+	/**
+	 * Modification sequence of the last modification per {@link Participant}
+	 */
+	private final ConcurrentHashMap<ObjectId, Long>					lastModifications;
+
+	private final BoundedCache<ObjectId, DialogMessageStatistics>	participantStatistics;
+
+	@Synchronized
+	public static DialogMessageStatisticsStore getInstance() {
+		if (instance == null) {
+			instance = new DialogMessageStatisticsStore();
+		}
+
+		return instance;
+	}
+
+	private DialogMessageStatisticsStore() {
+		modificationSequence = new AtomicLong();
+		lastModifications = new ConcurrentHashMap<ObjectId, Long>();
+
+		participantStatistics = new BoundedCache<ObjectId, DialogMessageStatistics>(
+				"Dialog message statistics",
+				Constants.getParticipantsCacheMaximumSize(), -1);
+		SystemLoad.getInstance().registerCache(participantStatistics);
+	}
+
+	/**
+	 * Marks the statistics of the given {@link Participant} as outdated; has
+	 * to be called after the {@link DialogMessage}s have been written
+	 *
+	 * @param participantId
+	 */
+	public void dialogMessagesModified(final ObjectId participantId) {
+		lastModifications.put(participantId,
+				modificationSequence.incrementAndGet());
+	}
+
+	/**
+	 * Returns the current modification sequence, which has to be given to
+	 * {@link DialogMessageStatistics} before their calculation starts
+	 *
+	 * @return
+	 */
+	public long getModificationSequence() {
+		return modificationSequence.get();
+	}
+
+	/**
+	 * Returns the statistics of the given {@link Participant} if they are
+	 * still up to date
+	 *
+	 * @param participantId
+	 * @return The statistics or <code>null</code> if they have to be
+	 *         calculated
+	 */
+	public DialogMessageStatistics get(final ObjectId participantId) {
+		val statistics = participantStatistics.get(participantId);
+
+		if (statistics == null || statistics
+				.getCalculationSequence() < lastModifications
+						.getOrDefault(participantId, 0L)) {
+			return null;
+		}
+
+		return statistics;
+	}
+
+	/**
+	 * Stores the calculated statistics of the given {@link Participant}
+	 *
+	 * @param participantId
+	 * @param statistics
+	 */
+	public void put(final ObjectId participantId,
+			final DialogMessageStatistics statistics) {
+		participantStatistics.put(participantId, statistics);
+
+		// Forget modifications already covered by the statistics
+		val lastModification = lastModifications.get(participantId);
+		if (lastModification != null
+				&& lastModification <= statistics.getCalculationSequence()) {
+			lastModifications.remove(participantId, lastModification);
+		}
+	}
+}
@@ -0,0 +1,229 @@
+package ch.ethz.mc.model.memory;
+
+/* ##LICENSE## */
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Locale;
+
+import ch.ethz.mc.model.persistent.DialogMessage;
+import ch.ethz.mc.model.persistent.Intervention;
+import ch.ethz.mc.model.persistent.Participant;
+import ch.ethz.mc.model.persistent.types.DialogMessageStatusTypes;
+import ch.ethz.mc.model.persistent.types.DialogMessageTypes;
+import lombok.Getter;
+import lombok.val;
+
+/**
+ * Statistics of the {@link Participant}s and {@link DialogMessage}s of an
+ * {@link Intervention} created from aggregated values
+ *
+ * @author Andreas Filler
+ */
+public class InterventionStatistics {
+	@Getter
+	private int								validParticipants			= 0;
+	@Getter
+	private int								invalidParticipants			= 0;
+	@Getter
+	private long							secondsUsageTotal			= 0;
+
+	@Getter
+	private int								totalSentMessages			= 0;
+	@Getter
+	private int								totalSentCommands			= 0;
+	@Getter
+	private int								totalReceivedMessages		= 0;
+	@Getter
+	private int								totalReceivedIntentions		= 0;
+	@Getter
+	private int								totalDeactivatedMessages	= 0;
+	@Getter
+	private int								answeredQuestions			= 0;
+	@Getter
+	private int								unansweredQuestions			= 0;
+	@Getter
+	private int								mediaObjectsViewed			= 0;
+	@Getter
+	private int								totalActivatedMicroDialogs	= 0;
+
+	@Getter
+	private final HashMap<String, Integer>	languages;
+	@Getter
+	private final HashMap<String, Integer>	platforms;
+	@Getter
+	private final long[][]					participantCreationDistribution;
+	@Getter
+	private final long[][]					participantActivityDistribution;
+
+	private final Calendar					calendar;
+
+	public InterventionStatistics() {
+		languages = new HashMap<String, Integer>();
+		platforms = new HashMap<String, Integer>();
+		participantCreationDistribution = new long[7][24];
+		participantActivityDistribution = new long[7][24];
+
+		calendar = Calendar.getInstance();
+	}
+
+	/**
+	 * Returns the average usage of the valid {@link Participant}s
+	 *
+	 * @return
+	 */
+	public long getSecondsUsageAverage() {
+		if (validParticipants > 0) {
+			return secondsUsageTotal / validParticipants;
+		} else {
+			return 0;
+		}
+	}
+
+	/**
+	 * Adds {@link Participant}s with the same validity and language created
+	 * within the same time slot
+	 *
+	 * @param valid
+	 * @param language
+	 * @param createdTimeSlotTimestamp
+	 *            Any timestamp within the time slot of the creation (as the
+	 *            time slots are aligned to quarter hours they belong to exactly
+	 *            one hour of the day)
+	 * @param participants
+	 * @param secondsUsage
+	 *            The summed up usage of the {@link Participant}s
+	 */
+	public void addParticipants(final boolean valid, final Locale language,
+			final long createdTimeSlotTimestamp, final int participants,
+			final long secondsUsage) {
+		if (!valid) {
+			invalidParticipants += participants;
+			return;
+		}
+
+		validParticipants += participants;
+		secondsUsageTotal += secondsUsage;
+		languages.put(language.getDisplayLanguage(),
+				languages.getOrDefault(language.getDisplayLanguage(), 0)
+						+ participants);
+		addToDistribution(participantCreationDistribution,
+				createdTimeSlotTimestamp, participants);
+	}
+
+	/**
+	 * Adds {@link DialogMessage}s with the same status and type
+	 *
+	 * @param status
+	 * @param type
+	 * @param dialogMessages
+	 *            The amount of {@link DialogMessage}s
+	 * @param messages
+	 *            The amount of messages shown to the {@link Participant}s for
+	 *            the {@link DialogMessage}s
+	 * @param mediaObjectsViewed
+	 *            The amount of {@link DialogMessage}s with viewed media
+	 *            content
+	 */
+	public void addDialogMessages(final DialogMessageStatusTypes status,
+			final DialogMessageTypes type, final int dialogMessages,
+			final int messages, final int mediaObjectsViewed) {
+		switch (status) {
+			case IN_CREATION:
+				break;
+			case PREPARED_FOR_SENDING:
+				break;
+			case RECEIVED_UNEXPECTEDLY:
+				totalReceivedMessages += dialogMessages;
+				break;
+			case RECEIVED_AS_INTENTION:
+				totalReceivedIntentions += dialogMessages;
+				break;
+			case SENDING:
+				break;
+			case SENT_AND_ANSWERED_AND_PROCESSED:
+				totalSentMessages += messages;
+				totalReceivedMessages += dialogMessages;
+				answeredQuestions += dialogMessages;
+				break;
+			case SENT_AND_ANSWERED_BY_PARTICIPANT:
+				totalSentMessages += messages;
+				totalReceivedMessages += dialogMessages;
+				answeredQuestions += dialogMessages;
+				break;
+			case SENT_AND_NOT_ANSWERED_AND_PROCESSED:
+				totalSentMessages += messages;
+				unansweredQuestions += dialogMessages;
+				break;
+			case SENT_AND_WAITING_FOR_ANSWER:
+				totalSentMessages += messages;
+				break;
+			case SENT_BUT_NOT_WAITING_FOR_ANSWER:
+				if (type == null) {
+					break;
+				}
+				switch (type) {
+					case COMMAND:
+						totalSentCommands += dialogMessages;
+						break;
+					case PLAIN:
+						totalSentMessages += messages;
+						break;
+					case MICRO_DIALOG_ACTIVATION:
+						totalActivatedMicroDialogs += dialogMessages;
+						break;
+					default:
+						break;
+				}
+				break;
+			case SENT_AND_WAITED_FOR_ANSWER_BUT_DEACTIVATED:
+				totalSentMessages += messages;
+				unansweredQuestions += dialogMessages;
+				totalDeactivatedMessages += dialogMessages;
+				break;
+		}
+
+		this.mediaObjectsViewed += mediaObjectsViewed;
+	}
+
+	/**
+	 * Adds {@link DialogMessage}s answered by the {@link Participant}s within
+	 * the same time slot
+	 *
+	 * @param answerReceivedTimeSlotTimestamp
+	 *            Any timestamp within the time slot of the answer
+	 * @param dialogMessages
+	 */
+	public void addAnsweredDialogMessages(
+			final long answerReceivedTimeSlotTimestamp,
+			final int dialogMessages) {
+		addToDistribution(participantActivityDistribution,
+				answerReceivedTimeSlotTimestamp, dialogMessages);
+	}
+
+	/**
+	 * Adds intentions with the same platform answer
+	 *
+	 * @param answerReceived
+	 *            The answer of the intention ("platform\n" followed by the
+	 *            platform)
+	 * @param dialogMessages
+	 */
+	public void addPlatformIntentions(final String answerReceived,
+			final int dialogMessages) {
+		val answerParts = answerReceived.split("\n");
+		if (answerParts.length < 2) {
+			return;
+		}
+
+		platforms.put(answerParts[1],
+				platforms.getOrDefault(answerParts[1], 0) + dialogMessages);
+	}
+
+	private void addToDistribution(final long[][] distribution,
+			final long timestamp, final int amount) {
+		calendar.setTimeInMillis(timestamp);
+		distribution[calendar.get(Calendar.DAY_OF_WEEK) == 1 ? 6
+				: calendar.get(Calendar.DAY_OF_WEEK) - 2][calendar
+						.get(Calendar.HOUR_OF_DAY)] += amount;
+	}
+}
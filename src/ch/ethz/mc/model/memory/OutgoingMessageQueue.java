@@ -0,0 +1,146 @@
+package ch.ethz.mc.model.memory;
+
+/* ##LICENSE## */
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.bson.types.ObjectId;
+
+import ch.ethz.mc.model.persistent.DialogMessage;
+import ch.ethz.mc.model.persistent.Participant;
+import lombok.AllArgsConstructor;
+import lombok.Synchronized;
+import lombok.val;
+
+/**
+ * Queue of {@link DialogMessage}s prepared for sending, ordered by the
+ * timestamp they should be sent
+ *
+ * The queue is fed whenever a {@link DialogMessage} gets saved with the status
+ * prepared for sending, so that the outgoing message handling only has to
+ * consider {@link Participant}s with {@link DialogMessage}s that are actually
+ * due. The queue is only a hint: the state of the {@link DialogMessage}s in the
+ * database stays decisive when sending.
+ *
+ * @author Andreas Filler
+ */
+public class OutgoingMessageQueue {
+	private static OutgoingMessageQueue		instance	= null;
+
+	private final PriorityQueue<Entry>		entries;
+
+	/**
+	 * Timestamp each queued {@link DialogMessage} should be sent; used to
+	 * avoid duplicate entries and to skip outdated ones
+	 */
+	private final HashMap<ObjectId, Long>	shouldBeSentTimestamps;
+
+	@AllArgsConstructor
+	private static class Entry implements Comparable<Entry> {
+		private final ObjectId	participantId;
+		private final ObjectId	dialogMessageId;
+		private final long		shouldBeSentTimestamp;
+
+		@Override
+		public int compareTo(final Entry other) {
+			return Long.compare(shouldBeSentTimestamp,
+					other.shouldBeSentTimestamp);
+		}
+	}
+
+	@Synchronized
+	public static OutgoingMessageQueue getInstance() {
+		if (instance == null) {
+			instance = new OutgoingMessageQueue();
+		}
+
+		return instance;
+	}
+
+	private OutgoingMessageQueue() {
+		entries = new PriorityQueue<Entry>();
+		shouldBeSentTimestamps = new HashMap<ObjectId, Long>();
+	}
+
+	/**
+	 * Adds a {@link DialogMessage} that should be sent at the given timestamp
+	 *
+	 * @param participantId
+	 * @param dialogMessageId
+	 * @param shouldBeSentTimestamp
+	 */
+	@Synchronized
+	public void add(final ObjectId participantId,
+			final ObjectId dialogMessageId, final long shouldBeSentTimestamp) {
+		val formerShouldBeSentTimestamp = shouldBeSentTimestamps.put(
+				dialogMessageId, shouldBeSentTimestamp);
+
+		if (formerShouldBeSentTimestamp != null
+				&& formerShouldBeSentTimestamp == shouldBeSentTimestamp) {
+			return;
+		}
+
+		entries.add(new Entry(participantId, dialogMessageId,
+				shouldBeSentTimestamp));
+	}
+
+	/**
+	 * Removes all {@link DialogMessage}s that should be sent before the given
+	 * timestamp from the queue
+	 *
+	 * @param timestamp
+	 * @return The {@link ObjectId}s of the belonging {@link Participant}s in
+	 *         the order their {@link DialogMessage}s became due
+	 */
+	@Synchronized
+	public Set<ObjectId> pollParticipantIdsWithMessagesDue(
+			final long timestamp) {
+		val participantIds = new LinkedHashSet<ObjectId>();
+
+		while (!entries.isEmpty()
+				&& entries.peek().shouldBeSentTimestamp < timestamp) {
+			val entry = entries.poll();
+
+			val shouldBeSentTimestamp = shouldBeSentTimestamps
+					.get(entry.dialogMessageId);
+			if (shouldBeSentTimestamp == null
+					|| shouldBeSentTimestamp != entry.shouldBeSentTimestamp) {
+				// Outdated entry
+				continue;
+			}
+
+			shouldBeSentTimestamps.remove(entry.dialogMessageId);
+			participantIds.add(entry.participantId);
+		}
+
+		return participantIds;
+	}
+
+	/**
+	 * Removes all {@link DialogMessage}s of the given {@link Participant}s
+	 * from the queue
+	 *
+	 * @param participantIds
+	 */
+	@Synchronized
+	public void removeParticipants(final Collection<ObjectId> participantIds) {
+		val participantIdsToRemove = new HashSet<ObjectId>(participantIds);
+
+		entries.removeIf(entry -> {
+			if (participantIdsToRemove.contains(entry.participantId)) {
+				shouldBeSentTimestamps.remove(entry.dialogMessageId);
+				return true;
+			}
+			return false;
+		});
+	}
+
+	@Synchronized
+	public int size() {
+		return shouldBeSentTimestamps.size();
+	}
+}
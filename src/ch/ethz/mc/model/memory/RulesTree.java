@@ -0,0 +1,111 @@
+package ch.ethz.mc.model.memory;
+
+/* ##LICENSE## */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.types.ObjectId;
+
+import ch.ethz.mc.model.persistent.MonitoringRule;
+import ch.ethz.mc.model.persistent.concepts.AbstractMonitoringRule;
+import ch.ethz.mc.model.persistent.types.MonitoringRuleTypes;
+import lombok.Getter;
+import lombok.val;
+
+/**
+ * Contains a whole tree (or forest) of {@link AbstractMonitoringRule}s of one
+ * owner (e.g. an intervention or a micro dialog decision point) with all
+ * parent/child relations already resolved
+ *
+ * The tree is immutable after creation, so it can be shared between all
+ * threads resolving rules for different participants.
+ *
+ * @author Andreas Filler
+ */
+public class RulesTree {
+	/**
+	 * The version of the {@link AbstractMonitoringRule}s the tree has been
+	 * created from
+	 */
+	@Getter
+	private final long											version;
+
+	private final Map<ObjectId, List<AbstractMonitoringRule>>	childRules;
+
+	private final Map<MonitoringRuleTypes, MonitoringRule>		masterRules;
+
+	/**
+	 * Creates a new tree
+	 *
+	 * @param version
+	 *            The version of the {@link AbstractMonitoringRule}s at the
+	 *            time before they have been loaded
+	 * @param rulesSortedByOrder
+	 *            All {@link AbstractMonitoringRule}s of the tree sorted by
+	 *            their order
+	 */
+	public RulesTree(final long version,
+			final Iterable<? extends AbstractMonitoringRule> rulesSortedByOrder) {
+		this.version = version;
+
+		val childRules = new HashMap<ObjectId, List<AbstractMonitoringRule>>();
+		val masterRules = new HashMap<MonitoringRuleTypes, MonitoringRule>();
+
+		for (final AbstractMonitoringRule rule : rulesSortedByOrder) {
+			List<AbstractMonitoringRule> siblings = childRules
+					.get(rule.getIsSubRuleOfMonitoringRule());
+			if (siblings == null) {
+				siblings = new ArrayList<AbstractMonitoringRule>();
+				childRules.put(rule.getIsSubRuleOfMonitoringRule(), siblings);
+			}
+			siblings.add(rule);
+
+			if (rule instanceof MonitoringRule) {
+				val monitoringRule = (MonitoringRule) rule;
+				if (monitoringRule.getType() != MonitoringRuleTypes.NORMAL
+						&& !masterRules.containsKey(monitoringRule.getType())) {
+					masterRules.put(monitoringRule.getType(), monitoringRule);
+				}
+			}
+		}
+
+		for (val entry : childRules.entrySet()) {
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+
+		this.childRules = childRules;
+		this.masterRules = masterRules;
+	}
+
+	/**
+	 * Returns the {@link AbstractMonitoringRule}s directly below the given
+	 * parent sorted by their order
+	 *
+	 * @param parentId
+	 *            The parent or <code>null</code> for the root level
+	 * @return
+	 */
+	public List<AbstractMonitoringRule> getChildRules(final ObjectId parentId) {
+		val siblings = childRules.get(parentId);
+
+		if (siblings == null) {
+			return Collections.emptyList();
+		}
+
+		return siblings;
+	}
+
+	/**
+	 * Returns the master {@link MonitoringRule} of the given
+	 * {@link MonitoringRuleTypes}
+	 *
+	 * @param type
+	 * @return The {@link MonitoringRule} or <code>null</code> if not existing
+	 */
+	public MonitoringRule getMasterRule(final MonitoringRuleTypes type) {
+		return masterRules.get(type);
+	}
+}
@@ -3,7 +3,14 @@ package ch.ethz.mc.model.memory;
 /* ##LICENSE## */
 import java.util.ArrayList;
 import java.util.Hashtable;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+import ch.ethz.mc.tools.BoundedCache;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.Synchronized;
@@ -17,9 +24,31 @@ import lombok.extern.log4j.Log4j2;
  */
 @Log4j2
 public class SystemLoad {
-	private static SystemLoad					instance	= null;
+	private static SystemLoad									instance	= null;
 
-	private final Hashtable<String, Integer>	loggedInUsers;
+	private final Hashtable<String, Integer>					loggedInUsers;
+
+	private final List<BoundedCache<?, ?>>						caches;
+
+	/**
+	 * Database access statistics per collection; updated without locking, as
+	 * all threads accessing the database report their access times here
+	 */
+	private final ConcurrentHashMap<String, TimingStatistics>	databaseAccesses;
+
+	/**
+	 * Rule evaluation statistics per survey or feedback slide; updated without
+	 * locking, as the slides of different participants are determined in
+	 * parallel
+	 */
+	private final ConcurrentHashMap<String, TimingStatistics>	slideRuleEvaluations;
+
+	@AllArgsConstructor
+	private static class TimingStatistics {
+		private final LongAdder		occurrences;
+		private final LongAdder		nanosTotal;
+		private final AtomicLong	nanosMax;
+	}
 
 	@Synchronized
 	public static SystemLoad getInstance() {
@@ -32,6 +61,9 @@ public class SystemLoad {
 
 	private SystemLoad() {
 		loggedInUsers = new Hashtable<>();
+		caches = new ArrayList<>();
+		databaseAccesses = new ConcurrentHashMap<>();
+		slideRuleEvaluations = new ConcurrentHashMap<>();
 		messagingPerformedForParticipants = 0;
 
 		incomingMessageWorkerRequiredMillis = 0;
@@ -39,6 +71,41 @@ public class SystemLoad {
 		statisticsCreationRequiredMillis = 0;
 		finishingUnfinishedScreeningSurveysRequiredMillis = 0;
 		performContinuousMessagingRequiredMillis = 0;
+		performContinuousMessagingMode = "sequential";
+		performContinuousMessagingParticipantsPerSecond = 0;
+		performContinuousMessagingRequiredMillisPerParticipant95thPercentile = 0;
+		performContinuousMessagingRequiredMillisPerParticipantMax = 0;
+
+		participantLockAcquisitions = new LongAdder();
+		participantLockWaitingNanosTotal = new LongAdder();
+		participantLockWaitingNanosMax = new AtomicLong();
+
+		javaScriptCompilations = 0;
+		javaScriptCompilationNanosTotal = 0;
+		javaScriptExecutions = 0;
+		javaScriptExecutionNanosTotal = 0;
+		javaScriptTimeouts = 0;
+		javaScriptStuckThreads = 0;
+
+		outgoingMessagesQueued = 0;
+		outgoingMessagesInFlight = 0;
+		outgoingMessagesSent = 0;
+		outgoingMessagesSendingNanosTotal = 0;
+		outgoingMessagesSendingNanosMax = 0;
+		outgoingMessagesSendingRetries = 0;
+		outgoingMessagesSendingFailures = 0;
+
+		incomingMessagesQueued = 0;
+		incomingMessagesHandled = 0;
+		incomingMessagesHandlingNanosTotal = 0;
+		incomingMessagesHandlingNanosMax = 0;
+		incomingMessagesProducerBlockings = 0;
+		incomingMessagesProducerBlockingNanosTotal = 0;
+
+		deepstreamOperationsInFlight = 0;
+		deepstreamOperations = 0;
+		deepstreamOperationWaitingNanosTotal = 0;
+		deepstreamOperationWaitingNanosMax = 0;
 	}
 
 	@Synchronized
@@ -59,6 +126,95 @@ public class SystemLoad {
 		loggedInUsers.put(service, count);
 	}
 
+	/**
+	 * Registers a {@link BoundedCache} to be reported in the system load
+	 * 
+	 * @param cache
+	 */
+	@Synchronized
+	public void registerCache(final BoundedCache<?, ?> cache) {
+		caches.add(cache);
+	}
+
+	@Synchronized
+	public ArrayList<String> getCaches() {
+		val cacheInfos = new ArrayList<String>();
+
+		for (val cache : caches) {
+			cacheInfos.add(cache.getName() + ": " + cache.size()
+					+ " entries, " + cache.getHits() + " hits, "
+					+ cache.getMisses() + " misses, " + cache.getEvictions()
+					+ " evictions");
+		}
+
+		return cacheInfos;
+	}
+
+	/**
+	 * Remembers the time required for an access of the given database
+	 * collection
+	 *
+	 * @param collection
+	 * @param accessNanos
+	 */
+	public void addDatabaseAccessTime(final String collection,
+			final long accessNanos) {
+		val statistics = databaseAccesses.computeIfAbsent(collection,
+				key -> new TimingStatistics(new LongAdder(),
+						new LongAdder(), new AtomicLong()));
+
+		statistics.occurrences.increment();
+		statistics.nanosTotal.add(accessNanos);
+		statistics.nanosMax.accumulateAndGet(accessNanos, Math::max);
+	}
+
+	public ArrayList<String> getDatabaseAccesses() {
+		val databaseAccessInfos = new ArrayList<String>();
+
+		for (val entry : new TreeMap<>(databaseAccesses).entrySet()) {
+			val statistics = entry.getValue();
+			databaseAccessInfos.add(entry.getKey() + ": "
+					+ statistics.occurrences.sum() + " accesses, "
+					+ statistics.nanosTotal.sum() / 1000000
+					+ " millis total, "
+					+ statistics.nanosMax.get() / 1000000d + " millis max");
+		}
+
+		return databaseAccessInfos;
+	}
+
+	/**
+	 * Remembers the time required to evaluate the rules of the given slide
+	 *
+	 * @param slide
+	 * @param evaluationNanos
+	 */
+	public void addSlideRuleEvaluationTime(final String slide,
+			final long evaluationNanos) {
+		val statistics = slideRuleEvaluations.computeIfAbsent(slide,
+				key -> new TimingStatistics(new LongAdder(),
+						new LongAdder(), new AtomicLong()));
+
+		statistics.occurrences.increment();
+		statistics.nanosTotal.add(evaluationNanos);
+		statistics.nanosMax.accumulateAndGet(evaluationNanos, Math::max);
+	}
+
+	public ArrayList<String> getSlideRuleEvaluations() {
+		val slideRuleEvaluationInfos = new ArrayList<String>();
+
+		for (val entry : new TreeMap<>(slideRuleEvaluations).entrySet()) {
+			val statistics = entry.getValue();
+			slideRuleEvaluationInfos.add(entry.getKey() + ": "
+					+ statistics.occurrences.sum() + " evaluations, "
+					+ statistics.nanosTotal.sum() / 1000000
+					+ " millis total, "
+					+ statistics.nanosMax.get() / 1000000d + " millis max");
+		}
+
+		return slideRuleEvaluationInfos;
+	}
+
 	@Getter
 	@Setter
 	long	messagingPerformedForParticipants;
@@ -87,6 +243,337 @@ public class SystemLoad {
 	@Setter
 	double	performContinuousMessagingRequiredMillisPerParticipant;
 
+	@Getter
+	@Setter
+	String	performContinuousMessagingMode;
+
+	@Getter
+	@Setter
+	double	performContinuousMessagingParticipantsPerSecond;
+
+	@Getter
+	@Setter
+	long	performContinuousMessagingRequiredMillisPerParticipant95thPercentile;
+
+	@Getter
+	@Setter
+	long	performContinuousMessagingRequiredMillisPerParticipantMax;
+
+	/*
+	 * Participant lock statistics; updated without locking, as they are
+	 * reported at each acquisition of a participant lock
+	 */
+	private final LongAdder		participantLockAcquisitions;
+
+	private final LongAdder		participantLockWaitingNanosTotal;
+
+	private final AtomicLong	participantLockWaitingNanosMax;
+
+	/**
+	 * Remembers the time a thread had to wait to acquire a participant lock
+	 *
+	 * @param waitingNanos
+	 */
+	public void addParticipantLockWaitingTime(final long waitingNanos) {
+		participantLockAcquisitions.increment();
+		participantLockWaitingNanosTotal.add(waitingNanos);
+		participantLockWaitingNanosMax.accumulateAndGet(waitingNanos,
+				Math::max);
+	}
+
+	public long getParticipantLockAcquisitions() {
+		return participantLockAcquisitions.sum();
+	}
+
+	public long getParticipantLockWaitingMillisTotal() {
+		return participantLockWaitingNanosTotal.sum() / 1000000;
+	}
+
+	public double getParticipantLockWaitingMillisMax() {
+		return participantLockWaitingNanosMax.get() / 1000000d;
+	}
+
+	long	javaScriptCompilations;
+
+	long	javaScriptCompilationNanosTotal;
+
+	long	javaScriptExecutions;
+
+	long	javaScriptExecutionNanosTotal;
+
+	long	javaScriptTimeouts;
+
+	int		javaScriptStuckThreads;
+
+	/**
+	 * Remembers the time required to compile a JavaScript rule
+	 *
+	 * @param compilationNanos
+	 */
+	@Synchronized
+	public void addJavaScriptCompilationTime(final long compilationNanos) {
+		javaScriptCompilations++;
+		javaScriptCompilationNanosTotal += compilationNanos;
+	}
+
+	/**
+	 * Remembers the time required to execute a compiled JavaScript rule
+	 *
+	 * @param executionNanos
+	 */
+	@Synchronized
+	public void addJavaScriptExecutionTime(final long executionNanos) {
+		javaScriptExecutions++;
+		javaScriptExecutionNanosTotal += executionNanos;
+	}
+
+	/**
+	 * Remembers that a JavaScript rule has been cancelled because of a timeout
+	 */
+	@Synchronized
+	public void addJavaScriptTimeout() {
+		javaScriptTimeouts++;
+	}
+
+	/**
+	 * Remembers the number of threads still executing JavaScript rules which
+	 * exceeded the timeout
+	 *
+	 * @param stuckThreads
+	 */
+	@Synchronized
+	public void setJavaScriptStuckThreads(final int stuckThreads) {
+		javaScriptStuckThreads = stuckThreads;
+	}
+
+	@Synchronized
+	public long getJavaScriptCompilations() {
+		return javaScriptCompilations;
+	}
+
+	@Synchronized
+	public long getJavaScriptCompilationMillisTotal() {
+		return javaScriptCompilationNanosTotal / 1000000;
+	}
+
+	@Synchronized
+	public long getJavaScriptExecutions() {
+		return javaScriptExecutions;
+	}
+
+	@Synchronized
+	public long getJavaScriptExecutionMillisTotal() {
+		return javaScriptExecutionNanosTotal / 1000000;
+	}
+
+	@Synchronized
+	public long getJavaScriptTimeouts() {
+		return javaScriptTimeouts;
+	}
+
+	@Synchronized
+	public int getJavaScriptStuckThreads() {
+		return javaScriptStuckThreads;
+	}
+
+	@Getter
+	@Setter
+	long	outgoingMessagesQueued;
+
+	@Getter
+	@Setter
+	long	outgoingMessagesInFlight;
+
+	long	outgoingMessagesSent;
+
+	long	outgoingMessagesSendingNanosTotal;
+
+	long	outgoingMessagesSendingNanosMax;
+
+	long	outgoingMessagesSendingRetries;
+
+	long	outgoingMessagesSendingFailures;
+
+	/**
+	 * Remembers the time required to send a SMS or email using the gateway
+	 *
+	 * @param sendingNanos
+	 */
+	@Synchronized
+	public void addOutgoingMessageSendingTime(final long sendingNanos) {
+		outgoingMessagesSent++;
+		outgoingMessagesSendingNanosTotal += sendingNanos;
+
+		if (sendingNanos > outgoingMessagesSendingNanosMax) {
+			outgoingMessagesSendingNanosMax = sendingNanos;
+		}
+	}
+
+	/**
+	 * Remembers that sending a SMS or email failed and will be retried
+	 */
+	@Synchronized
+	public void addOutgoingMessageSendingRetry() {
+		outgoingMessagesSendingRetries++;
+	}
+
+	/**
+	 * Remembers that sending a SMS or email failed finally
+	 */
+	@Synchronized
+	public void addOutgoingMessageSendingFailure() {
+		outgoingMessagesSendingFailures++;
+	}
+
+	@Synchronized
+	public long getOutgoingMessagesSent() {
+		return outgoingMessagesSent;
+	}
+
+	@Synchronized
+	public double getOutgoingMessagesSendingMillisAverage() {
+		if (outgoingMessagesSent == 0) {
+			return 0;
+		}
+
+		return outgoingMessagesSendingNanosTotal / 1000000d
+				/ outgoingMessagesSent;
+	}
+
+	@Synchronized
+	public double getOutgoingMessagesSendingMillisMax() {
+		return outgoingMessagesSendingNanosMax / 1000000d;
+	}
+
+	@Synchronized
+	public long getOutgoingMessagesSendingRetries() {
+		return outgoingMessagesSendingRetries;
+	}
+
+	@Synchronized
+	public long getOutgoingMessagesSendingFailures() {
+		return outgoingMessagesSendingFailures;
+	}
+
+	@Getter
+	@Setter
+	long	incomingMessagesQueued;
+
+	long	incomingMessagesHandled;
+
+	long	incomingMessagesHandlingNanosTotal;
+
+	long	incomingMessagesHandlingNanosMax;
+
+	long	incomingMessagesProducerBlockings;
+
+	long	incomingMessagesProducerBlockingNanosTotal;
+
+	/**
+	 * Remembers the time between receiving a message and finishing its
+	 * handling
+	 *
+	 * @param handlingNanos
+	 */
+	@Synchronized
+	public void addIncomingMessageHandlingTime(final long handlingNanos) {
+		incomingMessagesHandled++;
+		incomingMessagesHandlingNanosTotal += handlingNanos;
+
+		if (handlingNanos > incomingMessagesHandlingNanosMax) {
+			incomingMessagesHandlingNanosMax = handlingNanos;
+		}
+	}
+
+	/**
+	 * Remembers the time a receiving service had to wait until its message
+	 * could be queued for handling
+	 *
+	 * @param blockingNanos
+	 */
+	@Synchronized
+	public void addIncomingMessageProducerBlockingTime(
+			final long blockingNanos) {
+		incomingMessagesProducerBlockings++;
+		incomingMessagesProducerBlockingNanosTotal += blockingNanos;
+	}
+
+	@Synchronized
+	public long getIncomingMessagesHandled() {
+		return incomingMessagesHandled;
+	}
+
+	@Synchronized
+	public double getIncomingMessagesHandlingMillisAverage() {
+		if (incomingMessagesHandled == 0) {
+			return 0;
+		}
+
+		return incomingMessagesHandlingNanosTotal / 1000000d
+				/ incomingMessagesHandled;
+	}
+
+	@Synchronized
+	public double getIncomingMessagesHandlingMillisMax() {
+		return incomingMessagesHandlingNanosMax / 1000000d;
+	}
+
+	@Synchronized
+	public long getIncomingMessagesProducerBlockings() {
+		return incomingMessagesProducerBlockings;
+	}
+
+	@Synchronized
+	public long getIncomingMessagesProducerBlockingMillisTotal() {
+		return incomingMessagesProducerBlockingNanosTotal / 1000000;
+	}
+
+	@Getter
+	@Setter
+	long	deepstreamOperationsInFlight;
+
+	long	deepstreamOperations;
+
+	long	deepstreamOperationWaitingNanosTotal;
+
+	long	deepstreamOperationWaitingNanosMax;
+
+	/**
+	 * Remembers the time an operation had to wait for the access to the
+	 * deepstream client
+	 *
+	 * @param waitingNanos
+	 */
+	@Synchronized
+	public void addDeepstreamOperationWaitingTime(final long waitingNanos) {
+		deepstreamOperations++;
+		deepstreamOperationWaitingNanosTotal += waitingNanos;
+
+		if (waitingNanos > deepstreamOperationWaitingNanosMax) {
+			deepstreamOperationWaitingNanosMax = waitingNanos;
+		}
+	}
+
+	@Synchronized
+	public long getDeepstreamOperations() {
+		return deepstreamOperations;
+	}
+
+	@Synchronized
+	public double getDeepstreamOperationWaitingMillisAverage() {
+		if (deepstreamOperations == 0) {
+			return 0;
+		}
+
+		return deepstreamOperationWaitingNanosTotal / 1000000d
+				/ deepstreamOperations;
+	}
+
+	@Synchronized
+	public double getDeepstreamOperationWaitingMillisMax() {
+		return deepstreamOperationWaitingNanosMax / 1000000d;
+	}
+
 	public void log() {
 		synchronized (log) {
 			log.info(
@@ -95,6 +582,18 @@ public class SystemLoad {
 			for (val countInfo : getLoggedInUsers()) {
 				log.info(" * {}", countInfo);
 			}
+			log.info("Caches:");
+			for (val cacheInfo : getCaches()) {
+				log.info(" * {}", cacheInfo);
+			}
+			log.info("Database accesses:");
+			for (val databaseAccessInfo : getDatabaseAccesses()) {
+				log.info(" * {}", databaseAccessInfo);
+			}
+			log.info("Slide rule evaluations:");
+			for (val slideRuleEvaluationInfo : getSlideRuleEvaluations()) {
+				log.info(" * {}", slideRuleEvaluationInfo);
+			}
 			log.info(
 					"Messaging performed for participants:                         {}",
 					getMessagingPerformedForParticipants());
@@ -116,6 +615,96 @@ public class SystemLoad {
 			log.info(
 					"Perform continuous messaging required millis per participant: {}",
 					getPerformContinuousMessagingRequiredMillisPerParticipant());
+			log.info(
+					"Perform continuous messaging mode:                            {}",
+					getPerformContinuousMessagingMode());
+			log.info(
+					"Perform continuous messaging participants per second:         {}",
+					getPerformContinuousMessagingParticipantsPerSecond());
+			log.info(
+					"Perform continuous messaging millis per participant (95th %): {}",
+					getPerformContinuousMessagingRequiredMillisPerParticipant95thPercentile());
+			log.info(
+					"Perform continuous messaging millis per participant (max):    {}",
+					getPerformContinuousMessagingRequiredMillisPerParticipantMax());
+			log.info(
+					"Participant lock acquisitions:                                {}",
+					getParticipantLockAcquisitions());
+			log.info(
+					"Participant lock waiting millis (total):                      {}",
+					getParticipantLockWaitingMillisTotal());
+			log.info(
+					"Participant lock waiting millis (max):                        {}",
+					getParticipantLockWaitingMillisMax());
+			log.info(
+					"JavaScript rule compilations:                                 {}",
+					getJavaScriptCompilations());
+			log.info(
+					"JavaScript rule compilation millis (total):                   {}",
+					getJavaScriptCompilationMillisTotal());
+			log.info(
+					"JavaScript rule executions:                                   {}",
+					getJavaScriptExecutions());
+			log.info(
+					"JavaScript rule execution millis (total):                     {}",
+					getJavaScriptExecutionMillisTotal());
+			log.info(
+					"JavaScript rule timeouts:                                     {}",
+					getJavaScriptTimeouts());
+			log.info(
+					"JavaScript rule threads stuck in timed out rules:             {}",
+					getJavaScriptStuckThreads());
+			log.info(
+					"Outgoing SMS/email messages queued:                           {}",
+					getOutgoingMessagesQueued());
+			log.info(
+					"Outgoing SMS/email messages in flight:                        {}",
+					getOutgoingMessagesInFlight());
+			log.info(
+					"Outgoing SMS/email messages sent:                             {}",
+					getOutgoingMessagesSent());
+			log.info(
+					"Outgoing SMS/email sending millis (average):                  {}",
+					getOutgoingMessagesSendingMillisAverage());
+			log.info(
+					"Outgoing SMS/email sending millis (max):                      {}",
+					getOutgoingMessagesSendingMillisMax());
+			log.info(
+					"Outgoing SMS/email sending retries:                           {}",
+					getOutgoingMessagesSendingRetries());
+			log.info(
+					"Outgoing SMS/email sending failures:                          {}",
+					getOutgoingMessagesSendingFailures());
+			log.info(
+					"Incoming messages queued:                                     {}",
+					getIncomingMessagesQueued());
+			log.info(
+					"Incoming messages handled:                                    {}",
+					getIncomingMessagesHandled());
+			log.info(
+					"Incoming message handling millis (average):                   {}",
+					getIncomingMessagesHandlingMillisAverage());
+			log.info(
+					"Incoming message handling millis (max):                       {}",
+					getIncomingMessagesHandlingMillisMax());
+			log.info(
+					"Incoming message receivers blocked:                           {}",
+					getIncomingMessagesProducerBlockings());
+			log.info(
+					"Incoming message receivers blocked millis (total):            {}",
+					getIncomingMessagesProducerBlockingMillisTotal());
+			log.info(
+					"Deepstream operations in flight:                              {}",
+					getDeepstreamOperationsInFlight());
+			log.info(
+					"Deepstream operations:                                        {}",
+					getDeepstreamOperations());
+			log.info(
+					"Deepstream operation waiting millis (average):                {}",
+					getDeepstreamOperationWaitingMillisAverage());
+			log.info(
+					"Deepstream operation waiting millis (max):                    {}",
+					getDeepstreamOperationWaitingMillisMax());
 			log.info(
 					"--------------------------------------------------------------------------------");
 		}
@@ -6,10 +6,14 @@ import java.util.Date;
 import org.apache.commons.lang3.StringUtils;
 import org.bson.types.ObjectId;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import ch.ethz.mc.conf.AdminMessageStrings;
 import ch.ethz.mc.conf.Messages;
 import ch.ethz.mc.model.ModelObject;
 import ch.ethz.mc.model.Queries;
+import ch.ethz.mc.model.memory.DialogMessageStatisticsStore;
+import ch.ethz.mc.model.memory.OutgoingMessageQueue;
 import ch.ethz.mc.model.persistent.types.AnswerTypes;
 import ch.ethz.mc.model.persistent.types.DialogMessageStatusTypes;
 import ch.ethz.mc.model.persistent.types.DialogMessageTypes;
@@ -543,6 +547,37 @@ public class DialogMessage extends ModelObject {
 		return dialogMessage;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see ch.ethz.mc.model.ModelObject#save()
+	 */
+	@Override
+	@JsonIgnore
+	protected void save() {
+		super.save();
+
+		if (status == DialogMessageStatusTypes.PREPARED_FOR_SENDING) {
+			OutgoingMessageQueue.getInstance().add(participant, getId(),
+					shouldBeSentTimestamp);
+		}
+
+		DialogMessageStatisticsStore.getInstance()
+				.dialogMessagesModified(participant);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see ch.ethz.mc.model.ModelObject#performAfterDelete()
+	 */
+	@Override
+	@JsonIgnore
+	protected void performAfterDelete() {
+		DialogMessageStatisticsStore.getInstance()
+				.dialogMessagesModified(participant);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
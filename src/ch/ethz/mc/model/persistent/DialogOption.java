@@ -2,9 +2,13 @@ package ch.ethz.mc.model.persistent;
 
 /* ##LICENSE## */
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.bson.types.ObjectId;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import ch.ethz.mc.conf.ImplementationConstants;
 import ch.ethz.mc.model.ModelObject;
 import ch.ethz.mc.model.persistent.types.DialogOptionTypes;
@@ -30,6 +34,22 @@ import lombok.val;
 public class DialogOption extends ModelObject {
 	private static final long	serialVersionUID	= -1281955047718719223L;
 
+	/**
+	 * Version of all {@link DialogOption}s and of the {@link Participant}s and
+	 * {@link Intervention}s they belong to; the version is increased with
+	 * changes affecting all lookups to enable the validation of cached
+	 * {@link DialogOption} lookups
+	 */
+	private static final AtomicLong			lookupVersion		= new AtomicLong();
+
+	/**
+	 * Versions of the {@link DialogOption}s striped by their type and data; a
+	 * version is increased with each change of a {@link DialogOption}, so that
+	 * only the lookups of the same stripe have to be repeated
+	 */
+	private static final AtomicLongArray	lookupKeyVersions	= new AtomicLongArray(
+			ImplementationConstants.DIALOG_OPTION_LOOKUP_VERSION_STRIPES);
+
 	/**
 	 * The {@link Participant} which provides this {@link DialogOption}
 	 */
@@ -76,6 +96,77 @@ public class DialogOption extends ModelObject {
 		exportList.add(this);
 	}
 
+	/**
+	 * Returns the current version of the {@link DialogOption}s with the given
+	 * type and data
+	 *
+	 * @param type
+	 * @param data
+	 * @return
+	 */
+	public static long getLookupVersion(final DialogOptionTypes type,
+			final String data) {
+		// Both versions only increase, so their sum changes with each of them
+		return lookupVersion.get()
+				+ lookupKeyVersions.get(getLookupKeyVersionIndex(type, data));
+	}
+
+	/**
+	 * Increases the version of the {@link DialogOption}s with the given type
+	 * and data
+	 *
+	 * @param type
+	 * @param data
+	 */
+	private static void increaseLookupVersion(final DialogOptionTypes type,
+			final String data) {
+		if (type == null || data == null) {
+			lookupVersion.incrementAndGet();
+		} else {
+			lookupKeyVersions
+					.incrementAndGet(getLookupKeyVersionIndex(type, data));
+		}
+	}
+
+	private static int getLookupKeyVersionIndex(final DialogOptionTypes type,
+			final String data) {
+		return Math.floorMod(31 * type.hashCode() + data.hashCode(),
+				ImplementationConstants.DIALOG_OPTION_LOOKUP_VERSION_STRIPES);
+	}
+
+	/**
+	 * Increases the version of all {@link DialogOption}s; required if
+	 * {@link DialogOption}s are changed without saving them one by one or if
+	 * the related {@link Participant}s or {@link Intervention}s change
+	 */
+	static void increaseLookupVersion() {
+		lookupVersion.incrementAndGet();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see ch.ethz.mc.model.ModelObject#save()
+	 */
+	@Override
+	@JsonIgnore
+	protected void save() {
+		super.save();
+
+		increaseLookupVersion(type, data);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see ch.ethz.mc.model.ModelObject#performAfterDelete()
+	 */
+	@Override
+	@JsonIgnore
+	protected void performAfterDelete() {
+		increaseLookupVersion(type, data);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -1,13 +1,16 @@
 package ch.ethz.mc.model.persistent;
 
 /* ##LICENSE## */
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.lang3.StringUtils;
+import org.bson.types.ObjectId;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import ch.ethz.mc.conf.AdminMessageStrings;
+import ch.ethz.mc.conf.ImplementationConstants;
 import ch.ethz.mc.conf.Messages;
 import ch.ethz.mc.model.ModelObject;
 import ch.ethz.mc.model.Queries;
@@ -206,6 +209,21 @@ public class Intervention extends ModelObject {
 		}
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see ch.ethz.mc.model.ModelObject#save()
+	 */
+	@Override
+	@JsonIgnore
+	protected void save() {
+		super.save();
+
+		// The activity of the intervention is relevant for dialog option
+		// lookups
+		DialogOption.increaseLookupVersion();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -213,10 +231,21 @@ public class Intervention extends ModelObject {
 	 */
 	@Override
 	public void performOnDelete() {
-		// Delete participant
-		val participantsToDelete = ModelObject.find(Participant.class,
-				Queries.PARTICIPANT__BY_INTERVENTION, getId());
-		ModelObject.delete(participantsToDelete);
+		// Delete participant (in batches)
+		val participantIdsToDelete = new ArrayList<ObjectId>();
+		for (val participantIdToDelete : ModelObject.findIds(
+				Participant.class, Queries.PARTICIPANT__BY_INTERVENTION,
+				getId())) {
+			participantIdsToDelete.add(participantIdToDelete);
+
+			if (participantIdsToDelete
+					.size() == ImplementationConstants.PARTICIPANTS_DELETION_BATCH_SIZE) {
+				Participant.deleteWithRelatedModelObjects(
+						participantIdsToDelete);
+				participantIdsToDelete.clear();
+			}
+		}
+		Participant.deleteWithRelatedModelObjects(participantIdsToDelete);
 
 		// Delete intervention variables with values
 		val interventionVariablesWithValuesToDelete = ModelObject.find(
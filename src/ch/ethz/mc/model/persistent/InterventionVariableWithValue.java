@@ -2,6 +2,8 @@ package ch.ethz.mc.model.persistent;
 
 /* ##LICENSE## */
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.bson.types.ObjectId;
 
@@ -31,6 +33,13 @@ import lombok.val;
 public class InterventionVariableWithValue extends AbstractVariableWithValue {
 	private static final long serialVersionUID = -8148624003571719902L;
 
+	/**
+	 * Versions of the {@link InterventionVariableWithValue}s of each
+	 * {@link Intervention}; a version is increased with each change to enable
+	 * the validation of cached variables
+	 */
+	private static final ConcurrentHashMap<ObjectId, AtomicLong> interventionVersions = new ConcurrentHashMap<ObjectId, AtomicLong>();
+
 	/**
 	 * Default constructor
 	 */
@@ -69,6 +78,56 @@ public class InterventionVariableWithValue extends AbstractVariableWithValue {
 	@NonNull
 	private InterventionVariableWithValueAccessTypes	accessType;
 
+	/**
+	 * Returns the current version of the {@link InterventionVariableWithValue}s
+	 * of the given {@link Intervention}
+	 *
+	 * @param interventionId
+	 * @return
+	 */
+	public static long getVersionOfIntervention(final ObjectId interventionId) {
+		return getVersionCounterOfIntervention(interventionId).get();
+	}
+
+	private static AtomicLong getVersionCounterOfIntervention(
+			final ObjectId interventionId) {
+		val versionCounter = interventionVersions.get(interventionId);
+		if (versionCounter != null) {
+			return versionCounter;
+		}
+
+		val newVersionCounter = new AtomicLong();
+		val formerVersionCounter = interventionVersions
+				.putIfAbsent(interventionId, newVersionCounter);
+
+		return formerVersionCounter == null ? newVersionCounter
+				: formerVersionCounter;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see ch.ethz.mc.model.ModelObject#save()
+	 */
+	@Override
+	@JsonIgnore
+	protected void save() {
+		super.save();
+
+		getVersionCounterOfIntervention(intervention).incrementAndGet();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see ch.ethz.mc.model.ModelObject#performAfterDelete()
+	 */
+	@Override
+	@JsonIgnore
+	protected void performAfterDelete() {
+		getVersionCounterOfIntervention(intervention).incrementAndGet();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
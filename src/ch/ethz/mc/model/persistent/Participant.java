@@ -1,6 +1,9 @@
 package ch.ethz.mc.model.persistent;
 
 /* ##LICENSE## */
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
@@ -13,6 +16,9 @@ import ch.ethz.mc.conf.ImplementationConstants;
 import ch.ethz.mc.conf.Messages;
 import ch.ethz.mc.model.ModelObject;
 import ch.ethz.mc.model.Queries;
+import ch.ethz.mc.model.memory.DialogMessageStatisticsStore;
+import ch.ethz.mc.model.memory.OutgoingMessageQueue;
+import ch.ethz.mc.model.persistent.types.DialogOptionTypes;
 import ch.ethz.mc.model.ui.UIModelObject;
 import ch.ethz.mc.model.ui.UIParticipant;
 import ch.ethz.mc.services.internal.VariablesManagerService;
@@ -22,6 +28,7 @@ import lombok.NoArgsConstructor;
 import lombok.NonNull;
 import lombok.Setter;
 import lombok.val;
+import lombok.extern.log4j.Log4j2;
 
 /**
  * {@link ModelObject} to represent an {@link Participant}
@@ -35,6 +42,7 @@ import lombok.val;
  */
 @NoArgsConstructor
 @AllArgsConstructor
+@Log4j2
 public class Participant extends ModelObject {
 	private static final long	serialVersionUID	= -6590770882490356836L;
 
@@ -159,6 +167,14 @@ public class Participant extends ModelObject {
 	@NonNull
 	private String				organizationUnit;
 
+	/**
+	 * Stores if the {@link Participant} is scheduled for deletion in the
+	 * background; enables to resume the deletion after a restart
+	 */
+	@Getter
+	@Setter
+	private boolean				scheduledForDeletion;
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -288,43 +304,132 @@ public class Participant extends ModelObject {
 	 */
 	@Override
 	public void performOnDelete() {
+		performOnDeleteOfParticipants(Arrays.asList(getId()));
+	}
+
+	/**
+	 * Deletes the {@link Participant}s with the given {@link ObjectId}s and
+	 * all related {@link ModelObject}s using bulk deletions in the database
+	 *
+	 * Only related {@link ModelObject}s requiring additional deletion steps
+	 * (e.g. to delete files or to cleanup external registrations) are loaded.
+	 *
+	 * @param participantIds
+	 * @return If the {@link Participant}s could be deleted
+	 */
+	public static boolean deleteWithRelatedModelObjects(
+			final List<ObjectId> participantIds) {
+		if (participantIds.isEmpty()) {
+			return true;
+		}
+
+		if (!performOnDeleteOfParticipants(participantIds)) {
+			return false;
+		}
+
+		ModelObject.deleteAll(Participant.class, Queries.OBJECT_IDS,
+				participantIds);
+
+		return true;
+	}
+
+	/**
+	 * Deletes all {@link ModelObject}s related to the {@link Participant}s
+	 * with the given {@link ObjectId}s
+	 *
+	 * @param participantIds
+	 * @return If the related {@link ModelObject}s could be deleted; nothing
+	 *         has been deleted if not
+	 */
+	private static boolean performOnDeleteOfParticipants(
+			final List<ObjectId> participantIds) {
+		// Dialog messages can be too many to be listed at once, so their ids
+		// are streamed
+		val dialogMessageIds = ModelObject.findIdsStreamed(
+				DialogMessage.class, Queries.DIALOG_MESSAGE__BY_PARTICIPANTS,
+				participantIds);
+		if (dialogMessageIds == null) {
+			log.error("Could not retrieve dialog messages of {} participants",
+					participantIds.size());
+			return false;
+		}
+
 		// Invalidate variables cache
 		VariablesManagerService.getInstance()
-				.participantInvalidateVariableCache(getId());
+				.participantsInvalidateVariableCache(participantIds);
+
+		// Delete dialog messages (including their media object participant
+		// short URLs, which are deleted in chunks)
+		try {
+			val dialogMessageIdsChunk = new ArrayList<ObjectId>();
+			while (dialogMessageIds.hasNext()) {
+				dialogMessageIdsChunk.add(dialogMessageIds.next());
+
+				if (dialogMessageIdsChunk
+						.size() == ImplementationConstants.PARTICIPANTS_DELETION_DIALOG_MESSAGES_CHUNK_SIZE
+						|| !dialogMessageIds.hasNext()) {
+					ModelObject.deleteAll(MediaObjectParticipantShortURL.class,
+							Queries.MEDIA_OBJECT_PARTICIPANT_SHORT_URL__BY_DIALOG_MESSAGES,
+							dialogMessageIdsChunk);
+					dialogMessageIdsChunk.clear();
+				}
+			}
+		} finally {
+			try {
+				dialogMessageIds.close();
+			} catch (final IOException e) {
+				log.warn("Could not close dialog messages cursor: {}",
+						e.getMessage());
+			}
+		}
+		ModelObject.deleteAll(DialogMessage.class,
+				Queries.DIALOG_MESSAGE__BY_PARTICIPANTS, participantIds);
+		OutgoingMessageQueue.getInstance().removeParticipants(participantIds);
+		for (val participantId : participantIds) {
+			DialogMessageStatisticsStore.getInstance()
+					.dialogMessagesModified(participantId);
+		}
 
-		// Delete dialog options
-		val dialogOptionsToDelete = ModelObject.find(DialogOption.class,
-				Queries.DIALOG_OPTION__BY_PARTICIPANT, getId());
-		ModelObject.delete(dialogOptionsToDelete);
+		// Delete dialog options (external IDs require a cleanup)
+		val dialogOptionsToCleanup = ModelObject.find(DialogOption.class,
+				Queries.DIALOG_OPTION__BY_PARTICIPANTS_AND_TYPES,
+				participantIds,
+				Arrays.asList(DialogOptionTypes.EXTERNAL_ID,
+						DialogOptionTypes.SUPERVISOR_EXTERNAL_ID));
+		for (val dialogOptionToCleanup : dialogOptionsToCleanup) {
+			dialogOptionToCleanup.performOnDelete();
+		}
+		ModelObject.deleteAll(DialogOption.class,
+				Queries.DIALOG_OPTION__BY_PARTICIPANTS, participantIds);
+		DialogOption.increaseLookupVersion();
 
-		// Delete participant variables with values
-		val participantVariablesWithValuesToDelete = ModelObject.find(
+		// Delete participant variables with values (media uploads require a
+		// cleanup)
+		val participantVariablesWithValuesToCleanup = ModelObject.find(
 				ParticipantVariableWithValue.class,
-				Queries.PARTICIPANT_VARIABLE_WITH_VALUE__BY_PARTICIPANT,
-				getId());
-		ModelObject.delete(participantVariablesWithValuesToDelete);
+				Queries.PARTICIPANT_VARIABLE_WITH_VALUE__BY_PARTICIPANTS_AND_DESCRIBES_MEDIA_UPLOAD,
+				participantIds);
+		for (val participantVariableWithValueToCleanup : participantVariablesWithValuesToCleanup) {
+			participantVariableWithValueToCleanup.performOnDelete();
+		}
+		ModelObject.deleteAll(ParticipantVariableWithValue.class,
+				Queries.PARTICIPANT_VARIABLE_WITH_VALUE__BY_PARTICIPANTS,
+				participantIds);
 
 		// Delete dashboard messages
-		val dashboardMessagesToDelete = ModelObject.find(DashboardMessage.class,
-				Queries.DASHBOARD_MESSAGE__BY_PARTICIPANT, getId());
-		ModelObject.delete(dashboardMessagesToDelete);
-
-		// Delete dialog messages
-		val dialogMessagesToDelete = ModelObject.find(DialogMessage.class,
-				Queries.DIALOG_MESSAGE__BY_PARTICIPANT, getId());
-		ModelObject.delete(dialogMessagesToDelete);
+		ModelObject.deleteAll(DashboardMessage.class,
+				Queries.DASHBOARD_MESSAGE__BY_PARTICIPANTS, participantIds);
 
 		// Delete dialog status
-		val dialogStatusesToDelete = ModelObject.find(DialogStatus.class,
-				Queries.DIALOG_STATUS__BY_PARTICIPANT, getId());
-		ModelObject.delete(dialogStatusesToDelete);
+		ModelObject.deleteAll(DialogStatus.class,
+				Queries.DIALOG_STATUS__BY_PARTICIPANTS, participantIds);
 
 		// Delete intermediate survey and feedback participant short URLs
-		val intermediateSurveysAndFeedbackParticipantShortURLsToDelete = ModelObject
-				.find(IntermediateSurveyAndFeedbackParticipantShortURL.class,
-						Queries.INTERMEDIATE_SURVEY_AND_FEEDBACK_PARTICIPANT_SHORT_URL__BY_PARTICIPANT,
-						getId());
-		ModelObject.delete(
-				intermediateSurveysAndFeedbackParticipantShortURLsToDelete);
+		ModelObject.deleteAll(
+				IntermediateSurveyAndFeedbackParticipantShortURL.class,
+				Queries.INTERMEDIATE_SURVEY_AND_FEEDBACK_PARTICIPANT_SHORT_URL__BY_PARTICIPANTS,
+				participantIds);
+
+		return true;
 	}
 }
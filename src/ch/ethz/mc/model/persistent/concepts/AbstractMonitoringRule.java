@@ -1,8 +1,12 @@
 package ch.ethz.mc.model.persistent.concepts;
 
 /* ##LICENSE## */
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.bson.types.ObjectId;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import ch.ethz.mc.model.ModelObject;
 import ch.ethz.mc.model.persistent.MicroDialog;
 import ch.ethz.mc.model.persistent.MonitoringMessageGroup;
@@ -27,6 +31,12 @@ import lombok.Setter;
 public abstract class AbstractMonitoringRule extends AbstractRule {
 	private static final long serialVersionUID = -3271775900725942369L;
 
+	/**
+	 * Version of all {@link AbstractMonitoringRule}s; the version is increased
+	 * with each change to enable the validation of cached rule trees
+	 */
+	private static final AtomicLong rulesVersion = new AtomicLong();
+
 	/**
 	 * Default constructor
 	 */
@@ -119,4 +129,37 @@ public abstract class AbstractMonitoringRule extends AbstractRule {
 	@Getter
 	@Setter
 	private ObjectId	relatedMicroDialog;
+
+	/**
+	 * Returns the current version of all {@link AbstractMonitoringRule}s
+	 *
+	 * @return
+	 */
+	public static long getRulesVersion() {
+		return rulesVersion.get();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see ch.ethz.mc.model.ModelObject#save()
+	 */
+	@Override
+	@JsonIgnore
+	protected void save() {
+		super.save();
+
+		rulesVersion.incrementAndGet();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see ch.ethz.mc.model.ModelObject#performAfterDelete()
+	 */
+	@Override
+	@JsonIgnore
+	protected void performAfterDelete() {
+		rulesVersion.incrementAndGet();
+	}
 }
@@ -1,13 +1,13 @@
 package ch.ethz.mc.rest.services.v02;
 
 /* ##LICENSE## */
-import java.util.ArrayList;
-import java.util.List;
-
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
 
 import org.apache.commons.lang3.StringUtils;
 
@@ -16,6 +16,7 @@ import com.twilio.twiml.MessagingResponse;
 import ch.ethz.mc.model.memory.ReceivedMessage;
 import ch.ethz.mc.model.persistent.types.DialogOptionTypes;
 import ch.ethz.mc.services.RESTManagerService;
+import ch.ethz.mc.services.internal.IncomingMessagePipeline;
 import ch.ethz.mc.tools.InternalDateTime;
 import ch.ethz.mc.tools.StringHelpers;
 import lombok.Getter;
@@ -33,15 +34,11 @@ public class TWILIOMessageRetrievalServiceV02 extends AbstractServiceV02 {
 	@Getter
 	private static TWILIOMessageRetrievalServiceV02	instance	= null;
 
-	private final List<ReceivedMessage>				receivedMessages;
-
 	public TWILIOMessageRetrievalServiceV02(
 			final RESTManagerService restManagerService) {
 		super(restManagerService);
 
 		instance = this;
-
-		receivedMessages = new ArrayList<ReceivedMessage>();
 	}
 
 	@GET
@@ -65,8 +62,14 @@ public class TWILIOMessageRetrievalServiceV02 extends AbstractServiceV02 {
 					.setReceivedTimestamp(InternalDateTime.currentTimeMillis());
 			receivedMessage.setMessage(message);
 
-			synchronized (receivedMessages) {
-				receivedMessages.add(receivedMessage);
+			// Let TWILIO retry (or report) the message if it can not be
+			// accepted
+			if (!IncomingMessagePipeline.getInstance()
+					.offer(receivedMessage)) {
+				throw new WebApplicationException(
+						Response.status(Status.SERVICE_UNAVAILABLE)
+								.entity("Message could not be accepted")
+								.build());
 			}
 		} catch (final Exception e) {
 			throw e;
@@ -75,17 +78,4 @@ public class TWILIOMessageRetrievalServiceV02 extends AbstractServiceV02 {
 		final MessagingResponse twiml = new MessagingResponse.Builder().build();
 		return twiml.toXml();
 	}
-
-	/**
-	 * Get all messages received by TWILIO since the last check
-	 * 
-	 * @param receivedMessages
-	 */
-	public void getReceivedMessages(
-			final List<ReceivedMessage> receivedMessages) {
-		synchronized (this.receivedMessages) {
-			receivedMessages.addAll(this.receivedMessages);
-			this.receivedMessages.clear();
-		}
-	}
 }
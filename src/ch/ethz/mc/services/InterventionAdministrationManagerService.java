@@ -10,8 +10,16 @@ import java.text.DateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.ArrayUtils;
@@ -70,6 +78,7 @@ import ch.ethz.mc.services.internal.ExternalSystemsManagerService;
 import ch.ethz.mc.services.internal.FileStorageManagerService;
 import ch.ethz.mc.services.internal.FileStorageManagerService.FILE_STORES;
 import ch.ethz.mc.services.internal.ModelObjectExchangeService;
+import ch.ethz.mc.services.internal.ParticipantLockingService;
 import ch.ethz.mc.services.internal.VariablesManagerService;
 import ch.ethz.mc.services.types.ModelObjectExchangeFormatTypes;
 import ch.ethz.mc.tools.BCrypt;
@@ -100,18 +109,25 @@ public class InterventionAdministrationManagerService {
 	private final VariablesManagerService					variablesManagerService;
 	private final ModelObjectExchangeService				modelObjectExchangeService;
 	private final ExternalSystemsManagerService			externalSystemsManagerService;
+	private final ParticipantLockingService					participantLockingService;
 
 	private final SurveyAdministrationManagerService		screeningSurveyAdministrationManagerService;
 
 	private final List<Class<? extends AbstractModule>>		modules;
 
+	private final ExecutorService							participantsDeletionExecutorService;
+	private final Set<ObjectId>								participantsScheduledForDeletion;
+	private int												participantsDeleted;
+	private int												participantsDeletionFailed;
+
 	private InterventionAdministrationManagerService(
 			final DatabaseManagerService databaseManagerService,
 			final FileStorageManagerService fileStorageManagerService,
 			final VariablesManagerService variablesManagerService,
 			final ModelObjectExchangeService modelObjectExchangeService,
 			final SurveyAdministrationManagerService screeningSurveyAdministrationManagerService,
-			final ExternalSystemsManagerService externalSystemsManagerService)
+			final ExternalSystemsManagerService externalSystemsManagerService,
+			final ParticipantLockingService participantLockingService)
 			throws Exception {
 		$lock = MC.getInstance();
 
@@ -123,6 +139,7 @@ public class InterventionAdministrationManagerService {
 		this.modelObjectExchangeService = modelObjectExchangeService;
 		this.screeningSurveyAdministrationManagerService = screeningSurveyAdministrationManagerService;
 		this.externalSystemsManagerService = externalSystemsManagerService;
+		this.participantLockingService = participantLockingService;
 
 		log.info("Registering modules...");
 		// FIXME LONGTERM Also relevant for reimplementation of module system
@@ -131,6 +148,36 @@ public class InterventionAdministrationManagerService {
 		// modules.add(MessageContestQuitMessage.class);
 		// modules.add(MessageContestDrinkingMessage.class);
 
+		participantsDeletionExecutorService = Executors
+				.newSingleThreadExecutor(new ThreadFactory() {
+					@Override
+					public Thread newThread(final Runnable runnable) {
+						val thread = new Thread(runnable,
+								"Participants Deletion");
+						thread.setPriority(Thread.NORM_PRIORITY - 1);
+						return thread;
+					}
+				});
+		participantsScheduledForDeletion = new HashSet<ObjectId>();
+		participantsDeleted = 0;
+		participantsDeletionFailed = 0;
+
+		// Resume deletion of participants not finished before the last
+		// shutdown
+		val participantIdsToDelete = new ArrayList<ObjectId>();
+		for (val participantIdToDelete : databaseManagerService
+				.findModelObjectIds(Participant.class,
+						Queries.PARTICIPANT__BY_SCHEDULED_FOR_DELETION_TRUE)) {
+			participantIdsToDelete.add(participantIdToDelete);
+		}
+		if (participantIdsToDelete.size() > 0) {
+			log.info("Resuming deletion of {} participants...",
+					participantIdsToDelete.size());
+			participantsScheduledForDeletion.addAll(participantIdsToDelete);
+			participantsDeletionExecutorService.submit(
+					() -> participantsDeleteInBatches(participantIdsToDelete));
+		}
+
 		log.info("Started.");
 	}
 
@@ -140,14 +187,15 @@ public class InterventionAdministrationManagerService {
 			final VariablesManagerService variablesManagerService,
 			final ModelObjectExchangeService modelObjectExchangeService,
 			final SurveyAdministrationManagerService screeningSurveyAdministrationManagerService,
-			final ExternalSystemsManagerService externalSystemsManagerService)
+			final ExternalSystemsManagerService externalSystemsManagerService,
+			final ParticipantLockingService participantLockingService)
 			throws Exception {
 		if (instance == null) {
 			instance = new InterventionAdministrationManagerService(
 					databaseManagerService, fileStorageManagerService,
 					variablesManagerService, modelObjectExchangeService,
 					screeningSurveyAdministrationManagerService,
-					externalSystemsManagerService);
+					externalSystemsManagerService, participantLockingService);
 		}
 		return instance;
 	}
@@ -155,6 +203,11 @@ public class InterventionAdministrationManagerService {
 	public void stop() throws Exception {
 		log.info("Stopping service...");
 
+		participantsDeletionExecutorService.shutdown();
+		participantsDeletionExecutorService.awaitTermination(
+				ImplementationConstants.PARTICIPANTS_DELETION_SHUTDOWN_TIMEOUT_IN_SECONDS,
+				TimeUnit.SECONDS);
+
 		log.info("Stopped.");
 	}
 
@@ -3103,11 +3156,82 @@ public class InterventionAdministrationManagerService {
 		}
 	}
 
+	/**
+	 * Deletes the given {@link Participant}s in batches in the background;
+	 * their monitoring is stopped immediately and they are marked as
+	 * scheduled for deletion, so the deletion can be resumed after a restart
+	 *
+	 * @param participantsToDelete
+	 */
 	@Synchronized
 	public void participantsDelete(
 			final List<Participant> participantsToDelete) {
+		val participantIds = new ArrayList<ObjectId>();
+		val fieldValuesByIds = new HashMap<ObjectId, Map<String, Object>>();
 		for (val participantToDelete : participantsToDelete) {
-			databaseManagerService.deleteModelObject(participantToDelete);
+			participantIds.add(participantToDelete.getId());
+			val fieldValues = new HashMap<String, Object>();
+			fieldValues.put("monitoringActive", false);
+			fieldValues.put("scheduledForDeletion", true);
+			fieldValuesByIds.put(participantToDelete.getId(), fieldValues);
+		}
+
+		synchronized (participantsScheduledForDeletion) {
+			participantsScheduledForDeletion.addAll(participantIds);
+		}
+
+		// Stop monitoring and remember the participants until they are
+		// deleted
+		databaseManagerService.updateModelObjectFields(Participant.class,
+				fieldValuesByIds);
+
+		participantsDeletionExecutorService
+				.submit(() -> participantsDeleteInBatches(participantIds));
+	}
+
+	private void participantsDeleteInBatches(
+			final List<ObjectId> participantIds) {
+		for (int i = 0; i < participantIds.size(); i += ImplementationConstants.PARTICIPANTS_DELETION_BATCH_SIZE) {
+			val participantIdsOfBatch = participantIds.subList(i,
+					Math.min(participantIds.size(), i
+							+ ImplementationConstants.PARTICIPANTS_DELETION_BATCH_SIZE));
+
+			log.debug("Deleting {} participants...",
+					participantIdsOfBatch.size());
+			boolean deleted;
+			participantLockingService.lockParticipants(participantIdsOfBatch);
+			try {
+				deleted = Participant
+						.deleteWithRelatedModelObjects(participantIdsOfBatch);
+			} catch (final Exception e) {
+				log.error("Could not delete participants: {}",
+						e.getMessage());
+				deleted = false;
+			} finally {
+				participantLockingService
+						.unlockParticipants(participantIdsOfBatch);
+			}
+
+			synchronized (participantsScheduledForDeletion) {
+				if (!deleted) {
+					// Participants stay scheduled (also in the database), so
+					// the deletion is retried after the next restart
+					log.error(
+							"Deletion of {} participants failed, will be retried after the next restart",
+							participantIdsOfBatch.size());
+					participantsDeletionFailed += participantIdsOfBatch
+							.size();
+					continue;
+				}
+
+				participantsScheduledForDeletion
+						.removeAll(participantIdsOfBatch);
+				participantsDeleted += participantIdsOfBatch.size();
+
+				if (participantsScheduledForDeletion.isEmpty()) {
+					participantsDeleted = 0;
+				}
+			}
 		}
 	}
 
@@ -3406,8 +3530,60 @@ public class InterventionAdministrationManagerService {
 	@Synchronized
 	public Iterable<Participant> getAllParticipantsOfIntervention(
 			final ObjectId interventionId) {
-		return databaseManagerService.findModelObjects(Participant.class,
-				Queries.PARTICIPANT__BY_INTERVENTION, interventionId);
+		val participants = databaseManagerService.findModelObjects(
+				Participant.class, Queries.PARTICIPANT__BY_INTERVENTION,
+				interventionId);
+
+		synchronized (participantsScheduledForDeletion) {
+			if (participantsScheduledForDeletion.isEmpty()) {
+				return participants;
+			}
+
+			// Hide participants that will be deleted soon
+			val participantsNotScheduledForDeletion = new ArrayList<Participant>();
+			for (val participant : participants) {
+				if (!participantsScheduledForDeletion
+						.contains(participant.getId())) {
+					participantsNotScheduledForDeletion.add(participant);
+				}
+			}
+			return participantsNotScheduledForDeletion;
+		}
+	}
+
+	/**
+	 * Checks if the given {@link Participant} will be deleted soon, so it
+	 * should not be processed anymore
+	 *
+	 * @param participantId
+	 * @return
+	 */
+	public boolean participantIsScheduledForDeletion(
+			final ObjectId participantId) {
+		synchronized (participantsScheduledForDeletion) {
+			return participantsScheduledForDeletion.contains(participantId);
+		}
+	}
+
+	/**
+	 * Returns the progress of the deletion of {@link Participant}s in the
+	 * background
+	 *
+	 * @return The number of deleted, all and failed {@link Participant}s of
+	 *         the current deletion or <code>null</code> if no deletion is in
+	 *         progress
+	 */
+	public int[] getParticipantsDeletionProgress() {
+		synchronized (participantsScheduledForDeletion) {
+			if (participantsScheduledForDeletion.isEmpty()) {
+				return null;
+			}
+
+			return new int[] { participantsDeleted,
+					participantsDeleted
+							+ participantsScheduledForDeletion.size(),
+					participantsDeletionFailed };
+		}
 	}
 
 	@Synchronized
@@ -9,6 +9,7 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
@@ -20,7 +21,14 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -36,10 +44,15 @@ import ch.ethz.mc.MC;
 import ch.ethz.mc.conf.AdminMessageStrings;
 import ch.ethz.mc.conf.Constants;
 import ch.ethz.mc.conf.ImplementationConstants;
+import ch.ethz.mc.model.Aggregations;
 import ch.ethz.mc.model.ModelObject;
 import ch.ethz.mc.model.Queries;
+import ch.ethz.mc.model.memory.DialogMessageStatistics;
+import ch.ethz.mc.model.memory.DialogMessageStatisticsStore;
 import ch.ethz.mc.model.memory.DialogMessageWithSenderIdentification;
+import ch.ethz.mc.model.memory.OutgoingMessageQueue;
 import ch.ethz.mc.model.memory.ReceivedMessage;
+import ch.ethz.mc.model.memory.SystemLoad;
 import ch.ethz.mc.model.persistent.DashboardMessage;
 import ch.ethz.mc.model.persistent.DialogMessage;
 import ch.ethz.mc.model.persistent.DialogOption;
@@ -70,9 +83,16 @@ import ch.ethz.mc.model.persistent.types.TextFormatTypes;
 import ch.ethz.mc.model.rest.Variable;
 import ch.ethz.mc.services.internal.CommunicationManagerService;
 import ch.ethz.mc.services.internal.DatabaseManagerService;
+import ch.ethz.mc.services.internal.DialogOptionLookupCache;
+import ch.ethz.mc.services.internal.DuplicateClientIdFilter;
 import ch.ethz.mc.services.internal.FileStorageManagerService.FILE_STORES;
+import ch.ethz.mc.services.internal.IncomingMessagePipeline;
+import ch.ethz.mc.services.internal.InterventionStatisticsAggregator;
+import ch.ethz.mc.services.internal.ModelObjectUpdateBatcher;
+import ch.ethz.mc.services.internal.ParticipantLockingService;
 import ch.ethz.mc.services.internal.RecursiveAbstractMonitoringRulesResolver;
 import ch.ethz.mc.services.internal.RecursiveAbstractMonitoringRulesResolver.EXECUTION_CASE;
+import ch.ethz.mc.services.internal.RulesTreeCache;
 import ch.ethz.mc.services.internal.VariablesManagerService;
 import ch.ethz.mc.services.threads.IncomingMessageWorker;
 import ch.ethz.mc.services.threads.MonitoringSchedulingWorker;
@@ -86,6 +106,7 @@ import ch.ethz.mc.ui.NotificationMessageException;
 import lombok.AllArgsConstructor;
 import lombok.Cleanup;
 import lombok.Data;
+import lombok.Getter;
 import lombok.Synchronized;
 import lombok.val;
 import lombok.extern.log4j.Log4j2;
@@ -114,6 +135,7 @@ public class InterventionExecutionManagerService {
 	private final DatabaseManagerService				databaseManagerService;
 	private final VariablesManagerService				variablesManagerService;
 	final CommunicationManagerService					communicationManagerService;
+	private final ParticipantLockingService				participantLockingService;
 
 	final InterventionAdministrationManagerService		interventionAdministrationManagerService;
 	final SurveyExecutionManagerService					surveyExecutionManagerService;
@@ -124,6 +146,22 @@ public class InterventionExecutionManagerService {
 
 	private final HashSet<String>						priorityParticipantsIds;
 
+	private final OutgoingMessageQueue					outgoingMessageQueue;
+	private final ModelObjectUpdateBatcher<DialogMessage>	dialogMessageUpdateBatcher;
+	private final DialogMessageStatisticsStore			dialogMessageStatisticsStore;
+	private final InterventionStatisticsAggregator		interventionStatisticsAggregator;
+	private long										lastOutgoingMessageQueueSynchronization;
+
+	@Getter
+	private final RulesTreeCache						rulesTreeCache;
+	private final DialogOptionLookupCache				dialogOptionLookupCache;
+	private final DuplicateClientIdFilter				duplicateClientIdFilter;
+
+	private final int									messagingThreads;
+	private final ExecutorService						messagingExecutorService;
+
+	private final SystemLoad							systemLoad;
+
 	@Data
 	@AllArgsConstructor
 	private class MicroDialogMessageRandomizationResult {
@@ -131,10 +169,17 @@ public class InterventionExecutionManagerService {
 		int					highestOrder;
 	}
 
+	private static class DialogMessageSendingTime {
+		private ObjectId	dialogMessage;
+		private ObjectId	participant;
+		private long		shouldBeSentTimestamp;
+	}
+
 	private InterventionExecutionManagerService(
 			final DatabaseManagerService databaseManagerService,
 			final VariablesManagerService variablesManagerService,
 			final CommunicationManagerService communicationManagerService,
+			final ParticipantLockingService participantLockingService,
 			final InterventionAdministrationManagerService interventionAdministrationManagerService,
 			final SurveyExecutionManagerService surveyExecutionManagerService)
 			throws Exception {
@@ -145,17 +190,58 @@ public class InterventionExecutionManagerService {
 		this.databaseManagerService = databaseManagerService;
 		this.variablesManagerService = variablesManagerService;
 		this.communicationManagerService = communicationManagerService;
+		this.participantLockingService = participantLockingService;
 		this.interventionAdministrationManagerService = interventionAdministrationManagerService;
 		this.surveyExecutionManagerService = surveyExecutionManagerService;
 
 		simulatorActive = Constants.isSimulatedDateAndTime();
 
-		// Initialize cache
+		// Initialize caches
 		priorityParticipantsIds = new HashSet<String>();
+		rulesTreeCache = new RulesTreeCache(databaseManagerService);
+		dialogOptionLookupCache = new DialogOptionLookupCache(
+				databaseManagerService);
+		duplicateClientIdFilter = new DuplicateClientIdFilter(
+				databaseManagerService);
+		interventionStatisticsAggregator = new InterventionStatisticsAggregator(
+				databaseManagerService);
+
+		// Prepare parallel messaging
+		systemLoad = SystemLoad.getInstance();
+		if (Constants.isParallelMessagingActive()) {
+			messagingThreads = Math.max(1,
+					Constants.getParallelMessagingThreads());
+			messagingExecutorService = Executors.newFixedThreadPool(
+					messagingThreads, new ThreadFactory() {
+						private final AtomicInteger threadNumber = new AtomicInteger(
+								1);
+
+						@Override
+						public Thread newThread(final Runnable runnable) {
+							val thread = new Thread(runnable,
+									"Monitoring Scheduling Worker "
+											+ threadNumber.getAndIncrement());
+							thread.setPriority(Thread.NORM_PRIORITY - 1);
+							return thread;
+						}
+					});
+			systemLoad.setPerformContinuousMessagingMode(
+					"parallel (" + messagingThreads + " threads)");
+		} else {
+			messagingThreads = 1;
+			messagingExecutorService = null;
+			systemLoad.setPerformContinuousMessagingMode("sequential");
+		}
 
 		// Remember stop words
 		acceptedStopWords = Constants.getAcceptedStopWords();
 
+		outgoingMessageQueue = OutgoingMessageQueue.getInstance();
+		dialogMessageUpdateBatcher = new ModelObjectUpdateBatcher<DialogMessage>(
+				databaseManagerService, DialogMessage.class);
+		dialogMessageStatisticsStore = DialogMessageStatisticsStore
+				.getInstance();
+
 		// Reset all messages which could not be sent the last times
 		dialogMessagesResetStatusAfterRestart();
 
@@ -173,13 +259,14 @@ public class InterventionExecutionManagerService {
 			final DatabaseManagerService databaseManagerService,
 			final VariablesManagerService variablesManagerService,
 			final CommunicationManagerService communicationManagerService,
+			final ParticipantLockingService participantLockingService,
 			final InterventionAdministrationManagerService interventionAdministrationManagerService,
 			final SurveyExecutionManagerService screeningSurveyExecutionManagerService)
 			throws Exception {
 		if (instance == null) {
 			instance = new InterventionExecutionManagerService(
 					databaseManagerService, variablesManagerService,
-					communicationManagerService,
+					communicationManagerService, participantLockingService,
 					interventionAdministrationManagerService,
 					screeningSurveyExecutionManagerService);
 		}
@@ -194,6 +281,8 @@ public class InterventionExecutionManagerService {
 
 				// Start communication manager service
 				try {
+					IncomingMessagePipeline.getInstance().start(
+							incomingMessageWorker::handleReceivedMessage);
 					communicationManagerService.start(instance);
 
 					// Start working threads
@@ -238,6 +327,8 @@ public class InterventionExecutionManagerService {
 				// Do nothing
 			}
 		}
+		log.info("Stopping incoming message pipeline...");
+		IncomingMessagePipeline.getInstance().stop();
 		log.info("Stopping outgoing message worker...");
 		synchronized (outgoingMessageWorker) {
 			outgoingMessageWorker.setShouldStop(true);
@@ -256,6 +347,12 @@ public class InterventionExecutionManagerService {
 			Thread.sleep(200);
 		}
 
+		if (messagingExecutorService != null) {
+			log.info("Stopping parallel messaging threads...");
+			messagingExecutorService.shutdown();
+			messagingExecutorService.awaitTermination(60, TimeUnit.SECONDS);
+		}
+
 		log.info("Stopped.");
 	}
 
@@ -313,7 +410,6 @@ public class InterventionExecutionManagerService {
 	}
 
 	// Dialog message
-	@Synchronized
 	private void dialogMessageCreateManuallyOrByRulesIncludingMediaObject(
 			final Participant participant, final DialogMessageTypes type,
 			final String message, final TextFormatTypes textFormatType,
@@ -493,55 +589,54 @@ public class InterventionExecutionManagerService {
 		databaseManagerService.saveModelObject(dialogMessage);
 	}
 
-	@Synchronized
 	private boolean dialogMessageCheckForDuplicateBasedOnClientId(
 			final ObjectId participant, final String clientId) {
-		val dialogMessage = databaseManagerService.findOneModelObject(
-				DialogMessage.class,
-				Queries.DIALOG_MESSAGE__BY_PARTICIPANT_AND_CLIENT_ID,
+		return duplicateClientIdFilter.checkForDuplicateAndRemember(
 				participant, clientId);
-
-		if (dialogMessage == null) {
-			return false;
-		} else {
-			return true;
-		}
 	}
 
-	@Synchronized
 	public void dialogMessageSetMediaContentViewed(
 			final ObjectId dialogMessageId) {
-		val dialogMessage = databaseManagerService
-				.getModelObjectById(DialogMessage.class, dialogMessageId);
-
-		dialogMessage.setMediaContentViewed(true);
+		// Only the field is updated, so concurrent status changes are kept
+		val fieldValues = new HashMap<String, Object>();
+		fieldValues.put("mediaContentViewed", true);
 
-		databaseManagerService.saveModelObject(dialogMessage);
+		dialogMessageUpdateBatcher.await(dialogMessageUpdateBatcher
+				.submit(dialogMessageId, fieldValues));
 	}
 
-	@Synchronized
 	public void dialogMessageSetProblemSolved(final ObjectId dialogMessageId,
 			final String newUncleanedButCorrectedResult)
 			throws NotificationMessageException {
 		log.debug("Marking dialog message {} as problem solved");
 
-		val dialogMessage = databaseManagerService
-				.getModelObjectById(DialogMessage.class, dialogMessageId);
+		val participantId = databaseManagerService
+				.getModelObjectById(DialogMessage.class, dialogMessageId)
+				.getParticipant();
 
-		if (dialogMessage
-				.getStatus() == DialogMessageStatusTypes.SENT_AND_WAITING_FOR_ANSWER) {
-			dialogMessageStatusChangesAfterSending(dialogMessageId,
-					DialogMessageStatusTypes.SENT_AND_ANSWERED_BY_PARTICIPANT,
-					dialogMessage.getAnswerReceivedTimestamp(),
-					StringHelpers.cleanReceivedMessageString(
-							newUncleanedButCorrectedResult),
-					dialogMessage.getAnswerReceivedRaw(), null);
-		} else if (dialogMessage
-				.getStatus() == DialogMessageStatusTypes.RECEIVED_UNEXPECTEDLY) {
-			unexpectedDialogMessageSetProblemSolved(dialogMessage);
-		} else {
-			throw new NotificationMessageException(
-					AdminMessageStrings.NOTIFICATION__CASE_CANT_BE_SOLVED_ANYMORE);
+		// Synchronization is only be done on participant level
+		participantLockingService.lockParticipant(participantId);
+		try {
+			val dialogMessage = databaseManagerService
+					.getModelObjectById(DialogMessage.class, dialogMessageId);
+
+			if (dialogMessage
+					.getStatus() == DialogMessageStatusTypes.SENT_AND_WAITING_FOR_ANSWER) {
+				dialogMessageStatusChangesAfterSending(dialogMessageId,
+						DialogMessageStatusTypes.SENT_AND_ANSWERED_BY_PARTICIPANT,
+						dialogMessage.getAnswerReceivedTimestamp(),
+						StringHelpers.cleanReceivedMessageString(
+								newUncleanedButCorrectedResult),
+						dialogMessage.getAnswerReceivedRaw(), null);
+			} else if (dialogMessage
+					.getStatus() == DialogMessageStatusTypes.RECEIVED_UNEXPECTEDLY) {
+				unexpectedDialogMessageSetProblemSolved(dialogMessage);
+			} else {
+				throw new NotificationMessageException(
+						AdminMessageStrings.NOTIFICATION__CASE_CANT_BE_SOLVED_ANYMORE);
+			}
+		} finally {
+			participantLockingService.unlockParticipant(participantId);
 		}
 	}
 
@@ -556,11 +651,13 @@ public class InterventionExecutionManagerService {
 	 * Handles states form "PREPARED_FOR_SENDING" to
 	 * "SENT_AND_WAITING_FOR_ANSWER" or "SENT_BUT_NOT_WAITING_FOR_ANSWER"
 	 *
+	 * Only the changed fields are written, grouped with concurrent status
+	 * changes of other {@link DialogMessage}s.
+	 *
 	 * @param dialogMessageId
 	 * @param newStatus
 	 * @param timeStampOfEvent
 	 */
-	@Synchronized
 	public DialogMessage dialogMessageStatusChangesForSending(
 			final ObjectId dialogMessageId,
 			final DialogMessageStatusTypes newStatus,
@@ -569,6 +666,8 @@ public class InterventionExecutionManagerService {
 				.getModelObjectById(DialogMessage.class, dialogMessageId);
 
 		dialogMessage.setStatus(newStatus);
+		val fieldValues = new HashMap<String, Object>();
+		fieldValues.put("status", newStatus);
 
 		// Adjust for sent
 		if (newStatus == DialogMessageStatusTypes.SENT_AND_WAITING_FOR_ANSWER) {
@@ -629,11 +728,26 @@ public class InterventionExecutionManagerService {
 				dialogMessage.setIsUnansweredAfterTimestamp(
 						timeStampOfEvent + appropriateReplyTimeframe);
 			}
+
+			fieldValues.put("sentTimestamp", dialogMessage.getSentTimestamp());
+			fieldValues.put("isUnansweredAfterTimestamp",
+					dialogMessage.getIsUnansweredAfterTimestamp());
 		} else if (newStatus == DialogMessageStatusTypes.SENT_BUT_NOT_WAITING_FOR_ANSWER) {
 			dialogMessage.setSentTimestamp(timeStampOfEvent);
+
+			fieldValues.put("sentTimestamp", dialogMessage.getSentTimestamp());
 		}
 
-		databaseManagerService.saveModelObject(dialogMessage);
+		dialogMessageUpdateBatcher.await(dialogMessageUpdateBatcher
+				.submit(dialogMessageId, fieldValues));
+		dialogMessageStatisticsStore
+				.dialogMessagesModified(dialogMessage.getParticipant());
+
+		// Messages prepared for sending again have to be queued again
+		if (newStatus == DialogMessageStatusTypes.PREPARED_FOR_SENDING) {
+			outgoingMessageQueue.add(dialogMessage.getParticipant(),
+					dialogMessageId, dialogMessage.getShouldBeSentTimestamp());
+		}
 
 		return dialogMessage;
 	}
@@ -674,7 +788,6 @@ public class InterventionExecutionManagerService {
 	}
 
 	// Dialog Message
-	@Synchronized
 	private DialogMessage dialogMessageCreateAsUnexpectedReceivedOrIntention(
 			final ObjectId participantId, final DialogMessageTypes type,
 			final ReceivedMessage receivedMessage, final ObjectId interventionExternalServiceId) {
@@ -741,6 +854,9 @@ public class InterventionExecutionManagerService {
 	/**
 	 * Handles states form "SENT_AND_ANSWERED_BY_PARTICIPANT" till end
 	 *
+	 * Only the changed fields are written, grouped with concurrent status
+	 * changes of other {@link DialogMessage}s.
+	 *
 	 * @param dialogMessageId
 	 * @param newStatus
 	 * @param timeStampOfEvent
@@ -748,8 +864,6 @@ public class InterventionExecutionManagerService {
 	 * @param rawReceivedMessage
 	 * @param clientId
 	 */
-	@SuppressWarnings("incomplete-switch")
-	@Synchronized
 	private DialogMessage dialogMessageStatusChangesAfterSending(
 			final ObjectId dialogMessageId,
 			final DialogMessageStatusTypes newStatus,
@@ -758,9 +872,40 @@ public class InterventionExecutionManagerService {
 		val dialogMessage = databaseManagerService
 				.getModelObjectById(DialogMessage.class, dialogMessageId);
 
+		dialogMessageUpdateBatcher.await(dialogMessageStatusChangesAfterSending(
+				dialogMessage, newStatus, timeStampOfEvent,
+				cleanedReceivedMessage, rawReceivedMessage, clientId));
+		dialogMessageStatisticsStore
+				.dialogMessagesModified(dialogMessage.getParticipant());
+
+		return dialogMessage;
+	}
+
+	/**
+	 * Handles states form "SENT_AND_ANSWERED_BY_PARTICIPANT" till end for the
+	 * given {@link DialogMessage}; the returned update has to be awaited
+	 *
+	 * @param dialogMessage
+	 * @param newStatus
+	 * @param timeStampOfEvent
+	 * @param cleanedReceivedMessage
+	 * @param rawReceivedMessage
+	 * @param clientId
+	 * @return
+	 */
+	@SuppressWarnings("incomplete-switch")
+	private ModelObjectUpdateBatcher.Update dialogMessageStatusChangesAfterSending(
+			final DialogMessage dialogMessage,
+			final DialogMessageStatusTypes newStatus,
+			final long timeStampOfEvent, final String cleanedReceivedMessage,
+			final String rawReceivedMessage, final String clientId) {
+		val fieldValues = new HashMap<String, Object>();
+
 		dialogMessage.setStatus(newStatus);
+		fieldValues.put("status", newStatus);
 		if (!StringUtils.isBlank(clientId)) {
 			dialogMessage.setClientId(clientId);
+			fieldValues.put("clientId", clientId);
 		}
 
 		switch (newStatus) {
@@ -775,6 +920,12 @@ public class InterventionExecutionManagerService {
 				dialogMessage.setAnswerReceivedTimestamp(timeStampOfEvent);
 				dialogMessage.setAnswerReceived(cleanedReceivedMessage);
 				dialogMessage.setAnswerReceivedRaw(rawReceivedMessage);
+
+				fieldValues.put("answerNotAutomaticallyProcessable",
+						dialogMessage.isAnswerNotAutomaticallyProcessable());
+				fieldValues.put("answerReceivedTimestamp", timeStampOfEvent);
+				fieldValues.put("answerReceived", cleanedReceivedMessage);
+				fieldValues.put("answerReceivedRaw", rawReceivedMessage);
 				break;
 			case SENT_AND_ANSWERED_AND_PROCESSED:
 				// no changes necessary
@@ -784,9 +935,8 @@ public class InterventionExecutionManagerService {
 				break;
 		}
 
-		databaseManagerService.saveModelObject(dialogMessage);
-
-		return dialogMessage;
+		return dialogMessageUpdateBatcher.submit(dialogMessage.getId(),
+				fieldValues);
 	}
 
 	// Dashboard message
@@ -925,19 +1075,19 @@ public class InterventionExecutionManagerService {
 	 * Important: For performance reasons this method is NOT synchronized
 	 * anymore.
 	 * 
+	 * If parallel messaging is active, the participants are split into small
+	 * work units which are performed by a bounded thread pool. The order of the
+	 * work for one participant is still ensured by the participant lock.
+	 * 
 	 * @return Count of participants the messaging has been performed for
 	 * @throws Exception
 	 */
 	public long performMessaging() throws Exception {
 		long messagingPerformedForParticipants = 0;
 
-		log.debug(
-				"Create a list of all relevant participants to perform messaging");
-		val participants = getAllParticipantsRelevantForAnsweredInTimeChecksAndMonitoringScheduling();
-
 		// Scheduling of new messages (periodic) will only be
 		// performed every x minutes
-		boolean periodicScheduling;
+		final boolean periodicScheduling;
 
 		if (System.currentTimeMillis() > lastPeriodicScheduling
 				+ (simulatorActive
@@ -950,41 +1100,196 @@ public class InterventionExecutionManagerService {
 			periodicScheduling = false;
 		}
 
-		int i = 0;
-		for (val participantToCheck : participants) {
-			// Perform messaging for priority participants every 100
-			// participants
-			if (i % 100 == 0) {
-				final String[] priorityParticipantsIdsArray;
-				synchronized (priorityParticipantsIds) {
-					priorityParticipantsIdsArray = new String[priorityParticipantsIds
-							.size()];
-					priorityParticipantsIds
-							.toArray(priorityParticipantsIdsArray);
-					priorityParticipantsIds.clear();
-				}
+		// The ids of all relevant participants are streamed from the database
+		// and collected in batches. Each participant occurs only once, so the
+		// participants of one batch can be processed in parallel; the priority
+		// participants are checked between the batches
+		final int batchSize = ImplementationConstants.MONITORING_SCHEDULING_PARTICIPANTS_BETWEEN_PRIORITY_CHECKS
+				* messagingThreads;
+		final List<ObjectId> batchParticipantIds = new ArrayList<ObjectId>(
+				batchSize);
+		final TreeMap<Long, Long> participantsRequiredMillisCounts = new TreeMap<Long, Long>();
+
+		log.debug("Streaming all relevant participants to perform messaging");
+		for (val interventionId : databaseManagerService.findModelObjectIds(
+				Intervention.class,
+				Queries.INTERVENTION__ACTIVE_TRUE_MONITORING_ACTIVE_TRUE)) {
+			@Cleanup
+			val participantIds = databaseManagerService
+					.findModelObjectIdsStreamed(Participant.class,
+							Queries.PARTICIPANT__BY_INTERVENTION_AND_MONITORING_ACTIVE_TRUE,
+							interventionId);
 
-				log.debug("Performing priority messaging for {} participants",
-						priorityParticipantsIdsArray.length);
+			if (participantIds == null) {
+				continue;
+			}
 
-				for (val priorityParticipantToCheckStringId : priorityParticipantsIdsArray) {
-					val priotiryParticipantToCheckId = new ObjectId(
-							priorityParticipantToCheckStringId);
+			while (participantIds.hasNext()) {
+				batchParticipantIds.add(participantIds.next());
 
-					// Synchronization is only be done on participant level
-					if (performMessagingForParticipant(
-							priotiryParticipantToCheckId, false)) {
-						messagingPerformedForParticipants++;
-					}
+				if (batchParticipantIds.size() == batchSize) {
+					messagingPerformedForParticipants += performMessagingForBatch(
+							batchParticipantIds, periodicScheduling,
+							participantsRequiredMillisCounts);
+					batchParticipantIds.clear();
 				}
 			}
-			i++;
+		}
+
+		if (batchParticipantIds.size() > 0) {
+			messagingPerformedForParticipants += performMessagingForBatch(
+					batchParticipantIds, periodicScheduling,
+					participantsRequiredMillisCounts);
+		} else {
+			messagingPerformedForParticipants += performPriorityMessaging();
+		}
+
+		// Remember tail latency of this cycle
+		long participantsCount = 0;
+		for (val count : participantsRequiredMillisCounts.values()) {
+			participantsCount += count;
+		}
+
+		long requiredMillis95thPercentile = 0;
+		long participantsBelowPercentile = 0;
+		for (val requiredMillisCount : participantsRequiredMillisCounts
+				.entrySet()) {
+			participantsBelowPercentile += requiredMillisCount.getValue();
+			if (participantsBelowPercentile >= participantsCount * 0.95) {
+				requiredMillis95thPercentile = requiredMillisCount.getKey();
+				break;
+			}
+		}
+
+		systemLoad
+				.setPerformContinuousMessagingRequiredMillisPerParticipant95thPercentile(
+						requiredMillis95thPercentile);
+		systemLoad.setPerformContinuousMessagingRequiredMillisPerParticipantMax(
+				participantsRequiredMillisCounts.isEmpty() ? 0
+						: participantsRequiredMillisCounts.lastKey());
+
+		return messagingPerformedForParticipants;
+	}
+
+	/**
+	 * Performs the priority messaging and afterwards the messaging for the
+	 * given batch of {@link Participant}s, either sequentially or split into
+	 * work units performed in parallel
+	 * 
+	 * @param participantIds
+	 * @param periodicScheduling
+	 * @param participantsRequiredMillisCounts
+	 *            Counts of participants per required millis
+	 * @return Count of participants the messaging has been performed for
+	 * @throws Exception
+	 */
+	private long performMessagingForBatch(final List<ObjectId> participantIds,
+			final boolean periodicScheduling,
+			final TreeMap<Long, Long> participantsRequiredMillisCounts)
+			throws Exception {
+		long messagingPerformedForParticipants = performPriorityMessaging();
+
+		final long[] participantsRequiredMillis = new long[participantIds
+				.size()];
+
+		if (messagingExecutorService == null) {
+			messagingPerformedForParticipants += performMessagingForParticipants(
+					participantIds, 0, participantIds.size(),
+					periodicScheduling, participantsRequiredMillis);
+		} else {
+			final int workUnitSize = ImplementationConstants.MONITORING_SCHEDULING_PARTICIPANTS_PER_WORK_UNIT;
+			final List<Callable<Long>> workUnits = new ArrayList<Callable<Long>>();
+
+			for (int workUnitStart = 0; workUnitStart < participantIds
+					.size(); workUnitStart += workUnitSize) {
+				final int start = workUnitStart;
+				final int end = Math.min(workUnitStart + workUnitSize,
+						participantIds.size());
+
+				workUnits.add(() -> performMessagingForParticipants(
+						participantIds, start, end, periodicScheduling,
+						participantsRequiredMillis));
+			}
+
+			for (val workUnitResult : messagingExecutorService
+					.invokeAll(workUnits)) {
+				messagingPerformedForParticipants += workUnitResult.get();
+			}
+		}
+
+		for (val requiredMillis : participantsRequiredMillis) {
+			val count = participantsRequiredMillisCounts.get(requiredMillis);
+			participantsRequiredMillisCounts.put(requiredMillis,
+					count == null ? 1 : count + 1);
+		}
+
+		return messagingPerformedForParticipants;
+	}
+
+	/**
+	 * Performs the messaging for all {@link Participant}s put on the priority
+	 * list since the last check
+	 * 
+	 * @return Count of participants the messaging has been performed for
+	 */
+	private long performPriorityMessaging() {
+		long messagingPerformedForParticipants = 0;
+
+		final String[] priorityParticipantsIdsArray;
+		synchronized (priorityParticipantsIds) {
+			priorityParticipantsIdsArray = new String[priorityParticipantsIds
+					.size()];
+			priorityParticipantsIds.toArray(priorityParticipantsIdsArray);
+			priorityParticipantsIds.clear();
+		}
+
+		log.debug("Performing priority messaging for {} participants",
+				priorityParticipantsIdsArray.length);
+
+		for (val priorityParticipantToCheckStringId : priorityParticipantsIdsArray) {
+			val priotiryParticipantToCheckId = new ObjectId(
+					priorityParticipantToCheckStringId);
+
+			// Synchronization is only be done on participant level
+			if (performMessagingForParticipant(priotiryParticipantToCheckId,
+					false)) {
+				messagingPerformedForParticipants++;
+			}
+		}
+
+		return messagingPerformedForParticipants;
+	}
+
+	/**
+	 * Performs the messaging for the {@link Participant}s within the given
+	 * range of the given list and remembers the required time per participant
+	 * 
+	 * @param participantIds
+	 * @param start
+	 *            Index of the first participant (inclusive)
+	 * @param end
+	 *            Index of the last participant (exclusive)
+	 * @param periodicScheduling
+	 * @param participantsRequiredMillis
+	 * @return Count of participants the messaging has been performed for
+	 */
+	private long performMessagingForParticipants(
+			final List<ObjectId> participantIds, final int start,
+			final int end, final boolean periodicScheduling,
+			final long[] participantsRequiredMillis) {
+		long messagingPerformedForParticipants = 0;
+
+		for (int i = start; i < end; i++) {
+			final long participantStartingTime = System.currentTimeMillis();
 
 			// Synchronization is only be done on participant level
-			if (performMessagingForParticipant(participantToCheck.getId(),
+			if (performMessagingForParticipant(participantIds.get(i),
 					periodicScheduling)) {
 				messagingPerformedForParticipants++;
 			}
+
+			participantsRequiredMillis[i] = System.currentTimeMillis()
+					- participantStartingTime;
 		}
 
 		return messagingPerformedForParticipants;
@@ -1002,14 +1307,18 @@ public class InterventionExecutionManagerService {
 			final boolean periodicScheduling) {
 		boolean messagingPerformed = false;
 
-		synchronized ($lock) {
+		participantLockingService.lockParticipant(participantIdToCheck);
+		try {
 			// Participant and intervention check has to be done again (due
 			// to potential inconsistency because of missing
 			// synchronization)
 			val participant = databaseManagerService.getModelObjectById(
 					Participant.class, participantIdToCheck);
 
-			if (participant == null || !participant.isMonitoringActive()) {
+			if (participant == null || !participant.isMonitoringActive()
+					|| interventionAdministrationManagerService
+							.participantIsScheduledForDeletion(
+									participantIdToCheck)) {
 				return messagingPerformed;
 			}
 
@@ -1078,12 +1387,13 @@ public class InterventionExecutionManagerService {
 							e.getMessage());
 				}
 			}
+		} finally {
+			participantLockingService.unlockParticipant(participantIdToCheck);
 		}
 
 		return messagingPerformed;
 	}
 
-	@Synchronized
 	private void reactOnAnsweredAndUnansweredMessages(
 			final Participant participant, final DialogStatus dialogStatus,
 			final boolean userAnswered) {
@@ -1413,7 +1723,6 @@ public class InterventionExecutionManagerService {
 		}
 	}
 
-	@Synchronized
 	private void scheduleMessagesForSending(final Participant participant,
 			final DialogStatus dialogStatus, final boolean periodicCheck) {
 		log.debug("Scheduling monitoring messages for participant {}",
@@ -1430,8 +1739,11 @@ public class InterventionExecutionManagerService {
 					Intervention.class, participant.getIntervention());
 
 			val dateToday = new Date(InternalDateTime.currentTimeMillis());
-			val todayDayIndex = Integer
-					.parseInt(dayInWeekFormatter.format(dateToday));
+			final int todayDayIndex;
+			synchronized (dayInWeekFormatter) {
+				todayDayIndex = Integer
+						.parseInt(dayInWeekFormatter.format(dateToday));
+			}
 
 			boolean todayIsAStartingDay = false;
 
@@ -1612,9 +1924,11 @@ public class InterventionExecutionManagerService {
 	/**
 	 * Handles all received messages
 	 * 
+	 * Important: For performance reasons this method is NOT synchronized
+	 * anymore.
+	 * 
 	 * @param receivedMessage
 	 */
-	@Synchronized
 	public DialogMessage handleReceivedMessage(
 			final ReceivedMessage receivedMessage) {
 		val dialogOption = getDialogOptionByTypeAndDataOfActiveInterventions(
@@ -1627,6 +1941,40 @@ public class InterventionExecutionManagerService {
 			return null;
 		}
 
+		// Synchronization is only be done on participant level
+		participantLockingService
+				.lockParticipant(dialogOption.getParticipant());
+		try {
+			if (interventionAdministrationManagerService
+					.participantIsScheduledForDeletion(
+							dialogOption.getParticipant())) {
+				log.debug(
+						"The received message with sender number '{}' belongs to a participant that will be deleted, skip it",
+						receivedMessage.getSender());
+				return null;
+			}
+
+			return handleReceivedMessageOfParticipant(receivedMessage,
+					dialogOption);
+		} finally {
+			participantLockingService
+					.unlockParticipant(dialogOption.getParticipant());
+		}
+	}
+
+	/**
+	 * Handles a received message of the {@link Participant} belonging to the
+	 * given {@link DialogOption}
+	 * 
+	 * Caution: The lock of the participant has to be held by the caller
+	 * 
+	 * @param receivedMessage
+	 * @param dialogOption
+	 * @return
+	 */
+	private DialogMessage handleReceivedMessageOfParticipant(
+			final ReceivedMessage receivedMessage,
+			final DialogOption dialogOption) {
 		// Check for duplicate
 		if (!StringUtils.isBlank(receivedMessage.getClientId())) {
 			if (dialogMessageCheckForDuplicateBasedOnClientId(
@@ -2025,7 +2373,15 @@ public class InterventionExecutionManagerService {
 
 		for (val participantId : participantIdsWithMessagesWaitingToBeSent) {
 			// Synchronization is only be done on participant level
-			synchronized ($lock) {
+			participantLockingService.lockParticipant(participantId);
+			// Write consecutive messages (e.g. of micro dialogs) at once
+			communicationManagerService.startMessageCoalescing();
+			try {
+				if (interventionAdministrationManagerService
+						.participantIsScheduledForDeletion(participantId)) {
+					continue;
+				}
+
 				val dialogMessagesWithSenderIdentificationToSend = getDialogMessagesWithSenderWaitingToBeSentOfParticipant(
 						participantId);
 				for (val dialogMessageWithSenderIdentificationToSend : dialogMessagesWithSenderIdentificationToSend) {
@@ -2086,15 +2442,24 @@ public class InterventionExecutionManagerService {
 								log.debug(
 										"Message requests to deactivate all open questions...");
 
+								// Write the messages collected so far first,
+								// so that they are deactivated as well
+								communicationManagerService
+										.flushCoalescedMessages();
+								communicationManagerService
+										.startMessageCoalescing();
+
 								val dialogMessagesToDeactivate = getDialogMessagesOfParticipantWaitingToBeAnsweredByParticipant(
 										participantId);
+								val deactivationUpdates = new ArrayList<ModelObjectUpdateBatcher.Update>();
 								for (val dialogMessageToDeactivate : dialogMessagesToDeactivate) {
-									dialogMessageStatusChangesAfterSending(
-											dialogMessageToDeactivate.getId(),
-											DialogMessageStatusTypes.SENT_AND_WAITED_FOR_ANSWER_BUT_DEACTIVATED,
-											InternalDateTime
-													.currentTimeMillis(),
-											null, null, null);
+									deactivationUpdates.add(
+											dialogMessageStatusChangesAfterSending(
+													dialogMessageToDeactivate,
+													DialogMessageStatusTypes.SENT_AND_WAITED_FOR_ANSWER_BUT_DEACTIVATED,
+													InternalDateTime
+															.currentTimeMillis(),
+													null, null, null));
 
 									// Stop deactivation when current message is
 									// reached
@@ -2104,6 +2469,13 @@ public class InterventionExecutionManagerService {
 										break;
 									}
 								}
+								// Write all deactivations at once
+								for (val deactivationUpdate : deactivationUpdates) {
+									dialogMessageUpdateBatcher
+											.await(deactivationUpdate);
+								}
+								dialogMessageStatisticsStore
+										.dialogMessagesModified(participantId);
 
 								log.debug("Deactivation done");
 							}
@@ -2135,10 +2507,14 @@ public class InterventionExecutionManagerService {
 
 										continue;
 									}
-									if (communicationManagerService
-											.getAsyncSendingThreadCount() > ImplementationConstants.ASYNC_SENDING_MAXIMUM_THREAD_COUNT) {
+									if (!communicationManagerService
+											.isAsyncSendingQueueAvailable()) {
 										log.debug(
-												"Too many async sending threads currently prepared for sending...delay until the next run");
+												"Too many messages currently queued for sending...delay until the next run");
+										outgoingMessageQueue.add(participantId,
+												dialogMessageToSend.getId(),
+												dialogMessageToSend
+														.getShouldBeSentTimestamp());
 										continue;
 									}
 									break;
@@ -2175,6 +2551,14 @@ public class InterventionExecutionManagerService {
 								e.getMessage());
 					}
 				}
+			} finally {
+				try {
+					communicationManagerService.flushCoalescedMessages();
+				} catch (final Exception e) {
+					log.error("Could not send coalesced messages: {}",
+							e.getMessage());
+				}
+				participantLockingService.unlockParticipant(participantId);
 			}
 		}
 	}
@@ -2188,7 +2572,6 @@ public class InterventionExecutionManagerService {
 	 * @param microDialogId
 	 * @param microDialogMessageId
 	 */
-	@Synchronized
 	private void handleMicroDialog(final ObjectId participantId,
 			final ObjectId microDialogId, final ObjectId microDialogMessageId,
 			final ObjectId interventionExternalServiceId) {
@@ -2650,7 +3033,6 @@ public class InterventionExecutionManagerService {
 	 *
 	 * @return
 	 */
-	@Synchronized
 	public MonitoringMessage determineMessageOfMessageGroupToSend(
 			final Participant participant,
 			final MonitoringMessageGroup messageGroup,
@@ -2821,25 +3203,29 @@ public class InterventionExecutionManagerService {
 	 * @param advisorMessage
 	 * @param messageWithPlaceholders
 	 */
-	@Synchronized
 	public void sendManualMessage(final Participant participant,
 			final boolean advisorMessage,
 			final String messageWithPlaceholders) {
-		val variablesWithValues = variablesManagerService
-				.getAllVariablesWithValuesOfParticipantAndSystemAndExternalSystem(participant);
-
-		// Determine message text to send
-		val messageTextToSend = VariableStringReplacer
-				.findVariablesAndReplaceWithTextValues(
-						participant.getLanguage(), messageWithPlaceholders,
-						variablesWithValues.values(), "");
-
-		// Create dialog message
-		dialogMessageCreateManuallyOrByRulesIncludingMediaObject(participant,
-				DialogMessageTypes.PLAIN, messageTextToSend,
-				TextFormatTypes.PLAIN, null, null, true,
-				InternalDateTime.currentTimeMillis(), null, null, null, null,
-				advisorMessage, false, false, false, false, 0, null);
+		participantLockingService.lockParticipant(participant.getId());
+		try {
+			val variablesWithValues = variablesManagerService
+					.getAllVariablesWithValuesOfParticipantAndSystemAndExternalSystem(participant);
+
+			// Determine message text to send
+			val messageTextToSend = VariableStringReplacer
+					.findVariablesAndReplaceWithTextValues(
+							participant.getLanguage(), messageWithPlaceholders,
+							variablesWithValues.values(), "");
+
+			// Create dialog message
+			dialogMessageCreateManuallyOrByRulesIncludingMediaObject(participant,
+					DialogMessageTypes.PLAIN, messageTextToSend,
+					TextFormatTypes.PLAIN, null, null, true,
+					InternalDateTime.currentTimeMillis(), null, null, null, null,
+					advisorMessage, false, false, false, false, 0, null);
+		} finally {
+			participantLockingService.unlockParticipant(participant.getId());
+		}
 	}
 
 	/**
@@ -2850,68 +3236,71 @@ public class InterventionExecutionManagerService {
 	 * @param monitoringMessageGroup
 	 * @param minutesUntilHandledAsNotAnswered
 	 */
-	@Synchronized
 	public void sendManualMessage(final Participant participant,
 			final boolean advisorMessage,
 			final MonitoringMessageGroup monitoringMessageGroup,
 			final int minutesUntilHandledAsNotAnswered) {
+		participantLockingService.lockParticipant(participant.getId());
+		try {
+			val determinedMonitoringMessageToSend = determineMessageOfMessageGroupToSend(
+					participant, monitoringMessageGroup, null, true, null);
 
-		val determinedMonitoringMessageToSend = determineMessageOfMessageGroupToSend(
-				participant, monitoringMessageGroup, null, true, null);
-
-		if (determinedMonitoringMessageToSend == null) {
-			log.warn(
-					"There are no more messages left in message group {} to send a message to participant {}",
-					monitoringMessageGroup, participant.getId());
+			if (determinedMonitoringMessageToSend == null) {
+				log.warn(
+						"There are no more messages left in message group {} to send a message to participant {}",
+						monitoringMessageGroup, participant.getId());
 
-			return;
-		}
+				return;
+			}
 
-		// Determine message text and answer type with options to send
-		val variablesWithValues = variablesManagerService
-				.getAllVariablesWithValuesOfParticipantAndSystemAndExternalSystem(participant,
-						determinedMonitoringMessageToSend, null, null);
-		val messageTextToSend = VariableStringReplacer
-				.findVariablesAndReplaceWithTextValues(
-						participant.getLanguage(),
-						determinedMonitoringMessageToSend
-								.getTextWithPlaceholders().get(participant),
-						variablesWithValues.values(), "");
-
-		AnswerTypes answerTypeToSend = null;
-		String answerOptionsToSend = null;
-		if (monitoringMessageGroup.isMessagesExpectAnswer()) {
-			answerTypeToSend = determinedMonitoringMessageToSend
-					.getAnswerType();
-
-			if (answerTypeToSend.isKeyValueBased()) {
-				answerOptionsToSend = StringHelpers
-						.parseColonSeparatedMultiLineStringToJSON(
-								determinedMonitoringMessageToSend
-										.getAnswerOptionsWithPlaceholders(),
-								participant.getLanguage(),
-								variablesWithValues.values(),
-								answerTypeToSend.isRawKeyValueBased());
-			} else {
-				answerOptionsToSend = VariableStringReplacer
-						.findVariablesAndReplaceWithTextValues(
-								participant.getLanguage(),
-								determinedMonitoringMessageToSend
-										.getAnswerOptionsWithPlaceholders()
-										.get(participant),
-								variablesWithValues.values(), "");
+			// Determine message text and answer type with options to send
+			val variablesWithValues = variablesManagerService
+					.getAllVariablesWithValuesOfParticipantAndSystemAndExternalSystem(participant,
+							determinedMonitoringMessageToSend, null, null);
+			val messageTextToSend = VariableStringReplacer
+					.findVariablesAndReplaceWithTextValues(
+							participant.getLanguage(),
+							determinedMonitoringMessageToSend
+									.getTextWithPlaceholders().get(participant),
+							variablesWithValues.values(), "");
+
+			AnswerTypes answerTypeToSend = null;
+			String answerOptionsToSend = null;
+			if (monitoringMessageGroup.isMessagesExpectAnswer()) {
+				answerTypeToSend = determinedMonitoringMessageToSend
+						.getAnswerType();
+
+				if (answerTypeToSend.isKeyValueBased()) {
+					answerOptionsToSend = StringHelpers
+							.parseColonSeparatedMultiLineStringToJSON(
+									determinedMonitoringMessageToSend
+											.getAnswerOptionsWithPlaceholders(),
+									participant.getLanguage(),
+									variablesWithValues.values(),
+									answerTypeToSend.isRawKeyValueBased());
+				} else {
+					answerOptionsToSend = VariableStringReplacer
+							.findVariablesAndReplaceWithTextValues(
+									participant.getLanguage(),
+									determinedMonitoringMessageToSend
+											.getAnswerOptionsWithPlaceholders()
+											.get(participant),
+									variablesWithValues.values(), "");
+				}
 			}
-		}
 
-		// Create dialog message
-		dialogMessageCreateManuallyOrByRulesIncludingMediaObject(participant,
-				determinedMonitoringMessageToSend.isCommandMessage()
-						? DialogMessageTypes.COMMAND : DialogMessageTypes.PLAIN,
-				messageTextToSend, TextFormatTypes.PLAIN, answerTypeToSend,
-				answerOptionsToSend, true, InternalDateTime.currentTimeMillis(),
-				null, determinedMonitoringMessageToSend, null, null,
-				advisorMessage, monitoringMessageGroup.isMessagesExpectAnswer(),
-				false, false, false, minutesUntilHandledAsNotAnswered, null);
+			// Create dialog message
+			dialogMessageCreateManuallyOrByRulesIncludingMediaObject(participant,
+					determinedMonitoringMessageToSend.isCommandMessage()
+							? DialogMessageTypes.COMMAND : DialogMessageTypes.PLAIN,
+					messageTextToSend, TextFormatTypes.PLAIN, answerTypeToSend,
+					answerOptionsToSend, true, InternalDateTime.currentTimeMillis(),
+					null, determinedMonitoringMessageToSend, null, null,
+					advisorMessage, monitoringMessageGroup.isMessagesExpectAnswer(),
+					false, false, false, minutesUntilHandledAsNotAnswered, null);
+		} finally {
+			participantLockingService.unlockParticipant(participant.getId());
+		}
 	}
 
 	/**
@@ -2923,20 +3312,24 @@ public class InterventionExecutionManagerService {
 	 * @param variableValue
 	 * @return
 	 */
-	@Synchronized
 	public boolean participantAdjustVariableValue(final ObjectId participantId,
 			final String variableName, final String variableValue) {
-		val participant = databaseManagerService
-				.getModelObjectById(Participant.class, participantId);
-
+		participantLockingService.lockParticipant(participantId);
 		try {
-			variablesManagerService.writeVariableValueOfParticipant(
-					participant.getId(), variableName, variableValue);
-		} catch (final Exception e) {
-			return false;
-		}
+			val participant = databaseManagerService
+					.getModelObjectById(Participant.class, participantId);
 
-		return true;
+			try {
+				variablesManagerService.writeVariableValueOfParticipant(
+						participant.getId(), variableName, variableValue);
+			} catch (final Exception e) {
+				return false;
+			}
+
+			return true;
+		} finally {
+			participantLockingService.unlockParticipant(participantId);
+		}
 	}
 
 	/**
@@ -2949,7 +3342,6 @@ public class InterventionExecutionManagerService {
 	 * @param variableValue
 	 * @return
 	 */
-	@Synchronized
 	public boolean participantAdjustVariableValueExternallyBasedOnDialogOptionTypeAndData(
 			final DialogOptionTypes dialogOptionType,
 			final String dialogOptionData, final String variableName,
@@ -2961,12 +3353,24 @@ public class InterventionExecutionManagerService {
 			return false;
 		}
 
+		// Synchronization is only be done on participant level
+		participantLockingService
+				.lockParticipant(dialogOption.getParticipant());
 		try {
+			if (interventionAdministrationManagerService
+					.participantIsScheduledForDeletion(
+							dialogOption.getParticipant())) {
+				return false;
+			}
+
 			variablesManagerService.externallyWriteVariableForParticipant(
 					dialogOption.getParticipant(), variableName, variableValue,
 					false, true);
 		} catch (final Exception e) {
 			return false;
+		} finally {
+			participantLockingService
+					.unlockParticipant(dialogOption.getParticipant());
 		}
 
 		return true;
@@ -3046,7 +3450,9 @@ public class InterventionExecutionManagerService {
 	 * Create a statistics file
 	 * 
 	 * Important: For performance reasons this method is NOT synchronized
-	 * anymore.
+	 * anymore. The basic values and messages are aggregated in the database.
+	 * The micro dialogs are only analyzed for {@link Participant}s with
+	 * modified {@link DialogMessage}s since the last creation.
 	 * 
 	 * @param statisticsFile
 	 * @throws IOException
@@ -3066,265 +3472,41 @@ public class InterventionExecutionManagerService {
 				Intervention.class, Queries.INTERVENTION__ACTIVE_TRUE);
 
 		int activeInterventionsCount = 0;
-		int validParticipants;
-		int invalidParticipants;
 		// Create statistics of all active interventions
 		for (val intervention : activeInterventions) {
-			// Calender instance to be used several times
-			val calendar = Calendar.getInstance();
-
 			activeInterventionsCount++;
-			validParticipants = 0;
-			invalidParticipants = 0;
 
-			// Prepare graph
-			val graph = new SingleGraph(intervention.getName(), false, true);
-
-			// Check all relevant participants
-			val participants = databaseManagerService.findModelObjects(
-					Participant.class, Queries.PARTICIPANT__BY_INTERVENTION,
-					intervention.getId());
-
-			// Message counts
-			int totalSentMessages = 0;
-			int totalSentCommands = 0;
-			int totalReceivedMessages = 0;
-			int totalReceivedIntentions = 0;
-			int totalDeactivatedMessages = 0;
-			int answeredQuestions = 0;
-			int unansweredQuestions = 0;
-			int mediaObjectsViewed = 0;
-			int totalActivatedMicroDialogs = 0;
-			long secondsUsageTotal = 0l;
-			long secondsUsageAverage = 0l;
-			final HashMap<String, Integer> microDialogsWithRate = new HashMap<String, Integer>();
-			final HashMap<String, Integer[]> microDialogMessagesWithRates = new HashMap<String, Integer[]>();
-			final HashMap<String, Integer> languages = new HashMap<String, Integer>();
-			final HashMap<String, Integer> platforms = new HashMap<String, Integer>();
-			final long[][] participantCreationDistribution = new long[7][24];
-			final long[][] participantActivityDistribution = new long[7][24];
-
-			for (val participantToCheck : participants) {
-				synchronized ($lock) {
-					val participant = databaseManagerService.getModelObjectById(
-							Participant.class, participantToCheck.getId());
-					if (participant == null) {
-						continue;
-					} else if (!participant.isMonitoringActive()) {
-						invalidParticipants++;
-						continue;
-					} else {
-						validParticipants++;
-					}
-
-					String lastOpenOrUnansweredMicroDialogMessageId = null;
-
-					// Analyze basic values
-					secondsUsageTotal += (participant.getLastLogoutTimestamp()
-							- participant.getCreatedTimestamp()) / 1000;
-					languages
-							.put(participant.getLanguage().getDisplayLanguage(),
-									languages
-											.getOrDefault(
-													participant.getLanguage()
-															.getDisplayLanguage(),
-													0)
-											+ 1);
-
-					calendar.setTimeInMillis(
-							participantToCheck.getCreatedTimestamp());
-					participantCreationDistribution[calendar
-							.get(Calendar.DAY_OF_WEEK) == 1
-									? 6
-									: calendar.get(Calendar.DAY_OF_WEEK)
-											- 2][calendar.get(
-													Calendar.HOUR_OF_DAY)]++;
-
-					// Analyze messages
-					val dialogMessages = databaseManagerService
-							.findSortedModelObjects(DialogMessage.class,
-									Queries.DIALOG_MESSAGE__BY_PARTICIPANT_AND_MESSAGE_TYPE,
-									Queries.DIALOG_MESSAGE__SORT_BY_ORDER_ASC,
-									participant.getId(), false);
-
-					String formerMicroDialogId = null;
-
-					for (val dialogMessage : dialogMessages) {
-						switch (dialogMessage.getStatus()) {
-							case IN_CREATION:
-								break;
-							case PREPARED_FOR_SENDING:
-								break;
-							case RECEIVED_UNEXPECTEDLY:
-								totalReceivedMessages++;
-								break;
-							case RECEIVED_AS_INTENTION:
-								totalReceivedIntentions++;
-								if (dialogMessage.getAnswerReceived()
-										.startsWith("platform\n")) {
-									val platform = dialogMessage
-											.getAnswerReceived().split("\n")[1];
-									platforms.put(platform,
-											platforms.getOrDefault(platform, 0)
-													+ 1);
-								}
-								break;
-							case SENDING:
-								break;
-							case SENT_AND_ANSWERED_AND_PROCESSED:
-								totalSentMessages += dialogMessage.getMessage()
-										.split(ImplementationConstants.PLACEHOLDER_NEW_MESSAGE_APP_IDENTIFIER).length;
-								totalReceivedMessages++;
-								answeredQuestions++;
-								break;
-							case SENT_AND_ANSWERED_BY_PARTICIPANT:
-								totalSentMessages += dialogMessage.getMessage()
-										.split(ImplementationConstants.PLACEHOLDER_NEW_MESSAGE_APP_IDENTIFIER).length;
-								totalReceivedMessages++;
-								answeredQuestions++;
-								break;
-							case SENT_AND_NOT_ANSWERED_AND_PROCESSED:
-								totalSentMessages += dialogMessage.getMessage()
-										.split(ImplementationConstants.PLACEHOLDER_NEW_MESSAGE_APP_IDENTIFIER).length;
-								unansweredQuestions++;
-								break;
-							case SENT_AND_WAITING_FOR_ANSWER:
-								totalSentMessages += dialogMessage.getMessage()
-										.split(ImplementationConstants.PLACEHOLDER_NEW_MESSAGE_APP_IDENTIFIER).length;
-								break;
-							case SENT_BUT_NOT_WAITING_FOR_ANSWER:
-								switch (dialogMessage.getType()) {
-									case COMMAND:
-										totalSentCommands++;
-										break;
-									case PLAIN:
-										totalSentMessages += dialogMessage
-												.getMessage()
-												.split(ImplementationConstants.PLACEHOLDER_NEW_MESSAGE_APP_IDENTIFIER).length;
-										break;
-									case MICRO_DIALOG_ACTIVATION:
-										totalActivatedMicroDialogs++;
-										val microDialogId = dialogMessage
-												.getRelatedMicroDialogForActivation()
-												.toHexString();
-										microDialogsWithRate.put(microDialogId,
-												microDialogsWithRate
-														.getOrDefault(
-																microDialogId,
-																0)
-														+ 1);
-
-										if (formerMicroDialogId != null) {
-											val edge = graph.addEdge(
-													formerMicroDialogId + "-"
-															+ microDialogId,
-													formerMicroDialogId,
-													microDialogId, true);
-											if (edge.getAttribute(
-													"label") == null) {
-												edge.setAttribute("label", 1);
-											} else {
-												edge.setAttribute("label",
-														(int) edge.getAttribute(
-																"label") + 1);
-											}
-										} else {
-											graph.addNode(microDialogId);
-										}
-										formerMicroDialogId = microDialogId;
-									default:
-										break;
-								}
-								break;
-							case SENT_AND_WAITED_FOR_ANSWER_BUT_DEACTIVATED:
-								totalSentMessages += dialogMessage.getMessage()
-										.split(ImplementationConstants.PLACEHOLDER_NEW_MESSAGE_APP_IDENTIFIER).length;
-								unansweredQuestions++;
-								totalDeactivatedMessages++;
-								break;
-						}
-
-						switch (dialogMessage.getStatus()) {
-							case IN_CREATION:
-							case PREPARED_FOR_SENDING:
-							case RECEIVED_AS_INTENTION:
-							case SENDING:
-							case SENT_AND_NOT_ANSWERED_AND_PROCESSED:
-							case SENT_BUT_NOT_WAITING_FOR_ANSWER:
-							case SENT_AND_WAITED_FOR_ANSWER_BUT_DEACTIVATED:
-							case SENT_AND_WAITING_FOR_ANSWER:
-								break;
-							case RECEIVED_UNEXPECTEDLY:
-							case SENT_AND_ANSWERED_AND_PROCESSED:
-							case SENT_AND_ANSWERED_BY_PARTICIPANT:
-								calendar.setTimeInMillis(dialogMessage
-										.getAnswerReceivedTimestamp());
-								participantActivityDistribution[calendar
-										.get(Calendar.DAY_OF_WEEK) == 1
-												? 6
-												: calendar
-														.get(Calendar.DAY_OF_WEEK)
-														- 2][calendar.get(
-																Calendar.HOUR_OF_DAY)]++;
-								break;
-						}
-
-						if (dialogMessage.isMessageExpectsAnswer()
-								&& dialogMessage
-										.getRelatedMicroDialogMessage() != null) {
-							val microDialogMessageId = dialogMessage
-									.getRelatedMicroDialogMessage()
-									.toHexString();
-
-							val values = microDialogMessagesWithRates
-									.getOrDefault(microDialogMessageId,
-											new Integer[] { 0, 0, 0, 0 });
-
-							switch (dialogMessage.getStatus()) {
-								case SENT_AND_WAITING_FOR_ANSWER:
-									lastOpenOrUnansweredMicroDialogMessageId = microDialogMessageId;
-									break;
-								case SENT_AND_ANSWERED_BY_PARTICIPANT:
-								case SENT_AND_ANSWERED_AND_PROCESSED:
-									values[0]++;
-									break;
-								case SENT_AND_NOT_ANSWERED_AND_PROCESSED:
-									lastOpenOrUnansweredMicroDialogMessageId = microDialogMessageId;
-									values[1]++;
-									break;
-								case SENT_AND_WAITED_FOR_ANSWER_BUT_DEACTIVATED:
-									lastOpenOrUnansweredMicroDialogMessageId = microDialogMessageId;
-									values[2]++;
-									break;
-								default:
-									break;
-							}
-
-							microDialogMessagesWithRates
-									.put(microDialogMessageId, values);
-						}
-
-						if (dialogMessage.isMediaContentViewed()) {
-							mediaObjectsViewed++;
-						}
-					}
-
-					if (lastOpenOrUnansweredMicroDialogMessageId != null) {
-						val values = microDialogMessagesWithRates.getOrDefault(
-								lastOpenOrUnansweredMicroDialogMessageId,
-								new Integer[] { 0, 0, 0, 0 });
+			// Aggregate basic values and messages in the database
+			val validParticipantIds = new ArrayList<ObjectId>();
+			for (val participantId : databaseManagerService.findModelObjectIds(
+					Participant.class,
+					Queries.PARTICIPANT__BY_INTERVENTION_AND_MONITORING_ACTIVE_TRUE,
+					intervention.getId())) {
+				validParticipantIds.add(participantId);
+			}
 
-						values[3]++;
+			val interventionStatistics = interventionStatisticsAggregator
+					.aggregate(intervention.getId(), validParticipantIds);
 
-						microDialogMessagesWithRates.put(
-								lastOpenOrUnansweredMicroDialogMessageId,
-								values);
-					}
-				}
+			// Analyze micro dialogs (only if modified since the last time)
+			val dialogMessageStatistics = new DialogMessageStatistics(0);
+			for (val participantId : validParticipantIds) {
+				dialogMessageStatistics.merge(
+						getDialogMessageStatisticsOfParticipant(participantId));
 			}
 
-			if (validParticipants > 0) {
-				secondsUsageAverage = secondsUsageTotal / validParticipants;
+			// Prepare graph
+			val graph = new SingleGraph(intervention.getName(), false, true);
+			for (val microDialogId : dialogMessageStatistics
+					.getMicroDialogsWithRate().keySet()) {
+				graph.addNode(microDialogId);
+			}
+			for (val microDialogTransition : dialogMessageStatistics
+					.getMicroDialogTransitions().entrySet()) {
+				val microDialogIds = microDialogTransition.getKey().split("-");
+				val edge = graph.addEdge(microDialogTransition.getKey(),
+						microDialogIds[0], microDialogIds[1], true);
+				edge.setAttribute("label", microDialogTransition.getValue());
 			}
 
 			// Write values
@@ -3337,65 +3519,81 @@ public class InterventionExecutionManagerService {
 			statistics.setProperty(
 					"intervention." + intervention.getId().toString()
 							+ ".validParticipants",
-					String.valueOf(validParticipants));
+					String.valueOf(
+							interventionStatistics.getValidParticipants()));
 			statistics.setProperty(
 					"intervention." + intervention.getId().toString()
 							+ ".invalidParticipants",
-					String.valueOf(invalidParticipants));
+					String.valueOf(
+							interventionStatistics.getInvalidParticipants()));
 			statistics.setProperty(
 					"intervention." + intervention.getId().toString()
 							+ ".totalSentMessages",
-					String.valueOf(totalSentMessages));
+					String.valueOf(
+							interventionStatistics.getTotalSentMessages()));
 			statistics.setProperty(
 					"intervention." + intervention.getId().toString()
 							+ ".totalSentCommands",
-					String.valueOf(totalSentCommands));
+					String.valueOf(
+							interventionStatistics.getTotalSentCommands()));
 			statistics.setProperty(
 					"intervention." + intervention.getId().toString()
 							+ ".totalReceivedMessages",
-					String.valueOf(totalReceivedMessages));
+					String.valueOf(
+							interventionStatistics.getTotalReceivedMessages()));
 			statistics.setProperty(
 					"intervention." + intervention.getId().toString()
 							+ ".totalReceivedIntentions",
-					String.valueOf(totalReceivedIntentions));
+					String.valueOf(
+							interventionStatistics.getTotalReceivedIntentions()));
 			statistics.setProperty(
 					"intervention." + intervention.getId().toString()
 							+ ".totalDeactivatedMessages",
-					String.valueOf(totalDeactivatedMessages));
+					String.valueOf(
+							interventionStatistics.getTotalDeactivatedMessages()));
 			statistics.setProperty(
 					"intervention." + intervention.getId().toString()
 							+ ".answeredQuestions",
-					String.valueOf(answeredQuestions));
+					String.valueOf(
+							interventionStatistics.getAnsweredQuestions()));
 			statistics.setProperty(
 					"intervention." + intervention.getId().toString()
 							+ ".unansweredQuestions",
-					String.valueOf(unansweredQuestions));
+					String.valueOf(
+							interventionStatistics.getUnansweredQuestions()));
 			statistics.setProperty(
 					"intervention." + intervention.getId().toString()
 							+ ".mediaObjectsViewed",
-					String.valueOf(mediaObjectsViewed));
+					String.valueOf(
+							interventionStatistics.getMediaObjectsViewed()));
 			statistics.setProperty(
 					"intervention." + intervention.getId().toString()
 							+ ".totalActivatedMicroDialogs",
-					String.valueOf(totalActivatedMicroDialogs));
+					String.valueOf(
+							interventionStatistics.getTotalActivatedMicroDialogs()));
 			statistics.setProperty(
 					"intervention." + intervention.getId().toString()
 							+ ".secondsUsageTotal",
-					String.valueOf(secondsUsageTotal));
+					String.valueOf(
+							interventionStatistics.getSecondsUsageTotal()));
 			statistics.setProperty(
 					"intervention." + intervention.getId().toString()
 							+ ".secondsUsageAverage",
-					String.valueOf(secondsUsageAverage));
+					String.valueOf(
+							interventionStatistics.getSecondsUsageAverage()));
 			statistics.setProperty(
 					"intervention." + intervention.getId().toString()
 							+ ".participantCreationDistribution",
-					Arrays.deepToString(participantCreationDistribution));
+					Arrays.deepToString(interventionStatistics
+							.getParticipantCreationDistribution()));
 			statistics.setProperty(
 					"intervention." + intervention.getId().toString()
 							+ ".participantActivityDistribution",
-					Arrays.deepToString(participantActivityDistribution));
+					Arrays.deepToString(interventionStatistics
+							.getParticipantActivityDistribution()));
 
-			for (val microDialogWithRate : microDialogsWithRate.entrySet()) {
+			for (val microDialogWithRate : dialogMessageStatistics
+					.getMicroDialogsWithRate().entrySet()) {
 				val microDialog = databaseManagerService.getModelObjectById(
 						MicroDialog.class,
 						new ObjectId(microDialogWithRate.getKey()));
@@ -3429,8 +3627,8 @@ public class InterventionExecutionManagerService {
 				}
 			}
 
-			for (val microDialogMessageWithRates : microDialogMessagesWithRates
-					.entrySet()) {
+			for (val microDialogMessageWithRates : dialogMessageStatistics
+					.getMicroDialogMessagesWithRates().entrySet()) {
 				val microDialogMessage = databaseManagerService
 						.getModelObjectById(MicroDialogMessage.class,
 								new ObjectId(
@@ -3520,13 +3718,15 @@ public class InterventionExecutionManagerService {
 				}
 			}
 
-			for (val language : languages.entrySet()) {
+			for (val language : interventionStatistics.getLanguages()
+					.entrySet()) {
 				statistics.setProperty(
 						"intervention." + intervention.getId().toString()
 								+ ".language." + language.getKey(),
 						String.valueOf(language.getValue()));
 			}
-			for (val platform : platforms.entrySet()) {
+			for (val platform : interventionStatistics.getPlatforms()
+					.entrySet()) {
 				statistics.setProperty(
 						"intervention." + intervention.getId().toString()
 								+ ".platform." + platform.getKey(),
@@ -3553,6 +3753,48 @@ public class InterventionExecutionManagerService {
 		log.debug(stringWriter.toString());
 	}
 
+	/**
+	 * Returns the micro dialog statistics of the {@link DialogMessage}s of the
+	 * given {@link Participant}; they are only calculated again if
+	 * {@link DialogMessage}s have been modified since the last calculation
+	 * 
+	 * @param participantId
+	 * @return
+	 */
+	private DialogMessageStatistics getDialogMessageStatisticsOfParticipant(
+			final ObjectId participantId) {
+		val storedDialogMessageStatistics = dialogMessageStatisticsStore
+				.get(participantId);
+		if (storedDialogMessageStatistics != null) {
+			return storedDialogMessageStatistics;
+		}
+
+		// Synchronization is only be done on participant level
+		participantLockingService.lockParticipant(participantId);
+		try {
+			val dialogMessageStatistics = new DialogMessageStatistics(
+					dialogMessageStatisticsStore.getModificationSequence());
+
+			val dialogMessages = databaseManagerService.findSortedModelObjects(
+					DialogMessage.class,
+					Queries.DIALOG_MESSAGE__BY_PARTICIPANT_AND_MESSAGE_TYPE_AND_TYPE_OR_RELATED_MICRO_DIALOG_MESSAGE,
+					Queries.DIALOG_MESSAGE__SORT_BY_ORDER_ASC, participantId,
+					false, DialogMessageTypes.MICRO_DIALOG_ACTIVATION);
+
+			for (val dialogMessage : dialogMessages) {
+				dialogMessageStatistics.add(dialogMessage);
+			}
+			dialogMessageStatistics.complete();
+
+			dialogMessageStatisticsStore.put(participantId,
+					dialogMessageStatistics);
+
+			return dialogMessageStatistics;
+		} finally {
+			participantLockingService.unlockParticipant(participantId);
+		}
+	}
+
 	/**
 	 * Creates a participant or assigns a supervisor and adapts the belonging
 	 * intervention structures without prior survey participation
@@ -3642,7 +3884,7 @@ public class InterventionExecutionManagerService {
 					appropriateIntervention.getId(), creationTimestamp,
 					creationTimestamp, creationTimestamp, "",
 					Constants.getInterventionLocales()[0], null, null, null,
-					null, null, null, true, "", "");
+					null, null, null, true, "", "", false);
 
 			databaseManagerService.saveModelObject(participant);
 
@@ -3760,7 +4002,6 @@ public class InterventionExecutionManagerService {
 	 * @param monitoringRule
 	 * @return
 	 */
-	@Synchronized
 	public double calculateHourTeSendMessageOrActivateMicroDialog(
 			final Participant participant,
 			final MonitoringRule monitoringRule) {
@@ -3810,54 +4051,18 @@ public class InterventionExecutionManagerService {
 	/**
 	 * Finds appropriate dialog option for given type and data
 	 * 
+	 * Caution: The returned {@link DialogOption} is cached and must not be
+	 * modified
+	 * 
 	 * @param dialogOptionType
 	 * @param dialogOptionData
 	 * @return
 	 */
-	@Synchronized
 	public DialogOption getDialogOptionByTypeAndDataOfActiveInterventions(
 			final DialogOptionTypes dialogOptionType,
 			final String dialogOptionData) {
-		val dialogOptions = databaseManagerService.findModelObjects(
-				DialogOption.class, Queries.DIALOG_OPTION__BY_TYPE_AND_DATA,
+		return dialogOptionLookupCache.getDialogOptionOfActiveInterventions(
 				dialogOptionType, dialogOptionData);
-
-		long highestCreatedTimestamp = 0;
-		DialogOption appropriateDialogOption = null;
-
-		for (val dialogOption : dialogOptions) {
-			if (dialogOption == null) {
-				continue;
-			}
-
-			val participant = databaseManagerService.getModelObjectById(
-					Participant.class, dialogOption.getParticipant());
-
-			if (participant != null) {
-				val intervention = databaseManagerService.getModelObjectById(
-						Intervention.class, participant.getIntervention());
-
-				if (intervention != null) {
-					if (intervention.isActive()) {
-						if (participant
-								.getCreatedTimestamp() > highestCreatedTimestamp) {
-							highestCreatedTimestamp = participant
-									.getCreatedTimestamp();
-							appropriateDialogOption = dialogOption;
-							continue;
-						}
-					} else {
-						continue;
-					}
-				} else {
-					continue;
-				}
-			} else {
-				continue;
-			}
-		}
-
-		return appropriateDialogOption;
 	}
 
 	/**
@@ -3918,57 +4123,49 @@ public class InterventionExecutionManagerService {
 	 * PRIVATE Getter methods
 	 */
 	/**
-	 * Returns a list of {@link ObjectId}s of {@link Participant}s that have
-	 * messages that should be sent; Parameters therefore are:
+	 * Returns the {@link ObjectId}s of {@link Participant}s that have messages
+	 * that should be sent, based on the {@link OutgoingMessageQueue}
 	 *
-	 * - the belonging intervention is active - the belonging intervention
-	 * monitoring is active - the participant has monitoring active - the
-	 * participant has all data for monitoring available - the participant has
-	 * finished the screening survey - the participant not finished the
-	 * monitoring - the message should have the status PREPARED_FOR_SENDING -
-	 * the should be sent timestamp should be lower than the current time -->
-	 * relevant, but will be checked later
+	 * The {@link OutgoingMessageQueue} is regularly synchronized with the
+	 * {@link DialogMessage}s prepared for sending in the database, so that
+	 * messages of {@link Participant}s that could not be handled (e.g. because
+	 * the intervention was not active) are considered again. All further
+	 * parameters are checked later for each {@link Participant}.
 	 *
 	 * @return
 	 */
-	private List<ObjectId> getParticipantIdsWithMessagesWaitingToBeSent() {
-		val participantsWithMessagesWaitingToBeSend = new ArrayList<ObjectId>();
+	private Collection<ObjectId> getParticipantIdsWithMessagesWaitingToBeSent() {
+		val currentTimestamp = InternalDateTime.currentTimeMillis();
 
-		for (val intervention : databaseManagerService.findModelObjects(
-				Intervention.class,
-				Queries.INTERVENTION__ACTIVE_TRUE_MONITORING_ACTIVE_TRUE)) {
-			for (val participantId : databaseManagerService.findModelObjectIds(
-					Participant.class,
-					Queries.PARTICIPANT__BY_INTERVENTION_AND_MONITORING_ACTIVE_TRUE,
-					intervention.getId())) {
-				if (participantId != null) {
-					val dialogStatus = databaseManagerService
-							.findOneModelObject(DialogStatus.class,
-									Queries.DIALOG_STATUS__BY_PARTICIPANT,
-									participantId);
-
-					if (dialogStatus != null
-							&& dialogStatus
-									.isDataForMonitoringParticipationAvailable()
-							&& dialogStatus.isScreeningSurveyPerformed()
-							&& !dialogStatus.isMonitoringPerformed()) {
-						val dialogMessagesWaitingToBeSendOfParticipant = databaseManagerService
-								.findModelObjects(DialogMessage.class,
-										Queries.DIALOG_MESSAGE__BY_PARTICIPANT_AND_STATUS,
-										participantId,
-										DialogMessageStatusTypes.PREPARED_FOR_SENDING);
-
-						if (dialogMessagesWaitingToBeSendOfParticipant
-								.iterator().hasNext()) {
-							participantsWithMessagesWaitingToBeSend
-									.add(participantId);
-						}
-					}
+		if (System.currentTimeMillis()
+				- lastOutgoingMessageQueueSynchronization > ImplementationConstants.OUTGOING_MESSAGE_QUEUE_SYNCHRONIZATION_INTERVAL_IN_SECONDS
+						* 1000) {
+			lastOutgoingMessageQueueSynchronization = System
+					.currentTimeMillis();
+
+			// Only the fields required for the queue are loaded
+			val sendingTimes = databaseManagerService.aggregateModelObjects(
+					DialogMessage.class, DialogMessageSendingTime.class,
+					Aggregations.DIALOG_MESSAGE__SENDING_TIMES_BY_STATUS_AND_SHOULD_BE_SENT_TIMESTAMP_LOWER,
+					DialogMessageStatusTypes.PREPARED_FOR_SENDING,
+					currentTimestamp
+							+ ImplementationConstants.OUTGOING_MESSAGE_QUEUE_SYNCHRONIZATION_INTERVAL_IN_SECONDS
+									* 1000);
+
+			if (sendingTimes != null) {
+				for (val sendingTime : sendingTimes) {
+					outgoingMessageQueue.add(sendingTime.participant,
+							sendingTime.dialogMessage,
+							sendingTime.shouldBeSentTimestamp);
 				}
 			}
+
+			log.debug("Outgoing message queue synchronized: {} messages",
+					outgoingMessageQueue.size());
 		}
 
-		return participantsWithMessagesWaitingToBeSend;
+		return outgoingMessageQueue
+				.pollParticipantIdsWithMessagesDue(currentTimestamp);
 	}
 
 	/**
@@ -3984,7 +4181,6 @@ public class InterventionExecutionManagerService {
 	 *
 	 * @return
 	 */
-	@Synchronized
 	private List<DialogMessageWithSenderIdentification> getDialogMessagesWithSenderWaitingToBeSentOfParticipant(
 			final ObjectId participantId) {
 		val dialogMessagesWaitingToBeSend = new ArrayList<DialogMessageWithSenderIdentification>();
@@ -4035,7 +4231,6 @@ public class InterventionExecutionManagerService {
 		return dialogMessagesWaitingToBeSend;
 	}
 
-	@Synchronized
 	private Iterable<DialogMessage> getDialogMessagesOfParticipantWaitingToBeAnsweredByParticipant(
 			final ObjectId participantId) {
 		val dialogMessages = databaseManagerService.findSortedModelObjects(
@@ -4047,7 +4242,6 @@ public class InterventionExecutionManagerService {
 		return dialogMessages;
 	}
 
-	@Synchronized
 	private Iterable<DialogMessage> getDialogMessagesOfParticipantAnsweredByParticipant(
 			final ObjectId participantId) {
 		val dialogMessages = databaseManagerService.findSortedModelObjects(
@@ -4059,7 +4253,6 @@ public class InterventionExecutionManagerService {
 		return dialogMessages;
 	}
 
-	@Synchronized
 	private DialogMessage getDialogMessageOfParticipantWaitingForAnswer(
 			final ObjectId participantId, final long timestampOfReceivedMessage,
 			final int relatedMessageIdBasedOnOrder) {
@@ -4096,7 +4289,6 @@ public class InterventionExecutionManagerService {
 		return null;
 	}
 
-	@Synchronized
 	private DialogOption getDialogOptionByParticipantAndRecipientType(
 			final ObjectId participantId, final boolean isSupervisorMessage) {
 		val dialogOption = databaseManagerService.findOneModelObject(
@@ -4108,36 +4300,4 @@ public class InterventionExecutionManagerService {
 
 		return dialogOption;
 	}
-
-	/**
-	 * Returns a list of {@link Participant}s that are relevant for monitoring;
-	 * Parameters therefore are:
-	 *
-	 * - the belonging intervention is active - the belonging intervention
-	 * monitoring is active - the participant has monitoring active - the
-	 * participant has all data for monitoring available --> relevant, but will
-	 * be checked later - the participant has finished the screening survey -->
-	 * relevant, but will be checked later - the participant not finished the
-	 * monitoring --> relevant, but will be checked later
-	 *
-	 * @return
-	 */
-	private List<Participant> getAllParticipantsRelevantForAnsweredInTimeChecksAndMonitoringScheduling() {
-		val relevantParticipants = new ArrayList<Participant>();
-
-		for (val intervention : databaseManagerService.findModelObjects(
-				Intervention.class,
-				Queries.INTERVENTION__ACTIVE_TRUE_MONITORING_ACTIVE_TRUE)) {
-			for (val participant : databaseManagerService.findModelObjects(
-					Participant.class,
-					Queries.PARTICIPANT__BY_INTERVENTION_AND_MONITORING_ACTIVE_TRUE,
-					intervention.getId())) {
-				if (participant != null) {
-					relevantParticipants.add(participant);
-				}
-			}
-		}
-
-		return relevantParticipants;
-	}
 }
@@ -9,6 +9,7 @@ import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.servlet.http.HttpSession;
 
@@ -21,6 +22,7 @@ import ch.ethz.mc.conf.Constants;
 import ch.ethz.mc.conf.ImplementationConstants;
 import ch.ethz.mc.conf.Messages;
 import ch.ethz.mc.model.Queries;
+import ch.ethz.mc.model.memory.SystemLoad;
 import ch.ethz.mc.model.persistent.DialogOption;
 import ch.ethz.mc.model.persistent.DialogStatus;
 import ch.ethz.mc.model.persistent.Feedback;
@@ -37,6 +39,7 @@ import ch.ethz.mc.model.persistent.concepts.AbstractVariableWithValue;
 import ch.ethz.mc.services.internal.DatabaseManagerService;
 import ch.ethz.mc.services.internal.DeepstreamCommunicationService;
 import ch.ethz.mc.services.internal.FileStorageManagerService;
+import ch.ethz.mc.services.internal.ParticipantLockingService;
 import ch.ethz.mc.services.internal.VariablesManagerService;
 import ch.ethz.mc.services.types.FeedbackSessionAttributeTypes;
 import ch.ethz.mc.services.types.FeedbackSlideTemplateFieldTypes;
@@ -47,9 +50,12 @@ import ch.ethz.mc.services.types.SurveySlideTemplateFieldTypes;
 import ch.ethz.mc.services.types.SurveySlideTemplateLayoutTypes;
 import ch.ethz.mc.tools.GlobalUniqueIdGenerator;
 import ch.ethz.mc.tools.InternalDateTime;
+import ch.ethz.mc.tools.MustacheTemplateCache;
 import ch.ethz.mc.tools.RuleEvaluator;
+import ch.ethz.mc.tools.TemplateAssetCache;
 import ch.ethz.mc.tools.StringHelpers;
 import ch.ethz.mc.tools.VariableStringReplacer;
+import lombok.Getter;
 import lombok.Synchronized;
 import lombok.val;
 import lombok.extern.log4j.Log4j2;
@@ -61,6 +67,9 @@ import lombok.extern.log4j.Log4j2;
  * The templates are based on the Mustache standard. Details can be found in the
  * {@link SurveySlideTemplateFieldTypes} class
  *
+ * The slides are determined in parallel for different {@link Participant}s;
+ * the requests of one session or {@link Participant} are performed in order
+ *
  * @author Andreas Filler
  */
 @Log4j2
@@ -72,13 +81,22 @@ public class SurveyExecutionManagerService {
 	private final DatabaseManagerService					databaseManagerService;
 	private final FileStorageManagerService					fileStorageManagerService;
 	private final VariablesManagerService					variablesManagerService;
+	private final ParticipantLockingService					participantLockingService;
 
 	private final InterventionAdministrationManagerService	interventionAdministrationManagerService;
 
+	private final SystemLoad								systemLoad;
+
+	@Getter
+	private final MustacheTemplateCache						templateCache;
+	@Getter
+	private final TemplateAssetCache						templateAssetCache;
+
 	private SurveyExecutionManagerService(
 			final DatabaseManagerService databaseManagerService,
 			final FileStorageManagerService fileStorageManagerService,
 			final VariablesManagerService variablesManagerService,
+			final ParticipantLockingService participantLockingService,
 			final InterventionAdministrationManagerService interventionAdministrationManagerService)
 			throws Exception {
 		$lock = MC.getInstance();
@@ -88,9 +106,18 @@ public class SurveyExecutionManagerService {
 		this.databaseManagerService = databaseManagerService;
 		this.fileStorageManagerService = fileStorageManagerService;
 		this.variablesManagerService = variablesManagerService;
+		this.participantLockingService = participantLockingService;
 
 		this.interventionAdministrationManagerService = interventionAdministrationManagerService;
 
+		systemLoad = SystemLoad.getInstance();
+
+		templateCache = new MustacheTemplateCache(
+				fileStorageManagerService.getTemplatesFolder());
+		templateAssetCache = new TemplateAssetCache(
+				fileStorageManagerService.getTemplatesFolder(),
+				fileStorageManagerService.getMediaCacheFolder());
+
 		log.info("Started.");
 	}
 
@@ -98,11 +125,13 @@ public class SurveyExecutionManagerService {
 			final DatabaseManagerService databaseManagerService,
 			final FileStorageManagerService fileStorageManagerService,
 			final VariablesManagerService variablesManagerService,
+			final ParticipantLockingService participantLockingService,
 			final InterventionAdministrationManagerService interventionAdministrationManagerService)
 			throws Exception {
 		if (instance == null) {
 			instance = new SurveyExecutionManagerService(databaseManagerService,
 					fileStorageManagerService, variablesManagerService,
+					participantLockingService,
 					interventionAdministrationManagerService);
 		}
 		return instance;
@@ -111,6 +140,8 @@ public class SurveyExecutionManagerService {
 	public void stop() throws Exception {
 		log.info("Stopping service...");
 
+		templateCache.close();
+
 		log.info("Stopped.");
 	}
 
@@ -118,7 +149,6 @@ public class SurveyExecutionManagerService {
 	 * Modification methods
 	 */
 	// Participant
-	@Synchronized
 	private Participant participantCreate(
 			final ScreeningSurvey screeningSurvey) {
 		val creationTimestamp = InternalDateTime.currentTimeMillis();
@@ -128,7 +158,7 @@ public class SurveyExecutionManagerService {
 				creationTimestamp, creationTimestamp, "",
 				Constants.getInterventionLocales()[0], null, null,
 				screeningSurvey.getId(), screeningSurvey.getGlobalUniqueId(),
-				null, null, true, "", "");
+				null, null, true, "", "", false);
 
 		databaseManagerService.saveModelObject(participant);
 
@@ -137,7 +167,6 @@ public class SurveyExecutionManagerService {
 		return participant;
 	}
 
-	@Synchronized
 	private void participantSetOrganizationAndUnit(
 			final Participant participant, final String organization,
 			final String organizationUnit) {
@@ -147,7 +176,6 @@ public class SurveyExecutionManagerService {
 		databaseManagerService.saveModelObject(participant);
 	}
 
-	@Synchronized
 	public IntermediateSurveyAndFeedbackParticipantShortURL participantSetFeedback(
 			final Participant participant, final ObjectId feedbackId) {
 		val feedback = databaseManagerService.getModelObjectById(Feedback.class,
@@ -166,7 +194,6 @@ public class SurveyExecutionManagerService {
 		return feedbackParticipantShortURL;
 	}
 
-	@Synchronized
 	public IntermediateSurveyAndFeedbackParticipantShortURL participantGetFeedbackShortURL(
 			final Participant participant) {
 		if (participant.getAssignedFeedback() == null) {
@@ -182,7 +209,6 @@ public class SurveyExecutionManagerService {
 	}
 
 	// Dialog status
-	@Synchronized
 	private void dialogStatusCreate(final ObjectId participantId) {
 		final long currentTimestamp = InternalDateTime.currentTimeMillis();
 		final val dialogStatus = new DialogStatus(participantId, "", null, null,
@@ -192,7 +218,6 @@ public class SurveyExecutionManagerService {
 		databaseManagerService.saveModelObject(dialogStatus);
 	}
 
-	@Synchronized
 	private void dialogStatusSetScreeningSurveyFinished(
 			final ObjectId participantId) {
 		final val dialogStatus = databaseManagerService.findOneModelObject(
@@ -208,7 +233,6 @@ public class SurveyExecutionManagerService {
 		}
 	}
 
-	@Synchronized
 	private void dialogStatusSetDataForMonitoringNotAvailable(
 			final ObjectId participantId) {
 		final val dialogStatus = databaseManagerService.findOneModelObject(
@@ -222,7 +246,6 @@ public class SurveyExecutionManagerService {
 		}
 	}
 
-	@Synchronized
 	private void dialogStatusUpdateAfterDeterminingNextSlide(
 			final ObjectId participantId,
 			final ScreeningSurveySlide formerSlide, final boolean adjustTime) {
@@ -269,7 +292,6 @@ public class SurveyExecutionManagerService {
 	 * @param participantId
 	 * @return
 	 */
-	@Synchronized
 	private boolean checkForDataForMonitoringParticipation(
 			final ObjectId participantId) {
 
@@ -292,7 +314,6 @@ public class SurveyExecutionManagerService {
 	 * @param screeningSurveyId
 	 * @return
 	 */
-	@Synchronized
 	public boolean dashboardCheckIfActive(final ObjectId interventionId) {
 		final val intervention = databaseManagerService
 				.getModelObjectById(Intervention.class, interventionId);
@@ -316,7 +337,6 @@ public class SurveyExecutionManagerService {
 	 * @param screeningSurveyId
 	 * @return
 	 */
-	@Synchronized
 	public boolean surveyCheckIfActive(final ObjectId screeningSurveyId) {
 		final val screeningSurvey = databaseManagerService
 				.getModelObjectById(ScreeningSurvey.class, screeningSurveyId);
@@ -343,7 +363,6 @@ public class SurveyExecutionManagerService {
 	 * @param screeningSurveyId
 	 * @return
 	 */
-	@Synchronized
 	public boolean surveyCheckIfActiveAndOfGivenType(
 			final ObjectId screeningSurveyId,
 			final boolean isIntermediateSurvey) {
@@ -374,7 +393,6 @@ public class SurveyExecutionManagerService {
 	 * @param screeningSurveyId
 	 * @return
 	 */
-	@Synchronized
 	public boolean feedbackCheckIfActiveByBelongingParticipant(
 			final ObjectId participantId, final ObjectId feedbackId) {
 		final val participant = databaseManagerService
@@ -431,12 +449,60 @@ public class SurveyExecutionManagerService {
 	 * @param session
 	 * @return
 	 */
-	@Synchronized
 	public HashMap<String, Object> getAppropriateScreeningSurveySlide(
-			ObjectId participantId, final boolean accessGranted,
+			final ObjectId participantId, final boolean accessGranted,
 			final boolean isScreening, final ObjectId screeningSurveyId,
 			final List<String> resultValues, final String checkValue,
 			final HttpSession session) {
+		// Synchronization is only be done on session and participant level
+		synchronized (session) {
+			if (participantId == null) {
+				// The participant will be created by this request and stays
+				// locked from its creation until the end of the request
+				val createdParticipantId = new AtomicReference<ObjectId>();
+				try {
+					return determineAppropriateScreeningSurveySlide(null,
+							accessGranted, isScreening, screeningSurveyId,
+							resultValues, checkValue, session,
+							createdParticipantId);
+				} finally {
+					if (createdParticipantId.get() != null) {
+						participantLockingService
+								.unlockParticipant(createdParticipantId.get());
+					}
+				}
+			}
+
+			participantLockingService.lockParticipant(participantId);
+			try {
+				return determineAppropriateScreeningSurveySlide(participantId,
+						accessGranted, isScreening, screeningSurveyId,
+						resultValues, checkValue, session, null);
+			} finally {
+				participantLockingService.unlockParticipant(participantId);
+			}
+		}
+	}
+
+	/**
+	 * Determines the appropriate {@link HashMap} to fill the template; the
+	 * caller has to care for the synchronization on session and
+	 * {@link Participant} level
+	 *
+	 * @param createdParticipantId
+	 *            Receives the {@link ObjectId} of the {@link Participant}
+	 *            created by this request, which is locked right after its
+	 *            creation and has to be unlocked by the caller; only required
+	 *            if participantId is <code>null</code>
+	 * @see #getAppropriateScreeningSurveySlide(ObjectId, boolean, boolean,
+	 *      ObjectId, List, String, HttpSession)
+	 */
+	private HashMap<String, Object> determineAppropriateScreeningSurveySlide(
+			ObjectId participantId, final boolean accessGranted,
+			final boolean isScreening, final ObjectId screeningSurveyId,
+			final List<String> resultValues, final String checkValue,
+			final HttpSession session,
+			final AtomicReference<ObjectId> createdParticipantId) {
 
 		final val templateVariables = new HashMap<String, Object>();
 
@@ -531,6 +597,10 @@ public class SurveyExecutionManagerService {
 			participant = participantCreate(screeningSurvey);
 			participantId = participant.getId();
 
+			// Lock the new participant for the rest of the request
+			participantLockingService.lockParticipant(participantId);
+			createdParticipantId.set(participantId);
+
 			session.setAttribute(
 					GeneralSessionAttributeTypes.CURRENT_PARTICIPANT.toString(),
 					participantId);
@@ -1055,7 +1125,9 @@ public class SurveyExecutionManagerService {
 							interventionId)) {
 
 				// Synchronization is only be done on participant level
-				synchronized ($lock) {
+				participantLockingService
+						.lockParticipant(participantToCheck.getId());
+				try {
 					// Participant and intervention check has to be done again
 					// (due
 					// to potential inconsistency because of missing
@@ -1103,6 +1175,9 @@ public class SurveyExecutionManagerService {
 									e.getMessage());
 						}
 					}
+				} finally {
+					participantLockingService
+							.unlockParticipant(participantToCheck.getId());
 				}
 			}
 		}
@@ -1116,7 +1191,6 @@ public class SurveyExecutionManagerService {
 	 *            The {@link ObjectId} of the participant
 	 * @return
 	 */
-	@Synchronized
 	private void finishScreeningSurveyForParticipant(Participant participant)
 			throws NullPointerException {
 		if (participant == null) {
@@ -1252,6 +1326,9 @@ public class SurveyExecutionManagerService {
 	/**
 	 * Ensure intermediate survey short URL for participant
 	 *
+	 * Synchronized service-wide, as the short ids are counted up for all
+	 * participants
+	 *
 	 * @param participantId
 	 * @param screeningSurveyId
 	 * @return
@@ -1296,7 +1373,6 @@ public class SurveyExecutionManagerService {
 	 * @param formerSlide
 	 * @return
 	 */
-	@Synchronized
 	private ScreeningSurveySlide getNextScreeningSurveySlide(
 			Participant participant, final ScreeningSurvey screeningSurvey,
 			final ScreeningSurveySlide formerSlide) {
@@ -1325,6 +1401,7 @@ public class SurveyExecutionManagerService {
 
 			// Executing slide rules
 			log.debug("Executing slide rules");
+			final long ruleEvaluationStartingTime = System.nanoTime();
 			int formerSlideRuleLevel = 0;
 			boolean formerSlideRuleResult = true;
 			for (final val formerSlideRule : formerSlideRules) {
@@ -1483,6 +1560,9 @@ public class SurveyExecutionManagerService {
 					break;
 				}
 			}
+			systemLoad.addSlideRuleEvaluationTime(
+					"Screening survey slide " + formerSlide.getId(),
+					System.nanoTime() - ruleEvaluationStartingTime);
 
 			if (nextSlide == null) {
 				nextSlide = databaseManagerService.findOneSortedModelObject(
@@ -1510,11 +1590,34 @@ public class SurveyExecutionManagerService {
 	 * @param session
 	 * @return
 	 */
-	@Synchronized
 	public HashMap<String, Object> getAppropriateFeedbackSlide(
 			final ObjectId participantId, final ObjectId feedbackId,
 			final String navigationValue, final String checkValue,
 			final HttpSession session) {
+		// Synchronization is only be done on session and participant level
+		synchronized (session) {
+			participantLockingService.lockParticipant(participantId);
+			try {
+				return determineAppropriateFeedbackSlide(participantId,
+						feedbackId, navigationValue, checkValue, session);
+			} finally {
+				participantLockingService.unlockParticipant(participantId);
+			}
+		}
+	}
+
+	/**
+	 * Determines the appropriate {@link HashMap} to fill the template; the
+	 * caller has to care for the synchronization on session and
+	 * {@link Participant} level
+	 *
+	 * @see #getAppropriateFeedbackSlide(ObjectId, ObjectId, String, String,
+	 *      HttpSession)
+	 */
+	private HashMap<String, Object> determineAppropriateFeedbackSlide(
+			final ObjectId participantId, final ObjectId feedbackId,
+			final String navigationValue, final String checkValue,
+			final HttpSession session) {
 
 		final val templateVariables = new HashMap<String, Object>();
 
@@ -1773,7 +1876,6 @@ public class SurveyExecutionManagerService {
 	 * @param showNextSlide
 	 * @return
 	 */
-	@Synchronized
 	private FeedbackSlide getNextFeedbackSlide(final ObjectId participantId,
 			final Locale locale, final FeedbackSlide formerSlide,
 			final ObjectId feedbackId,
@@ -1809,6 +1911,7 @@ public class SurveyExecutionManagerService {
 
 			// Executing slide rules
 			log.debug("Executing slide rules");
+			final long ruleEvaluationStartingTime = System.nanoTime();
 			boolean allRulesAreTrue = true;
 			for (final val slideRule : slideRules) {
 				final val ruleResult = RuleEvaluator.evaluateRule(participantId,
@@ -1825,6 +1928,9 @@ public class SurveyExecutionManagerService {
 					allRulesAreTrue = false;
 				}
 			}
+			systemLoad.addSlideRuleEvaluationTime(
+					"Feedback slide " + relevantSlide.getId(),
+					System.nanoTime() - ruleEvaluationStartingTime);
 
 			if (allRulesAreTrue) {
 				return relevantSlide;
@@ -1843,7 +1949,6 @@ public class SurveyExecutionManagerService {
 	 * @param interventionId
 	 * @return
 	 */
-	@Synchronized
 	public Intervention getInterventionById(final ObjectId interventionId) {
 		return databaseManagerService.getModelObjectById(Intervention.class,
 				interventionId);
@@ -1855,7 +1960,6 @@ public class SurveyExecutionManagerService {
 	 * @param screeningSurveyId
 	 * @return
 	 */
-	@Synchronized
 	public ScreeningSurvey getScreeningSurveyById(
 			final ObjectId screeningSurveyId) {
 		return databaseManagerService.getModelObjectById(ScreeningSurvey.class,
@@ -1868,7 +1972,6 @@ public class SurveyExecutionManagerService {
 	 * @param feedbackId
 	 * @return
 	 */
-	@Synchronized
 	public Feedback getFeedbackById(final ObjectId feedbackId) {
 		return databaseManagerService.getModelObjectById(Feedback.class,
 				feedbackId);
@@ -1881,7 +1984,6 @@ public class SurveyExecutionManagerService {
 	 * @param longId
 	 * @return
 	 */
-	@Synchronized
 	public IntermediateSurveyAndFeedbackParticipantShortURL getIntermediateSurveyAndFeedbackParticipantShortURL(
 			final long shortId) {
 		return databaseManagerService.findOneModelObject(
@@ -1896,7 +1998,6 @@ public class SurveyExecutionManagerService {
 	 *
 	 * @return
 	 */
-	@Synchronized
 	public Iterable<ScreeningSurvey> getActiveNonItermediateScreeningSurveys() {
 		final Iterable<Intervention> activeInterventions = databaseManagerService
 				.findModelObjects(Intervention.class,
@@ -1921,7 +2022,6 @@ public class SurveyExecutionManagerService {
 	 *
 	 * @return
 	 */
-	@Synchronized
 	public File getTemplatePath() {
 		return fileStorageManagerService.getTemplatesFolder();
 	}
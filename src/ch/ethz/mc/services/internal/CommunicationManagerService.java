@@ -10,11 +10,22 @@ import java.net.URL;
 import java.net.URLDecoder;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.mail.Authenticator;
 import javax.mail.Flags;
@@ -48,6 +59,7 @@ import ch.ethz.mc.conf.Constants;
 import ch.ethz.mc.conf.ImplementationConstants;
 import ch.ethz.mc.model.Queries;
 import ch.ethz.mc.model.memory.ReceivedMessage;
+import ch.ethz.mc.model.memory.SystemLoad;
 import ch.ethz.mc.model.persistent.DialogMessage;
 import ch.ethz.mc.model.persistent.DialogOption;
 import ch.ethz.mc.model.persistent.Participant;
@@ -56,7 +68,6 @@ import ch.ethz.mc.model.persistent.types.DialogMessageTypes;
 import ch.ethz.mc.model.persistent.types.DialogOptionTypes;
 import ch.ethz.mc.model.persistent.types.SMSServiceType;
 import ch.ethz.mc.model.persistent.types.TextFormatTypes;
-import ch.ethz.mc.rest.services.v02.TWILIOMessageRetrievalServiceV02;
 import ch.ethz.mc.services.InterventionExecutionManagerService;
 import ch.ethz.mc.tools.InternalDateTime;
 import ch.ethz.mc.tools.StringHelpers;
@@ -112,13 +123,17 @@ public class CommunicationManagerService {
 	private final String							smsUserKey;
 	private final String							smsUserPassword;
 
-	private TWILIOMessageRetrievalServiceV02		twilioMessageRetrievalService	= null;
-	private ExternalSystemsManagerService			externalSystemsManagerService	= null;
-
 	private final DocumentBuilderFactory			documentBuilderFactory;
 	private final SimpleDateFormat					receiverDateFormat;
 
-	private final List<AsyncSendingThread>			runningAsyncSendingThreads;
+	private final ThreadPoolExecutor				sendingExecutorService;
+	private final ScheduledExecutorService			sendingRetryScheduler;
+	private final Set<AsyncSendingTask>				scheduledSendingTasks;
+	private final Map<SendingProvider, Semaphore>	sendingProviderPermits;
+	private final AtomicInteger						sendingTasksQueued;
+	private final AtomicInteger						sendingTasksInFlight;
+
+	private final SystemLoad						systemLoad;
 
 	private final ConcurrentHashMap<String, Long>	lastTeamManagerNotificationsCache;
 
@@ -129,7 +144,46 @@ public class CommunicationManagerService {
 
 		this.variablesManagerService = variablesManagerService;
 
-		runningAsyncSendingThreads = new ArrayList<AsyncSendingThread>();
+		// Prepare asynchronous sending
+		systemLoad = SystemLoad.getInstance();
+
+		sendingExecutorService = new ThreadPoolExecutor(
+				ImplementationConstants.ASYNC_SENDING_WORKER_THREADS,
+				ImplementationConstants.ASYNC_SENDING_WORKER_THREADS, 0L,
+				TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(
+						ImplementationConstants.ASYNC_SENDING_QUEUE_CAPACITY),
+				new ThreadFactory() {
+					private final AtomicInteger threadNumber = new AtomicInteger(
+							1);
+
+					@Override
+					public Thread newThread(final Runnable runnable) {
+						return new Thread(runnable, "Async Sending Worker "
+								+ threadNumber.getAndIncrement());
+					}
+				});
+		sendingRetryScheduler = Executors
+				.newSingleThreadScheduledExecutor(new ThreadFactory() {
+					@Override
+					public Thread newThread(final Runnable runnable) {
+						return new Thread(runnable,
+								"Async Sending Retry Scheduler");
+					}
+				});
+		scheduledSendingTasks = ConcurrentHashMap.newKeySet();
+
+		sendingProviderPermits = new EnumMap<SendingProvider, Semaphore>(
+				SendingProvider.class);
+		sendingProviderPermits.put(SendingProvider.ASPSMS, new Semaphore(
+				ImplementationConstants.ASYNC_SENDING_MAXIMUM_CONCURRENT_ASPSMS_REQUESTS));
+		sendingProviderPermits.put(SendingProvider.TWILIO, new Semaphore(
+				ImplementationConstants.ASYNC_SENDING_MAXIMUM_CONCURRENT_TWILIO_REQUESTS));
+		sendingProviderPermits.put(SendingProvider.SMTP, new Semaphore(
+				ImplementationConstants.ASYNC_SENDING_MAXIMUM_CONCURRENT_SMTP_CONNECTIONS));
+
+		sendingTasksQueued = new AtomicInteger(0);
+		sendingTasksInFlight = new AtomicInteger(0);
 
 		lastTeamManagerNotificationsCache = new ConcurrentHashMap<String, Long>();
 
@@ -297,15 +351,19 @@ public class CommunicationManagerService {
 			}
 		}
 
-		log.debug("Stopping mailing threads...");
-		synchronized (runningAsyncSendingThreads) {
-			for (val runningAsyncSendingThread : runningAsyncSendingThreads) {
-				synchronized (runningAsyncSendingThread) {
-					runningAsyncSendingThread.interrupt();
-					runningAsyncSendingThread.join();
-				}
+		log.debug("Stopping sending workers...");
+		sendingRetryScheduler.shutdownNow();
+		for (val scheduledSendingTask : scheduledSendingTasks) {
+			scheduledSendingTask.cancel();
+		}
+		for (val queuedSendingTask : sendingExecutorService.shutdownNow()) {
+			if (queuedSendingTask instanceof AsyncSendingTask) {
+				((AsyncSendingTask) queuedSendingTask).cancel();
 			}
 		}
+		sendingExecutorService.awaitTermination(
+				ImplementationConstants.ASYNC_SENDING_SHUTDOWN_TIMEOUT_IN_SECONDS,
+				TimeUnit.SECONDS);
 
 		log.info("Stopped.");
 	}
@@ -344,31 +402,19 @@ public class CommunicationManagerService {
 			case SMS:
 			case SUPERVISOR_SMS:
 				if (smsActive) {
-					val mailingThread = new AsyncSendingThread(dialogOption,
+					enqueueSendingTask(new AsyncSendingTask(dialogOption,
 							dialogMessage.getId(), messageSender,
 							dialogMessage.getMessageWithForcedLinks(),
-							dialogMessage.isMessageExpectsAnswer());
-
-					synchronized (runningAsyncSendingThreads) {
-						runningAsyncSendingThreads.add(mailingThread);
-					}
-
-					mailingThread.start();
+							dialogMessage.isMessageExpectsAnswer()));
 				}
 				break;
 			case EMAIL:
 			case SUPERVISOR_EMAIL:
 				if (emailActive) {
-					val mailingThread = new AsyncSendingThread(dialogOption,
+					enqueueSendingTask(new AsyncSendingTask(dialogOption,
 							dialogMessage.getId(), messageSender,
 							dialogMessage.getMessageWithForcedLinks(),
-							dialogMessage.isMessageExpectsAnswer());
-
-					synchronized (runningAsyncSendingThreads) {
-						runningAsyncSendingThreads.add(mailingThread);
-					}
-
-					mailingThread.start();
+							dialogMessage.isMessageExpectsAnswer()));
 				}
 				break;
 			case EXTERNAL_ID:
@@ -412,32 +458,68 @@ public class CommunicationManagerService {
 
 				}
 
-				// Only send push notifications if
-				// (1) it is switched on in general
-				// (2) if the message was really sent to out / will in general
-				// not be sent, because it's push only
-				// (3) it is a visible message / a forced push message
-				if (pushNotificationsActive
-						&& (visibleMessagesSentSinceLogout > 0
-								|| dialogMessage.isPushOnly())
-						&& dialogMessage
-								.getType() != DialogMessageTypes.COMMAND) {
-					try {
-						pushNotificationService.asyncSendPushNotification(
-								dialogOption,
-								cleanupForPush(dialogMessage.getTextFormat(),
-										dialogMessage.getMessage()),
-								visibleMessagesSentSinceLogout,
-								dialogMessage.isPushOnly());
-					} catch (final Exception e) {
-						log.warn("Could not send push notification: {}",
-								e.getMessage());
-					}
-				}
+				sendPushNotification(dialogOption, dialogMessage,
+						visibleMessagesSentSinceLogout);
 				break;
 		}
 	}
 
+	/**
+	 * Sends a push notification for the given {@link DialogMessage} if
+	 * appropriate
+	 * 
+	 * @param dialogOption
+	 * @param dialogMessage
+	 * @param visibleMessagesSentSinceLogout
+	 *            Number of visible messages sent to the user since the last
+	 *            logout or zero if the message has not been sent
+	 */
+	public void sendPushNotification(final DialogOption dialogOption,
+			final DialogMessage dialogMessage,
+			final int visibleMessagesSentSinceLogout) {
+		// Only send push notifications if
+		// (1) it is switched on in general
+		// (2) if the message was really sent to out / will in general
+		// not be sent, because it's push only
+		// (3) it is a visible message / a forced push message
+		if (pushNotificationsActive
+				&& (visibleMessagesSentSinceLogout > 0
+						|| dialogMessage.isPushOnly())
+				&& dialogMessage.getType() != DialogMessageTypes.COMMAND) {
+			try {
+				pushNotificationService.asyncSendPushNotification(dialogOption,
+						cleanupForPush(dialogMessage.getTextFormat(),
+								dialogMessage.getMessage()),
+						visibleMessagesSentSinceLogout,
+						dialogMessage.isPushOnly());
+			} catch (final Exception e) {
+				log.warn("Could not send push notification: {}",
+						e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Collects the deepstream messages sent by the current thread until
+	 * {@link #flushCoalescedMessages()} is called, so that consecutive
+	 * messages to the same user are written at once
+	 */
+	public void startMessageCoalescing() {
+		if (deepstreamActive) {
+			deepstreamCommunicationService.startMessageCoalescing();
+		}
+	}
+
+	/**
+	 * Writes the deepstream messages collected by the current thread since
+	 * {@link #startMessageCoalescing()}
+	 */
+	public void flushCoalescedMessages() {
+		if (deepstreamActive) {
+			deepstreamCommunicationService.flushCoalescedMessages();
+		}
+	}
+
 	/**
 	 * Cleans the given message to be sent out as push notification
 	 * 
@@ -492,25 +574,12 @@ public class CommunicationManagerService {
 					receiveSMSMessagesFromASPSMS(receivedMessages);
 					break;
 				case TWILIO:
-					receiveSMSMessagesFromTWILIO(receivedMessages);
+					// TWILIO messages are put into the incoming message
+					// pipeline directly when they arrive
 					break;
 			}
 		}
 
-		// Add deepstream messages
-		if (deepstreamActive) {
-			try {
-				deepstreamCommunicationService
-						.getReceivedMessages(receivedMessages);
-			} catch (final Exception e) {
-				log.warn("Could not receive message using deepstream: {}",
-						e.getMessage());
-			}
-		}
-		
-		// Add external system messages
-		receiveMessagesFromExternalSystem(receivedMessages);
-
 		/*
 		 * Messages from other services could be retrieved here
 		 */
@@ -518,25 +587,6 @@ public class CommunicationManagerService {
 		return receivedMessages;
 	}
 
-	private void receiveMessagesFromExternalSystem(
-			final ArrayList<ReceivedMessage> receivedMessages) {
-		try {
-			if (externalSystemsManagerService == null) {
-				externalSystemsManagerService = ExternalSystemsManagerService
-						.getInstance();
-			}
-
-			if (externalSystemsManagerService != null && externalSystemsManagerService
-					.getReceivedMessages(receivedMessages)) {
-				log.debug("Retrieving messages from external system...");
-			}
-
-		} catch (final Exception e) {
-			log.error("Could not retrieve messages from external system: {}",
-					e.getMessage());
-		}
-	}
-
 	/**
 	 * Receive messages from ASPSMS
 	 * 
@@ -642,32 +692,6 @@ public class CommunicationManagerService {
 		}
 	}
 
-	/**
-	 * Receive message from TWILIO
-	 * 
-	 * @param receivedMessages
-	 */
-	private void receiveSMSMessagesFromTWILIO(
-			final ArrayList<ReceivedMessage> receivedMessages) {
-		try {
-			log.debug("Retrieving SMS messages from TWILIO...");
-
-			if (twilioMessageRetrievalService == null) {
-				twilioMessageRetrievalService = TWILIOMessageRetrievalServiceV02
-						.getInstance();
-			}
-
-			if (twilioMessageRetrievalService != null) {
-				twilioMessageRetrievalService
-						.getReceivedMessages(receivedMessages);
-			}
-
-		} catch (final Exception e) {
-			log.error("Could not retrieve SMS messages from TWILIO: {}",
-					e.getMessage());
-		}
-	}
-
 	/**
 	 * Acknowledges received message
 	 * 
@@ -756,27 +780,154 @@ public class CommunicationManagerService {
 	}
 
 	/**
-	 * Enables threaded sending of messages, with retries
+	 * The providers used for sending, each with its own concurrency limit
+	 */
+	private enum SendingProvider {
+		ASPSMS, TWILIO, SMTP
+	}
+
+	/**
+	 * Puts the given {@link AsyncSendingTask} into the queue of the sending
+	 * workers
+	 *
+	 * @param sendingTask
+	 */
+	private void enqueueSendingTask(final AsyncSendingTask sendingTask) {
+		sendingTasksQueued.incrementAndGet();
+		try {
+			sendingExecutorService.execute(sendingTask);
+			updateSendingQueueState();
+		} catch (final RejectedExecutionException e) {
+			sendingTasksQueued.decrementAndGet();
+			log.warn("Sending queue is full, message to {} will be sent later",
+					sendingTask.dialogOption.getData());
+			sendingTask.cancel();
+		}
+	}
+
+	/**
+	 * Schedules the given {@link AsyncSendingTask} to be put into the queue of
+	 * the sending workers after the given delay
+	 *
+	 * @param sendingTask
+	 * @param delayInMillis
+	 */
+	private void scheduleSendingTask(final AsyncSendingTask sendingTask,
+			final long delayInMillis) {
+		scheduledSendingTasks.add(sendingTask);
+		sendingTasksQueued.incrementAndGet();
+		updateSendingQueueState();
+
+		try {
+			sendingRetryScheduler.schedule(new Runnable() {
+				@Override
+				public void run() {
+					scheduledSendingTasks.remove(sendingTask);
+					sendingTasksQueued.decrementAndGet();
+
+					enqueueSendingTaskOrRetryLater(sendingTask);
+				}
+			}, delayInMillis, TimeUnit.MILLISECONDS);
+		} catch (final RejectedExecutionException e) {
+			// Service is stopping
+			scheduledSendingTasks.remove(sendingTask);
+			sendingTasksQueued.decrementAndGet();
+			sendingTask.cancel();
+		}
+	}
+
+	/**
+	 * Puts the given team manager notification into the queue of the sending
+	 * workers after the busy delay
+	 *
+	 * @param notification
+	 */
+	private void scheduleTeamManagerNotification(final Runnable notification) {
+		try {
+			sendingRetryScheduler.schedule(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						sendingExecutorService.execute(notification);
+					} catch (final RejectedExecutionException e) {
+						log.warn(
+								"Sending queue is full, notification email to team manager will not be sent");
+					}
+				}
+			}, ImplementationConstants.ASYNC_SENDING_BUSY_DELAY_IN_MILLISECONDS,
+					TimeUnit.MILLISECONDS);
+		} catch (final RejectedExecutionException e) {
+			// Service is stopping
+		}
+	}
+
+	/**
+	 * Puts the given {@link AsyncSendingTask} into the queue of the sending
+	 * workers or schedules it again if the queue is full
+	 *
+	 * @param sendingTask
+	 */
+	private void enqueueSendingTaskOrRetryLater(
+			final AsyncSendingTask sendingTask) {
+		sendingTasksQueued.incrementAndGet();
+		try {
+			sendingExecutorService.execute(sendingTask);
+			updateSendingQueueState();
+		} catch (final RejectedExecutionException e) {
+			sendingTasksQueued.decrementAndGet();
+
+			if (sendingExecutorService.isShutdown()) {
+				sendingTask.cancel();
+			} else {
+				scheduleSendingTask(sendingTask,
+						ImplementationConstants.ASYNC_SENDING_BUSY_DELAY_IN_MILLISECONDS);
+			}
+		}
+	}
+
+	private void updateSendingQueueState() {
+		systemLoad.setOutgoingMessagesQueued(sendingTasksQueued.get());
+		systemLoad.setOutgoingMessagesInFlight(sendingTasksInFlight.get());
+	}
+
+	/**
+	 * Sends a message using one of the sending workers; failed sending
+	 * approaches are scheduled to be retried later with an increasing delay
 	 *
 	 * @author Andreas Filler
 	 */
-	private class AsyncSendingThread extends Thread {
-		private final DialogOption	dialogOption;
-		private final ObjectId		dialogMessageId;
-		private final String		messageSender;
-		private final String		message;
-		private final boolean		messageExpectsAnswer;
-
-		public AsyncSendingThread(final DialogOption dialogOption,
+	private class AsyncSendingTask implements Runnable {
+		private final DialogOption		dialogOption;
+		private final ObjectId			dialogMessageId;
+		private final String			messageSender;
+		private final String			message;
+		private final boolean			messageExpectsAnswer;
+
+		private final SendingProvider	sendingProvider;
+
+		private int						failedApproaches	= 0;
+
+		public AsyncSendingTask(final DialogOption dialogOption,
 				final ObjectId dialogMessageId, final String smsPhoneNumberFrom,
 				final String message, final boolean messageExpectsAnswer) {
-			setName("Async Sending Thread " + dialogOption.getData());
 			this.dialogOption = dialogOption;
 			this.dialogMessageId = dialogMessageId;
 			messageSender = smsPhoneNumberFrom;
 			this.message = message;
 			this.messageExpectsAnswer = messageExpectsAnswer;
 
+			switch (dialogOption.getType()) {
+				case SMS:
+				case SUPERVISOR_SMS:
+					sendingProvider = smsServiceType == SMSServiceType.TWILIO
+							? SendingProvider.TWILIO
+							: SendingProvider.ASPSMS;
+					break;
+				default:
+					sendingProvider = SendingProvider.SMTP;
+					break;
+			}
+
 			interventionExecutionManagerService
 					.dialogMessageStatusChangesForSending(dialogMessageId,
 							DialogMessageStatusTypes.SENDING,
@@ -785,9 +936,54 @@ public class CommunicationManagerService {
 
 		@Override
 		public void run() {
+			sendingTasksQueued.decrementAndGet();
+
+			// Respect concurrency limit of provider
+			val permits = sendingProviderPermits.get(sendingProvider);
+			if (!permits.tryAcquire()) {
+				scheduleSendingTask(this,
+						ImplementationConstants.ASYNC_SENDING_BUSY_DELAY_IN_MILLISECONDS);
+				return;
+			}
+
+			sendingTasksInFlight.incrementAndGet();
+			updateSendingQueueState();
+
+			boolean sent = false;
 			try {
+				val startingTime = System.nanoTime();
+
 				sendMessage(dialogOption, messageSender, message);
 
+				systemLoad.addOutgoingMessageSendingTime(
+						System.nanoTime() - startingTime);
+				sent = true;
+			} catch (final Exception e) {
+				failedApproaches++;
+
+				if (failedApproaches <= ImplementationConstants.EMAIL_SENDING_RETRIES) {
+					log.warn(
+							"Could not send message/mail to {} in approach {}, retrying later: {}",
+							dialogOption.getData(), failedApproaches,
+							e.getMessage());
+
+					systemLoad.addOutgoingMessageSendingRetry();
+					scheduleSendingTask(this, getRetryDelayInMillis());
+				} else {
+					log.error(
+							"Could not send message/mail to {} several times...giving up: {}",
+							dialogOption.getData(), e.getMessage());
+
+					systemLoad.addOutgoingMessageSendingFailure();
+					cancel();
+				}
+			} finally {
+				permits.release();
+				sendingTasksInFlight.decrementAndGet();
+				updateSendingQueueState();
+			}
+
+			if (sent) {
 				if (messageExpectsAnswer) {
 					interventionExecutionManagerService
 							.dialogMessageStatusChangesForSending(
@@ -801,75 +997,28 @@ public class CommunicationManagerService {
 									DialogMessageStatusTypes.SENT_BUT_NOT_WAITING_FOR_ANSWER,
 									InternalDateTime.currentTimeMillis());
 				}
-
-				removeFromList();
-
-				return;
-			} catch (final Exception e) {
-				log.warn(
-						"Could not send message/mail to {}, retrying later another {} times: ",
-						dialogOption.getData(),
-						ImplementationConstants.EMAIL_SENDING_RETRIES,
-						e.getMessage());
-			}
-
-			for (int i = 0; i < ImplementationConstants.EMAIL_SENDING_RETRIES; i++) {
-				try {
-					TimeUnit.SECONDS.sleep(
-							ImplementationConstants.EMAIL_SENDING_RETRIES_SLEEP_BETWEEN_RETRIES_IN_SECONDS);
-				} catch (final InterruptedException e) {
-					log.warn("Interrupted messaging sending approach {}", i);
-
-					interventionExecutionManagerService
-							.dialogMessageStatusChangesForSending(
-									dialogMessageId,
-									DialogMessageStatusTypes.PREPARED_FOR_SENDING,
-									InternalDateTime.currentTimeMillis());
-
-					return;
-				}
-
-				try {
-					sendMessage(dialogOption, messageSender, message);
-
-					if (messageExpectsAnswer) {
-						interventionExecutionManagerService
-								.dialogMessageStatusChangesForSending(
-										dialogMessageId,
-										DialogMessageStatusTypes.SENT_AND_WAITING_FOR_ANSWER,
-										InternalDateTime.currentTimeMillis());
-					} else {
-						interventionExecutionManagerService
-								.dialogMessageStatusChangesForSending(
-										dialogMessageId,
-										DialogMessageStatusTypes.SENT_BUT_NOT_WAITING_FOR_ANSWER,
-										InternalDateTime.currentTimeMillis());
-					}
-
-					removeFromList();
-
-					return;
-				} catch (final Exception e) {
-					log.warn("Could not send mail to {} in approach {}: {}",
-							dialogOption.getData(), i, e.getMessage());
-				}
 			}
+		}
 
-			log.error("Could not send mail to {} several times...giving up",
-					dialogOption.getData());
-
+		/**
+		 * Resets the message, so that it will be sent again later
+		 */
+		private void cancel() {
 			interventionExecutionManagerService
 					.dialogMessageStatusChangesForSending(dialogMessageId,
 							DialogMessageStatusTypes.PREPARED_FOR_SENDING,
 							InternalDateTime.currentTimeMillis());
-
-			removeFromList();
 		}
 
-		private void removeFromList() {
-			synchronized (runningAsyncSendingThreads) {
-				runningAsyncSendingThreads.remove(this);
-			}
+		/**
+		 * Returns the delay before the next approach, doubled with each failed
+		 * approach
+		 *
+		 * @return
+		 */
+		private long getRetryDelayInMillis() {
+			return ImplementationConstants.EMAIL_SENDING_RETRIES_SLEEP_BETWEEN_RETRIES_IN_SECONDS
+					* 1000 * (1L << Math.min(failedApproaches - 1, 16));
 		}
 
 		/**
@@ -1048,8 +1197,13 @@ public class CommunicationManagerService {
 		}
 	}
 
-	public int getAsyncSendingThreadCount() {
-		return runningAsyncSendingThreads.size();
+	/**
+	 * Returns if the queue of the sending workers can take further messages
+	 *
+	 * @return
+	 */
+	public boolean isAsyncSendingQueueAvailable() {
+		return sendingExecutorService.getQueue().remainingCapacity() > 0;
 	}
 
 	public void sendDashboardChatNotification(final boolean sendToParticipant,
@@ -1114,6 +1268,22 @@ public class CommunicationManagerService {
 
 						@Override
 						public void run() {
+							// Respect concurrency limit of provider
+							val permits = sendingProviderPermits
+									.get(SendingProvider.SMTP);
+							if (!permits.tryAcquire()) {
+								scheduleTeamManagerNotification(this);
+								return;
+							}
+
+							try {
+								sendTeamManagerNotification();
+							} finally {
+								permits.release();
+							}
+						}
+
+						private void sendTeamManagerNotification() {
 							log.debug(
 									"Sending notification for new message to team manager");
 							val variablesWithValues = variablesManagerService
@@ -1149,7 +1319,12 @@ public class CommunicationManagerService {
 						}
 					};
 
-					new Thread(runnable).start();
+					try {
+						sendingExecutorService.execute(runnable);
+					} catch (final RejectedExecutionException e) {
+						log.warn(
+								"Sending queue is full, notification email to team manager will not be sent");
+					}
 				}
 			}
 		}
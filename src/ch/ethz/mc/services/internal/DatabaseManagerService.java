@@ -51,7 +51,12 @@ public class DatabaseManagerService extends AbstractModelObjectAccessService {
 					Constants.getDatabaseUser(), Constants.getDatabaseName(),
 					Constants.getDatabasePassword().toCharArray()));
 			val mongoDBOptions = MongoClientOptions.builder()
-					.socketKeepAlive(true).build();
+					.socketKeepAlive(true)
+					.connectionsPerHost(
+							Constants.getDatabaseConnectionsPerHost())
+					.maxWaitTime(
+							Constants.getDatabaseConnectionWaitSeconds() * 1000)
+					.build();
 			mongoClient = new MongoClient(
 					new ServerAddress(Constants.getDatabaseHost(),
 							Constants.getDatabasePort()),
@@ -3,15 +3,17 @@ package ch.ethz.mc.services.internal;
 /* ##LICENSE## */
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Hashtable;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -52,8 +54,8 @@ import io.deepstream.HasResult;
 import io.deepstream.LoginResult;
 import io.deepstream.PresenceEventListener;
 import io.deepstream.Record;
-import io.deepstream.SnapshotResult;
 import io.deepstream.Topic;
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Synchronized;
 import lombok.val;
@@ -93,10 +95,23 @@ public class DeepstreamCommunicationService extends Thread
 
 	private final int								substringLength;
 
-	private final List<ReceivedMessage>				receivedMessages;
-	private final List<ExternalSystemMessage>		receivedExternalSystemMessages;
+	private final IncomingMessagePipeline			incomingMessagePipeline;
+	private final MessageDiffIndex					messageDiffIndex;
 
-	private DeepstreamClient						client				= null;
+	/**
+	 * Messages of the current thread waiting to be written, grouped by user
+	 */
+	private final ThreadLocal<LinkedHashMap<String, List<OutgoingMessage>>>	coalescedOutgoingMessages;
+
+	private volatile DeepstreamClient				client				= null;
+
+	/**
+	 * The client handles concurrent requests on its own, so all operations
+	 * share the read lock; connecting, reconnecting and cleaning up the client
+	 * requires the write lock
+	 */
+	private final ReentrantReadWriteLock			clientLock;
+	private final AtomicInteger						clientOperationsInFlight;
 	private final String							host;
 	private final JsonObject						loginData;
 
@@ -113,6 +128,15 @@ public class DeepstreamCommunicationService extends Thread
 	private final String							observerRole;
 	private final String							externalSystemRole;
 
+	@AllArgsConstructor
+	private static class OutgoingMessage {
+		private final DialogOption	dialogOption;
+		private final DialogMessage	dialogMessage;
+		private final String		key;
+		private final JsonObject	messageObject;
+		private final long			timestamp;
+	}
+
 	private DeepstreamCommunicationService(final String deepstreamHost,
 			final String deepstreamServerPassword,
 			final CommunicationManagerService communicationManagerService) {
@@ -120,11 +144,14 @@ public class DeepstreamCommunicationService extends Thread
 
 		systemLoad = SystemLoad.getInstance();
 
-		loggedInParticipants = new HashSet<String>();
-		loggedInSupervisors = new HashSet<String>();
-		loggedInTeamManagers = new HashSet<String>();
-		loggedInObservers = new HashSet<String>();
-		loggedInExternalSystems = new HashSet<String>();
+		loggedInParticipants = ConcurrentHashMap.newKeySet();
+		loggedInSupervisors = ConcurrentHashMap.newKeySet();
+		loggedInTeamManagers = ConcurrentHashMap.newKeySet();
+		loggedInObservers = ConcurrentHashMap.newKeySet();
+		loggedInExternalSystems = ConcurrentHashMap.newKeySet();
+
+		clientLock = new ReentrantReadWriteLock();
+		clientOperationsInFlight = new AtomicInteger();
 
 		allUsersVisibleMessagesSentSinceLastLogout = new Hashtable<String, Integer>();
 
@@ -167,8 +194,9 @@ public class DeepstreamCommunicationService extends Thread
 		substringLength = ImplementationConstants.DIALOG_OPTION_IDENTIFIER_FOR_DEEPSTREAM
 				.length();
 
-		receivedMessages = new ArrayList<ReceivedMessage>();
-		receivedExternalSystemMessages = new ArrayList<>();
+		incomingMessagePipeline = IncomingMessagePipeline.getInstance();
+		messageDiffIndex = new MessageDiffIndex();
+		coalescedOutgoingMessages = new ThreadLocal<LinkedHashMap<String, List<OutgoingMessage>>>();
 	}
 
 	public static DeepstreamCommunicationService prepare(
@@ -195,9 +223,14 @@ public class DeepstreamCommunicationService extends Thread
 
 		this.interventionExecutionManagerService = interventionExecutionManagerService;
 
-		if (!connectOrReconnect()) {
-			throw new Exception(
-					"A problem when connecting to deepstream at startup occurred.");
+		clientLock.writeLock().lock();
+		try {
+			if (!connectOrReconnect()) {
+				throw new Exception(
+						"A problem when connecting to deepstream at startup occurred.");
+			}
+		} finally {
+			clientLock.writeLock().unlock();
 		}
 
 		log.info("Started.");
@@ -241,12 +274,15 @@ public class DeepstreamCommunicationService extends Thread
 		}
 
 		// Stop service
+		clientLock.writeLock().lock();
 		try {
 			cleanupClient();
 			client = null;
 		} catch (final Exception e) {
 			log.warn("Could not close deepstream connection: {}",
 					e.getMessage());
+		} finally {
+			clientLock.writeLock().unlock();
 		}
 
 		running = false;
@@ -298,7 +334,6 @@ public class DeepstreamCommunicationService extends Thread
 	 * @return Number of visible message sent to this user since the last logout
 	 *         or zero if no message has been sent
 	 */
-	@Synchronized
 	public int asyncSendMessage(final DialogOption dialogOption,
 			final ObjectId dialogMessageId) {
 		log.debug("Sending message {}", dialogMessageId);
@@ -309,148 +344,299 @@ public class DeepstreamCommunicationService extends Thread
 						InternalDateTime.currentTimeMillis());
 
 		val timestamp = InternalDateTime.currentTimeMillis();
-		int messagesSentSinceLastLogout = 0;
-
-		Record record = null;
-		synchronized (client) {
-			try {
-				val participantOrSupervisorIdentifier = dialogOption.getData()
-						.substring(substringLength);
 
-				val isCommand = dialogMessage
-						.getType() == DialogMessageTypes.COMMAND;
-
-				val messageObject = new JsonObject();
-				messageObject.addProperty(DeepstreamConstants.ID,
-						dialogMessage.getOrder());
-				messageObject.addProperty(DeepstreamConstants.STATUS,
-						DeepstreamConstants.STATUS_SENT_BY_SERVER);
-				messageObject.addProperty(DeepstreamConstants.TYPE,
-						isCommand ? DeepstreamConstants.TYPE_COMMAND
-								: DeepstreamConstants.TYPE_PLAIN);
-				if (!StringUtils.isBlank(dialogMessage.getSurveyLink())) {
-					messageObject.addProperty(
-							DeepstreamConstants.CONTAINS_SURVEY,
-							dialogMessage.getSurveyLink());
-				}
-				if (!StringUtils.isBlank(dialogMessage.getMediaObjectLink())) {
-					messageObject.addProperty(
-							DeepstreamConstants.CONTAINS_MEDIA,
-							dialogMessage.getMediaObjectLink());
-				}
-				if (!StringUtils.isBlank(dialogMessage.getMediaObjectName())) {
-					messageObject.addProperty(DeepstreamConstants.MEDIA_NAME,
-							dialogMessage.getMediaObjectName());
-				}
-				if (dialogMessage.getMediaObjectType() != null) {
-					messageObject.addProperty(DeepstreamConstants.MEDIA_TYPE,
-							dialogMessage.getMediaObjectType().toJSONField());
-				}
-				if (!StringUtils.isBlank(
-						dialogMessage.getTextBasedMediaObjectContent())) {
-					messageObject.addProperty(DeepstreamConstants.CONTENT,
-							dialogMessage.getTextBasedMediaObjectContent());
-				} else {
-					messageObject.addProperty(DeepstreamConstants.CONTENT, "");
-				}
-				if (isCommand) {
-					messageObject.addProperty(
-							DeepstreamConstants.SERVER_MESSAGE,
-							dialogMessage.getMessage()
-									.replaceAll(
-											"[ ]?" + ImplementationConstants.PLACEHOLDER_LINKED_MEDIA_OBJECT
-													+ "[ ]?",
-											"")
-									.replaceAll(
-											ImplementationConstants.PLACEHOLDER_LINKED_SURVEY,
-											dialogMessage.getSurveyLink()));
+		final String participantOrSupervisorIdentifier;
+		final boolean isCommand;
+		final JsonObject messageObject;
+		try {
+			participantOrSupervisorIdentifier = dialogOption.getData()
+					.substring(substringLength);
+
+			isCommand = dialogMessage
+					.getType() == DialogMessageTypes.COMMAND;
+
+			messageObject = new JsonObject();
+			messageObject.addProperty(DeepstreamConstants.ID,
+					dialogMessage.getOrder());
+			messageObject.addProperty(DeepstreamConstants.STATUS,
+					DeepstreamConstants.STATUS_SENT_BY_SERVER);
+			messageObject.addProperty(DeepstreamConstants.TYPE,
+					isCommand ? DeepstreamConstants.TYPE_COMMAND
+							: DeepstreamConstants.TYPE_PLAIN);
+			if (!StringUtils.isBlank(dialogMessage.getSurveyLink())) {
+				messageObject.addProperty(
+						DeepstreamConstants.CONTAINS_SURVEY,
+						dialogMessage.getSurveyLink());
+			}
+			if (!StringUtils.isBlank(dialogMessage.getMediaObjectLink())) {
+				messageObject.addProperty(
+						DeepstreamConstants.CONTAINS_MEDIA,
+						dialogMessage.getMediaObjectLink());
+			}
+			if (!StringUtils.isBlank(dialogMessage.getMediaObjectName())) {
+				messageObject.addProperty(DeepstreamConstants.MEDIA_NAME,
+						dialogMessage.getMediaObjectName());
+			}
+			if (dialogMessage.getMediaObjectType() != null) {
+				messageObject.addProperty(DeepstreamConstants.MEDIA_TYPE,
+						dialogMessage.getMediaObjectType().toJSONField());
+			}
+			if (!StringUtils.isBlank(
+					dialogMessage.getTextBasedMediaObjectContent())) {
+				messageObject.addProperty(DeepstreamConstants.CONTENT,
+						dialogMessage.getTextBasedMediaObjectContent());
+			} else {
+				messageObject.addProperty(DeepstreamConstants.CONTENT, "");
+			}
+			if (isCommand) {
+				messageObject.addProperty(
+						DeepstreamConstants.SERVER_MESSAGE,
+						dialogMessage.getMessage()
+								.replaceAll(
+										"[ ]?" + ImplementationConstants.PLACEHOLDER_LINKED_MEDIA_OBJECT
+												+ "[ ]?",
+										"")
+								.replaceAll(
+										ImplementationConstants.PLACEHOLDER_LINKED_SURVEY,
+										dialogMessage.getSurveyLink()));
+			} else {
+				messageObject.addProperty(
+						DeepstreamConstants.SERVER_MESSAGE,
+						dialogMessage.getMessage());
+			}
+			messageObject.addProperty(DeepstreamConstants.FORMAT,
+					dialogMessage.getTextFormat().toString());
+			val answerType = dialogMessage.getAnswerType();
+			if (answerType != null) {
+				val answerTypeMessageObject = new JsonObject();
+				answerTypeMessageObject.addProperty(
+						DeepstreamConstants.TYPE, answerType.toJSONField());
+				val answerOptions = dialogMessage.getAnswerOptions();
+				if (answerType.isKeyValueBased()) {
+					answerTypeMessageObject.add(DeepstreamConstants.OPTIONS,
+							gson.fromJson(answerOptions,
+									JsonElement.class));
 				} else {
-					messageObject.addProperty(
-							DeepstreamConstants.SERVER_MESSAGE,
-							dialogMessage.getMessage());
-				}
-				messageObject.addProperty(DeepstreamConstants.FORMAT,
-						dialogMessage.getTextFormat().toString());
-				val answerType = dialogMessage.getAnswerType();
-				if (answerType != null) {
-					val answerTypeMessageObject = new JsonObject();
 					answerTypeMessageObject.addProperty(
-							DeepstreamConstants.TYPE, answerType.toJSONField());
-					val answerOptions = dialogMessage.getAnswerOptions();
-					if (answerType.isKeyValueBased()) {
-						answerTypeMessageObject.add(DeepstreamConstants.OPTIONS,
-								gson.fromJson(answerOptions,
-										JsonElement.class));
-					} else {
-						answerTypeMessageObject.addProperty(
-								DeepstreamConstants.OPTIONS, answerOptions);
-					}
-					messageObject.add(DeepstreamConstants.ANSWER_FORMAT,
-							answerTypeMessageObject);
+							DeepstreamConstants.OPTIONS, answerOptions);
 				}
-				messageObject.addProperty(DeepstreamConstants.MESSAGE_TIMESTAMP,
-						timestamp);
-				messageObject.addProperty(DeepstreamConstants.EXPECTS_ANSWER,
-						dialogMessage.isMessageExpectsAnswer());
-				messageObject.addProperty(DeepstreamConstants.CAN_BE_CANCELLED,
-						dialogMessage.isAnswerCanBeCancelled());
-				messageObject.addProperty(DeepstreamConstants.LAST_MODIFIED,
-						timestamp);
-				messageObject.addProperty(DeepstreamConstants.STICKY,
-						dialogMessage.isMessageIsSticky());
-				messageObject.addProperty(DeepstreamConstants.DEACTIVATION,
-						dialogMessage.isMessageDeactivatesAllOpenQuestions());
+				messageObject.add(DeepstreamConstants.ANSWER_FORMAT,
+						answerTypeMessageObject);
+			}
+			messageObject.addProperty(DeepstreamConstants.MESSAGE_TIMESTAMP,
+					timestamp);
+			messageObject.addProperty(DeepstreamConstants.EXPECTS_ANSWER,
+					dialogMessage.isMessageExpectsAnswer());
+			messageObject.addProperty(DeepstreamConstants.CAN_BE_CANCELLED,
+					dialogMessage.isAnswerCanBeCancelled());
+			messageObject.addProperty(DeepstreamConstants.LAST_MODIFIED,
+					timestamp);
+			messageObject.addProperty(DeepstreamConstants.STICKY,
+					dialogMessage.isMessageIsSticky());
+			messageObject.addProperty(DeepstreamConstants.DEACTIVATION,
+					dialogMessage.isMessageDeactivatesAllOpenQuestions());
+		} catch (final Exception e) {
+			log.warn("Could not send message to {}: {}",
+					dialogOption.getData(), e.getMessage());
+
+			interventionExecutionManagerService
+					.dialogMessageStatusChangesForSending(dialogMessageId,
+							DialogMessageStatusTypes.PREPARED_FOR_SENDING,
+							timestamp);
+
+			return 0;
+		}
+
+		val outgoingMessage = new OutgoingMessage(dialogOption, dialogMessage,
+				DeepstreamConstants.PATH_LIST
+						+ String.valueOf(dialogMessage.getOrder()),
+				messageObject, timestamp);
+
+		val coalescedMessages = coalescedOutgoingMessages.get();
+		if (coalescedMessages != null) {
+			// The message stays SENDING until it has been written
+			coalescedMessages
+					.computeIfAbsent(participantOrSupervisorIdentifier,
+							i -> new ArrayList<OutgoingMessage>())
+					.add(outgoingMessage);
+
+			// Adjusted, counted and notified when the message has been
+			// written
+			return 0;
+		}
+
+		if (!writeOutgoingMessages(participantOrSupervisorIdentifier,
+				Collections.singletonList(outgoingMessage))) {
+			return 0;
+		}
+		adjustStatusOfSentMessage(outgoingMessage);
+
+		return countVisibleMessageSent(participantOrSupervisorIdentifier,
+				dialogMessage);
+	}
+
+	/**
+	 * Adjusts the status of the given message after sending
+	 * 
+	 * @param outgoingMessage
+	 */
+	private void adjustStatusOfSentMessage(
+			final OutgoingMessage outgoingMessage) {
+		val dialogMessageId = outgoingMessage.dialogMessage.getId();
 
+		if (outgoingMessage.dialogMessage.isMessageExpectsAnswer()) {
+			interventionExecutionManagerService
+					.dialogMessageStatusChangesForSending(dialogMessageId,
+							DialogMessageStatusTypes.SENT_AND_WAITING_FOR_ANSWER,
+							outgoingMessage.timestamp);
+		} else {
+			interventionExecutionManagerService
+					.dialogMessageStatusChangesForSending(dialogMessageId,
+							DialogMessageStatusTypes.SENT_BUT_NOT_WAITING_FOR_ANSWER,
+							outgoingMessage.timestamp);
+		}
+
+		log.debug("Message {} sent", dialogMessageId);
+	}
+
+	/**
+	 * Remembers a written message for the given user
+	 * 
+	 * @param participantOrSupervisorIdentifier
+	 * @param dialogMessage
+	 * @return Number of visible message sent to this user since the last logout
+	 *         or zero if the message is not visible
+	 */
+	private int countVisibleMessageSent(
+			final String participantOrSupervisorIdentifier,
+			final DialogMessage dialogMessage) {
+		// If it's not a visible message ignore it
+		if (dialogMessage.getType() == DialogMessageTypes.COMMAND) {
+			return 0;
+		}
+
+		int messagesSentSinceLastLogout;
+		synchronized (allUsersVisibleMessagesSentSinceLastLogout) {
+			if (loggedInParticipants.contains(participantOrSupervisorIdentifier)
+					|| loggedInSupervisors
+							.contains(participantOrSupervisorIdentifier)) {
+				// If user is logged in remember as one (for late logout
+				// users)
+				messagesSentSinceLastLogout = 1;
+			} else if (allUsersVisibleMessagesSentSinceLastLogout
+					.containsKey(participantOrSupervisorIdentifier)) {
+				// User is not logged in and well known
+				messagesSentSinceLastLogout = allUsersVisibleMessagesSentSinceLastLogout
+						.get(participantOrSupervisorIdentifier) + 1;
+			} else {
+				// User is not logged in and not known
+				messagesSentSinceLastLogout = 1;
+			}
+			allUsersVisibleMessagesSentSinceLastLogout.put(
+					participantOrSupervisorIdentifier,
+					messagesSentSinceLastLogout);
+		}
+
+		return messagesSentSinceLastLogout;
+	}
+
+	/**
+	 * Collects all messages sent by the current thread until
+	 * {@link #flushCoalescedMessages()} is called, so that the messages of
+	 * each user are written at once
+	 */
+	public void startMessageCoalescing() {
+		if (coalescedOutgoingMessages.get() == null) {
+			coalescedOutgoingMessages
+					.set(new LinkedHashMap<String, List<OutgoingMessage>>());
+		}
+	}
+
+	/**
+	 * Writes all messages collected since
+	 * {@link #startMessageCoalescing()} was called by the current thread,
+	 * adjusts their status and sends the push notifications for the written
+	 * messages
+	 */
+	public void flushCoalescedMessages() {
+		val coalescedMessages = coalescedOutgoingMessages.get();
+		if (coalescedMessages == null) {
+			return;
+		}
+		coalescedOutgoingMessages.remove();
+
+		for (val participantOrSupervisorIdentifier : coalescedMessages
+				.keySet()) {
+			val outgoingMessages = coalescedMessages
+					.get(participantOrSupervisorIdentifier);
+
+			if (!writeOutgoingMessages(participantOrSupervisorIdentifier,
+					outgoingMessages)) {
+				continue;
+			}
+
+			for (val outgoingMessage : outgoingMessages) {
+				adjustStatusOfSentMessage(outgoingMessage);
+			}
+			for (val outgoingMessage : outgoingMessages) {
+				communicationManagerService.sendPushNotification(
+						outgoingMessage.dialogOption,
+						outgoingMessage.dialogMessage,
+						countVisibleMessageSent(
+								participantOrSupervisorIdentifier,
+								outgoingMessage.dialogMessage));
+			}
+		}
+	}
+
+	/**
+	 * Writes the given messages in their order to the message record of the
+	 * given user using one record acquisition; if this fails, the messages
+	 * are prepared for sending again
+	 * 
+	 * @param participantOrSupervisorIdentifier
+	 * @param outgoingMessages
+	 * @return If the messages have been written
+	 */
+	private boolean writeOutgoingMessages(
+			final String participantOrSupervisorIdentifier,
+			final List<OutgoingMessage> outgoingMessages) {
+		Record record = null;
+		beginClientOperation();
+		try {
+			try {
 				record = client.record
 						.getRecord(DeepstreamConstants.PATH_MESSAGES
 								+ participantOrSupervisorIdentifier);
 
-				record.set(
-						DeepstreamConstants.PATH_LIST
-								+ String.valueOf(dialogMessage.getOrder()),
-						messageObject);
-
-				client.event.emit(
-						DeepstreamConstants.PATH_MESSAGE_UPDATE
-								+ participantOrSupervisorIdentifier,
-						messageObject);
+				for (val outgoingMessage : outgoingMessages) {
+					record.set(outgoingMessage.key,
+							outgoingMessage.messageObject);
+					messageDiffIndex.put(
+							DeepstreamConstants.PATH_MESSAGES
+									+ participantOrSupervisorIdentifier,
+							outgoingMessage.key, outgoingMessage.timestamp,
+							outgoingMessage.messageObject);
 
-				// If it's not a visible message ignore it
-				if (!isCommand) {
-					synchronized (allUsersVisibleMessagesSentSinceLastLogout) {
-						if (loggedInParticipants
-								.contains(participantOrSupervisorIdentifier)
-								|| loggedInSupervisors.contains(
-										participantOrSupervisorIdentifier)) {
-							// If user is logged in remember as one (for late
-							// logout
-							// users)
-							messagesSentSinceLastLogout = 1;
-						} else if (allUsersVisibleMessagesSentSinceLastLogout
-								.containsKey(
-										participantOrSupervisorIdentifier)) {
-							// User is not logged in and well known
-							messagesSentSinceLastLogout = allUsersVisibleMessagesSentSinceLastLogout
-									.get(participantOrSupervisorIdentifier) + 1;
-						} else {
-							// User is not logged in and not known
-							messagesSentSinceLastLogout = 1;
-						}
-						allUsersVisibleMessagesSentSinceLastLogout.put(
-								participantOrSupervisorIdentifier,
-								messagesSentSinceLastLogout);
-					}
+					client.event.emit(
+							DeepstreamConstants.PATH_MESSAGE_UPDATE
+									+ participantOrSupervisorIdentifier,
+							outgoingMessage.messageObject);
 				}
 			} catch (final Exception e) {
-				log.warn("Could not send message to {}: {}",
-						dialogOption.getData(), e.getMessage());
-
-				interventionExecutionManagerService
-						.dialogMessageStatusChangesForSending(dialogMessageId,
-								DialogMessageStatusTypes.PREPARED_FOR_SENDING,
-								timestamp);
+				log.warn("Could not send {} message(s) to {}: {}",
+						outgoingMessages.size(),
+						participantOrSupervisorIdentifier, e.getMessage());
+
+				for (val outgoingMessage : outgoingMessages) {
+					interventionExecutionManagerService
+							.dialogMessageStatusChangesForSending(
+									outgoingMessage.dialogMessage.getId(),
+									DialogMessageStatusTypes.PREPARED_FOR_SENDING,
+									outgoingMessage.timestamp);
+				}
 
-				return 0;
+				return false;
 			} finally {
 				if (record != null) {
 					try {
@@ -460,23 +646,11 @@ public class DeepstreamCommunicationService extends Thread
 					}
 				}
 			}
+		} finally {
+			endClientOperation();
 		}
 
-		if (dialogMessage.isMessageExpectsAnswer()) {
-			interventionExecutionManagerService
-					.dialogMessageStatusChangesForSending(dialogMessageId,
-							DialogMessageStatusTypes.SENT_AND_WAITING_FOR_ANSWER,
-							timestamp);
-		} else {
-			interventionExecutionManagerService
-					.dialogMessageStatusChangesForSending(dialogMessageId,
-							DialogMessageStatusTypes.SENT_BUT_NOT_WAITING_FOR_ANSWER,
-							timestamp);
-		}
-
-		log.debug("Message {} sent", dialogMessageId);
-
-		return messagesSentSinceLastLogout;
+		return true;
 	}
 
 	/**
@@ -485,13 +659,13 @@ public class DeepstreamCommunicationService extends Thread
 	 * @param dialogMessage
 	 * @param receivedMessage
 	 */
-	@Synchronized
 	public void asyncAcknowledgeMessage(final DialogMessage dialogMessage,
 			final ReceivedMessage receivedMessage) {
 		log.debug("Acknowledging message {}", dialogMessage.getId());
 
 		Record record = null;
-		synchronized (client) {
+		beginClientOperation();
+		try {
 			try {
 				val timestamp = InternalDateTime.currentTimeMillis();
 
@@ -634,6 +808,12 @@ public class DeepstreamCommunicationService extends Thread
 							DeepstreamConstants.PATH_LIST
 									+ String.valueOf("c-" + timestamp),
 							messageConfirmationObject);
+					messageDiffIndex.put(
+							DeepstreamConstants.PATH_MESSAGES
+									+ participantIdentifier,
+							DeepstreamConstants.PATH_LIST
+									+ String.valueOf("c-" + timestamp),
+							timestamp, messageConfirmationObject);
 
 					client.event.emit(
 							DeepstreamConstants.PATH_MESSAGE_UPDATE
@@ -643,6 +823,12 @@ public class DeepstreamCommunicationService extends Thread
 
 				record.set(DeepstreamConstants.PATH_LIST
 						+ String.valueOf(messageOrder), messageObject);
+				messageDiffIndex.put(
+						DeepstreamConstants.PATH_MESSAGES
+								+ participantIdentifier,
+						DeepstreamConstants.PATH_LIST
+								+ String.valueOf(messageOrder),
+						timestamp, messageObject);
 
 				client.event.emit(DeepstreamConstants.PATH_MESSAGE_UPDATE
 						+ participantIdentifier, messageObject);
@@ -659,6 +845,8 @@ public class DeepstreamCommunicationService extends Thread
 					}
 				}
 			}
+		} finally {
+			endClientOperation();
 		}
 
 		log.debug("Message {} acknowledged", dialogMessage.getId());
@@ -670,7 +858,6 @@ public class DeepstreamCommunicationService extends Thread
 	 * @param dialogOption
 	 * @param dialogMessage
 	 */
-	@Synchronized
 	public void asyncInformAboutAnsweringTimeout(
 			final DialogOption dialogOption,
 			final DialogMessage dialogMessage) {
@@ -678,7 +865,8 @@ public class DeepstreamCommunicationService extends Thread
 				dialogMessage.getId());
 
 		Record record = null;
-		synchronized (client) {
+		beginClientOperation();
+		try {
 			try {
 				val timestamp = InternalDateTime.currentTimeMillis();
 
@@ -705,6 +893,12 @@ public class DeepstreamCommunicationService extends Thread
 
 				record.set(DeepstreamConstants.PATH_LIST
 						+ String.valueOf(messageOrder), messageObject);
+				messageDiffIndex.put(
+						DeepstreamConstants.PATH_MESSAGES
+								+ participantIdentifier,
+						DeepstreamConstants.PATH_LIST
+								+ String.valueOf(messageOrder),
+						timestamp, messageObject);
 
 				client.event.emit(DeepstreamConstants.PATH_MESSAGE_UPDATE
 						+ participantIdentifier, messageObject);
@@ -721,39 +915,14 @@ public class DeepstreamCommunicationService extends Thread
 					}
 				}
 			}
+		} finally {
+			endClientOperation();
 		}
 
 		log.debug("Informed about timeout of message {}",
 				dialogMessage.getId());
 	}
 
-	/**
-	 * Get all messages received by deepstream since the last check
-	 * 
-	 * @param receivedMessage
-	 */
-	public void getReceivedMessages(
-			final List<ReceivedMessage> receivedMessage) {
-		synchronized (receivedMessages) {
-			receivedMessage.addAll(receivedMessages);
-			receivedMessages.clear();
-		}
-	}
-
-	/**
-	 * Get all external system messages received by deepstream since the last
-	 * check
-	 * 
-	 * @param receivedMessages
-	 */
-	public void getReceivedExternalSystemMessages(
-			final List<ExternalSystemMessage> receivedMessages) {
-		synchronized (receivedExternalSystemMessages) {
-			receivedMessages.addAll(receivedExternalSystemMessages);
-			receivedExternalSystemMessages.clear();
-		}
-	}
-
 	/**
 	 * Check secret of user using deepstream
 	 * 
@@ -784,13 +953,16 @@ public class DeepstreamCommunicationService extends Thread
 		Record record = null;
 		try {
 			String secretFromRecord;
-			synchronized (client) {
+			beginClientOperation();
+			try {
 				record = client.record
 						.getRecord(DeepstreamConstants.PATH_MESSAGES
 								+ participantOrSupervisorIdentifier);
 
 				secretFromRecord = record.get(DeepstreamConstants.SECRET)
 						.getAsString();
+			} finally {
+				endClientOperation();
 			}
 
 			if (StringUtils.isBlank(secretFromRecord)) {
@@ -834,7 +1006,8 @@ public class DeepstreamCommunicationService extends Thread
 		Record record = null;
 		try {
 			String secretFromRecord;
-			synchronized (client) {
+			beginClientOperation();
+			try {
 
 				String recordName = DeepstreamConstants.PATH_EXTERNAL_SYSTEMS
 						+ systemId;
@@ -849,6 +1022,8 @@ public class DeepstreamCommunicationService extends Thread
 							systemId, false);
 					return false;
 				}
+			} finally {
+				endClientOperation();
 			}
 
 			if (StringUtils.isBlank(secretFromRecord)) {
@@ -917,7 +1092,8 @@ public class DeepstreamCommunicationService extends Thread
 		final String secret = RandomStringUtils.randomAlphanumeric(128);
 
 		Record record = null;
-		synchronized (client) {
+		beginClientOperation();
+		try {
 			try {
 				record = client.record
 						.getRecord(DeepstreamConstants.PATH_MESSAGES
@@ -935,6 +1111,8 @@ public class DeepstreamCommunicationService extends Thread
 					}
 				}
 			}
+		} finally {
+			endClientOperation();
 		}
 
 		boolean createdSucessfully = false;
@@ -965,7 +1143,8 @@ public class DeepstreamCommunicationService extends Thread
 			// Cleanup prepared user if registration was not possible
 			if (!createdSucessfully) {
 				record = null;
-				synchronized (client) {
+				beginClientOperation();
+				try {
 					try {
 						record = client.record
 								.getRecord(DeepstreamConstants.PATH_MESSAGES
@@ -983,6 +1162,8 @@ public class DeepstreamCommunicationService extends Thread
 						}
 					}
 
+				} finally {
+					endClientOperation();
 				}
 
 				return null;
@@ -1004,7 +1185,8 @@ public class DeepstreamCommunicationService extends Thread
 		Record record = null;
 		String externalSystemId;
 		String token;
-		synchronized (client) {
+		beginClientOperation();
+		try {
 			try {
 				// Generate token and UID.
 				token = RandomStringUtils.randomAlphanumeric(128);
@@ -1026,6 +1208,8 @@ public class DeepstreamCommunicationService extends Thread
 					}
 				}
 			}
+		} finally {
+			endClientOperation();
 		}
 		log.debug("External system registered for {}", externalSystemName);
 
@@ -1039,7 +1223,8 @@ public class DeepstreamCommunicationService extends Thread
 				externalSystem.getName());
 
 		Record record = null;
-		synchronized (client) {
+		beginClientOperation();
+		try {
 			String recordName = DeepstreamConstants.PATH_EXTERNAL_SYSTEMS
 					+ externalSystem.getSystemId();
 
@@ -1054,6 +1239,8 @@ public class DeepstreamCommunicationService extends Thread
 				log.warn("External system record {} could not be deleted",
 						recordName);
 			}
+		} finally {
+			endClientOperation();
 		}
 	}
 
@@ -1065,7 +1252,8 @@ public class DeepstreamCommunicationService extends Thread
 
 		Record record = null;
 		String token = null;
-		synchronized (client) {
+		beginClientOperation();
+		try {
 			String recordName = DeepstreamConstants.PATH_EXTERNAL_SYSTEMS
 					+ externalSystem.getSystemId();
 
@@ -1082,6 +1270,8 @@ public class DeepstreamCommunicationService extends Thread
 						"External system record {} could not be retrieved. Can't renew token",
 						recordName);
 			}
+		} finally {
+			endClientOperation();
 		}
 		return token;
 	}
@@ -1109,7 +1299,8 @@ public class DeepstreamCommunicationService extends Thread
 			final String participantOrSupervisorId) {
 
 		Record record = null;
-		synchronized (client) {
+		beginClientOperation();
+		try {
 			try {
 				restManagerService.destroyParticipantToken(
 						ImplementationConstants.DIALOG_OPTION_IDENTIFIER_FOR_DEEPSTREAM
@@ -1125,6 +1316,8 @@ public class DeepstreamCommunicationService extends Thread
 								+ participantOrSupervisorId);
 
 				record.delete();
+				messageDiffIndex.remove(DeepstreamConstants.PATH_MESSAGES
+						+ participantOrSupervisorId);
 			} catch (final Exception e) {
 				log.warn(
 						"Could not cleanup deepstream participant messages for participant/supervisor {}",
@@ -1144,6 +1337,8 @@ public class DeepstreamCommunicationService extends Thread
 								+ participantOrSupervisorId);
 
 				record.delete();
+				messageDiffIndex.remove(DeepstreamConstants.PATH_DASHBOARD
+						+ participantOrSupervisorId);
 			} catch (final Exception e) {
 				log.warn(
 						"Could not cleanup deepstream dashboard messages for participant/supervisor {}",
@@ -1157,15 +1352,43 @@ public class DeepstreamCommunicationService extends Thread
 					}
 				}
 			}
+		} finally {
+			endClientOperation();
 		}
 	}
 
 	/*
 	 * Class methods
 	 */
+	/**
+	 * Acquires the shared access to the client for an operation; has to be
+	 * followed by {@link #endClientOperation()}
+	 */
+	private void beginClientOperation() {
+		final long startingTime = System.nanoTime();
+		clientLock.readLock().lock();
+
+		systemLoad.addDeepstreamOperationWaitingTime(
+				System.nanoTime() - startingTime);
+		systemLoad.setDeepstreamOperationsInFlight(
+				clientOperationsInFlight.incrementAndGet());
+	}
+
+	/**
+	 * Releases the shared access to the client after an operation
+	 */
+	private void endClientOperation() {
+		systemLoad.setDeepstreamOperationsInFlight(
+				clientOperationsInFlight.decrementAndGet());
+
+		clientLock.readLock().unlock();
+	}
+
 	/**
 	 * Connects/reconnects to the deepstream server
 	 * 
+	 * Caution: The write lock of the client has to be held by the caller
+	 * 
 	 * @throws Exception
 	 */
 	private boolean connectOrReconnect() throws Exception {
@@ -1195,9 +1418,12 @@ public class DeepstreamCommunicationService extends Thread
 				"0");
 
 		client = new DeepstreamClient(host, properties);
-		synchronized (client) {
+		clientLock.writeLock().lock();
+		try {
 			client.setRuntimeErrorHandler(this);
 			client.addConnectionChangeListener(this);
+		} finally {
+			clientLock.writeLock().unlock();
 		}
 
 		LoginResult result = null;
@@ -1224,7 +1450,8 @@ public class DeepstreamCommunicationService extends Thread
 			}
 		}
 
-		synchronized (client) {
+		clientLock.writeLock().lock();
+		try {
 			log.debug("Login successful.");
 
 			if (client.getConnectionState() != ConnectionState.OPEN) {
@@ -1322,6 +1549,8 @@ public class DeepstreamCommunicationService extends Thread
 			}
 
 			return true;
+		} finally {
+			clientLock.writeLock().unlock();
 		}
 	}
 
@@ -1330,7 +1559,8 @@ public class DeepstreamCommunicationService extends Thread
 	 */
 	private void provideMethods() {
 		// Can only be called by a "participant" (role)
-		synchronized (client) {
+		clientLock.writeLock().lock();
+		try {
 			client.rpc.provide(DeepstreamConstants.RPC_REST_TOKEN,
 					(rpcName, data, rpcResponse) -> {
 						final JsonObject jsonData = (JsonObject) gson
@@ -1689,6 +1919,8 @@ public class DeepstreamCommunicationService extends Thread
 							rpcResponse.send(new JsonPrimitive(false));
 						}
 					});
+		} finally {
+			clientLock.writeLock().unlock();
 		}
 	}
 
@@ -1780,16 +2012,10 @@ public class DeepstreamCommunicationService extends Thread
 
 		if (typeIntention && receivedMessage.getIntention() != null
 				&& receivedMessage.getSender() != null) {
-			synchronized (receivedMessages) {
-				receivedMessages.add(receivedMessage);
-			}
-			return true;
+			return incomingMessagePipeline.offer(receivedMessage);
 		} else if (!typeIntention && receivedMessage.getMessage() != null
 				&& receivedMessage.getSender() != null) {
-			synchronized (receivedMessages) {
-				receivedMessages.add(receivedMessage);
-			}
-			return true;
+			return incomingMessagePipeline.offer(receivedMessage);
 		} else {
 			return false;
 		}
@@ -1811,10 +2037,15 @@ public class DeepstreamCommunicationService extends Thread
 		externalSystemMessage.addAllParticipants(participants);
 		externalSystemMessage.putAllVariables(variables);
 
-			synchronized (receivedExternalSystemMessages) {
-				receivedExternalSystemMessages.add(externalSystemMessage);
-			}
-		return true;
+		val externalSystemsManagerService = ExternalSystemsManagerService
+				.getInstance();
+		if (externalSystemsManagerService == null) {
+			log.warn("External systems manager service not available yet");
+			return false;
+		}
+
+		return externalSystemsManagerService
+				.receiveExternalSystemMessage(externalSystemMessage);
 	}
 
 	/**
@@ -1853,7 +2084,8 @@ public class DeepstreamCommunicationService extends Thread
 				timestamp);
 
 		boolean sendingResult = false;
-		synchronized (client) {
+		beginClientOperation();
+		try {
 			try {
 				record = client.record
 						.getRecord(DeepstreamConstants.PATH_DASHBOARD
@@ -1863,6 +2095,12 @@ public class DeepstreamCommunicationService extends Thread
 						DeepstreamConstants.PATH_LIST
 								+ String.valueOf(dashboardMessage.getOrder()),
 						messageObject);
+				messageDiffIndex.put(
+						DeepstreamConstants.PATH_DASHBOARD
+								+ participantIdentifier,
+						DeepstreamConstants.PATH_LIST
+								+ String.valueOf(dashboardMessage.getOrder()),
+						timestamp, messageObject);
 
 				client.event.emit(DeepstreamConstants.PATH_DASHBOARD_UPDATE
 						+ participantIdentifier, messageObject);
@@ -1889,6 +2127,8 @@ public class DeepstreamCommunicationService extends Thread
 					}
 				}
 			}
+		} finally {
+			endClientOperation();
 		}
 
 		// Send notifications when sending was successful
@@ -2006,35 +2246,19 @@ public class DeepstreamCommunicationService extends Thread
 				"Calculating user message diff for participant/supervisor {} and timestamp {}",
 				participantOrSupervisorId, timestamp);
 
-		long newestTimestamp = 0;
-
-		SnapshotResult snapshot;
-		synchronized (client) {
-			snapshot = client.record.snapshot(DeepstreamConstants.PATH_MESSAGES
-					+ participantOrSupervisorId);
-		}
-
-		val jsonObject = new JsonObject();
-		val jsonObjects = new JsonObject();
-
-		final Iterator<Entry<String, JsonElement>> iterator = snapshot.getData()
-				.getAsJsonObject().entrySet().iterator();
-		while (iterator.hasNext()) {
-			val element = iterator.next();
-			if (element.getKey().startsWith(DeepstreamConstants.PATH_LIST)) {
-				val timestampToCompare = ((JsonObject) element.getValue())
-						.get(DeepstreamConstants.LAST_MODIFIED).getAsLong();
-				if (timestampToCompare > timestamp) {
-					jsonObjects.add(element.getKey(), element.getValue());
-				}
-				if (timestampToCompare > newestTimestamp) {
-					newestTimestamp = timestampToCompare;
-				}
-			}
-		}
-
-		jsonObject.add("list", jsonObjects);
-		jsonObject.addProperty("latest-timestamp", newestTimestamp);
+		val jsonObject = messageDiffIndex.getDiff(
+				DeepstreamConstants.PATH_MESSAGES + participantOrSupervisorId,
+				timestamp, DeepstreamConstants.LAST_MODIFIED, () -> {
+					beginClientOperation();
+					try {
+						return client.record
+								.snapshot(DeepstreamConstants.PATH_MESSAGES
+										+ participantOrSupervisorId)
+								.getData();
+					} finally {
+						endClientOperation();
+					}
+				});
 
 		log.debug("Message diff calculated");
 
@@ -2052,39 +2276,19 @@ public class DeepstreamCommunicationService extends Thread
 				"Calculating dashboard message diff for participant {} and timestamp {}",
 				participantId, timestamp);
 
-		long newestTimestamp = 0;
-
-		SnapshotResult snapshot;
-		synchronized (client) {
-			snapshot = client.record.snapshot(
-					DeepstreamConstants.PATH_DASHBOARD + participantId);
-		}
-
-		val jsonObject = new JsonObject();
-		val jsonObjects = new JsonObject();
-
-		if (snapshot.getData() != null) {
-			final Iterator<Entry<String, JsonElement>> iterator = snapshot
-					.getData().getAsJsonObject().entrySet().iterator();
-			while (iterator.hasNext()) {
-				val element = iterator.next();
-				if (element.getKey()
-						.startsWith(DeepstreamConstants.PATH_LIST)) {
-					val timestampToCompare = ((JsonObject) element.getValue())
-							.get(DeepstreamConstants.SERVER_TIMESTAMP)
-							.getAsLong();
-					if (timestampToCompare > timestamp) {
-						jsonObjects.add(element.getKey(), element.getValue());
-					}
-					if (timestampToCompare > newestTimestamp) {
-						newestTimestamp = timestampToCompare;
+		val jsonObject = messageDiffIndex.getDiff(
+				DeepstreamConstants.PATH_DASHBOARD + participantId, timestamp,
+				DeepstreamConstants.SERVER_TIMESTAMP, () -> {
+					beginClientOperation();
+					try {
+						return client.record
+								.snapshot(DeepstreamConstants.PATH_DASHBOARD
+										+ participantId)
+								.getData();
+					} finally {
+						endClientOperation();
 					}
-				}
-			}
-		}
-
-		jsonObject.add("list", jsonObjects);
-		jsonObject.addProperty("latest-timestamp", newestTimestamp);
+				});
 
 		log.debug("Message diff calculated");
 
@@ -2095,7 +2299,8 @@ public class DeepstreamCommunicationService extends Thread
 		log.debug("Cleaning up client...");
 
 		try {
-			synchronized (client) {
+			clientLock.writeLock().lock();
+			try {
 				client.setRuntimeErrorHandler(null);
 				client.removeConnectionChangeListener(this);
 				client.presence.unsubscribe(this);
@@ -2106,6 +2311,8 @@ public class DeepstreamCommunicationService extends Thread
 
 				client.close();
 				client = null;
+			} finally {
+				clientLock.writeLock().unlock();
 			}
 		} catch (final Exception e) {
 			log.warn("Problems when cleaning up client: {}", e.getMessage());
@@ -2205,6 +2412,27 @@ public class DeepstreamCommunicationService extends Thread
 				}
 			}
 
+			// The write lock can't be acquired while holding the read lock,
+			// so reconnect in a separate thread if reported by an operation
+			if (clientLock.getReadHoldCount() > 0) {
+				new Thread("Deepstream Reconnection") {
+					@Override
+					public void run() {
+						reconnect();
+					}
+				}.start();
+			} else {
+				reconnect();
+			}
+		}
+	}
+
+	/**
+	 * Cleans up the lost connection and reconnects to the deepstream server
+	 */
+	private void reconnect() {
+		clientLock.writeLock().lock();
+		try {
 			try {
 				cleanupClient();
 				client = null;
@@ -2222,6 +2450,8 @@ public class DeepstreamCommunicationService extends Thread
 				log.error("Problem when reconnecting to deepstream: {}",
 						e.getMessage());
 			}
+		} finally {
+			clientLock.writeLock().unlock();
 		}
 	}
 
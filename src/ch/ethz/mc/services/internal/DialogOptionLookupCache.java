@@ -0,0 +1,125 @@
+package ch.ethz.mc.services.internal;
+
+/* ##LICENSE## */
+import ch.ethz.mc.conf.ImplementationConstants;
+import ch.ethz.mc.model.Queries;
+import ch.ethz.mc.model.memory.SystemLoad;
+import ch.ethz.mc.model.persistent.DialogOption;
+import ch.ethz.mc.model.persistent.Intervention;
+import ch.ethz.mc.model.persistent.Participant;
+import ch.ethz.mc.model.persistent.types.DialogOptionTypes;
+import ch.ethz.mc.tools.BoundedCache;
+import lombok.AllArgsConstructor;
+import lombok.val;
+
+/**
+ * Caches the {@link DialogOption} of an active {@link Intervention} belonging
+ * to a specific {@link DialogOptionTypes} and data, so that the sender of a
+ * received message can be resolved without querying the
+ * {@link DialogOption}s, {@link Participant}s and {@link Intervention}s again
+ *
+ * Each lookup remembers the version of the {@link DialogOption}s it has been
+ * created from. As soon as a {@link DialogOption} of the same type and data
+ * (or any {@link Participant} or {@link Intervention}) changes, the version
+ * increases and the lookup will be repeated at the next access. Also senders without an
+ * appropriate {@link DialogOption} are cached.
+ *
+ * Caution: The cached {@link DialogOption}s are shared and must not be
+ * modified
+ *
+ * @author Andreas Filler
+ */
+public class DialogOptionLookupCache {
+	private final DatabaseManagerService			databaseManagerService;
+
+	private final BoundedCache<String, Lookup>		lookups;
+
+	@AllArgsConstructor
+	private static class Lookup {
+		private final long			version;
+		private final DialogOption	dialogOption;
+	}
+
+	public DialogOptionLookupCache(
+			final DatabaseManagerService databaseManagerService) {
+		this.databaseManagerService = databaseManagerService;
+
+		lookups = new BoundedCache<String, Lookup>("Dialog option lookups",
+				ImplementationConstants.DIALOG_OPTION_LOOKUP_CACHE_MAXIMUM_SIZE,
+				ImplementationConstants.DIALOG_OPTION_LOOKUP_CACHE_MAXIMUM_IDLE_MINUTES);
+		SystemLoad.getInstance().registerCache(lookups);
+	}
+
+	/**
+	 * Returns the {@link DialogOption} for the given type and data of the
+	 * newest {@link Participant} of an active {@link Intervention}
+	 *
+	 * @param dialogOptionType
+	 * @param dialogOptionData
+	 * @return The {@link DialogOption} or <code>null</code> if there is none
+	 */
+	public DialogOption getDialogOptionOfActiveInterventions(
+			final DialogOptionTypes dialogOptionType,
+			final String dialogOptionData) {
+		val key = dialogOptionType.name() + "-" + dialogOptionData;
+
+		val lookup = lookups.get(key);
+		val version = DialogOption.getLookupVersion(dialogOptionType,
+				dialogOptionData);
+		if (lookup != null && lookup.version == version) {
+			return lookup.dialogOption;
+		}
+
+		val dialogOption = findDialogOptionOfActiveInterventions(
+				dialogOptionType, dialogOptionData);
+
+		lookups.put(key, new Lookup(version, dialogOption));
+
+		return dialogOption;
+	}
+
+	private DialogOption findDialogOptionOfActiveInterventions(
+			final DialogOptionTypes dialogOptionType,
+			final String dialogOptionData) {
+		val dialogOptions = databaseManagerService.findModelObjects(
+				DialogOption.class, Queries.DIALOG_OPTION__BY_TYPE_AND_DATA,
+				dialogOptionType, dialogOptionData);
+
+		long highestCreatedTimestamp = 0;
+		DialogOption appropriateDialogOption = null;
+
+		for (val dialogOption : dialogOptions) {
+			if (dialogOption == null) {
+				continue;
+			}
+
+			val participant = databaseManagerService.getModelObjectById(
+					Participant.class, dialogOption.getParticipant());
+
+			if (participant != null) {
+				val intervention = databaseManagerService.getModelObjectById(
+						Intervention.class, participant.getIntervention());
+
+				if (intervention != null) {
+					if (intervention.isActive()) {
+						if (participant
+								.getCreatedTimestamp() > highestCreatedTimestamp) {
+							highestCreatedTimestamp = participant
+									.getCreatedTimestamp();
+							appropriateDialogOption = dialogOption;
+							continue;
+						}
+					} else {
+						continue;
+					}
+				} else {
+					continue;
+				}
+			} else {
+				continue;
+			}
+		}
+
+		return appropriateDialogOption;
+	}
+}
@@ -0,0 +1,100 @@
+package ch.ethz.mc.services.internal;
+
+/* ##LICENSE## */
+import java.util.ArrayList;
+
+import org.bson.types.ObjectId;
+
+import ch.ethz.mc.conf.ImplementationConstants;
+import ch.ethz.mc.model.Queries;
+import ch.ethz.mc.model.memory.SystemLoad;
+import ch.ethz.mc.model.persistent.DialogMessage;
+import ch.ethz.mc.model.persistent.Participant;
+import ch.ethz.mc.tools.BloomFilter;
+import ch.ethz.mc.tools.BoundedCache;
+import lombok.val;
+
+/**
+ * Remembers the client ids of the received {@link DialogMessage}s of each
+ * {@link Participant} in a {@link BloomFilter}, so that most received messages
+ * can be checked for being duplicates without querying the database
+ *
+ * The {@link BloomFilter} of a {@link Participant} is created from the
+ * database at the first check and recreated as soon as it is saturated. The
+ * database is only queried if the {@link BloomFilter} reports that a client id
+ * might be known already.
+ *
+ * Caution: The lock of the participant has to be held by the caller
+ *
+ * @author Andreas Filler
+ */
+public class DuplicateClientIdFilter {
+	private final DatabaseManagerService				databaseManagerService;
+
+	private final BoundedCache<ObjectId, BloomFilter>	clientIdFilters;
+
+	public DuplicateClientIdFilter(
+			final DatabaseManagerService databaseManagerService) {
+		this.databaseManagerService = databaseManagerService;
+
+		clientIdFilters = new BoundedCache<ObjectId, BloomFilter>(
+				"Client id filters",
+				ImplementationConstants.CLIENT_ID_FILTER_CACHE_MAXIMUM_SIZE,
+				ImplementationConstants.CLIENT_ID_FILTER_CACHE_MAXIMUM_IDLE_MINUTES);
+		SystemLoad.getInstance().registerCache(clientIdFilters);
+	}
+
+	/**
+	 * Checks if a {@link DialogMessage} with the given client id has already
+	 * been received from the given {@link Participant}; otherwise the client
+	 * id is remembered
+	 *
+	 * @param participantId
+	 * @param clientId
+	 * @return
+	 */
+	public boolean checkForDuplicateAndRemember(final ObjectId participantId,
+			final String clientId) {
+		BloomFilter clientIdFilter = clientIdFilters.get(participantId);
+		if (clientIdFilter == null || clientIdFilter.isSaturated()) {
+			clientIdFilter = createClientIdFilter(participantId);
+			clientIdFilters.put(participantId, clientIdFilter);
+		}
+
+		if (clientIdFilter.mightContain(clientId)) {
+			val dialogMessage = databaseManagerService.findOneModelObject(
+					DialogMessage.class,
+					Queries.DIALOG_MESSAGE__BY_PARTICIPANT_AND_CLIENT_ID,
+					participantId, clientId);
+
+			if (dialogMessage != null) {
+				return true;
+			}
+		}
+
+		clientIdFilter.add(clientId);
+
+		return false;
+	}
+
+	private BloomFilter createClientIdFilter(final ObjectId participantId) {
+		val clientIds = new ArrayList<String>();
+		for (val dialogMessage : databaseManagerService.findModelObjects(
+				DialogMessage.class,
+				Queries.DIALOG_MESSAGE__BY_PARTICIPANT_AND_CLIENT_ID_NOT_NULL,
+				participantId)) {
+			clientIds.add(dialogMessage.getClientId());
+		}
+
+		val clientIdFilter = new BloomFilter(
+				Math.max(
+						ImplementationConstants.CLIENT_ID_FILTER_MINIMUM_EXPECTED_INSERTIONS,
+						clientIds.size() * 2),
+				ImplementationConstants.CLIENT_ID_FILTER_FALSE_POSITIVE_PROBABILITY);
+		for (val clientId : clientIds) {
+			clientIdFilter.add(clientId);
+		}
+
+		return clientIdFilter;
+	}
+}
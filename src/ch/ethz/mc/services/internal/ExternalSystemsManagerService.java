@@ -2,10 +2,15 @@ package ch.ethz.mc.services.internal;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import org.bson.types.ObjectId;
 
+import ch.ethz.mc.conf.ImplementationConstants;
 import ch.ethz.mc.model.Queries;
 import ch.ethz.mc.model.memory.ExternalRegistration;
 import ch.ethz.mc.model.memory.ExternalSystemMessage;
@@ -36,6 +41,8 @@ public class ExternalSystemsManagerService {
 	private final DatabaseManagerService			databaseManagerService;
 	private final DeepstreamCommunicationService	deepstreamCommunicationService;
 
+	private final ExecutorService					externalSystemMessageFanOutExecutorService;
+
 	private ExternalSystemsManagerService(
 			final DatabaseManagerService databaseManagerService,
 			final DeepstreamCommunicationService deepstreamCommunicationService) {
@@ -45,6 +52,20 @@ public class ExternalSystemsManagerService {
 		this.databaseManagerService = databaseManagerService;
 		this.deepstreamCommunicationService = deepstreamCommunicationService;
 
+		// Resolves the participants of external system messages and puts
+		// their received messages into the incoming message pipeline, so the
+		// receiving thread never gets blocked
+		externalSystemMessageFanOutExecutorService = new ThreadPoolExecutor(1,
+				1, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<Runnable>(
+						ImplementationConstants.EXTERNAL_SYSTEM_MESSAGE_FAN_OUT_QUEUE_CAPACITY),
+				runnable -> {
+					val thread = new Thread(runnable,
+							"External System Message Fan-Out");
+					thread.setPriority(Thread.NORM_PRIORITY - 1);
+					return thread;
+				});
+
 		log.info("Started.");
 	}
 
@@ -62,6 +83,11 @@ public class ExternalSystemsManagerService {
 	public void stop() throws Exception {
 		log.info("Stopping service...");
 
+		externalSystemMessageFanOutExecutorService.shutdown();
+		externalSystemMessageFanOutExecutorService.awaitTermination(
+				ImplementationConstants.EXTERNAL_SYSTEM_MESSAGE_FAN_OUT_SHUTDOWN_TIMEOUT_IN_SECONDS,
+				TimeUnit.SECONDS);
+
 		log.info("Stopped.");
 	}
 
@@ -87,80 +113,99 @@ public class ExternalSystemsManagerService {
 				.renewExternalSystemToken(externalSystem);
 	}
 
-	// Convert ExternalSystemMessages to ReceivedMessages
-	public boolean getReceivedMessages(
-			final ArrayList<ReceivedMessage> receivedMessages) {
-
-		List<ExternalSystemMessage> externalSystemMessages = new ArrayList<>();
-		// Get all received external system messages from deepstream service.
-		deepstreamCommunicationService
-				.getReceivedExternalSystemMessages(externalSystemMessages);
-		// Iterate external system messages.
-		for (ExternalSystemMessage externalSystemMessage : externalSystemMessages) {
-			// Find the related external system from the received external
-			// message.
-			val externalSystem = databaseManagerService.findOneModelObject(
-					InterventionExternalSystem.class,
-					Queries.INTERVENTION_EXTERNAL_SYSTEM__BY_SYSTEM_ID,
+	// Accept ExternalSystemMessage and hand it over as a whole to the fan-out
+	// thread, so it is either completely processed or not at all.
+	public boolean receiveExternalSystemMessage(
+			final ExternalSystemMessage externalSystemMessage) {
+
+		// Find the related external system from the received external
+		// message.
+		val externalSystem = databaseManagerService.findOneModelObject(
+				InterventionExternalSystem.class,
+				Queries.INTERVENTION_EXTERNAL_SYSTEM__BY_SYSTEM_ID,
+				externalSystemMessage.getSystemId());
+		// Check if the external system exists.
+		if (externalSystem == null) {
+			log.error(
+					"There exists no external system with system id {}. Message can not be processed.",
 					externalSystemMessage.getSystemId());
-			// Check if the external system exists.
-			if (externalSystem == null) {
-				log.error(
-						"There exists no external system with system id {}. Message can not be processed.",
-						externalSystemMessage.getSystemId());
+			return false;
+		}
+
+		try {
+			externalSystemMessageFanOutExecutorService
+					.execute(() -> fanOutExternalSystemMessage(externalSystem,
+							externalSystemMessage));
+		} catch (final RejectedExecutionException e) {
+			log.warn(
+					"Too many external system messages waiting. Message with system id {} can not be processed.",
+					externalSystemMessage.getSystemId());
+			return false;
+		}
+		return true;
+	}
+
+	// Convert ExternalSystemMessage to ReceivedMessages and put them into
+	// the incoming message pipeline.
+	private void fanOutExternalSystemMessage(
+			final InterventionExternalSystem externalSystem,
+			final ExternalSystemMessage externalSystemMessage) {
+
+		val incomingMessagePipeline = IncomingMessagePipeline.getInstance();
+
+		// Check if the received external message provides participants
+		if (externalSystemMessage.getParticipants().isEmpty()) {
+			// No participants provided so use all participants from current
+			// intervention.
+			val participants = databaseManagerService.findModelObjects(
+					Participant.class, Queries.PARTICIPANT__BY_INTERVENTION,
+					externalSystem.getIntervention());
+			participants.forEach(participant -> externalSystemMessage
+					.addParticipant(participant.getId().toString()));
+		}
+		// Iterate the participants and build for everyone a ReceivedMessage
+		// object.
+		for (String participantId : externalSystemMessage
+				.getParticipants()) {
+			// Check if the participant id is valid.
+			if (!ObjectId.isValid(participantId)) {
+				log.warn(
+						"Participant id {} is not valid. Message with system id {} can not be processed for participant id {}.",
+						participantId, externalSystem.getSystemId(),
+						participantId);
 				continue;
 			}
-			// Check if the received external message provides participants
-			if (externalSystemMessage.getParticipants().isEmpty()) {
-				// No participants provided so use all participants from current
-				// intervention.
-				val participants = databaseManagerService.findModelObjects(
-						Participant.class, Queries.PARTICIPANT__BY_INTERVENTION,
-						externalSystem.getIntervention());
-				participants.forEach(participant -> externalSystemMessage
-						.addParticipant(participant.getId().toString()));
+			val participant = databaseManagerService.getModelObjectById(
+					Participant.class, new ObjectId(participantId));
+			// Check if a persisted participant with the given id exists.
+			if (participant == null) {
+				log.warn(
+						"Participant with id {} not found. Message with system id {} can not be processed for participant id {}.",
+						participantId, externalSystem.getSystemId(),
+						participantId);
+				continue;
 			}
-			// Iterate the participants and build for everyone a ReceivedMessage
-			// object.
-			for (String participantId : externalSystemMessage
-					.getParticipants()) {
-				// Check if the participant id is valid.
-				if (!ObjectId.isValid(participantId)) {
-					log.warn(
-							"Participant id {} is not valid. Message with system id {} can not be processed for participant id {}.",
-							participantId, externalSystem.getSystemId(),
-							participantId);
-					continue;
-				}
-				val participant = databaseManagerService.getModelObjectById(
-						Participant.class, new ObjectId(participantId));
-				// Check if a persisted participant with the given id exists.
-				if (participant == null) {
-					log.warn(
-							"Participant with id {} not found. Message with system id {} can not be processed for participant id {}.",
-							participantId, externalSystem.getSystemId(),
-							participantId);
-					continue;
-				}
-				// Check if a found participant belongs to the current
-				// intervention.
-				if (!participant.getIntervention()
-						.equals(externalSystem.getIntervention())) {
-					log.warn(
-							"Participant with id {} is not in the same intervention as the external system. Message with system id {} can not be processed for participant id {}.",
-							participantId, externalSystem.getSystemId(),
-							participantId);
-					continue;
-				}
-				// Build the ReceivedMessage.
-				val receivedMessage = mapExternalSystemMessageOnReceivedMessage(
-						participant.getId(), externalSystem,
-						externalSystemMessage);
-
-				receivedMessages.add(receivedMessage);
+			// Check if a found participant belongs to the current
+			// intervention.
+			if (!participant.getIntervention()
+					.equals(externalSystem.getIntervention())) {
+				log.warn(
+						"Participant with id {} is not in the same intervention as the external system. Message with system id {} can not be processed for participant id {}.",
+						participantId, externalSystem.getSystemId(),
+						participantId);
+				continue;
+			}
+			// Build the ReceivedMessage.
+			val receivedMessage = mapExternalSystemMessageOnReceivedMessage(
+					participant.getId(), externalSystem,
+					externalSystemMessage);
+
+			if (!incomingMessagePipeline.put(receivedMessage)) {
+				log.warn(
+						"Message with system id {} could not be processed for participant id {}.",
+						externalSystem.getSystemId(), participantId);
 			}
 		}
-		return !externalSystemMessages.isEmpty();
 	}
 
 	// Map ExternalSystemMessage on ReceivedMessage.
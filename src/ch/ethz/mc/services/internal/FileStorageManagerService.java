@@ -167,16 +167,8 @@ public class FileStorageManagerService {
 
 		log.info("Check done.");
 
-		log.info("Clearing media cache...");
-		for (val file : mediaCacheFolder.listFiles()) {
-			if (file.isFile() && file.getName()
-					.startsWith(ImplementationConstants.FILE_STORAGE_PREFIX)) {
-				log.debug("Deleting cache file {}", file.getAbsolutePath());
-				file.delete();
-			}
-		}
-
-		log.info("Clearing done.");
+		// The media cache is cleaned up by the image caching service based on
+		// its index
 
 		// Give this instance to model object
 		ModelObject.configure(this);
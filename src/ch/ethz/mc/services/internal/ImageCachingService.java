@@ -11,7 +11,19 @@ import java.awt.Transparency;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
@@ -26,40 +38,89 @@ import org.apache.commons.lang3.RandomStringUtils;
 import com.mortennobel.imagescaling.AdvancedResizeOp;
 import com.mortennobel.imagescaling.MultiStepRescaleOp;
 
+import ch.ethz.mc.conf.Constants;
 import ch.ethz.mc.conf.ImplementationConstants;
+import lombok.AllArgsConstructor;
+import lombok.Synchronized;
+import lombok.val;
 import lombok.extern.log4j.Log4j2;
 import net.coobird.thumbnailator.Thumbnails;
 
 /**
  * Image service to store, cache, manipulate and return (modified) images
  *
+ * The cached images are limited to a maximum size on disk; if it is exceeded,
+ * the least recently requested images are deleted. Concurrent requests for the
+ * same uncached image wait for one creation. The index of the cached images is
+ * stored shortly after images have been added as well as at shutdown and
+ * reloaded at startup.
+ *
  * @author Andreas Filler
  */
 @Log4j2
 public class ImageCachingService {
-	private static ImageCachingService	instance;
+	private static ImageCachingService									instance;
+
+	private final File													mediaCacheFolder;
+	private final File													indexFile;
+
+	private final float													jpegCompression;
 
-	private final File					mediaCacheFolder;
+	private final Font													watermarkFont;
+	private final String												watermarkText;
 
-	private final float					jpegCompression;
+	private final long													maximumCacheSizeInBytes;
+	private long														cacheSizeInBytes;
+
+	/**
+	 * Cached images in access order (least recently requested first)
+	 */
+	private final LinkedHashMap<String, CachedImage>					imageCacheMap;
 
-	private final Font					watermarkFont;
-	private final String				watermarkText;
+	private final ConcurrentHashMap<String, CompletableFuture<File>>	imageCreations;
 
-	private final HashMap<String, File>	imageCacheMap;
+	private final ScheduledExecutorService								indexSavingScheduler;
+	private final AtomicBoolean											indexSavingScheduled;
+
+	@AllArgsConstructor
+	private static class CachedImage {
+		private final File	file;
+		private final long	size;
+	}
 
 	private ImageCachingService(final File mediaCacheFolder) {
 		watermarkFont = new Font("Arial", Font.BOLD, 30);
 
 		this.mediaCacheFolder = mediaCacheFolder;
+		indexFile = new File(mediaCacheFolder,
+				ImplementationConstants.IMAGE_CACHE_INDEX_FILENAME);
 
 		jpegCompression = ImplementationConstants.IMAGE_JPEG_COMPRESSION;
 		watermarkText = ImplementationConstants.IMAGE_WATERMARK_TEXT;
 
-		imageCacheMap = new HashMap<String, File>();
+		maximumCacheSizeInBytes = Constants.getMediaCacheMaximumSizeInMB()
+				* 1024L * 1024L;
+		cacheSizeInBytes = 0;
+
+		imageCacheMap = new LinkedHashMap<String, CachedImage>(16, 0.75f, true);
+		imageCreations = new ConcurrentHashMap<String, CompletableFuture<File>>();
+
+		indexSavingScheduler = Executors
+				.newSingleThreadScheduledExecutor(new ThreadFactory() {
+					@Override
+					public Thread newThread(final Runnable runnable) {
+						return new Thread(runnable,
+								"Image Cache Index Saving Scheduler");
+					}
+				});
+		indexSavingScheduled = new AtomicBoolean(false);
 
 		log.info("JPEG compression: " + jpegCompression);
 		log.info("Watermark text: " + watermarkText);
+		log.info("Maximum cache size: {} MB",
+				Constants.getMediaCacheMaximumSizeInMB());
+
+		loadIndex();
 
 		log.info("Started");
 	}
@@ -77,9 +138,119 @@ public class ImageCachingService {
 	public void stop() throws Exception {
 		log.info("Stopping service...");
 
+		indexSavingScheduler.shutdownNow();
+		saveIndex();
+
 		log.info("Stopped.");
 	}
 
+	/**
+	 * Loads the index of the cached images and deletes all cached images
+	 * which are not part of it
+	 */
+	private void loadIndex() {
+		log.info("Loading media cache index...");
+
+		synchronized (imageCacheMap) {
+			if (indexFile.exists()) {
+				try {
+					// Lines are ordered from least to most recently requested
+					for (val line : Files.readAllLines(indexFile.toPath(),
+							StandardCharsets.UTF_8)) {
+						val parts = line.split("\t");
+						if (parts.length != 2) {
+							continue;
+						}
+
+						val file = new File(mediaCacheFolder, parts[1]);
+						if (file.isFile()) {
+							val cachedImage = new CachedImage(file,
+									file.length());
+							imageCacheMap.put(parts[0], cachedImage);
+							cacheSizeInBytes += cachedImage.size;
+						}
+					}
+				} catch (final Exception e) {
+					log.warn("Could not load media cache index: {}",
+							e.getMessage());
+				}
+			}
+
+			val indexedFilenames = new HashSet<String>();
+			for (val cachedImage : imageCacheMap.values()) {
+				indexedFilenames.add(cachedImage.file.getName());
+			}
+
+			for (val file : mediaCacheFolder.listFiles()) {
+				if (file.isFile()
+						&& file.getName().startsWith(
+								ImplementationConstants.FILE_STORAGE_PREFIX)
+						&& !indexedFilenames.contains(file.getName())) {
+					log.debug("Deleting unindexed cache file {}",
+							file.getAbsolutePath());
+					file.delete();
+				}
+			}
+
+			evictLeastRecentlyRequestedImages();
+
+			log.info("Loaded {} cached images ({} bytes)",
+					imageCacheMap.size(), cacheSizeInBytes);
+		}
+	}
+
+	/**
+	 * Schedules the storing of the index of the cached images, so that several
+	 * changes within the delay are stored at once
+	 */
+	private void scheduleIndexSaving() {
+		if (!indexSavingScheduled.compareAndSet(false, true)) {
+			return;
+		}
+
+		try {
+			indexSavingScheduler.schedule(new Runnable() {
+				@Override
+				public void run() {
+					indexSavingScheduled.set(false);
+					saveIndex();
+				}
+			}, ImplementationConstants.IMAGE_CACHE_INDEX_SAVING_DELAY_IN_SECONDS,
+					TimeUnit.SECONDS);
+		} catch (final Exception e) {
+			// Service is stopping and stores the index itself
+			indexSavingScheduled.set(false);
+		}
+	}
+
+	/**
+	 * Stores the index of the cached images
+	 */
+	@Synchronized("indexFile")
+	private void saveIndex() {
+		log.debug("Saving media cache index...");
+
+		val lines = new ArrayList<String>();
+		synchronized (imageCacheMap) {
+			for (val entry : imageCacheMap.entrySet()) {
+				lines.add(entry.getKey() + "\t"
+						+ entry.getValue().file.getName());
+			}
+		}
+
+		try {
+			val temporaryIndexFile = new File(mediaCacheFolder,
+					indexFile.getName() + ".tmp");
+			Files.write(temporaryIndexFile.toPath(), lines,
+					StandardCharsets.UTF_8);
+			Files.move(temporaryIndexFile.toPath(), indexFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (final Exception e) {
+			log.warn("Could not save media cache index: {}", e.getMessage());
+		}
+	}
+
 	/**
 	 * Requests a specific image in a specific size
 	 *
@@ -98,33 +269,116 @@ public class ImageCachingService {
 
 		log.debug("Requesting image with key '{}'", key);
 
-		synchronized (imageCacheMap) {
-			if (imageCacheMap.containsKey(key)) {
-				final File existingImageFile = imageCacheMap.get(key);
+		val existingImageFile = getCachedImage(key);
+		if (existingImageFile != null) {
+			return existingImageFile;
+		}
 
-				if (existingImageFile.exists()) {
-					log.debug("Returning image from cache: {}"
-							+ existingImageFile.getAbsolutePath());
-					return imageCacheMap.get(key);
-				}
-			}
+		// Share the creation with concurrent requests for the same image
+		val imageCreation = new CompletableFuture<File>();
+		val runningImageCreation = imageCreations.putIfAbsent(key,
+				imageCreation);
+		if (runningImageCreation != null) {
+			log.debug("Waiting for creation of image with key '{}'", key);
+			return runningImageCreation.join();
 		}
 
 		File cacheFile = null;
 		try {
-			cacheFile = createCacheImage(sourceImageFile, width, height, key,
-					withWatermark, withCropping);
-		} catch (final Exception e) {
-			log.warn("Could not create image {} with {}*{} watermark: {}",
-					sourceImageFile.getAbsoluteFile(), width, height,
-					withWatermark);
+			// The image could have been created in the meantime
+			cacheFile = getCachedImage(key);
+			if (cacheFile != null) {
+				return cacheFile;
+			}
+
+			try {
+				cacheFile = createCacheImage(sourceImageFile, width, height,
+						key, withWatermark, withCropping);
+			} catch (final Exception e) {
+				log.warn("Could not create image {} with {}*{} watermark: {}",
+						sourceImageFile.getAbsoluteFile(), width, height,
+						withWatermark);
+			}
+
+			if (cacheFile != null && cacheFile.exists()) {
+				addCachedImage(key, cacheFile);
+			}
+
+			return cacheFile;
+		} finally {
+			imageCreations.remove(key);
+			imageCreation.complete(cacheFile);
+		}
+	}
+
+	/**
+	 * Returns the cached image for the given key and marks it as most recently
+	 * requested
+	 *
+	 * @param key
+	 * @return The cached image or <code>null</code> if it is not cached
+	 */
+	private File getCachedImage(final String key) {
+		synchronized (imageCacheMap) {
+			val cachedImage = imageCacheMap.get(key);
+
+			if (cachedImage != null) {
+				if (cachedImage.file.exists()) {
+					log.debug("Returning image from cache: {}",
+							cachedImage.file.getAbsolutePath());
+					return cachedImage.file;
+				}
+
+				imageCacheMap.remove(key);
+				cacheSizeInBytes -= cachedImage.size;
+			}
 		}
 
-		if (cacheFile != null && cacheFile.exists()) {
-			imageCacheMap.put(key, cacheFile);
+		return null;
+	}
+
+	/**
+	 * Adds a newly created image to the cache and deletes the least recently
+	 * requested images if the maximum cache size is exceeded
+	 *
+	 * @param key
+	 * @param file
+	 */
+	private void addCachedImage(final String key, final File file) {
+		synchronized (imageCacheMap) {
+			val cachedImage = new CachedImage(file, file.length());
+			val formerCachedImage = imageCacheMap.put(key, cachedImage);
+			if (formerCachedImage != null) {
+				cacheSizeInBytes -= formerCachedImage.size;
+				formerCachedImage.file.delete();
+			}
+			cacheSizeInBytes += cachedImage.size;
+
+			evictLeastRecentlyRequestedImages();
 		}
 
-		return cacheFile;
+		scheduleIndexSaving();
+	}
+
+	/**
+	 * Deletes the least recently requested images until the cache fits into
+	 * the maximum cache size again; the most recently requested image is
+	 * always kept
+	 *
+	 * Caution: The lock of the image cache map has to be held by the caller
+	 */
+	private void evictLeastRecentlyRequestedImages() {
+		val iterator = imageCacheMap.values().iterator();
+		while (cacheSizeInBytes > maximumCacheSizeInBytes
+				&& imageCacheMap.size() > 1) {
+			val cachedImage = iterator.next();
+			iterator.remove();
+			cacheSizeInBytes -= cachedImage.size;
+
+			log.debug("Deleting least recently requested cache file {}",
+					cachedImage.file.getAbsolutePath());
+			cachedImage.file.delete();
+		}
 	}
 
 	/**
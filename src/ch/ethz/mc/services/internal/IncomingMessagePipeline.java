@@ -0,0 +1,249 @@
+package ch.ethz.mc.services.internal;
+
+/* ##LICENSE## */
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import ch.ethz.mc.conf.Constants;
+import ch.ethz.mc.conf.ImplementationConstants;
+import ch.ethz.mc.model.memory.ReceivedMessage;
+import ch.ethz.mc.model.memory.SystemLoad;
+import lombok.AllArgsConstructor;
+import lombok.Synchronized;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Hands {@link ReceivedMessage}s over to a pool of handling threads
+ *
+ * The receiving services put their messages into the pipeline as soon as they
+ * arrive instead of collecting them until the next check cycle. Each handling
+ * thread has its own bounded queue and the messages are assigned to the
+ * threads by their sender, so the messages of one participant are always
+ * handled in the order they have been received. If a queue is full, receiving
+ * services with their own threads get blocked until there is space again,
+ * while receiving services answering requests directly get the message
+ * rejected after a short time, so they can report the failure to the sender.
+ *
+ * @author Andreas Filler
+ */
+@Log4j2
+public class IncomingMessagePipeline {
+	private static IncomingMessagePipeline		instance	= null;
+
+	private final SystemLoad					systemLoad;
+
+	private final List<HandlingThread>			handlingThreads;
+
+	private final AtomicInteger					queuedMessages;
+
+	private Consumer<ReceivedMessage>			handler		= null;
+
+	private volatile boolean					shouldStop	= false;
+
+	@AllArgsConstructor
+	private static class Entry {
+		private final ReceivedMessage	receivedMessage;
+		private final long				queuedNanos;
+	}
+
+	private class HandlingThread extends Thread {
+		private final BlockingQueue<Entry> queue;
+
+		private HandlingThread(final int number) {
+			setName("Incoming Message Handler " + number);
+			setPriority(NORM_PRIORITY - 1);
+
+			queue = new ArrayBlockingQueue<Entry>(
+					ImplementationConstants.INCOMING_MESSAGE_HANDLING_QUEUE_CAPACITY);
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				final Entry entry;
+				try {
+					entry = queue.poll(1, TimeUnit.SECONDS);
+				} catch (final InterruptedException e) {
+					log.debug("{} received signal to stop (interrupted)",
+							getName());
+					return;
+				}
+
+				if (entry == null) {
+					if (shouldStop) {
+						log.debug("{} received signal to stop", getName());
+						return;
+					}
+					continue;
+				}
+
+				systemLoad.setIncomingMessagesQueued(
+						queuedMessages.decrementAndGet());
+
+				try {
+					handler.accept(entry.receivedMessage);
+				} catch (final Exception e) {
+					log.error("Could not handle received message: {}",
+							e.getMessage());
+				}
+
+				systemLoad.addIncomingMessageHandlingTime(
+						System.nanoTime() - entry.queuedNanos);
+			}
+		}
+	}
+
+	@Synchronized
+	public static IncomingMessagePipeline getInstance() {
+		if (instance == null) {
+			instance = new IncomingMessagePipeline();
+		}
+
+		return instance;
+	}
+
+	private IncomingMessagePipeline() {
+		systemLoad = SystemLoad.getInstance();
+
+		val threads = Math.max(1,
+				Constants.getIncomingMessageHandlingThreads());
+		handlingThreads = new ArrayList<HandlingThread>(threads);
+		for (int i = 1; i <= threads; i++) {
+			handlingThreads.add(new HandlingThread(i));
+		}
+
+		queuedMessages = new AtomicInteger();
+	}
+
+	/**
+	 * Starts the handling threads, which hand each received message over to
+	 * the given handler
+	 *
+	 * @param handler
+	 */
+	public void start(final Consumer<ReceivedMessage> handler) {
+		log.info("Starting {} incoming message handling threads...",
+				handlingThreads.size());
+
+		this.handler = handler;
+
+		for (val handlingThread : handlingThreads) {
+			handlingThread.start();
+		}
+	}
+
+	/**
+	 * Stops accepting messages and waits until the already queued messages
+	 * have been handled
+	 *
+	 * @throws InterruptedException
+	 */
+	public void stop() throws InterruptedException {
+		shouldStop = true;
+
+		val deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(
+				ImplementationConstants.INCOMING_MESSAGE_HANDLING_SHUTDOWN_TIMEOUT_IN_SECONDS);
+		for (val handlingThread : handlingThreads) {
+			handlingThread.join(
+					Math.max(1, deadline - System.currentTimeMillis()));
+		}
+
+		for (val handlingThread : handlingThreads) {
+			if (handlingThread.isAlive()) {
+				log.warn("{} received messages could not be handled anymore",
+						handlingThread.queue.size());
+				handlingThread.interrupt();
+				handlingThread.join();
+			}
+		}
+	}
+
+	/**
+	 * Puts a received message into the pipeline; blocks while the queue of
+	 * the responsible handling thread is full
+	 *
+	 * @param receivedMessage
+	 * @return If the message has been accepted
+	 */
+	public boolean put(final ReceivedMessage receivedMessage) {
+		return enqueue(receivedMessage, true);
+	}
+
+	/**
+	 * Offers a received message to the pipeline; waits only a short time if
+	 * the queue of the responsible handling thread is full, so it can be used
+	 * by threads that should never be blocked (e.g. request callbacks)
+	 *
+	 * @param receivedMessage
+	 * @return If the message has been accepted
+	 */
+	public boolean offer(final ReceivedMessage receivedMessage) {
+		return enqueue(receivedMessage, false);
+	}
+
+	private boolean enqueue(final ReceivedMessage receivedMessage,
+			final boolean blocking) {
+		if (shouldStop) {
+			log.warn("Received message from {} rejected during shutdown",
+					receivedMessage.getSender());
+			return false;
+		}
+
+		val queue = handlingThreads.get(Math.floorMod(
+				Objects.hash(receivedMessage.getType(),
+						receivedMessage.getSender()),
+				handlingThreads.size())).queue;
+		val entry = new Entry(receivedMessage, System.nanoTime());
+
+		systemLoad.setIncomingMessagesQueued(queuedMessages.incrementAndGet());
+
+		if (!queue.offer(entry)) {
+			final long blockingStartingTime = System.nanoTime();
+			try {
+				boolean queued;
+				do {
+					queued = queue.offer(entry,
+							ImplementationConstants.INCOMING_MESSAGE_HANDLING_OFFER_TIMEOUT_IN_MILLISECONDS,
+							TimeUnit.MILLISECONDS);
+				} while (!queued && blocking && !shouldStop);
+
+				if (!queued) {
+					systemLoad.setIncomingMessagesQueued(
+							queuedMessages.decrementAndGet());
+					log.warn(
+							"Received message from {} rejected, because too many messages are waiting",
+							receivedMessage.getSender());
+					return false;
+				}
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+				systemLoad.setIncomingMessagesQueued(
+						queuedMessages.decrementAndGet());
+				log.warn("Received message from {} could not be queued: {}",
+						receivedMessage.getSender(), e.getMessage());
+				return false;
+			}
+			systemLoad.addIncomingMessageProducerBlockingTime(
+					System.nanoTime() - blockingStartingTime);
+		}
+
+		// The handling threads could have finished meanwhile, so the message
+		// is only accepted if it's still handled for sure
+		if (shouldStop && queue.remove(entry)) {
+			systemLoad.setIncomingMessagesQueued(
+					queuedMessages.decrementAndGet());
+			log.warn("Received message from {} rejected during shutdown",
+					receivedMessage.getSender());
+			return false;
+		}
+
+		return true;
+	}
+}
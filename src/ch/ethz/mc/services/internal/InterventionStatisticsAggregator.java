@@ -0,0 +1,149 @@
+package ch.ethz.mc.services.internal;
+
+/* ##LICENSE## */
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.bson.types.ObjectId;
+
+import ch.ethz.mc.conf.ImplementationConstants;
+import ch.ethz.mc.model.Aggregations;
+import ch.ethz.mc.model.memory.InterventionStatistics;
+import ch.ethz.mc.model.persistent.DialogMessage;
+import ch.ethz.mc.model.persistent.Intervention;
+import ch.ethz.mc.model.persistent.Participant;
+import ch.ethz.mc.model.persistent.types.DialogMessageStatusTypes;
+import ch.ethz.mc.model.persistent.types.DialogMessageTypes;
+import lombok.val;
+
+/**
+ * Creates the {@link InterventionStatistics} of an {@link Intervention} with
+ * aggregation pipelines, so that only the aggregated values instead of all
+ * {@link Participant}s and {@link DialogMessage}s have to be loaded
+ *
+ * The timestamps are grouped in time slots of a quarter hour, which are
+ * assigned to the days and hours of the local time zone afterwards.
+ *
+ * @author Andreas Filler
+ */
+public class InterventionStatisticsAggregator {
+	/**
+	 * All time zone offsets are multiples of a quarter hour, so each time slot
+	 * belongs to exactly one hour of the day
+	 */
+	private static final long				TIME_SLOT_LENGTH_IN_MILLIS	= 15 * 60 * 1000;
+
+	private final DatabaseManagerService	databaseManagerService;
+
+	private static class ParticipantsAggregation {
+		private boolean	monitoringActive;
+		private Locale	language;
+		private long	createdTimeSlot;
+		private int		participants;
+		private long	secondsUsage;
+	}
+
+	private static class DialogMessagesAggregation {
+		private DialogMessageStatusTypes	status;
+		private DialogMessageTypes			type;
+		private int							dialogMessages;
+		private int							mediaObjectsViewed;
+		private int							messages;
+	}
+
+	private static class AnswerTimeSlotAggregation {
+		private long	answerReceivedTimeSlot;
+		private int		dialogMessages;
+	}
+
+	private static class AnswerAggregation {
+		private String	answerReceived;
+		private int		dialogMessages;
+	}
+
+	public InterventionStatisticsAggregator(
+			final DatabaseManagerService databaseManagerService) {
+		this.databaseManagerService = databaseManagerService;
+	}
+
+	/**
+	 * Aggregates the statistics of the given {@link Intervention}
+	 *
+	 * @param interventionId
+	 * @param validParticipantIds
+	 *            The {@link Participant}s with active monitoring, whose
+	 *            {@link DialogMessage}s have to be considered
+	 * @return
+	 */
+	public InterventionStatistics aggregate(final ObjectId interventionId,
+			final List<ObjectId> validParticipantIds) {
+		val interventionStatistics = new InterventionStatistics();
+
+		for (val participantsAggregation : databaseManagerService
+				.aggregateModelObjects(Participant.class,
+						ParticipantsAggregation.class,
+						Aggregations.PARTICIPANT__STATISTICS_BY_INTERVENTION,
+						interventionId, TIME_SLOT_LENGTH_IN_MILLIS)) {
+			interventionStatistics.addParticipants(
+					participantsAggregation.monitoringActive,
+					participantsAggregation.language,
+					participantsAggregation.createdTimeSlot
+							* TIME_SLOT_LENGTH_IN_MILLIS,
+					participantsAggregation.participants,
+					participantsAggregation.secondsUsage);
+		}
+
+		if (validParticipantIds.isEmpty()) {
+			return interventionStatistics;
+		}
+
+		for (val dialogMessagesAggregation : databaseManagerService
+				.aggregateModelObjects(DialogMessage.class,
+						DialogMessagesAggregation.class,
+						Aggregations.DIALOG_MESSAGE__STATISTICS_BY_PARTICIPANTS,
+						validParticipantIds, false,
+						ImplementationConstants.PLACEHOLDER_NEW_MESSAGE_APP_IDENTIFIER)) {
+			if (dialogMessagesAggregation.status == null) {
+				continue;
+			}
+
+			interventionStatistics.addDialogMessages(
+					dialogMessagesAggregation.status,
+					dialogMessagesAggregation.type,
+					dialogMessagesAggregation.dialogMessages,
+					dialogMessagesAggregation.messages,
+					dialogMessagesAggregation.mediaObjectsViewed);
+		}
+
+		for (val answerTimeSlotAggregation : databaseManagerService
+				.aggregateModelObjects(DialogMessage.class,
+						AnswerTimeSlotAggregation.class,
+						Aggregations.DIALOG_MESSAGE__ANSWER_STATISTICS_BY_PARTICIPANTS_AND_STATUSES,
+						validParticipantIds, false,
+						Arrays.asList(
+								DialogMessageStatusTypes.RECEIVED_UNEXPECTEDLY,
+								DialogMessageStatusTypes.SENT_AND_ANSWERED_AND_PROCESSED,
+								DialogMessageStatusTypes.SENT_AND_ANSWERED_BY_PARTICIPANT),
+						TIME_SLOT_LENGTH_IN_MILLIS)) {
+			interventionStatistics.addAnsweredDialogMessages(
+					answerTimeSlotAggregation.answerReceivedTimeSlot
+							* TIME_SLOT_LENGTH_IN_MILLIS,
+					answerTimeSlotAggregation.dialogMessages);
+		}
+
+		for (val answerAggregation : databaseManagerService
+				.aggregateModelObjects(DialogMessage.class,
+						AnswerAggregation.class,
+						Aggregations.DIALOG_MESSAGE__ANSWERS_BY_PARTICIPANTS_AND_STATUS_AND_ANSWER,
+						validParticipantIds, false,
+						DialogMessageStatusTypes.RECEIVED_AS_INTENTION,
+						"^platform\n")) {
+			interventionStatistics.addPlatformIntentions(
+					answerAggregation.answerReceived,
+					answerAggregation.dialogMessages);
+		}
+
+		return interventionStatistics;
+	}
+}
@@ -0,0 +1,197 @@
+package ch.ethz.mc.services.internal;
+
+/* ##LICENSE## */
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import ch.ethz.mc.conf.DeepstreamConstants;
+import ch.ethz.mc.conf.ImplementationConstants;
+import ch.ethz.mc.model.memory.SystemLoad;
+import ch.ethz.mc.tools.BoundedCache;
+import lombok.AllArgsConstructor;
+import lombok.val;
+
+/**
+ * Index of the list entries of deepstream records ordered by their
+ * modification timestamp, so that the entries modified since a specific
+ * timestamp can be determined without scanning the whole record
+ *
+ * The index of a record is updated whenever this server writes a list entry
+ * of the record. As the index is only kept in memory, it gets completed with a
+ * snapshot of the record at the first diff request after its creation (e.g.
+ * after a restart or if it has been evicted).
+ *
+ * @author Andreas Filler
+ */
+public class MessageDiffIndex {
+	private final Gson								gson;
+
+	private final BoundedCache<String, RecordIndex>	recordIndices;
+
+	@AllArgsConstructor
+	private static class IndexedEntry {
+		private final long			timestamp;
+		private final JsonElement	value;
+	}
+
+	private static class RecordIndex {
+		private final HashMap<String, IndexedEntry>	entries;
+		private final TreeMap<Long, Set<String>>	keysByTimestamp;
+
+		private boolean								completed	= false;
+
+		private RecordIndex() {
+			entries = new HashMap<String, IndexedEntry>();
+			keysByTimestamp = new TreeMap<Long, Set<String>>();
+		}
+
+		private void put(final String key, final long timestamp,
+				final JsonElement value) {
+			val formerEntry = entries.put(key,
+					new IndexedEntry(timestamp, value));
+
+			if (formerEntry != null) {
+				val formerKeys = keysByTimestamp.get(formerEntry.timestamp);
+				formerKeys.remove(key);
+				if (formerKeys.isEmpty()) {
+					keysByTimestamp.remove(formerEntry.timestamp);
+				}
+			}
+
+			keysByTimestamp
+					.computeIfAbsent(timestamp, t -> new HashSet<String>())
+					.add(key);
+		}
+	}
+
+	public MessageDiffIndex() {
+		gson = new Gson();
+
+		recordIndices = new BoundedCache<String, RecordIndex>(
+				"Message diff indices",
+				ImplementationConstants.MESSAGE_DIFF_INDEX_CACHE_MAXIMUM_SIZE,
+				ImplementationConstants.MESSAGE_DIFF_INDEX_CACHE_MAXIMUM_IDLE_MINUTES);
+		SystemLoad.getInstance().registerCache(recordIndices);
+	}
+
+	/**
+	 * Remembers that a list entry of a record has been written
+	 *
+	 * @param recordName
+	 * @param key
+	 * @param timestamp
+	 * @param value
+	 */
+	public void put(final String recordName, final String key,
+			final long timestamp, final JsonElement value) {
+		// Copy value, as the given object could be modified afterwards
+		val valueCopy = gson.toJsonTree(value);
+
+		val recordIndex = getOrCreateRecordIndex(recordName);
+		synchronized (recordIndex) {
+			recordIndex.put(key, timestamp, valueCopy);
+		}
+	}
+
+	/**
+	 * Forgets the index of a deleted record
+	 *
+	 * @param recordName
+	 */
+	public void remove(final String recordName) {
+		recordIndices.remove(recordName);
+	}
+
+	/**
+	 * Returns all list entries of a record modified after the given
+	 * timestamp
+	 *
+	 * @param recordName
+	 * @param timestamp
+	 * @param timestampField
+	 *            Field of the list entries containing their modification
+	 *            timestamp
+	 * @param snapshotLoader
+	 *            Loads the whole record if the index is not completed, yet
+	 * @return {@link JsonObject} containing the list entries ("list") and the
+	 *         newest timestamp of all list entries ("latest-timestamp")
+	 */
+	public JsonObject getDiff(final String recordName, final long timestamp,
+			final String timestampField,
+			final Supplier<JsonElement> snapshotLoader) {
+		val recordIndex = getOrCreateRecordIndex(recordName);
+
+		boolean completed;
+		synchronized (recordIndex) {
+			completed = recordIndex.completed;
+		}
+
+		if (!completed) {
+			// All list entries written since the creation of the index are
+			// newer than the snapshot
+			val snapshot = snapshotLoader.get();
+
+			synchronized (recordIndex) {
+				if (snapshot != null && snapshot.isJsonObject()) {
+					for (val element : snapshot.getAsJsonObject()
+							.entrySet()) {
+						if (element.getKey()
+								.startsWith(DeepstreamConstants.PATH_LIST)
+								&& !recordIndex.entries
+										.containsKey(element.getKey())) {
+							recordIndex.put(element.getKey(),
+									((JsonObject) element.getValue())
+											.get(timestampField)
+											.getAsLong(),
+									element.getValue());
+						}
+					}
+				}
+
+				recordIndex.completed = true;
+			}
+		}
+
+		val jsonObject = new JsonObject();
+		val jsonObjects = new JsonObject();
+
+		long newestTimestamp = 0;
+		synchronized (recordIndex) {
+			for (val keys : recordIndex.keysByTimestamp
+					.tailMap(timestamp, false).values()) {
+				for (val key : keys) {
+					jsonObjects.add(key, recordIndex.entries.get(key).value);
+				}
+			}
+
+			if (!recordIndex.keysByTimestamp.isEmpty()) {
+				newestTimestamp = recordIndex.keysByTimestamp.lastKey();
+			}
+		}
+
+		jsonObject.add("list", jsonObjects);
+		jsonObject.addProperty("latest-timestamp", newestTimestamp);
+
+		return jsonObject;
+	}
+
+	private RecordIndex getOrCreateRecordIndex(final String recordName) {
+		val recordIndex = recordIndices.get(recordName);
+		if (recordIndex != null) {
+			return recordIndex;
+		}
+
+		val newRecordIndex = new RecordIndex();
+		val formerRecordIndex = recordIndices.putIfAbsent(recordName,
+				newRecordIndex);
+
+		return formerRecordIndex != null ? formerRecordIndex : newRecordIndex;
+	}
+}
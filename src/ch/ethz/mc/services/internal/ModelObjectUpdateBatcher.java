@@ -0,0 +1,144 @@
+package ch.ethz.mc.services.internal;
+
+/* ##LICENSE## */
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.bson.types.ObjectId;
+
+import ch.ethz.mc.model.ModelObject;
+import lombok.Synchronized;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Groups field updates of {@link ModelObject}s of one class into bulk
+ * operations
+ *
+ * Updates are first submitted and afterwards awaited. While one thread writes
+ * a bulk operation, all updates submitted in the meantime are collected and
+ * written together by the next awaiting thread. So concurrent updates require
+ * only a few database round trips, but each thread can rely on its update
+ * being written as soon as awaiting it returns.
+ *
+ * @author Andreas Filler
+ */
+@Log4j2
+public class ModelObjectUpdateBatcher<ModelObjectSubclass extends ModelObject> {
+	private final DatabaseManagerService		databaseManagerService;
+	private final Class<ModelObjectSubclass>	clazz;
+
+	private final ReentrantLock					writingLock;
+
+	private List<Update>						submittedUpdates;
+
+	/**
+	 * Field update of one {@link ModelObject}
+	 */
+	public static class Update {
+		private final ObjectId				id;
+		private final Map<String, Object>	fieldValues;
+
+		private boolean						written		= false;
+		private RuntimeException			exception	= null;
+
+		private Update(final ObjectId id,
+				final Map<String, Object> fieldValues) {
+			this.id = id;
+			this.fieldValues = fieldValues;
+		}
+	}
+
+	public ModelObjectUpdateBatcher(
+			final DatabaseManagerService databaseManagerService,
+			final Class<ModelObjectSubclass> clazz) {
+		this.databaseManagerService = databaseManagerService;
+		this.clazz = clazz;
+
+		writingLock = new ReentrantLock();
+		submittedUpdates = new ArrayList<Update>();
+	}
+
+	/**
+	 * Submits the update of the given fields of a {@link ModelObject}; the
+	 * update has to be awaited afterwards using {@link #await(Update)}
+	 *
+	 * Updates of the same {@link ModelObject} are written in the order they
+	 * have been submitted.
+	 *
+	 * @param id
+	 * @param fieldValues
+	 * @return
+	 */
+	@Synchronized
+	public Update submit(final ObjectId id,
+			final Map<String, Object> fieldValues) {
+		val update = new Update(id, fieldValues);
+
+		submittedUpdates.add(update);
+
+		return update;
+	}
+
+	/**
+	 * Waits until the given {@link Update} has been written; writes all
+	 * submitted updates if required
+	 *
+	 * @param update
+	 */
+	public void await(final Update update) {
+		writingLock.lock();
+		try {
+			if (!update.written) {
+				write(takeSubmittedUpdates());
+			}
+		} finally {
+			writingLock.unlock();
+		}
+
+		if (update.exception != null) {
+			throw update.exception;
+		}
+	}
+
+	@Synchronized
+	private List<Update> takeSubmittedUpdates() {
+		val updates = submittedUpdates;
+		submittedUpdates = new ArrayList<Update>();
+
+		return updates;
+	}
+
+	private void write(final List<Update> updates) {
+		// Combine updates of the same model object (later values win)
+		val fieldValuesByIds = new LinkedHashMap<ObjectId, Map<String, Object>>();
+		for (val update : updates) {
+			val fieldValues = fieldValuesByIds.get(update.id);
+			if (fieldValues == null) {
+				fieldValuesByIds.put(update.id,
+						new HashMap<String, Object>(update.fieldValues));
+			} else {
+				fieldValues.putAll(update.fieldValues);
+			}
+		}
+
+		RuntimeException exception = null;
+		try {
+			databaseManagerService.updateModelObjectFields(clazz,
+					fieldValuesByIds);
+		} catch (final RuntimeException e) {
+			log.error("Could not update {} {}: {}", fieldValuesByIds.size(),
+					clazz.getSimpleName(), e.getMessage());
+			exception = e;
+		}
+
+		for (val update : updates) {
+			update.exception = exception;
+			update.written = true;
+		}
+	}
+}
@@ -0,0 +1,168 @@
+package ch.ethz.mc.services.internal;
+
+/* ##LICENSE## */
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.bson.types.ObjectId;
+
+import ch.ethz.mc.conf.ImplementationConstants;
+import ch.ethz.mc.model.memory.SystemLoad;
+import ch.ethz.mc.model.persistent.Participant;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Participant locking service to ensure that all work for one specific
+ * {@link Participant} is performed in order, while the work for different
+ * {@link Participant}s can be performed in parallel
+ *
+ * The locks are striped by the {@link ObjectId} of the {@link Participant}, so
+ * two participants can share the same lock, but one participant always uses
+ * the same lock. Caution: A thread should never hold a participant lock of
+ * more than one participant at once (except by using
+ * {@link #lockParticipants(Collection)}) and should never request a
+ * participant lock while holding the lock of one of the services.
+ *
+ * @author Andreas Filler
+ */
+@Log4j2
+public class ParticipantLockingService {
+	private static ParticipantLockingService	instance	= null;
+
+	private final SystemLoad					systemLoad;
+
+	private final ReentrantLock[]				participantLocks;
+
+	private ParticipantLockingService() {
+		systemLoad = SystemLoad.getInstance();
+
+		participantLocks = new ReentrantLock[ImplementationConstants.PARTICIPANT_LOCKING_STRIPES];
+		for (int i = 0; i < participantLocks.length; i++) {
+			participantLocks[i] = new ReentrantLock();
+		}
+	}
+
+	public static ParticipantLockingService start() throws Exception {
+		log.info("Starting service...");
+		if (instance == null) {
+			instance = new ParticipantLockingService();
+		}
+		log.info("Started.");
+		return instance;
+	}
+
+	public void stop() throws Exception {
+		log.info("Stopping service...");
+
+		log.info("Stopped.");
+	}
+
+	/*
+	 * Class methods
+	 */
+
+	/**
+	 * Acquires the lock of the given {@link Participant} and waits until it's
+	 * available; The time spent waiting is reported to the {@link SystemLoad}
+	 *
+	 * Caution: Each call has to be followed by a call of
+	 * {@link #unlockParticipant(ObjectId)} in a finally block
+	 *
+	 * @param participantId
+	 */
+	public void lockParticipant(final ObjectId participantId) {
+		val participantLock = getParticipantLock(participantId);
+
+		if (participantLock.tryLock()) {
+			systemLoad.addParticipantLockWaitingTime(0);
+			return;
+		}
+
+		final long waitingStartTime = System.nanoTime();
+		participantLock.lock();
+		systemLoad.addParticipantLockWaitingTime(
+				System.nanoTime() - waitingStartTime);
+	}
+
+	/**
+	 * Releases the lock of the given {@link Participant}
+	 *
+	 * @param participantId
+	 */
+	public void unlockParticipant(final ObjectId participantId) {
+		getParticipantLock(participantId).unlock();
+	}
+
+	/**
+	 * Acquires the locks of all given {@link Participant}s; the lock stripes
+	 * are always acquired in the same order, so this is the only way to hold
+	 * the locks of several {@link Participant}s at once
+	 *
+	 * Caution: Each call has to be followed by a call of
+	 * {@link #unlockParticipants(Collection)} in a finally block
+	 *
+	 * @param participantIds
+	 */
+	public void lockParticipants(final Collection<ObjectId> participantIds) {
+		for (val participantLockIndex : getParticipantLockIndices(
+				participantIds)) {
+			val participantLock = participantLocks[participantLockIndex];
+
+			if (participantLock.tryLock()) {
+				systemLoad.addParticipantLockWaitingTime(0);
+				continue;
+			}
+
+			final long waitingStartTime = System.nanoTime();
+			participantLock.lock();
+			systemLoad.addParticipantLockWaitingTime(
+					System.nanoTime() - waitingStartTime);
+		}
+	}
+
+	/**
+	 * Releases the locks of all given {@link Participant}s
+	 *
+	 * @param participantIds
+	 */
+	public void unlockParticipants(final Collection<ObjectId> participantIds) {
+		for (val participantLockIndex : getParticipantLockIndices(
+				participantIds).descendingSet()) {
+			participantLocks[participantLockIndex].unlock();
+		}
+	}
+
+	/**
+	 * Returns the distinct lock stripe indices of the given
+	 * {@link Participant}s in ascending order
+	 *
+	 * @param participantIds
+	 * @return
+	 */
+	private TreeSet<Integer> getParticipantLockIndices(
+			final Collection<ObjectId> participantIds) {
+		val participantLockIndices = new TreeSet<Integer>();
+		for (val participantId : participantIds) {
+			participantLockIndices.add(getParticipantLockIndex(participantId));
+		}
+
+		return participantLockIndices;
+	}
+
+	/**
+	 * Returns the lock stripe responsible for the given {@link Participant}
+	 *
+	 * @param participantId
+	 * @return
+	 */
+	private ReentrantLock getParticipantLock(final ObjectId participantId) {
+		return participantLocks[getParticipantLockIndex(participantId)];
+	}
+
+	private int getParticipantLockIndex(final ObjectId participantId) {
+		return (participantId.hashCode() & 0x7fffffff)
+				% participantLocks.length;
+	}
+}
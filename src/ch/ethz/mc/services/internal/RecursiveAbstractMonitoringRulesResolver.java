@@ -11,6 +11,8 @@ import org.bson.types.ObjectId;
 import ch.ethz.mc.conf.ImplementationConstants;
 import ch.ethz.mc.model.Queries;
 import ch.ethz.mc.model.memory.RuleEvaluationResult;
+import ch.ethz.mc.model.memory.RulesTree;
+import ch.ethz.mc.model.persistent.DialogStatus;
 import ch.ethz.mc.model.persistent.Intervention;
 import ch.ethz.mc.model.persistent.InterventionExternalSystem;
 import ch.ethz.mc.model.persistent.MicroDialog;
@@ -19,7 +21,6 @@ import ch.ethz.mc.model.persistent.MicroDialogMessage;
 import ch.ethz.mc.model.persistent.MicroDialogRule;
 import ch.ethz.mc.model.persistent.MonitoringMessage;
 import ch.ethz.mc.model.persistent.MonitoringMessageGroup;
-import ch.ethz.mc.model.persistent.MonitoringReplyRule;
 import ch.ethz.mc.model.persistent.MonitoringRule;
 import ch.ethz.mc.model.persistent.Participant;
 import ch.ethz.mc.model.persistent.concepts.AbstractMonitoringRule;
@@ -64,10 +65,13 @@ public class RecursiveAbstractMonitoringRulesResolver {
 	private boolean												completelyStop											= false;
 	private final Hashtable<String, Integer>					iterationCache;
 	private final Hashtable<String, Integer>					iterationLimitCache;
+	private final RulesTreeCache								rulesTreeCache;
+	private RulesTree											rulesTree												= null;
 
 	// Relevant for all cases
 	private final Participant									participant;
 	private final Intervention									intervention;
+	private final DialogStatus									dialogStatus;
 	
 	// Only relevant for external service message handling
 	private final InterventionExternalSystem 					interventionExternalSystem;
@@ -204,12 +208,17 @@ public class RecursiveAbstractMonitoringRulesResolver {
 
 		intervention = databaseManagerService.getModelObjectById(
 				Intervention.class, participant.getIntervention());
+		dialogStatus = databaseManagerService.findOneModelObject(
+				DialogStatus.class, Queries.DIALOG_STATUS__BY_PARTICIPANT,
+				participant.getId());
 
 		this.executionCase = executionCase;
 		this.interventionExternalSystem = interventionExternalSystem;
 
 		iterationCache = new Hashtable<String, Integer>();
 		iterationLimitCache = new Hashtable<String, Integer>();
+		rulesTreeCache = interventionExecutionManagerService
+				.getRulesTreeCache();
 
 		switch (executionCase) {
 			case MONITORING_RULES_DAILY:
@@ -262,6 +271,28 @@ public class RecursiveAbstractMonitoringRulesResolver {
 				break;
 		}
 
+		// Get rules tree (from cache if possible)
+		switch (executionCase) {
+			case MONITORING_RULES_DAILY:
+			case MONITORING_RULES_PERIODIC:
+			case MONITORING_RULES_UNEXPECTED_MESSAGE:
+			case MONITORING_RULES_USER_INTENTION:
+			case MONITORING_RULES_EXTERNAL_MESSAGE:
+				rulesTree = rulesTreeCache
+						.getMonitoringRulesTree(intervention.getId());
+				break;
+			case MONITORING_REPLY_RULES:
+				rulesTree = rulesTreeCache.getMonitoringReplyRulesTree(
+						relatedMonitoringRuleForReplyRuleCase.getId(),
+						monitoringReplyRuleCaseIsTrue);
+				break;
+			case MICRO_DIALOG_DECISION_POINT:
+				rulesTree = rulesTreeCache.getMicroDialogRulesTree(
+						relatedMicroDialogDecisionPointForMicroDialogRuleCase
+								.getId());
+				break;
+		}
+
 		// Recursively check all rules
 		executeRules(null);
 
@@ -350,8 +381,9 @@ public class RecursiveAbstractMonitoringRulesResolver {
 				// Determine message text and answer type with options to send
 				val variablesWithValues = variablesManagerService
 						.getAllVariablesWithValuesOfParticipantAndSystemAndExternalSystem(
-								participant, determinedMonitoringMessageToSend,
-								null, interventionExternalSystem);
+								participant, dialogStatus,
+								determinedMonitoringMessageToSend, null,
+								interventionExternalSystem);
 				val messageTextToSend = VariableStringReplacer
 						.findVariablesAndReplaceWithTextValues(
 								participant.getLanguage(),
@@ -429,7 +461,7 @@ public class RecursiveAbstractMonitoringRulesResolver {
 	 */
 	private void executeRules(final AbstractMonitoringRule parent) {
 		// Start with the whole process
-		Iterable<? extends AbstractMonitoringRule> rulesOnCurrentLevel = null;
+		List<AbstractMonitoringRule> rulesOnCurrentLevel = null;
 		if (parent == null) {
 			// Root of rules tree
 			if (ONE_OF_MONITORING_RULES_CASES) {
@@ -438,39 +470,24 @@ public class RecursiveAbstractMonitoringRulesResolver {
 
 				switch (executionCase) {
 					case MONITORING_RULES_DAILY:
-						masterParent = databaseManagerService
-								.findOneModelObject(MonitoringRule.class,
-										Queries.MONITORING_RULE__BY_INTERVENTION_AND_TYPE,
-										intervention.getId(),
-										MonitoringRuleTypes.DAILY);
+						masterParent = rulesTree
+								.getMasterRule(MonitoringRuleTypes.DAILY);
 						break;
 					case MONITORING_RULES_PERIODIC:
-						masterParent = databaseManagerService
-								.findOneModelObject(MonitoringRule.class,
-										Queries.MONITORING_RULE__BY_INTERVENTION_AND_TYPE,
-										intervention.getId(),
-										MonitoringRuleTypes.PERIODIC);
+						masterParent = rulesTree
+								.getMasterRule(MonitoringRuleTypes.PERIODIC);
 						break;
 					case MONITORING_RULES_UNEXPECTED_MESSAGE:
-						masterParent = databaseManagerService
-								.findOneModelObject(MonitoringRule.class,
-										Queries.MONITORING_RULE__BY_INTERVENTION_AND_TYPE,
-										intervention.getId(),
-										MonitoringRuleTypes.UNEXPECTED_MESSAGE);
+						masterParent = rulesTree.getMasterRule(
+								MonitoringRuleTypes.UNEXPECTED_MESSAGE);
 						break;
 					case MONITORING_RULES_USER_INTENTION:
-						masterParent = databaseManagerService
-								.findOneModelObject(MonitoringRule.class,
-										Queries.MONITORING_RULE__BY_INTERVENTION_AND_TYPE,
-										intervention.getId(),
-										MonitoringRuleTypes.USER_INTENTION);
+						masterParent = rulesTree.getMasterRule(
+								MonitoringRuleTypes.USER_INTENTION);
 						break;
 					case MONITORING_RULES_EXTERNAL_MESSAGE:
-						masterParent = databaseManagerService
-								.findOneModelObject(MonitoringRule.class,
-										Queries.MONITORING_RULE__BY_INTERVENTION_AND_TYPE,
-										intervention.getId(),
-										MonitoringRuleTypes.EXTERNAL_MESSAGE);
+						masterParent = rulesTree.getMasterRule(
+								MonitoringRuleTypes.EXTERNAL_MESSAGE);
 						break;
 					case MONITORING_REPLY_RULES:
 						log.error(
@@ -482,97 +499,16 @@ public class RecursiveAbstractMonitoringRulesResolver {
 						break;
 				}
 
-				rulesOnCurrentLevel = databaseManagerService
-						.findSortedModelObjects(MonitoringRule.class,
-								Queries.MONITORING_RULE__BY_INTERVENTION_AND_PARENT,
-								Queries.MONITORING_RULE__SORT_BY_ORDER_ASC,
-								intervention.getId(), masterParent.getId());
+				rulesOnCurrentLevel = rulesTree
+						.getChildRules(masterParent.getId());
 			} else {
-				switch (executionCase) {
-					case MONITORING_RULES_DAILY:
-					case MONITORING_RULES_PERIODIC:
-					case MONITORING_RULES_UNEXPECTED_MESSAGE:
-					case MONITORING_RULES_USER_INTENTION:
-					case MONITORING_RULES_EXTERNAL_MESSAGE:	
-						// Already solved above
-						break;
-					case MONITORING_REPLY_RULES:
-						if (monitoringReplyRuleCaseIsTrue) {
-							rulesOnCurrentLevel = databaseManagerService
-									.findSortedModelObjects(
-											MonitoringReplyRule.class,
-											Queries.MONITORING_REPLY_RULE__BY_MONITORING_RULE_AND_PARENT_ONLY_GOT_ANSWER,
-											Queries.MONITORING_REPLY_RULE__SORT_BY_ORDER_ASC,
-											relatedMonitoringRuleForReplyRuleCase
-													.getId(),
-											null);
-						} else {
-							rulesOnCurrentLevel = databaseManagerService
-									.findSortedModelObjects(
-											MonitoringReplyRule.class,
-											Queries.MONITORING_REPLY_RULE__BY_MONITORING_RULE_AND_PARENT_ONLY_GOT_NO_ANSWER,
-											Queries.MONITORING_REPLY_RULE__SORT_BY_ORDER_ASC,
-											relatedMonitoringRuleForReplyRuleCase
-													.getId(),
-											null);
-						}
-						break;
-					case MICRO_DIALOG_DECISION_POINT:
-						rulesOnCurrentLevel = databaseManagerService
-								.findSortedModelObjects(MicroDialogRule.class,
-										Queries.MICRO_DIALOG_RULE__BY_MICRO_DIALOG_DECISION_POINT_AND_PARENT,
-										Queries.MICRO_DIALOG_RULE__SORT_BY_ORDER_ASC,
-										relatedMicroDialogDecisionPointForMicroDialogRuleCase
-												.getId(),
-										null);
-						break;
-				}
+				// The rules tree only contains the rules of the reply rule or
+				// micro dialog rule case
+				rulesOnCurrentLevel = rulesTree.getChildRules(null);
 			}
 		} else {
 			// Leafs of rules tree
-			switch (executionCase) {
-				case MONITORING_RULES_DAILY:
-				case MONITORING_RULES_PERIODIC:
-				case MONITORING_RULES_UNEXPECTED_MESSAGE:
-				case MONITORING_RULES_USER_INTENTION:
-				case MONITORING_RULES_EXTERNAL_MESSAGE:	
-					rulesOnCurrentLevel = databaseManagerService
-							.findSortedModelObjects(MonitoringRule.class,
-									Queries.MONITORING_RULE__BY_INTERVENTION_AND_PARENT,
-									Queries.MONITORING_RULE__SORT_BY_ORDER_ASC,
-									intervention.getId(), parent.getId());
-					break;
-				case MONITORING_REPLY_RULES:
-					if (monitoringReplyRuleCaseIsTrue) {
-						rulesOnCurrentLevel = databaseManagerService
-								.findSortedModelObjects(
-										MonitoringReplyRule.class,
-										Queries.MONITORING_REPLY_RULE__BY_MONITORING_RULE_AND_PARENT_ONLY_GOT_ANSWER,
-										Queries.MONITORING_REPLY_RULE__SORT_BY_ORDER_ASC,
-										relatedMonitoringRuleForReplyRuleCase
-												.getId(),
-										parent.getId());
-					} else {
-						rulesOnCurrentLevel = databaseManagerService
-								.findSortedModelObjects(
-										MonitoringReplyRule.class,
-										Queries.MONITORING_REPLY_RULE__BY_MONITORING_RULE_AND_PARENT_ONLY_GOT_NO_ANSWER,
-										Queries.MONITORING_REPLY_RULE__SORT_BY_ORDER_ASC,
-										relatedMonitoringRuleForReplyRuleCase
-												.getId(),
-										parent.getId());
-					}
-					break;
-				case MICRO_DIALOG_DECISION_POINT:
-					rulesOnCurrentLevel = databaseManagerService
-							.findSortedModelObjects(MicroDialogRule.class,
-									Queries.MICRO_DIALOG_RULE__BY_MICRO_DIALOG_DECISION_POINT_AND_PARENT,
-									Queries.MICRO_DIALOG_RULE__SORT_BY_ORDER_ASC,
-									relatedMicroDialogDecisionPointForMicroDialogRuleCase
-											.getId(),
-									parent.getId());
-					break;
-			}
+			rulesOnCurrentLevel = rulesTree.getChildRules(parent.getId());
 		}
 
 		// Execute all rules on this level
@@ -599,7 +535,8 @@ public class RecursiveAbstractMonitoringRulesResolver {
 					} else {
 						val variablesWithValues = variablesManagerService
 								.getAllVariablesWithValuesOfParticipantAndSystemAndExternalSystem(
-										participant, interventionExternalSystem);
+										participant, dialogStatus, null, null,
+										interventionExternalSystem);
 
 						ruleResult = RuleEvaluator.evaluateRule(
 								participant.getId(), participant.getLanguage(),
@@ -735,7 +672,8 @@ public class RecursiveAbstractMonitoringRulesResolver {
 		} else {
 			val variablesWithValues = variablesManagerService
 					.getAllVariablesWithValuesOfParticipantAndSystemAndExternalSystem(
-							participant, interventionExternalSystem);
+							participant, dialogStatus, null, null,
+							interventionExternalSystem);
 
 			ruleResult = RuleEvaluator.evaluateRule(participant.getId(),
 					participant.getLanguage(), rule,
@@ -0,0 +1,159 @@
+package ch.ethz.mc.services.internal;
+
+/* ##LICENSE## */
+import org.bson.types.ObjectId;
+
+import ch.ethz.mc.conf.ImplementationConstants;
+import ch.ethz.mc.model.Queries;
+import ch.ethz.mc.model.memory.RulesTree;
+import ch.ethz.mc.model.memory.SystemLoad;
+import ch.ethz.mc.model.persistent.MicroDialogDecisionPoint;
+import ch.ethz.mc.model.persistent.MicroDialogRule;
+import ch.ethz.mc.model.persistent.MonitoringReplyRule;
+import ch.ethz.mc.model.persistent.MonitoringRule;
+import ch.ethz.mc.model.persistent.concepts.AbstractMonitoringRule;
+import ch.ethz.mc.tools.BoundedCache;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Caches the {@link RulesTree}s of {@link MonitoringRule}s,
+ * {@link MonitoringReplyRule}s and {@link MicroDialogRule}s, so that resolving
+ * the rules for a participant does not require to load the rules again
+ *
+ * Each {@link RulesTree} remembers the version of the
+ * {@link AbstractMonitoringRule}s it has been created from. As soon as any
+ * rule gets changed, e.g. in the rule editors, the version increases and the
+ * {@link RulesTree} will be recreated at the next access.
+ *
+ * @author Andreas Filler
+ */
+@Log4j2
+public class RulesTreeCache {
+	private final DatabaseManagerService			databaseManagerService;
+
+	private final BoundedCache<String, RulesTree>	rulesTrees;
+
+	public RulesTreeCache(final DatabaseManagerService databaseManagerService) {
+		this.databaseManagerService = databaseManagerService;
+
+		rulesTrees = new BoundedCache<String, RulesTree>("Rules trees",
+				ImplementationConstants.RULES_TREE_CACHE_MAXIMUM_SIZE,
+				ImplementationConstants.RULES_TREE_CACHE_MAXIMUM_IDLE_MINUTES);
+		SystemLoad.getInstance().registerCache(rulesTrees);
+	}
+
+	/**
+	 * Returns the {@link RulesTree} of all {@link MonitoringRule}s of the
+	 * given intervention
+	 *
+	 * @param interventionId
+	 * @return
+	 */
+	public RulesTree getMonitoringRulesTree(final ObjectId interventionId) {
+		val key = "MR-" + interventionId.toHexString();
+
+		RulesTree rulesTree = getValidRulesTree(key);
+		if (rulesTree == null) {
+			val version = AbstractMonitoringRule.getRulesVersion();
+
+			rulesTree = new RulesTree(version,
+					databaseManagerService.findSortedModelObjects(
+							MonitoringRule.class,
+							Queries.MONITORING_RULE__BY_INTERVENTION,
+							Queries.MONITORING_RULE__SORT_BY_ORDER_ASC,
+							interventionId));
+
+			rulesTrees.put(key, rulesTree);
+		}
+
+		return rulesTree;
+	}
+
+	/**
+	 * Returns the {@link RulesTree} of all {@link MonitoringReplyRule}s of the
+	 * given {@link MonitoringRule}
+	 *
+	 * @param monitoringRuleId
+	 * @param gotAnswerRules
+	 *            Returns the got answer rules if <code>true</code>, the got no
+	 *            answer rules otherwise
+	 * @return
+	 */
+	public RulesTree getMonitoringReplyRulesTree(
+			final ObjectId monitoringRuleId, final boolean gotAnswerRules) {
+		val key = (gotAnswerRules ? "MRR-A-" : "MRR-NA-")
+				+ monitoringRuleId.toHexString();
+
+		RulesTree rulesTree = getValidRulesTree(key);
+		if (rulesTree == null) {
+			val version = AbstractMonitoringRule.getRulesVersion();
+
+			rulesTree = new RulesTree(version,
+					databaseManagerService.findSortedModelObjects(
+							MonitoringReplyRule.class,
+							gotAnswerRules
+									? Queries.MONITORING_REPLY_RULE__BY_MONITORING_RULE_ONLY_GOT_ANSWER
+									: Queries.MONITORING_REPLY_RULE__BY_MONITORING_RULE_ONLY_GOT_NO_ANSWER,
+							Queries.MONITORING_REPLY_RULE__SORT_BY_ORDER_ASC,
+							monitoringRuleId));
+
+			rulesTrees.put(key, rulesTree);
+		}
+
+		return rulesTree;
+	}
+
+	/**
+	 * Returns the {@link RulesTree} of all {@link MicroDialogRule}s of the
+	 * given {@link MicroDialogDecisionPoint}
+	 *
+	 * @param microDialogDecisionPointId
+	 * @return
+	 */
+	public RulesTree getMicroDialogRulesTree(
+			final ObjectId microDialogDecisionPointId) {
+		val key = "MDR-" + microDialogDecisionPointId.toHexString();
+
+		RulesTree rulesTree = getValidRulesTree(key);
+		if (rulesTree == null) {
+			val version = AbstractMonitoringRule.getRulesVersion();
+
+			rulesTree = new RulesTree(version,
+					databaseManagerService.findSortedModelObjects(
+							MicroDialogRule.class,
+							Queries.MICRO_DIALOG_RULE__BY_MICRO_DIALOG_DECISION_POINT,
+							Queries.MICRO_DIALOG_RULE__SORT_BY_ORDER_ASC,
+							microDialogDecisionPointId));
+
+			rulesTrees.put(key, rulesTree);
+		}
+
+		return rulesTree;
+	}
+
+	/**
+	 * Returns the cached {@link RulesTree} for the given key if it is still
+	 * based on the current version of the {@link AbstractMonitoringRule}s
+	 *
+	 * @param key
+	 * @return The {@link RulesTree} or <code>null</code> if not cached or
+	 *         outdated
+	 */
+	private RulesTree getValidRulesTree(final String key) {
+		val rulesTree = rulesTrees.get(key);
+
+		if (rulesTree == null) {
+			return null;
+		}
+
+		if (rulesTree.getVersion() != AbstractMonitoringRule
+				.getRulesVersion()) {
+			log.debug("Rules tree {} is outdated", key);
+			rulesTrees.remove(key);
+			return null;
+		}
+
+		return rulesTree;
+	}
+}
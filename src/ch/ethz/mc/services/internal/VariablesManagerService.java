@@ -3,17 +3,21 @@ package ch.ethz.mc.services.internal;
 /* ##LICENSE## */
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Synchronized;
 import lombok.val;
@@ -27,6 +31,7 @@ import ch.ethz.mc.conf.Constants;
 import ch.ethz.mc.conf.ImplementationConstants;
 import ch.ethz.mc.model.Queries;
 import ch.ethz.mc.model.memory.MemoryVariable;
+import ch.ethz.mc.model.memory.SystemLoad;
 import ch.ethz.mc.model.persistent.DialogOption;
 import ch.ethz.mc.model.persistent.DialogStatus;
 import ch.ethz.mc.model.persistent.IntermediateSurveyAndFeedbackParticipantShortURL;
@@ -55,6 +60,7 @@ import ch.ethz.mc.services.types.SystemVariables.READ_ONLY_EXTERNAL_SYSTEM_VARIA
 import ch.ethz.mc.services.types.SystemVariables.READ_ONLY_PARTICIPANT_VARIABLES;
 import ch.ethz.mc.services.types.SystemVariables.READ_ONLY_SYSTEM_VARIABLES;
 import ch.ethz.mc.services.types.SystemVariables.READ_WRITE_PARTICIPANT_VARIABLES;
+import ch.ethz.mc.tools.BoundedCache;
 import ch.ethz.mc.tools.InternalDateTime;
 import ch.ethz.mc.tools.RuleEvaluator;
 import ch.ethz.mc.tools.StringHelpers;
@@ -82,8 +88,9 @@ public class VariablesManagerService {
 	private final HashSet<String>												externallyReadableSystemVariableNames;
 	private final HashSet<String>												externallyReadableParticipantVariableNames;
 
-	private final ConcurrentHashMap<String, Hashtable<String, MemoryVariable>>	participantsVariablesCache;
-	private final ConcurrentHashMap<String, Hashtable<String, String>>			participantInfiniteBlockingMessagesCache;
+	private final BoundedCache<String, Hashtable<String, MemoryVariable>>		participantsVariablesCache;
+	private final BoundedCache<String, Hashtable<String, String>>				participantInfiniteBlockingMessagesCache;
+	private final BoundedCache<String, InterventionVariablesSnapshot>			interventionsVariablesCache;
 
 	private final int															maxVariableHistory;
 
@@ -100,6 +107,16 @@ public class VariablesManagerService {
 	private static SimpleDateFormat												yearFormatter			= new SimpleDateFormat(
 			"yyyy");
 
+	/**
+	 * Immutable snapshot of the {@link InterventionVariableWithValue}s of an
+	 * {@link Intervention} in a specific version
+	 */
+	@AllArgsConstructor
+	private static class InterventionVariablesSnapshot {
+		private final long											version;
+		private final Map<String, InterventionVariableWithValue>	variables;
+	}
+
 	private VariablesManagerService(
 			final DatabaseManagerService databaseManagerService)
 			throws Exception {
@@ -160,8 +177,20 @@ public class VariablesManagerService {
 		}
 
 		// Init cache
-		participantsVariablesCache = new ConcurrentHashMap<String, Hashtable<String, MemoryVariable>>();
-		participantInfiniteBlockingMessagesCache = new ConcurrentHashMap<String, Hashtable<String, String>>();
+		participantsVariablesCache = new BoundedCache<String, Hashtable<String, MemoryVariable>>(
+				"Participants variables",
+				Constants.getParticipantsCacheMaximumSize(),
+				Constants.getParticipantsCacheMaximumIdleMinutes());
+		// Not persisted anywhere else, so only removed on invalidation
+		participantInfiniteBlockingMessagesCache = new BoundedCache<String, Hashtable<String, String>>(
+				"Participants infinite blocking messages", -1, -1);
+		interventionsVariablesCache = new BoundedCache<String, InterventionVariablesSnapshot>(
+				"Interventions variables", -1,
+				Constants.getParticipantsCacheMaximumIdleMinutes());
+		SystemLoad.getInstance().registerCache(participantsVariablesCache);
+		SystemLoad.getInstance()
+				.registerCache(participantInfiniteBlockingMessagesCache);
+		SystemLoad.getInstance().registerCache(interventionsVariablesCache);
 		maxVariableHistory = Constants.getMaxVariableHistory();
 
 		log.info("Started.");
@@ -207,7 +236,38 @@ public class VariablesManagerService {
 			final MonitoringMessage relatedMonitoringMessage,
 			final MicroDialogMessage relatedMicroDialogMessage,
 			final InterventionExternalSystem externalSystem) {
-		val variablesWithValues = new Hashtable<String, AbstractVariableWithValue>();
+		val dialogStatus = databaseManagerService.findOneModelObject(
+				DialogStatus.class, Queries.DIALOG_STATUS__BY_PARTICIPANT,
+				participant.getId());
+
+		return getAllVariablesWithValuesOfParticipantAndSystemAndExternalSystem(
+				participant, dialogStatus, relatedMonitoringMessage,
+				relatedMicroDialogMessage, externalSystem);
+	}
+
+	/**
+	 * Returns all variables with values based on the given (already loaded)
+	 * {@link DialogStatus} of the {@link Participant}, which enables callers to
+	 * avoid the repeated loading of the {@link DialogStatus}
+	 *
+	 * @param participant
+	 * @param dialogStatus
+	 * @param relatedMonitoringMessage
+	 * @param relatedMicroDialogMessage
+	 * @param externalSystem
+	 * @return
+	 */
+	public Hashtable<String, AbstractVariableWithValue> getAllVariablesWithValuesOfParticipantAndSystemAndExternalSystem(
+			final Participant participant, final DialogStatus dialogStatus,
+			final MonitoringMessage relatedMonitoringMessage,
+			final MicroDialogMessage relatedMicroDialogMessage,
+			final InterventionExternalSystem externalSystem) {
+		val interventionVariablesWithValues = getInterventionVariablesSnapshot(
+				participant.getIntervention());
+
+		val variablesWithValues = new Hashtable<String, AbstractVariableWithValue>(
+				interventionVariablesWithValues.size()
+						+ ImplementationConstants.VARIABLES_WITH_VALUES_INITIAL_CAPACITY);
 
 		// Add all read/write participant variables
 		for (val variable : SystemVariables.READ_WRITE_PARTICIPANT_VARIABLES
@@ -222,15 +282,16 @@ public class VariablesManagerService {
 		}
 
 		// Retrieve all stored participant variables and add them
-		synchronized (participantsVariablesCache) {
-			if (participantsVariablesCache
-					.containsKey(participant.getId().toHexString())) {
-				// Use cache
-				val participantVariablesCache = participantsVariablesCache
-						.get(participant.getId().toHexString());
+		val cachedParticipantVariables = participantsVariablesCache
+				.get(participant.getId().toHexString());
 
-				variablesWithValues.putAll(participantVariablesCache);
-			} else {
+		if (cachedParticipantVariables != null) {
+			// Use cache
+			synchronized (cachedParticipantVariables) {
+				variablesWithValues.putAll(cachedParticipantVariables);
+			}
+		} else {
+			synchronized (participantsVariablesCache) {
 				// Create cache
 				log.debug("Creating cache for participant {} ",
 						participant.getId().toHexString());
@@ -257,16 +318,12 @@ public class VariablesManagerService {
 
 		// Add also variables of intervention, but only if not overwritten for
 		// participant
-		val interventionVariablesWithValues = databaseManagerService
-				.findModelObjects(InterventionVariableWithValue.class,
-						Queries.INTERVENTION_VARIABLE_WITH_VALUE__BY_INTERVENTION,
-						participant.getIntervention());
-
-		for (val interventionVariableWithValue : interventionVariablesWithValues) {
+		for (val interventionVariableWithValue : interventionVariablesWithValues
+				.entrySet()) {
 			if (!variablesWithValues
-					.containsKey(interventionVariableWithValue.getName())) {
-				variablesWithValues.put(interventionVariableWithValue.getName(),
-						interventionVariableWithValue);
+					.containsKey(interventionVariableWithValue.getKey())) {
+				variablesWithValues.put(interventionVariableWithValue.getKey(),
+						interventionVariableWithValue.getValue());
 			}
 		}
 
@@ -285,9 +342,6 @@ public class VariablesManagerService {
 		}
 
 		// Add all read only participant variables
-		val dialogStatus = databaseManagerService.findOneModelObject(
-				DialogStatus.class, Queries.DIALOG_STATUS__BY_PARTICIPANT,
-				participant.getId());
 		for (val variable : SystemVariables.READ_ONLY_PARTICIPANT_VARIABLES
 				.values()) {
 			val readOnlyParticipantVariableValue = getReadOnlyParticipantVariableValue(
@@ -493,27 +547,41 @@ public class VariablesManagerService {
 		return null;
 	}
 
+	/**
+	 * Formats the given {@link Date} with the given (shared and therefore not
+	 * thread-safe) {@link SimpleDateFormat}
+	 *
+	 * @param formatter
+	 * @param date
+	 * @return
+	 */
+	private static String formatDate(final SimpleDateFormat formatter,
+			final Date date) {
+		synchronized (formatter) {
+			return formatter.format(date);
+		}
+	}
+
 	private String getReadOnlySystemVariableValue(final Date date,
 			final READ_ONLY_SYSTEM_VARIABLES variable,
 			final MonitoringMessage relatedMonitoringMessage,
 			final MicroDialogMessage relatedMicroDialogMessage) {
 		switch (variable) {
 			case systemDecimalMinuteOfHour:
-				return String.valueOf(
-						Double.parseDouble(minuteOfHourFormatter.format(date))
-								/ 60);
+				return String.valueOf(Double.parseDouble(
+						formatDate(minuteOfHourFormatter, date)) / 60);
 			case systemMinuteOfHour:
-				return minuteOfHourFormatter.format(date);
+				return formatDate(minuteOfHourFormatter, date);
 			case systemHourOfDay:
-				return hourOfDayFormatter.format(date);
+				return formatDate(hourOfDayFormatter, date);
 			case systemDayInWeek:
-				return dayInWeekFormatter.format(date);
+				return formatDate(dayInWeekFormatter, date);
 			case systemDayOfMonth:
-				return dayOfMonthFormatter.format(date);
+				return formatDate(dayOfMonthFormatter, date);
 			case systemMonth:
-				return monthFormatter.format(date);
+				return formatDate(monthFormatter, date);
 			case systemYear:
-				return yearFormatter.format(date);
+				return formatDate(yearFormatter, date);
 			case systemLinkedSurvey:
 				if (relatedMonitoringMessage != null && relatedMonitoringMessage
 						.getLinkedIntermediateSurvey() != null) {
@@ -544,6 +612,7 @@ public class VariablesManagerService {
 			final Participant participant, final DialogStatus dialogStatus,
 			final READ_ONLY_PARTICIPANT_VARIABLES variable) {
 		String participantHexId = null;
+		Hashtable<String, String> infiniteBlockingMessagesCache = null;
 
 		switch (variable) {
 			case participantIdentifier:
@@ -598,56 +667,44 @@ public class VariablesManagerService {
 			case participantInfiniteBlockingMessagesCount:
 				participantHexId = participant.getId().toHexString();
 
-				synchronized (participantInfiniteBlockingMessagesCache) {
-					if (participantInfiniteBlockingMessagesCache
-							.containsKey(participantHexId)) {
-						return participantInfiniteBlockingMessagesCache
-								.get(participantHexId).getOrDefault(
-										"participantInfiniteBlockingMessagesCount",
-										"0");
-					}
+				infiniteBlockingMessagesCache = participantInfiniteBlockingMessagesCache
+						.get(participantHexId);
+				if (infiniteBlockingMessagesCache != null) {
+					return infiniteBlockingMessagesCache.getOrDefault(
+							"participantInfiniteBlockingMessagesCount", "0");
 				}
 
 				return "0";
 			case participantInfiniteBlockingMessagesIdentifiers:
 				participantHexId = participant.getId().toHexString();
 
-				synchronized (participantInfiniteBlockingMessagesCache) {
-					if (participantInfiniteBlockingMessagesCache
-							.containsKey(participantHexId)) {
-						return participantInfiniteBlockingMessagesCache
-								.get(participantHexId).getOrDefault(
-										"participantInfiniteBlockingMessagesIdentifiers",
-										"");
-					}
+				infiniteBlockingMessagesCache = participantInfiniteBlockingMessagesCache
+						.get(participantHexId);
+				if (infiniteBlockingMessagesCache != null) {
+					return infiniteBlockingMessagesCache.getOrDefault(
+							"participantInfiniteBlockingMessagesIdentifiers", "");
 				}
 
 				return "";
 			case participantInfiniteBlockingMessagesWaitingMinutesMin:
 				participantHexId = participant.getId().toHexString();
 
-				synchronized (participantInfiniteBlockingMessagesCache) {
-					if (participantInfiniteBlockingMessagesCache
-							.containsKey(participantHexId)) {
-						return participantInfiniteBlockingMessagesCache
-								.get(participantHexId).getOrDefault(
-										"participantInfiniteBlockingMessagesWaitingMinutesMin",
-										"0.0");
-					}
+				infiniteBlockingMessagesCache = participantInfiniteBlockingMessagesCache
+						.get(participantHexId);
+				if (infiniteBlockingMessagesCache != null) {
+					return infiniteBlockingMessagesCache.getOrDefault(
+							"participantInfiniteBlockingMessagesWaitingMinutesMin", "0.0");
 				}
 
 				return "0.0";
 			case participantInfiniteBlockingMessagesWaitingMinutesMax:
 				participantHexId = participant.getId().toHexString();
 
-				synchronized (participantInfiniteBlockingMessagesCache) {
-					if (participantInfiniteBlockingMessagesCache
-							.containsKey(participantHexId)) {
-						return participantInfiniteBlockingMessagesCache
-								.get(participantHexId).getOrDefault(
-										"participantInfiniteBlockingMessagesWaitingMinutesMax",
-										"0.0");
-					}
+				infiniteBlockingMessagesCache = participantInfiniteBlockingMessagesCache
+						.get(participantHexId);
+				if (infiniteBlockingMessagesCache != null) {
+					return infiniteBlockingMessagesCache.getOrDefault(
+							"participantInfiniteBlockingMessagesWaitingMinutesMax", "0.0");
 				}
 
 				return "0.0";
@@ -670,6 +727,50 @@ public class VariablesManagerService {
 		return null;
 	}
 
+	/**
+	 * Returns the {@link InterventionVariableWithValue}s of the given
+	 * {@link Intervention} from a cached snapshot, which is only reloaded if
+	 * the variables have been changed since the snapshot has been created
+	 *
+	 * @param interventionId
+	 * @return
+	 */
+	private Map<String, InterventionVariableWithValue> getInterventionVariablesSnapshot(
+			final ObjectId interventionId) {
+		val interventionHexId = interventionId.toHexString();
+
+		// The version has to be determined before loading, so a change during
+		// loading leads to a reload the next time
+		val currentVersion = InterventionVariableWithValue
+				.getVersionOfIntervention(interventionId);
+
+		val cachedSnapshot = interventionsVariablesCache
+				.get(interventionHexId);
+		if (cachedSnapshot != null
+				&& cachedSnapshot.version == currentVersion) {
+			return cachedSnapshot.variables;
+		}
+
+		log.debug("Creating variables snapshot for intervention {}",
+				interventionHexId);
+
+		val interventionVariablesWithValues = new HashMap<String, InterventionVariableWithValue>();
+		for (val interventionVariableWithValue : databaseManagerService
+				.findModelObjects(InterventionVariableWithValue.class,
+						Queries.INTERVENTION_VARIABLE_WITH_VALUE__BY_INTERVENTION,
+						interventionId)) {
+			interventionVariablesWithValues.putIfAbsent(
+					interventionVariableWithValue.getName(),
+					interventionVariableWithValue);
+		}
+
+		val snapshot = new InterventionVariablesSnapshot(currentVersion,
+				Collections.unmodifiableMap(interventionVariablesWithValues));
+		interventionsVariablesCache.put(interventionHexId, snapshot);
+
+		return snapshot.variables;
+	}
+
 	/**
 	 * Adds the variable with value as {@link AbstractVariableWithValue} to the
 	 * hashtable
@@ -706,21 +807,21 @@ public class VariablesManagerService {
 
 		val participantHexId = participantId.toHexString();
 
-		synchronized (participantInfiniteBlockingMessagesCache) {
-			Hashtable<String, String> infiniteBlockingMessagesCache;
-			if (participantInfiniteBlockingMessagesCache
-					.containsKey(participantHexId)) {
-				// Use cache
-				infiniteBlockingMessagesCache = participantInfiniteBlockingMessagesCache
-						.get(participantHexId);
-			} else {
-				// Create cache
-				infiniteBlockingMessagesCache = new Hashtable<String, String>();
-
-				participantInfiniteBlockingMessagesCache.put(participantHexId,
-						infiniteBlockingMessagesCache);
+		Hashtable<String, String> infiniteBlockingMessagesCache = participantInfiniteBlockingMessagesCache
+				.getQuietly(participantHexId);
+		if (infiniteBlockingMessagesCache == null) {
+			// Create cache
+			val newInfiniteBlockingMessagesCache = new Hashtable<String, String>();
+
+			infiniteBlockingMessagesCache = participantInfiniteBlockingMessagesCache
+					.putIfAbsent(participantHexId,
+							newInfiniteBlockingMessagesCache);
+			if (infiniteBlockingMessagesCache == null) {
+				infiniteBlockingMessagesCache = newInfiniteBlockingMessagesCache;
 			}
+		}
 
+		synchronized (infiniteBlockingMessagesCache) {
 			infiniteBlockingMessagesCache.put(
 					"participantInfiniteBlockingMessagesCount",
 					String.valueOf(participantInfiniteBlockingMessagesCount));
@@ -894,11 +995,11 @@ public class VariablesManagerService {
 
 			// Cache new value
 			synchronized (participantsVariablesCache) {
-				if (participantsVariablesCache
-						.containsKey(participantId.toHexString())) {
-					participantsVariablesCache.get(participantId.toHexString())
-							.put(variableName, participantVariableWithValue
-									.toMemoryVariable());
+				val cachedParticipantVariables = participantsVariablesCache
+						.getQuietly(participantId.toHexString());
+				if (cachedParticipantVariables != null) {
+					cachedParticipantVariables.put(variableName,
+							participantVariableWithValue.toMemoryVariable());
 				}
 			}
 		}
@@ -908,12 +1009,24 @@ public class VariablesManagerService {
 	public void participantInvalidateVariableCache(
 			final ObjectId participantId) {
 		synchronized (participantsVariablesCache) {
-			synchronized (participantInfiniteBlockingMessagesCache) {
+			participantsVariablesCache.remove(participantId.toHexString());
+		}
+		participantInfiniteBlockingMessagesCache
+				.remove(participantId.toHexString());
+	}
+
+	@Synchronized
+	public void participantsInvalidateVariableCache(
+			final Collection<ObjectId> participantIds) {
+		synchronized (participantsVariablesCache) {
+			for (val participantId : participantIds) {
 				participantsVariablesCache.remove(participantId.toHexString());
-				participantInfiniteBlockingMessagesCache
-						.remove(participantId.toHexString());
 			}
 		}
+		for (val participantId : participantIds) {
+			participantInfiniteBlockingMessagesCache
+					.remove(participantId.toHexString());
+		}
 	}
 
 	@Synchronized
@@ -4,15 +4,21 @@ package ch.ethz.mc.services.threads;
 import java.util.concurrent.TimeUnit;
 
 import ch.ethz.mc.conf.ImplementationConstants;
+import ch.ethz.mc.model.memory.ReceivedMessage;
 import ch.ethz.mc.model.memory.SystemLoad;
 import ch.ethz.mc.services.InterventionExecutionManagerService;
 import ch.ethz.mc.services.internal.CommunicationManagerService;
+import ch.ethz.mc.services.internal.IncomingMessagePipeline;
 import lombok.Setter;
 import lombok.val;
 import lombok.extern.log4j.Log4j2;
 
 /**
  * Manages the handling of incoming messages
+ *
+ * Messages of services which have to be checked regularly are retrieved here
+ * and put into the {@link IncomingMessagePipeline}; all other services put
+ * their messages into the pipeline directly.
  * 
  * @author Andreas Filler
  */
@@ -22,6 +28,7 @@ public class IncomingMessageWorker extends Thread {
 
 	private final InterventionExecutionManagerService	interventionExecutionManagerService;
 	private final CommunicationManagerService			communicationManagerService;
+	private final IncomingMessagePipeline				incomingMessagePipeline;
 
 	@Setter
 	private boolean										shouldStop	= false;
@@ -36,6 +43,8 @@ public class IncomingMessageWorker extends Thread {
 
 		this.interventionExecutionManagerService = interventionExecutionManagerService;
 		this.communicationManagerService = communicationManagerService;
+
+		incomingMessagePipeline = IncomingMessagePipeline.getInstance();
 	}
 
 	@Override
@@ -59,20 +68,10 @@ public class IncomingMessageWorker extends Thread {
 				log.debug("Received {} messages", receivedMessages.size());
 
 				for (val receivedMessage : receivedMessages) {
-					try {
-						val dialogMessage = interventionExecutionManagerService
-								.handleReceivedMessage(receivedMessage);
-						if (dialogMessage != null) {
-							communicationManagerService.acknowledgeMessage(
-									dialogMessage, receivedMessage);
-						}
-					} catch (final Exception e) {
-						log.error("Could not handle received message: {}",
-								e.getMessage());
-					}
+					incomingMessagePipeline.put(receivedMessage);
 				}
 			} catch (final Exception e) {
-				log.error("Could not handle all received messages: {}",
+				log.error("Could not retrieve all received messages: {}",
 						e.getMessage());
 			}
 
@@ -94,4 +93,19 @@ public class IncomingMessageWorker extends Thread {
 		}
 		log.debug("Incoming message worker received signal to stop");
 	}
+
+	/**
+	 * Handles and acknowledges a received message; called by the
+	 * {@link IncomingMessagePipeline}
+	 *
+	 * @param receivedMessage
+	 */
+	public void handleReceivedMessage(final ReceivedMessage receivedMessage) {
+		val dialogMessage = interventionExecutionManagerService
+				.handleReceivedMessage(receivedMessage);
+		if (dialogMessage != null) {
+			communicationManagerService.acknowledgeMessage(dialogMessage,
+					receivedMessage);
+		}
+	}
 }
\ No newline at end of file
@@ -149,6 +149,12 @@ public class MonitoringSchedulingWorker extends Thread {
 					systemLoad
 							.setPerformContinuousMessagingRequiredMillisPerParticipant(
 									(double) duration / count);
+
+					systemLoad
+							.setPerformContinuousMessagingParticipantsPerSecond(
+									duration > 0
+											? (double) count * 1000 / duration
+											: count);
 				} catch (final Exception e) {
 					log.error("Could not perform messaging: {}",
 							e.getMessage());
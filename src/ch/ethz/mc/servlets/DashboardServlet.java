@@ -2,9 +2,7 @@ package ch.ethz.mc.servlets;
 
 /* ##LICENSE## */
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.util.HashMap;
 
@@ -20,7 +18,6 @@ import lombok.Cleanup;
 import lombok.val;
 import lombok.extern.log4j.Log4j2;
 
-import org.apache.commons.io.IOUtils;
 import org.bson.types.ObjectId;
 
 import ch.ethz.mc.MC;
@@ -32,9 +29,7 @@ import ch.ethz.mc.services.types.GeneralSessionAttributeTypes;
 import ch.ethz.mc.services.types.GeneralSessionAttributeValidatorTypes;
 import ch.ethz.mc.tools.StringHelpers;
 
-import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
-import com.github.mustachejava.MustacheFactory;
 
 /**
  * Servlet to stream the dashboards
@@ -47,8 +42,6 @@ import com.github.mustachejava.MustacheFactory;
 		+ "/*", asyncSupported = true, loadOnStartup = 1)
 @Log4j2
 public class DashboardServlet extends HttpServlet {
-	private MustacheFactory					mustacheFactory;
-
 	private SurveyExecutionManagerService	surveyExecutionManagerService;
 
 	/**
@@ -69,9 +62,6 @@ public class DashboardServlet extends HttpServlet {
 
 		log.info("Initializing servlet...");
 
-		log.debug("Initializing mustache template engine");
-		mustacheFactory = createMustacheFactory();
-
 		log.info("Servlet initialized.");
 	}
 
@@ -204,9 +194,6 @@ public class DashboardServlet extends HttpServlet {
 		log.debug("Sending file '{}' with mime type {}",
 				requestedFile.getAbsolutePath(), mimeType);
 
-		// Set content size
-		response.setContentLength((int) requestedFile.length());
-
 		// Set name
 		response.setHeader("Content-Disposition",
 				"inline; filename=\"" + requestedFile.getName() + "\"");
@@ -226,14 +213,9 @@ public class DashboardServlet extends HttpServlet {
 			response.setDateHeader("Expires", 1);
 		}
 
-		// Open the file and output streams
-		@Cleanup
-		final FileInputStream in = new FileInputStream(requestedFile);
-		@Cleanup
-		final OutputStream out = response.getOutputStream();
-
-		// Copy the contents of the file to the output stream
-		IOUtils.copy(in, out);
+		// Send the file (or only confirm the version of the client)
+		surveyExecutionManagerService.getTemplateAssetCache()
+				.sendAsset(request, response, requestedFile);
 	}
 
 	/**
@@ -346,14 +328,6 @@ public class DashboardServlet extends HttpServlet {
 		templateVariables.put(DashboardTemplateFields.PASSWORD.toVariable(),
 				givenPassword);
 
-		// Create new Mustache template factory on non-production system
-		if (!Constants.isCachingActive()) {
-			log.debug("Initializing NEW mustache template engine");
-			synchronized (mustacheFactory) {
-				mustacheFactory = createMustacheFactory();
-			}
-		}
-
 		// Get template folder
 		val templateFolder = intervention.getDashboardTemplatePath();
 
@@ -361,17 +335,14 @@ public class DashboardServlet extends HttpServlet {
 		log.debug("Filling template in folder {}", templateFolder);
 		log.debug("Variables: {}", templateVariables.toString());
 		Mustache mustache;
-		synchronized (mustacheFactory) {
-			try {
-				mustache = mustacheFactory
-						.compile(templateFolder + "/dashboard.html");
-			} catch (final Exception e) {
-				log.error("There seems to be a problem with the template: {}",
-						e.getMessage());
-				response.sendError(
-						HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-				return;
-			}
+		try {
+			mustache = surveyExecutionManagerService.getTemplateCache()
+					.getTemplate(templateFolder, "dashboard.html");
+		} catch (final Exception e) {
+			log.error("There seems to be a problem with the template: {}",
+					e.getMessage());
+			response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+			return;
 		}
 
 		@Cleanup
@@ -389,15 +360,4 @@ public class DashboardServlet extends HttpServlet {
 			return;
 		}
 	}
-
-	/**
-	 * Creates a Mustache factory
-	 * 
-	 * @return The newly created Mustache factory
-	 */
-	private MustacheFactory createMustacheFactory() {
-		val mustacheFactory = new DefaultMustacheFactory(
-				surveyExecutionManagerService.getTemplatePath());
-		return mustacheFactory;
-	}
 }
@@ -2,10 +2,8 @@ package ch.ethz.mc.servlets;
 
 /* ##LICENSE## */
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -23,7 +21,6 @@ import lombok.Cleanup;
 import lombok.val;
 import lombok.extern.log4j.Log4j2;
 
-import org.apache.commons.io.IOUtils;
 import org.bson.types.ObjectId;
 
 import ch.ethz.mc.MC;
@@ -207,9 +204,6 @@ public class ScreeningSurveyServlet extends HttpServlet {
 		log.debug("Sending file '{}' with mime type {}",
 				requestedFile.getAbsolutePath(), mimeType);
 
-		// Set content size
-		response.setContentLength((int) requestedFile.length());
-
 		// Set name
 		response.setHeader("Content-Disposition",
 				"inline; filename=\"" + requestedFile.getName() + "\"");
@@ -229,14 +223,9 @@ public class ScreeningSurveyServlet extends HttpServlet {
 			response.setDateHeader("Expires", 1);
 		}
 
-		// Open the file and output streams
-		@Cleanup
-		final FileInputStream in = new FileInputStream(requestedFile);
-		@Cleanup
-		final OutputStream out = response.getOutputStream();
-
-		// Copy the contents of the file to the output stream
-		IOUtils.copy(in, out);
+		// Send the file (or only confirm the version of the client)
+		surveyExecutionManagerService.getTemplateAssetCache()
+				.sendAsset(request, response, requestedFile);
 	}
 
 	/**
@@ -572,14 +561,6 @@ public class ScreeningSurveyServlet extends HttpServlet {
 											.toVariable()));
 		}
 
-		// Create new Mustache template factory on non-production system
-		if (!Constants.isCachingActive()) {
-			log.debug("Initializing NEW mustache template engine");
-			synchronized (mustacheFactory) {
-				mustacheFactory = createMustacheFactory();
-			}
-		}
-
 		// Get template folder
 		final String templateFolder = (String) templateVariables.get(
 				GeneralSlideTemplateFieldTypes.TEMPLATE_FOLDER.toVariable());
@@ -590,17 +571,14 @@ public class ScreeningSurveyServlet extends HttpServlet {
 		log.debug("Filling template in folder {}", templateFolder);
 		log.debug("Variables: {}", templateVariables.toString());
 		Mustache mustache;
-		synchronized (mustacheFactory) {
-			try {
-				mustache = mustacheFactory
-						.compile(templateFolder + "/index.html");
-			} catch (final Exception e) {
-				log.error("There seems to be a problem with the template: {}",
-						e.getMessage());
-				response.sendError(
-						HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-				return;
-			}
+		try {
+			mustache = surveyExecutionManagerService.getTemplateCache()
+					.getTemplate(templateFolder, "index.html");
+		} catch (final Exception e) {
+			log.error("There seems to be a problem with the template: {}",
+					e.getMessage());
+			response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+			return;
 		}
 
 		@Cleanup
@@ -2,9 +2,7 @@ package ch.ethz.mc.servlets;
 
 /* ##LICENSE## */
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -22,7 +20,6 @@ import lombok.Cleanup;
 import lombok.val;
 import lombok.extern.log4j.Log4j2;
 
-import org.apache.commons.io.IOUtils;
 import org.bson.types.ObjectId;
 
 import ch.ethz.mc.MC;
@@ -43,9 +40,7 @@ import ch.ethz.mc.services.types.SurveySlideTemplateFieldTypes;
 import ch.ethz.mc.services.types.SurveySlideTemplateLayoutTypes;
 import ch.ethz.mc.tools.StringHelpers;
 
-import com.github.mustachejava.DefaultMustacheFactory;
 import com.github.mustachejava.Mustache;
-import com.github.mustachejava.MustacheFactory;
 
 /**
  * Servlet to stream the survey slides of intermediate surveys and feedbacks
@@ -58,8 +53,6 @@ import com.github.mustachejava.MustacheFactory;
 		+ "/*", asyncSupported = true, loadOnStartup = 1)
 @Log4j2
 public class ShortURLIntermediateSurveyAndFeedbackServlet extends HttpServlet {
-	private MustacheFactory					mustacheFactory;
-
 	private SurveyExecutionManagerService	surveyExecutionManagerService;
 
 	/**
@@ -80,9 +73,6 @@ public class ShortURLIntermediateSurveyAndFeedbackServlet extends HttpServlet {
 
 		log.info("Initializing servlet...");
 
-		log.debug("Initializing mustache template engine");
-		mustacheFactory = createMustacheFactory();
-
 		log.info("Servlet initialized.");
 	}
 
@@ -246,9 +236,6 @@ public class ShortURLIntermediateSurveyAndFeedbackServlet extends HttpServlet {
 		log.debug("Sending file '{}' with mime type {}",
 				requestedFile.getAbsolutePath(), mimeType);
 
-		// Set content size
-		response.setContentLength((int) requestedFile.length());
-
 		// Set name
 		response.setHeader("Content-Disposition",
 				"inline; filename=\"" + requestedFile.getName() + "\"");
@@ -268,14 +255,9 @@ public class ShortURLIntermediateSurveyAndFeedbackServlet extends HttpServlet {
 			response.setDateHeader("Expires", 1);
 		}
 
-		// Open the file and output streams
-		@Cleanup
-		final FileInputStream in = new FileInputStream(requestedFile);
-		@Cleanup
-		final OutputStream out = response.getOutputStream();
-
-		// Copy the contents of the file to the output stream
-		IOUtils.copy(in, out);
+		// Send the file (or only confirm the version of the client)
+		surveyExecutionManagerService.getTemplateAssetCache()
+				.sendAsset(request, response, requestedFile);
 	}
 
 	/**
@@ -598,14 +580,6 @@ public class ShortURLIntermediateSurveyAndFeedbackServlet extends HttpServlet {
 											.toVariable()));
 		}
 
-		// Create new Mustache template factory on non-production system
-		if (!Constants.isCachingActive()) {
-			log.debug("Initializing NEW mustache template engine");
-			synchronized (mustacheFactory) {
-				mustacheFactory = createMustacheFactory();
-			}
-		}
-
 		// Get template folder
 		final String templateFolder = (String) templateVariables.get(
 				GeneralSlideTemplateFieldTypes.TEMPLATE_FOLDER.toVariable());
@@ -616,17 +590,14 @@ public class ShortURLIntermediateSurveyAndFeedbackServlet extends HttpServlet {
 		log.debug("Filling template in folder {}", templateFolder);
 		log.debug("Variables: {}", templateVariables.toString());
 		Mustache mustache;
-		synchronized (mustacheFactory) {
-			try {
-				mustache = mustacheFactory
-						.compile(templateFolder + "/index.html");
-			} catch (final Exception e) {
-				log.error("There seems to be a problem with the template: {}",
-						e.getMessage());
-				response.sendError(
-						HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-				return;
-			}
+		try {
+			mustache = surveyExecutionManagerService.getTemplateCache()
+					.getTemplate(templateFolder, "index.html");
+		} catch (final Exception e) {
+			log.error("There seems to be a problem with the template: {}",
+					e.getMessage());
+			response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+			return;
 		}
 
 		@Cleanup
@@ -644,15 +615,4 @@ public class ShortURLIntermediateSurveyAndFeedbackServlet extends HttpServlet {
 			return;
 		}
 	}
-
-	/**
-	 * Creates a Mustache factory
-	 * 
-	 * @return The newly created Mustache factory
-	 */
-	private MustacheFactory createMustacheFactory() {
-		val mustacheFactory = new DefaultMustacheFactory(
-				surveyExecutionManagerService.getTemplatePath());
-		return mustacheFactory;
-	}
 }
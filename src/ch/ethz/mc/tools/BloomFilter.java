@@ -0,0 +1,116 @@
+package ch.ethz.mc.tools;
+
+/* ##LICENSE## */
+import lombok.Getter;
+import lombok.Synchronized;
+
+/**
+ * Space efficient set of {@link String}s which can only tell if a
+ * {@link String} has definitely not been added or might have been added
+ *
+ * The amount of bits and hash functions is calculated from the expected
+ * amount of insertions and the accepted false positive probability. If more
+ * {@link String}s than expected are added, the filter is saturated and the
+ * false positive probability increases.
+ *
+ * @author Andreas Filler
+ */
+public class BloomFilter {
+	private final long[]	bits;
+	private final int		numberOfBits;
+	private final int		numberOfHashFunctions;
+
+	@Getter
+	private final int		expectedInsertions;
+	private int				insertions;
+
+	/**
+	 * Creates a new empty filter
+	 *
+	 * @param expectedInsertions
+	 * @param falsePositiveProbability
+	 */
+	public BloomFilter(final int expectedInsertions,
+			final double falsePositiveProbability) {
+		this.expectedInsertions = Math.max(1, expectedInsertions);
+
+		numberOfBits = (int) Math.max(64,
+				Math.ceil(-this.expectedInsertions
+						* Math.log(falsePositiveProbability)
+						/ (Math.log(2) * Math.log(2))));
+		numberOfHashFunctions = (int) Math.max(1, Math.round(
+				(double) numberOfBits / this.expectedInsertions * Math.log(2)));
+
+		bits = new long[(numberOfBits + 63) / 64];
+		insertions = 0;
+	}
+
+	/**
+	 * Adds the given {@link String} to the filter
+	 *
+	 * @param value
+	 */
+	@Synchronized
+	public void add(final String value) {
+		final int hash1 = value.hashCode();
+		final int hash2 = secondaryHash(value);
+
+		for (int i = 0; i < numberOfHashFunctions; i++) {
+			final int bit = Math.floorMod(hash1 + i * hash2, numberOfBits);
+			bits[bit >>> 6] |= 1L << bit;
+		}
+
+		insertions++;
+	}
+
+	/**
+	 * Checks if the given {@link String} might have been added to the filter
+	 *
+	 * @param value
+	 * @return <code>false</code> if the {@link String} has definitely not
+	 *         been added
+	 */
+	@Synchronized
+	public boolean mightContain(final String value) {
+		final int hash1 = value.hashCode();
+		final int hash2 = secondaryHash(value);
+
+		for (int i = 0; i < numberOfHashFunctions; i++) {
+			final int bit = Math.floorMod(hash1 + i * hash2, numberOfBits);
+			if ((bits[bit >>> 6] & 1L << bit) == 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Checks if more {@link String}s than expected have been added
+	 *
+	 * @return
+	 */
+	@Synchronized
+	public boolean isSaturated() {
+		return insertions > expectedInsertions;
+	}
+
+	/**
+	 * Calculates a FNV-1a hash, which is independent of
+	 * {@link String#hashCode()}
+	 *
+	 * @param value
+	 * @return
+	 */
+	private static int secondaryHash(final String value) {
+		int hash = 0x811c9dc5;
+
+		for (int i = 0; i < value.length(); i++) {
+			hash ^= value.charAt(i);
+			hash *= 0x01000193;
+		}
+
+		// Avoid a step width of zero
+		return hash | 1;
+	}
+}
@@ -0,0 +1,257 @@
+package ch.ethz.mc.tools;
+
+/* ##LICENSE## */
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.ethz.mc.conf.ImplementationConstants;
+import lombok.Getter;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Cache with a maximum size and a maximum idle time per entry
+ *
+ * Reading is lock-free; if the cache grows beyond its maximum size or
+ * contains entries which have not been accessed for longer than the maximum
+ * idle time, the least recently accessed entries are evicted. Hits, misses and
+ * evictions are counted.
+ *
+ * @author Andreas Filler
+ *
+ * @param <K>
+ * @param <V>
+ */
+@Log4j2
+public class BoundedCache<K, V> {
+	private static class CacheEntry<V> {
+		private final V			value;
+		private volatile long	lastAccess;
+
+		private CacheEntry(final V value) {
+			this.value = value;
+			lastAccess = System.currentTimeMillis();
+		}
+	}
+
+	@Getter
+	private final String								name;
+
+	private final int									maximumSize;
+	private final long									maximumIdleMillis;
+
+	private final ConcurrentHashMap<K, CacheEntry<V>>	entries;
+
+	private final AtomicLong							hits;
+	private final AtomicLong							misses;
+	private final AtomicLong							evictions;
+
+	private final Object								evictionLock;
+	private volatile long								nextIdleCheck;
+
+	/**
+	 * Creates a new cache
+	 *
+	 * @param name
+	 *            Name of the cache used for logging
+	 * @param maximumSize
+	 *            Maximum amount of entries (-1 for infinite)
+	 * @param maximumIdleMinutes
+	 *            Maximum minutes an entry may stay in the cache without being
+	 *            accessed (-1 for infinite)
+	 */
+	public BoundedCache(final String name, final int maximumSize,
+			final int maximumIdleMinutes) {
+		this.name = name;
+		this.maximumSize = maximumSize;
+		maximumIdleMillis = maximumIdleMinutes < 0 ? -1
+				: maximumIdleMinutes
+						* ImplementationConstants.MINUTES_TO_TIME_IN_MILLIS_MULTIPLICATOR;
+
+		entries = new ConcurrentHashMap<K, CacheEntry<V>>();
+
+		hits = new AtomicLong();
+		misses = new AtomicLong();
+		evictions = new AtomicLong();
+
+		evictionLock = new Object();
+		nextIdleCheck = System.currentTimeMillis()
+				+ ImplementationConstants.BOUNDED_CACHE_IDLE_CHECK_INTERVAL_IN_SECONDS
+						* 1000;
+	}
+
+	/**
+	 * Returns the cached value for the given key and counts the access as hit
+	 * or miss
+	 *
+	 * @param key
+	 * @return The value or <code>null</code> if not cached
+	 */
+	public V get(final K key) {
+		val entry = entries.get(key);
+
+		if (entry == null || isIdle(entry, System.currentTimeMillis())) {
+			misses.incrementAndGet();
+			return null;
+		}
+
+		entry.lastAccess = System.currentTimeMillis();
+		hits.incrementAndGet();
+		return entry.value;
+	}
+
+	/**
+	 * Returns the cached value for the given key without counting the access
+	 * and without updating the access time
+	 *
+	 * @param key
+	 * @return The value or <code>null</code> if not cached
+	 */
+	public V getQuietly(final K key) {
+		val entry = entries.get(key);
+
+		if (entry == null) {
+			return null;
+		}
+
+		return entry.value;
+	}
+
+	/**
+	 * Caches the given value for the given key
+	 *
+	 * @param key
+	 * @param value
+	 */
+	public void put(final K key, final V value) {
+		entries.put(key, new CacheEntry<V>(value));
+
+		evictIfRequired();
+	}
+
+	/**
+	 * Caches the given value for the given key if no value is cached so far
+	 *
+	 * @param key
+	 * @param value
+	 * @return The formerly cached value or <code>null</code> if the given value
+	 *         has been cached
+	 */
+	public V putIfAbsent(final K key, final V value) {
+		val formerEntry = entries.putIfAbsent(key, new CacheEntry<V>(value));
+
+		if (formerEntry != null) {
+			formerEntry.lastAccess = System.currentTimeMillis();
+			return formerEntry.value;
+		}
+
+		evictIfRequired();
+		return null;
+	}
+
+	/**
+	 * Removes the value for the given key from the cache
+	 *
+	 * @param key
+	 */
+	public void remove(final K key) {
+		entries.remove(key);
+	}
+
+	/**
+	 * Removes all values from the cache
+	 */
+	public void clear() {
+		entries.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	/**
+	 * Evicts idle entries and, if the cache is still too large, the least
+	 * recently accessed entries
+	 */
+	private void evictIfRequired() {
+		val now = System.currentTimeMillis();
+
+		val tooLarge = maximumSize >= 0 && entries.size() > maximumSize;
+		val idleCheckRequired = maximumIdleMillis >= 0 && now > nextIdleCheck;
+
+		if (!tooLarge && !idleCheckRequired) {
+			return;
+		}
+
+		synchronized (evictionLock) {
+			if (idleCheckRequired) {
+				nextIdleCheck = now
+						+ ImplementationConstants.BOUNDED_CACHE_IDLE_CHECK_INTERVAL_IN_SECONDS
+								* 1000;
+
+				for (val entry : entries.entrySet()) {
+					if (isIdle(entry.getValue(), now) && entries
+							.remove(entry.getKey(), entry.getValue())) {
+						evictions.incrementAndGet();
+					}
+				}
+			}
+
+			if (maximumSize >= 0 && entries.size() > maximumSize) {
+				// Shrink a bit more than required to not evict on each put
+				val entriesToEvict = entries.size() - (int) (maximumSize
+						* ImplementationConstants.BOUNDED_CACHE_SHRINK_FACTOR);
+
+				// Determine the last access time up to which entries are
+				// evicted
+				final long[] lastAccesses = new long[entries.size()];
+				int i = 0;
+				for (val entry : entries.values()) {
+					if (i == lastAccesses.length) {
+						break;
+					}
+					lastAccesses[i++] = entry.lastAccess;
+				}
+				if (i == 0) {
+					return;
+				}
+				Arrays.sort(lastAccesses, 0, i);
+				val evictUntilLastAccess = lastAccesses[Math
+						.min(Math.max(entriesToEvict, 1), i) - 1];
+
+				int evicted = 0;
+				for (val entry : entries.entrySet()) {
+					if (evicted >= entriesToEvict) {
+						break;
+					}
+					if (entry.getValue().lastAccess <= evictUntilLastAccess
+							&& entries.remove(entry.getKey(),
+									entry.getValue())) {
+						evictions.incrementAndGet();
+						evicted++;
+					}
+				}
+
+				log.debug("Evicted {} entries from cache {}", evicted, name);
+			}
+		}
+	}
+
+	private boolean isIdle(final CacheEntry<V> entry, final long now) {
+		return maximumIdleMillis >= 0
+				&& now - entry.lastAccess > maximumIdleMillis;
+	}
+}
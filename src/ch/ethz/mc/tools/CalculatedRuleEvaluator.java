@@ -0,0 +1,253 @@
+package ch.ethz.mc.tools;
+
+/* ##LICENSE## */
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+
+import org.apache.commons.collections.IteratorUtils;
+
+import com.fathzer.soft.javaluator.Constant;
+import com.fathzer.soft.javaluator.DoubleEvaluator;
+import com.fathzer.soft.javaluator.Function;
+import com.fathzer.soft.javaluator.Operator;
+import com.fathzer.soft.javaluator.Parameters;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.val;
+
+/**
+ * Evaluator for calculated rules supporting the default functions of the
+ * {@link DoubleEvaluator} and several own functions
+ *
+ * The evaluator does not contain any state regarding a specific evaluation, so
+ * one instance can be used by several threads at once.
+ *
+ * @author Andreas Filler
+ */
+public class CalculatedRuleEvaluator extends DoubleEvaluator {
+	// Own functions
+	private static final Function	FIRST_POSITION		= new Function("first",
+			1, Integer.MAX_VALUE);
+	private static final Function	SECOND_POSITION		= new Function("second",
+			1, Integer.MAX_VALUE);
+	private static final Function	THIRD_POSITION		= new Function("third",
+			1, Integer.MAX_VALUE);
+	private static final Function	POSITION_IN_ARRAY	= new Function(
+			"position", 2, Integer.MAX_VALUE);
+	private static final Function	DIGIT_AT_POSITION	= new Function("digit",
+			2);
+	private static final Function	IN_RANGE_CHECK		= new Function("inrange",
+			3);
+
+	public CalculatedRuleEvaluator() {
+		super(createParameters());
+	}
+
+	/**
+	 * Creates the default parameters of the {@link DoubleEvaluator} extended
+	 * by the own functions
+	 *
+	 * @return
+	 */
+	static Parameters createParameters() {
+		val params = DoubleEvaluator.getDefaultParameters();
+
+		params.add(FIRST_POSITION);
+		params.add(SECOND_POSITION);
+		params.add(THIRD_POSITION);
+		params.add(POSITION_IN_ARRAY);
+		params.add(DIGIT_AT_POSITION);
+		params.add(IN_RANGE_CHECK);
+
+		return params;
+	}
+
+	/*
+	 * Made available for the evaluation of precompiled rules in this package
+	 */
+	@Override
+	protected Double toValue(final String literal,
+			final Object evaluationContext) {
+		return super.toValue(literal, evaluationContext);
+	}
+
+	@Override
+	protected Double evaluate(final Constant constant,
+			final Object evaluationContext) {
+		return super.evaluate(constant, evaluationContext);
+	}
+
+	@Override
+	protected Double evaluate(final Operator operator,
+			final Iterator<Double> operands, final Object evaluationContext) {
+		return super.evaluate(operator, operands, evaluationContext);
+	}
+
+	@Override
+	protected Double evaluate(final Function function,
+			final Iterator<Double> arguments,
+			final Object evaluationContext) {
+		if (function == FIRST_POSITION) {
+			return topPositionEvaluation(0, arguments);
+		} else if (function == SECOND_POSITION) {
+			return topPositionEvaluation(1, arguments);
+		} else if (function == THIRD_POSITION) {
+			return topPositionEvaluation(2, arguments);
+		} else if (function == POSITION_IN_ARRAY) {
+			return positionInArray(arguments);
+		} else if (function == DIGIT_AT_POSITION) {
+			return digitAtPosition(arguments.next(), arguments.next());
+		} else if (function == IN_RANGE_CHECK) {
+			return inRangeCheck(arguments.next(), arguments.next(),
+					arguments.next());
+		} else {
+			// If it's another function, pass it to DoubleEvaluator
+			return super.evaluate(function, arguments,
+					evaluationContext);
+		}
+	}
+
+	final class PositionItem implements Comparable<PositionItem> {
+		@Getter
+		@Setter
+		private int		position;
+		@Getter
+		@Setter
+		private double	value;
+		@Getter
+		@Setter
+		private double	shuffleValue;
+
+		public PositionItem(final int position, final double value) {
+			this.position = position;
+			this.value = value;
+
+			shuffleValue = 0;
+		}
+
+		private void swap() {
+			final double remember = shuffleValue;
+			shuffleValue = value;
+			value = remember;
+		}
+
+		@Override
+		public int compareTo(final PositionItem anotherInstance) {
+			return (int) (anotherInstance.getValue() - value);
+		}
+	}
+
+	/**
+	 * Determines the position of the 1st, 2nd, 3rd highest value in the
+	 * list; The result is randomized if all/several values would fit
+	 *
+	 * @param i
+	 * @param arguments
+	 * @return
+	 */
+	private Double topPositionEvaluation(final int position,
+			final Iterator<Double> arguments) {
+		val positionItems = new ArrayList<PositionItem>();
+
+		int i = 0;
+		while (arguments.hasNext()) {
+			i++;
+			positionItems.add(new PositionItem(i, arguments.next()));
+		}
+
+		fakeShuffe(positionItems);
+		Collections.sort(positionItems);
+
+		return (double) positionItems.get(position).getPosition();
+	}
+
+	/**
+	 * Returns the object at the given position in the array
+	 *
+	 * @param arguments
+	 * @return
+	 */
+	private Double positionInArray(final Iterator<Double> arguments) {
+		val argumentsArrays = (Double[]) IteratorUtils.toArray(arguments,
+				Double.class);
+
+		return argumentsArrays[argumentsArrays[0].intValue()];
+	}
+
+	/**
+	 * Returns the digit at the position given (counted from right) of
+	 * the given number, e.g. position 2 of 12345 would be 4
+	 *
+	 * @param positionDouble
+	 * @param numberDouble
+	 * @return
+	 */
+	private Double digitAtPosition(final Double positionDouble,
+			final Double numberDouble) {
+		val position = positionDouble.intValue();
+		val number = (int) Math.floor(numberDouble);
+
+		return (double) (int) (number / Math.pow(10, position - 1)
+				% 10);
+	}
+
+	/**
+	 * Returns 1 if the value is between min and max, or 0 if not
+	 *
+	 * @param positionDouble
+	 * @param numberDouble
+	 * @return
+	 */
+	private Double inRangeCheck(final Double valueDouble,
+			final Double minDouble, final Double maxDouble) {
+		if (valueDouble >= minDouble && valueDouble <= maxDouble) {
+			return 1d;
+		} else {
+			return 0d;
+		}
+	}
+
+	/**
+	 * Fake shuffles the position items; fake in this context means that
+	 * it's shuffled, but same dataset return the same result at every
+	 * run
+	 *
+	 * @param positionItems
+	 */
+	public void fakeShuffe(
+			final ArrayList<PositionItem> positionItems) {
+		val items = positionItems.size();
+
+		for (int i = 0; i < items; i++) {
+			final PositionItem positionItem = positionItems.get(i);
+
+			int modifier1;
+			if (i % 2 == 0) {
+				modifier1 = 1;
+			} else {
+				modifier1 = -1;
+			}
+			int modifier2;
+			if (positionItem.value % 2 == 0) {
+				modifier2 = 1;
+			} else {
+				modifier2 = -1;
+			}
+
+			positionItem.shuffleValue = positionItem.value * modifier1
+					* modifier2;
+
+			positionItem.swap();
+		}
+
+		Collections.sort(positionItems);
+
+		for (int i = 0; i < items; i++) {
+			final PositionItem positionItem = positionItems.get(i);
+
+			positionItem.swap();
+		}
+	}
+}
@@ -0,0 +1,286 @@
+package ch.ethz.mc.tools;
+
+/* ##LICENSE## */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fathzer.soft.javaluator.AbstractEvaluator;
+import com.fathzer.soft.javaluator.Constant;
+import com.fathzer.soft.javaluator.Function;
+import com.fathzer.soft.javaluator.Operator;
+
+import ch.ethz.mc.conf.ImplementationConstants;
+import ch.ethz.mc.model.persistent.concepts.AbstractVariableWithValue;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Calculated rule that has been parsed once into a tree of operators,
+ * functions, constants and variables, so that it can be evaluated several
+ * times with different variable values without replacing the variables in the
+ * rule and parsing it again
+ *
+ * The parsing uses the same parameters as the {@link CalculatedRuleEvaluator},
+ * so the precedence of operators and the available functions are the same as
+ * when evaluating the rule as {@link String}. Variables are bound to their
+ * values at evaluation time. If a variable contains a value that is not a
+ * simple number (e.g. a comma separated list of values), the value can't be
+ * bound and the rule has to be evaluated as {@link String}.
+ *
+ * @author Andreas Filler
+ */
+@Log4j2
+public class CompiledCalculatedRule {
+	private static final CalculatedRuleEvaluator	evaluator				= new CalculatedRuleEvaluator();
+	private static final Compiler					compiler				= new Compiler();
+
+	private static final Pattern					variablePattern			= Pattern
+			.compile(
+					ImplementationConstants.REGULAR_EXPRESSION_TO_MATCH_VARIABLES_IN_STRING);
+	private static final Pattern					modifiedVariablePattern	= Pattern
+			.compile(
+					ImplementationConstants.REGULAR_EXPRESSION_TO_MATCH_MODIFIED_VARIABLES_IN_STRING);
+	private static final Pattern					simpleNumberPattern		= Pattern
+			.compile("-?[0-9]+(\\.[0-9]+)?");
+
+	/**
+	 * The root of the parsed rule or <code>null</code> if the rule could not
+	 * be parsed
+	 */
+	private final Node								root;
+
+	/**
+	 * Exception thrown if a variable value can't be bound to the compiled rule
+	 *
+	 * @author Andreas Filler
+	 */
+	public static class VariableNotBindableException extends Exception {
+		private static final long	serialVersionUID	= 6163829174538362170L;
+
+		@Getter
+		private final String		variable;
+
+		public VariableNotBindableException(final String variable) {
+			super("Variable " + variable + " can't be bound");
+			this.variable = variable;
+		}
+	}
+
+	private CompiledCalculatedRule(final Node root) {
+		this.root = root;
+	}
+
+	/**
+	 * Parses the given rule
+	 *
+	 * @param ruleWithPlaceholders
+	 * @return The {@link CompiledCalculatedRule}, which is not compiled if the
+	 *         rule could not be parsed
+	 */
+	public static CompiledCalculatedRule compile(
+			final String ruleWithPlaceholders) {
+		// Surround variables the same way as when they get replaced by their
+		// values
+		val variableMatcher = variablePattern.matcher(ruleWithPlaceholders);
+		val ruleWithModifiedVariables = new StringBuffer();
+		while (variableMatcher.find()) {
+			variableMatcher.appendReplacement(ruleWithModifiedVariables,
+					Matcher.quoteReplacement("("
+							+ ImplementationConstants.VARIABLE_MATCH_MODIFIER
+							+ variableMatcher.group().substring(1)
+							+ ImplementationConstants.VARIABLE_MATCH_MODIFIER
+							+ ")"));
+		}
+		variableMatcher.appendTail(ruleWithModifiedVariables);
+
+		try {
+			val root = compiler
+					.evaluate(ruleWithModifiedVariables.toString());
+
+			log.debug("Compiled rule {}", ruleWithPlaceholders);
+			return new CompiledCalculatedRule(root);
+		} catch (final Exception e) {
+			log.debug("Could not compile rule {}: {}", ruleWithPlaceholders,
+					e.getMessage());
+			return new CompiledCalculatedRule(null);
+		}
+	}
+
+	/**
+	 * Returns if the rule could be parsed
+	 *
+	 * @return
+	 */
+	public boolean isCompiled() {
+		return root != null;
+	}
+
+	/**
+	 * Evaluates the rule with the given {@link AbstractVariableWithValue}s
+	 *
+	 * @param variablesWithValues
+	 * @return Value of the rule evaluation
+	 * @throws VariableNotBindableException
+	 *             If a variable value is not a simple number
+	 */
+	public double evaluate(
+			final Collection<AbstractVariableWithValue> variablesWithValues)
+			throws VariableNotBindableException {
+		return root.evaluate(variablesWithValues);
+	}
+
+	/*
+	 * Nodes of the parsed rule
+	 */
+	private static abstract class Node {
+		abstract Double evaluate(
+				final Collection<AbstractVariableWithValue> variablesWithValues)
+				throws VariableNotBindableException;
+
+		protected static Iterator<Double> evaluateAll(final Node[] nodes,
+				final Collection<AbstractVariableWithValue> variablesWithValues)
+				throws VariableNotBindableException {
+			final List<Double> values = new ArrayList<Double>(nodes.length);
+			for (val node : nodes) {
+				values.add(node.evaluate(variablesWithValues));
+			}
+			return values.iterator();
+		}
+	}
+
+	@AllArgsConstructor
+	private static class ValueNode extends Node {
+		private final Double value;
+
+		@Override
+		Double evaluate(
+				final Collection<AbstractVariableWithValue> variablesWithValues) {
+			return value;
+		}
+	}
+
+	@AllArgsConstructor
+	private static class ConstantNode extends Node {
+		private final Constant constant;
+
+		@Override
+		Double evaluate(
+				final Collection<AbstractVariableWithValue> variablesWithValues) {
+			return evaluator.evaluate(constant, null);
+		}
+	}
+
+	@AllArgsConstructor
+	private static class VariableNode extends Node {
+		/**
+		 * Name of the variable without the leading $
+		 */
+		private final String variable;
+
+		@Override
+		Double evaluate(
+				final Collection<AbstractVariableWithValue> variablesWithValues)
+				throws VariableNotBindableException {
+			for (val variableWithValue : variablesWithValues) {
+				val name = variableWithValue.getName();
+				if (name.length() == variable.length() + 1
+						&& name.endsWith(variable)) {
+					val value = variableWithValue.getValue();
+
+					if (value == null || value.equals("")) {
+						return 0d;
+					} else if (simpleNumberPattern.matcher(value).matches()) {
+						return Double.parseDouble(value);
+					} else {
+						throw new VariableNotBindableException(name);
+					}
+				}
+			}
+
+			// Variable not found
+			return 0d;
+		}
+	}
+
+	@AllArgsConstructor
+	private static class OperatorNode extends Node {
+		private final Operator	operator;
+		private final Node[]	operands;
+
+		@Override
+		Double evaluate(
+				final Collection<AbstractVariableWithValue> variablesWithValues)
+				throws VariableNotBindableException {
+			return evaluator.evaluate(operator,
+					evaluateAll(operands, variablesWithValues), null);
+		}
+	}
+
+	@AllArgsConstructor
+	private static class FunctionNode extends Node {
+		private final Function	function;
+		private final Node[]	arguments;
+
+		@Override
+		Double evaluate(
+				final Collection<AbstractVariableWithValue> variablesWithValues)
+				throws VariableNotBindableException {
+			return evaluator.evaluate(function,
+					evaluateAll(arguments, variablesWithValues), null);
+		}
+	}
+
+	/**
+	 * Parses rules into {@link Node}s instead of evaluating them
+	 *
+	 * @author Andreas Filler
+	 */
+	private static class Compiler extends AbstractEvaluator<Node> {
+		private Compiler() {
+			super(CalculatedRuleEvaluator.createParameters());
+		}
+
+		@Override
+		protected Node toValue(final String literal,
+				final Object evaluationContext) {
+			if (modifiedVariablePattern.matcher(literal).matches()) {
+				return new VariableNode(
+						literal.substring(1, literal.length() - 1));
+			}
+
+			return new ValueNode(evaluator.toValue(literal, null));
+		}
+
+		@Override
+		protected Node evaluate(final Constant constant,
+				final Object evaluationContext) {
+			return new ConstantNode(constant);
+		}
+
+		@Override
+		protected Node evaluate(final Operator operator,
+				final Iterator<Node> operands, final Object evaluationContext) {
+			return new OperatorNode(operator, toArray(operands));
+		}
+
+		@Override
+		protected Node evaluate(final Function function,
+				final Iterator<Node> arguments, final Object evaluationContext) {
+			return new FunctionNode(function, toArray(arguments));
+		}
+
+		private Node[] toArray(final Iterator<Node> nodes) {
+			final List<Node> list = new ArrayList<Node>();
+			while (nodes.hasNext()) {
+				list.add(nodes.next());
+			}
+			return list.toArray(new Node[list.size()]);
+		}
+	}
+}
@@ -0,0 +1,676 @@
+package ch.ethz.mc.tools;
+
+/* ##LICENSE## */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+
+import ch.ethz.mc.conf.ImplementationConstants;
+import ch.ethz.mc.model.memory.SystemLoad;
+import ch.ethz.mc.model.persistent.concepts.AbstractVariableWithValue;
+import lombok.AllArgsConstructor;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Executes JavaScript based rules using a pool of JavaScript engines
+ *
+ * Each engine caches the scripts it already compiled. To be able to reuse the
+ * compiled scripts for all participants, variables used within string literals
+ * of the script are not replaced by their values, but injected as bindings.
+ * Scripts using variables in another way are compiled after replacing the
+ * variables with their values. Each execution is performed with its own
+ * bindings and is cancelled if it exceeds the execution timeout.
+ *
+ * The executions are performed by as many threads as engines are pooled, so
+ * each thread uses at most one engine at a time. As the JavaScript engine
+ * ignores interruptions, a script exceeding the timeout keeps its thread busy
+ * and its engine is never returned to the pool. Such stuck threads are
+ * replaced by additional threads (up to a limit) until the script finishes.
+ * A script exceeding the timeout repeatedly within a time window fails
+ * immediately at further executions until the time window has passed.
+ *
+ * @author Andreas Filler
+ */
+@Log4j2
+public class JavaScriptRuleExecutor {
+	private static final ScriptEngineManager					scriptEngineManager		= new ScriptEngineManager();
+
+	private static final ArrayBlockingQueue<PooledEngine>		enginePool				= new ArrayBlockingQueue<PooledEngine>(
+			ImplementationConstants.JAVASCRIPT_RULES_ENGINE_POOL_SIZE);
+
+	private static final ThreadPoolExecutor						executorService			= new ThreadPoolExecutor(
+			ImplementationConstants.JAVASCRIPT_RULES_ENGINE_POOL_SIZE,
+			ImplementationConstants.JAVASCRIPT_RULES_ENGINE_POOL_SIZE, 60L,
+			TimeUnit.SECONDS,
+			new LinkedBlockingQueue<Runnable>(
+					ImplementationConstants.JAVASCRIPT_RULES_EXECUTION_QUEUE_CAPACITY),
+			new ExecutorThreadFactory());
+
+	/**
+	 * Number of threads still executing scripts which exceeded the timeout
+	 */
+	private static final AtomicInteger							stuckThreads			= new AtomicInteger();
+
+	/**
+	 * Timeouts of scripts (with placeholders) which exceeded the execution
+	 * timeout
+	 */
+	private static final ConcurrentHashMap<String, Timeouts>	timeoutsOfScripts		= new ConcurrentHashMap<String, Timeouts>();
+
+	private static final BoundedCache<String, BindableScript>	bindableScripts			= new BoundedCache<String, BindableScript>(
+			"Bindable JavaScript rules",
+			ImplementationConstants.JAVASCRIPT_RULES_CACHE_MAXIMUM_SIZE,
+			ImplementationConstants.JAVASCRIPT_RULES_CACHE_MAXIMUM_IDLE_MINUTES);
+
+	private static final Pattern								valueModifierPattern	= Pattern
+			.compile("^"
+					+ ImplementationConstants.REGULAR_EXPRESSION_TO_MATCH_VALUE_MODIFIER);
+
+	static {
+		executorService.allowCoreThreadTimeOut(true);
+
+		SystemLoad.getInstance().registerCache(bindableScripts);
+	}
+
+	/**
+	 * Script in which the variables within string literals are replaced by
+	 * references to bindings
+	 */
+	@AllArgsConstructor
+	private static class BindableScript {
+		/**
+		 * The adjusted script or <code>null</code> if the variables can't be
+		 * injected as bindings
+		 */
+		private final String	script;
+
+		/**
+		 * The names of the variables to inject as bindings
+		 */
+		private final String[]	variables;
+	}
+
+	/**
+	 * Timeouts of a script within the current time window
+	 */
+	@AllArgsConstructor
+	private static class Timeouts {
+		private final int	strikes;
+		private final long	lastStrikeTimestamp;
+
+		private boolean isExpired(final long timestamp) {
+			return timestamp
+					- lastStrikeTimestamp > ImplementationConstants.JAVASCRIPT_RULES_TIMEOUT_STRIKES_WINDOW_IN_MINUTES
+							* ImplementationConstants.MINUTES_TO_TIME_IN_MILLIS_MULTIPLICATOR;
+		}
+	}
+
+	/**
+	 * Engine of the pool together with the scripts it already compiled
+	 */
+	private static class PooledEngine {
+		private final ScriptEngine							engine;
+
+		private final LinkedHashMap<String, CompiledScript>	compiledScripts;
+
+		@SuppressWarnings("serial")
+		private PooledEngine(final ScriptEngine engine) {
+			this.engine = engine;
+
+			compiledScripts = new LinkedHashMap<String, CompiledScript>(16,
+					0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(
+						final Map.Entry<String, CompiledScript> eldest) {
+					return size() > ImplementationConstants.JAVASCRIPT_RULES_COMPILED_SCRIPTS_PER_ENGINE;
+				}
+			};
+		}
+
+		/**
+		 * Returns the compiled script, compiles it if required
+		 *
+		 * @param script
+		 * @return The {@link CompiledScript} or <code>null</code> if the
+		 *         engine does not support compilation
+		 * @throws ScriptException
+		 */
+		private CompiledScript getCompiledScript(final String script)
+				throws ScriptException {
+			if (!(engine instanceof Compilable)) {
+				return null;
+			}
+
+			CompiledScript compiledScript = compiledScripts.get(script);
+			if (compiledScript == null) {
+				final long startingTime = System.nanoTime();
+
+				compiledScript = ((Compilable) engine).compile(script);
+				compiledScripts.put(script, compiledScript);
+
+				SystemLoad.getInstance().addJavaScriptCompilationTime(
+						System.nanoTime() - startingTime);
+			}
+
+			return compiledScript;
+		}
+	}
+
+	/**
+	 * Executes the given script and returns the result values, if provided in
+	 * the variable results as {@link Map}
+	 *
+	 * @param scriptWithPlaceholders
+	 *            The script containing the variables
+	 * @param scriptWithValues
+	 *            The script with the variables already replaced by their
+	 *            values (JavaScript encoded)
+	 * @param variablesWithValues
+	 *            The {@link AbstractVariableWithValue}s used to create the
+	 *            script with values
+	 * @return
+	 * @throws Exception
+	 */
+	public static Map<String, String> execute(
+			final String scriptWithPlaceholders, final String scriptWithValues,
+			final Collection<AbstractVariableWithValue> variablesWithValues)
+			throws Exception {
+		if (isBlockedBecauseOfTimeouts(scriptWithPlaceholders)) {
+			throw new Exception("Script execution exceeded "
+					+ ImplementationConstants.JAVASCRIPT_RULES_EXECUTION_TIMEOUT_IN_MILLISECONDS
+					+ " milliseconds several times before");
+		}
+
+		BindableScript bindableScript = bindableScripts
+				.get(scriptWithPlaceholders);
+		if (bindableScript == null) {
+			bindableScript = createBindableScript(scriptWithPlaceholders);
+			bindableScripts.put(scriptWithPlaceholders, bindableScript);
+		}
+
+		val execution = new Execution();
+		if (bindableScript.script != null) {
+			val bindings = new HashMap<String, Object>();
+			for (val variable : bindableScript.variables) {
+				bindings.put(variable, "");
+				for (val variableWithValue : variablesWithValues) {
+					if (variableWithValue.getName().equals(variable)) {
+						if (variableWithValue.getValue() != null) {
+							bindings.put(variable,
+									variableWithValue.getValue());
+						}
+						break;
+					}
+				}
+			}
+
+			val finalBindableScript = bindableScript;
+			execution.task = () -> {
+				try {
+					return executeInPooledEngine(finalBindableScript.script,
+							bindings, execution);
+				} catch (final ScriptCompilationException e) {
+					// Can happen if a string literal containing variables is
+					// used where only plain literals are allowed
+					log.debug(
+							"Could not compile script with bindings, so use script with values instead: {}",
+							e.getCause().getMessage());
+					bindableScripts.put(scriptWithPlaceholders,
+							new BindableScript(null, null));
+
+					return executeInPooledEngine(scriptWithValues, null,
+							execution);
+				}
+			};
+		} else {
+			execution.task = () -> executeInPooledEngine(scriptWithValues,
+					null, execution);
+		}
+
+		final Future<Map<String, String>> future;
+		try {
+			future = executorService.submit(execution);
+		} catch (final RejectedExecutionException e) {
+			throw new Exception(
+					"Script execution rejected, because too many scripts are waiting");
+		}
+		try {
+			return future.get(
+					ImplementationConstants.JAVASCRIPT_RULES_EXECUTION_TIMEOUT_IN_MILLISECONDS,
+					TimeUnit.MILLISECONDS);
+		} catch (final TimeoutException e) {
+			final boolean wasRunning = execution.abandon();
+			future.cancel(true);
+			SystemLoad.getInstance().addJavaScriptTimeout();
+
+			// Only the script itself is to blame if it has been started
+			if (wasRunning) {
+				addTimeout(scriptWithPlaceholders);
+				adjustThreadsBecauseOfStuckThreads(
+						stuckThreads.incrementAndGet());
+			}
+
+			throw new Exception("Script execution exceeded "
+					+ ImplementationConstants.JAVASCRIPT_RULES_EXECUTION_TIMEOUT_IN_MILLISECONDS
+					+ " milliseconds");
+		} catch (final ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof ScriptCompilationException) {
+				cause = cause.getCause();
+			}
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Checks if the given script exceeded the timeout too often within the
+	 * current time window
+	 *
+	 * @param scriptWithPlaceholders
+	 * @return
+	 */
+	private static boolean isBlockedBecauseOfTimeouts(
+			final String scriptWithPlaceholders) {
+		val timeouts = timeoutsOfScripts.get(scriptWithPlaceholders);
+		if (timeouts == null) {
+			return false;
+		}
+
+		if (timeouts.isExpired(System.currentTimeMillis())) {
+			timeoutsOfScripts.remove(scriptWithPlaceholders, timeouts);
+			return false;
+		}
+
+		return timeouts.strikes >= ImplementationConstants.JAVASCRIPT_RULES_TIMEOUT_STRIKES;
+	}
+
+	/**
+	 * Remembers that the given script exceeded the timeout
+	 *
+	 * @param scriptWithPlaceholders
+	 */
+	private static void addTimeout(final String scriptWithPlaceholders) {
+		val timestamp = System.currentTimeMillis();
+		val timeouts = timeoutsOfScripts.compute(scriptWithPlaceholders,
+				(script, formerTimeouts) -> formerTimeouts == null
+						|| formerTimeouts.isExpired(timestamp)
+								? new Timeouts(1, timestamp)
+								: new Timeouts(formerTimeouts.strikes + 1,
+										timestamp));
+
+		if (timeouts.strikes >= ImplementationConstants.JAVASCRIPT_RULES_TIMEOUT_STRIKES) {
+			log.error(
+					"Script exceeded the execution timeout {} times and will not be executed for the next {} minutes: {}",
+					timeouts.strikes,
+					ImplementationConstants.JAVASCRIPT_RULES_TIMEOUT_STRIKES_WINDOW_IN_MINUTES,
+					scriptWithPlaceholders);
+		} else {
+			log.warn("Script exceeded the execution timeout: {}",
+					scriptWithPlaceholders);
+		}
+	}
+
+	/**
+	 * Adds a thread for each thread stuck in a script exceeding the timeout
+	 * (up to a limit), so the other scripts can still be executed
+	 *
+	 * @param currentStuckThreads
+	 */
+	private static void adjustThreadsBecauseOfStuckThreads(
+			final int currentStuckThreads) {
+		SystemLoad.getInstance().setJavaScriptStuckThreads(currentStuckThreads);
+
+		if (currentStuckThreads > ImplementationConstants.JAVASCRIPT_RULES_MAXIMUM_REPLACED_STUCK_THREADS) {
+			log.error(
+					"{} threads are stuck in scripts exceeding the execution timeout, only {} of them are replaced",
+					currentStuckThreads,
+					ImplementationConstants.JAVASCRIPT_RULES_MAXIMUM_REPLACED_STUCK_THREADS);
+		}
+
+		val threads = ImplementationConstants.JAVASCRIPT_RULES_ENGINE_POOL_SIZE
+				+ Math.min(currentStuckThreads,
+						ImplementationConstants.JAVASCRIPT_RULES_MAXIMUM_REPLACED_STUCK_THREADS);
+		synchronized (executorService) {
+			if (threads > executorService.getMaximumPoolSize()) {
+				executorService.setMaximumPoolSize(threads);
+				executorService.setCorePoolSize(threads);
+			} else {
+				executorService.setCorePoolSize(threads);
+				executorService.setMaximumPoolSize(threads);
+			}
+		}
+	}
+
+	/**
+	 * Execution of a script, which remembers if it is running and if its
+	 * caller stopped waiting for it
+	 */
+	private static class Execution implements Callable<Map<String, String>> {
+		private static final int				QUEUED		= 0;
+		private static final int				RUNNING		= 1;
+		private static final int				FINISHED	= 2;
+		private static final int				ABANDONED	= 3;
+
+		private Callable<Map<String, String>>	task;
+
+		private final AtomicInteger				state		= new AtomicInteger(
+				QUEUED);
+
+		@Override
+		public Map<String, String> call() throws Exception {
+			if (!state.compareAndSet(QUEUED, RUNNING)) {
+				return null;
+			}
+
+			try {
+				return task.call();
+			} finally {
+				if (!state.compareAndSet(RUNNING, FINISHED)) {
+					// The thread was stuck in this script, but is free again
+					adjustThreadsBecauseOfStuckThreads(
+							stuckThreads.decrementAndGet());
+				}
+			}
+		}
+
+		/**
+		 * Remembers that the caller stopped waiting for the execution
+		 *
+		 * @return If the script is running at the moment
+		 */
+		private boolean abandon() {
+			if (state.compareAndSet(QUEUED, ABANDONED)) {
+				return false;
+			}
+			return state.compareAndSet(RUNNING, ABANDONED);
+		}
+
+		private boolean isAbandoned() {
+			return state.get() == ABANDONED;
+		}
+	}
+
+	/**
+	 * Creates daemon threads for the script executions
+	 */
+	private static class ExecutorThreadFactory implements ThreadFactory {
+		private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+		@Override
+		public Thread newThread(final Runnable runnable) {
+			val thread = new Thread(runnable, "JavaScript Rule Executor "
+					+ threadNumber.getAndIncrement());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	/**
+	 * Exception to distinguish failures at compilation from failures at
+	 * execution
+	 */
+	@SuppressWarnings("serial")
+	private static class ScriptCompilationException extends Exception {
+		private ScriptCompilationException(final ScriptException cause) {
+			super(cause);
+		}
+	}
+
+	/**
+	 * Executes the script in an engine of the pool
+	 *
+	 * @param script
+	 * @param bindingValues
+	 *            The values to inject or <code>null</code>
+	 * @param execution
+	 *            The {@link Execution} performing the script
+	 * @return
+	 * @throws ScriptCompilationException
+	 * @throws ScriptException
+	 */
+	private static Map<String, String> executeInPooledEngine(
+			final String script, final Map<String, Object> bindingValues,
+			final Execution execution)
+			throws ScriptCompilationException, ScriptException {
+		val pooledEngine = borrowEngine();
+		try {
+			CompiledScript compiledScript;
+			try {
+				compiledScript = pooledEngine.getCompiledScript(script);
+			} catch (final ScriptException e) {
+				throw new ScriptCompilationException(e);
+			}
+
+			val bindings = pooledEngine.engine.createBindings();
+			if (bindingValues != null) {
+				bindings.putAll(bindingValues);
+			}
+
+			final long startingTime = System.nanoTime();
+
+			Object scriptResultValues;
+			if (compiledScript != null) {
+				scriptResultValues = compiledScript.eval(bindings);
+			} else {
+				scriptResultValues = pooledEngine.engine.eval(script,
+						bindings);
+			}
+
+			SystemLoad.getInstance().addJavaScriptExecutionTime(
+					System.nanoTime() - startingTime);
+
+			val resultValuesMap = new HashMap<String, String>();
+			if (scriptResultValues != null) {
+				@SuppressWarnings("unchecked")
+				final Map<String, Object> scriptResultValuesMap = (Map<String, Object>) scriptResultValues;
+
+				for (val entry : scriptResultValuesMap.entrySet()) {
+					resultValuesMap.put(entry.getKey().toString(),
+							entry.getValue().toString());
+				}
+			}
+
+			return resultValuesMap;
+		} finally {
+			// The state of an engine which exceeded the timeout is unknown
+			if (!execution.isAbandoned()) {
+				enginePool.offer(pooledEngine);
+			}
+		}
+	}
+
+	/**
+	 * Returns an unused engine of the pool or creates a new one if all engines
+	 * are in use; as each executor thread uses only one engine at a time, there
+	 * are never more engines in use than executor threads
+	 *
+	 * @return
+	 */
+	private static PooledEngine borrowEngine() {
+		val pooledEngine = enginePool.poll();
+		if (pooledEngine != null) {
+			return pooledEngine;
+		}
+
+		synchronized (scriptEngineManager) {
+			log.debug("Creating new JavaScript engine");
+			return new PooledEngine(
+					scriptEngineManager.getEngineByName("JavaScript"));
+		}
+	}
+
+	/**
+	 * Replaces all variables within string literals of the given script by
+	 * string concatenations with references to bindings of the same name
+	 *
+	 * @param scriptWithPlaceholders
+	 * @return The {@link BindableScript}, which contains no script if the
+	 *         script contains variables outside of string literals or with
+	 *         value modifiers
+	 */
+	private static BindableScript createBindableScript(
+			final String scriptWithPlaceholders) {
+		val notBindable = new BindableScript(null, null);
+		val script = new StringBuilder(scriptWithPlaceholders.length() + 32);
+		val variables = new ArrayList<String>();
+
+		final int length = scriptWithPlaceholders.length();
+		char stringQuote = 0;
+		int stringStart = -1;
+		boolean stringContainsVariables = false;
+		char lastSignificantCharacter = 0;
+
+		int i = 0;
+		while (i < length) {
+			final char character = scriptWithPlaceholders.charAt(i);
+			final char nextCharacter = i + 1 < length
+					? scriptWithPlaceholders.charAt(i + 1)
+					: 0;
+
+			if (stringQuote != 0) {
+				// Within string literal
+				if (character == '\\') {
+					script.append(character);
+					if (i + 1 < length) {
+						script.append(nextCharacter);
+					}
+					i += 2;
+					continue;
+				} else if (character == stringQuote) {
+					script.append(character);
+					if (stringContainsVariables) {
+						script.insert(stringStart, '(');
+						script.append(')');
+					}
+					stringQuote = 0;
+					lastSignificantCharacter = character;
+				} else if (character == '$' && VariableStringTemplate
+						.isVariableNamePart(nextCharacter)) {
+					int end = i + 1;
+					while (end < length
+							&& VariableStringTemplate.isVariableNamePart(
+									scriptWithPlaceholders.charAt(end))) {
+						end++;
+					}
+					if (valueModifierPattern
+							.matcher(scriptWithPlaceholders.substring(end))
+							.find()) {
+						return notBindable;
+					}
+
+					val variable = scriptWithPlaceholders.substring(i, end);
+					if (!variables.contains(variable)) {
+						variables.add(variable);
+					}
+					script.append(stringQuote).append(" + ").append(variable)
+							.append(" + ").append(stringQuote);
+					stringContainsVariables = true;
+
+					i = end;
+					continue;
+				} else {
+					script.append(character);
+				}
+				i++;
+			} else if (character == '/' && nextCharacter == '/') {
+				// Line comment
+				int end = scriptWithPlaceholders.indexOf('\n', i);
+				if (end < 0) {
+					end = length;
+				}
+				script.append(scriptWithPlaceholders, i, end);
+				i = end;
+			} else if (character == '/' && nextCharacter == '*') {
+				// Block comment
+				int end = scriptWithPlaceholders.indexOf("*/", i + 2);
+				end = end < 0 ? length : end + 2;
+				script.append(scriptWithPlaceholders, i, end);
+				i = end;
+			} else if (character == '/' && (lastSignificantCharacter == 0
+					|| "(,=:[!&|?{};+-*%<>~^"
+							.indexOf(lastSignificantCharacter) >= 0)) {
+				// Regular expression literal
+				int end = i + 1;
+				boolean inCharacterClass = false;
+				while (end < length) {
+					final char regexCharacter = scriptWithPlaceholders
+							.charAt(end);
+					if (regexCharacter == '\\') {
+						end++;
+					} else if (regexCharacter == '[') {
+						inCharacterClass = true;
+					} else if (regexCharacter == ']') {
+						inCharacterClass = false;
+					} else if (regexCharacter == '/' && !inCharacterClass) {
+						break;
+					} else if (regexCharacter == '\n') {
+						return notBindable;
+					}
+					end++;
+				}
+				end = Math.min(end + 1, length);
+
+				val regex = scriptWithPlaceholders.substring(i, end);
+				for (int j = 0; j < regex.length() - 1; j++) {
+					if (regex.charAt(j) == '$'
+							&& VariableStringTemplate
+									.isVariableNamePart(regex.charAt(j + 1))) {
+						return notBindable;
+					}
+				}
+				script.append(regex);
+				lastSignificantCharacter = '/';
+				i = end;
+			} else if (character == '"' || character == '\'') {
+				// Start of string literal
+				stringStart = script.length();
+				stringQuote = character;
+				stringContainsVariables = false;
+				script.append(character);
+				i++;
+			} else if (character == '`' || character == '$' && VariableStringTemplate
+					.isVariableNamePart(nextCharacter)) {
+				// Template literal or variable outside of string literal
+				return notBindable;
+			} else {
+				script.append(character);
+				if (!Character.isWhitespace(character)) {
+					lastSignificantCharacter = character;
+				}
+				i++;
+			}
+		}
+
+		if (stringQuote != 0) {
+			return notBindable;
+		}
+
+		return new BindableScript(script.toString(),
+				variables.toArray(new String[variables.size()]));
+	}
+}
@@ -0,0 +1,206 @@
+package ch.ethz.mc.tools;
+
+/* ##LICENSE## */
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.github.mustachejava.DefaultMustacheFactory;
+import com.github.mustachejava.Mustache;
+import com.github.mustachejava.MustacheFactory;
+
+import ch.ethz.mc.conf.Constants;
+import lombok.Cleanup;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Cache of compiled Mustache templates per template folder
+ *
+ * Each template folder gets its own {@link MustacheFactory}, so that the
+ * templates (including their partials) can be compiled once and executed
+ * without any lock afterwards. The template folders are watched for changes
+ * and as soon as a file in a template folder changes, the folder is removed
+ * from the cache and its templates get compiled again at the next request.
+ *
+ * If a template folder can't be watched, its templates are only cached if
+ * caching is active.
+ *
+ * @author Andreas Filler
+ */
+@Log4j2
+public class MustacheTemplateCache {
+	private final File										templatesFolder;
+
+	private final ConcurrentHashMap<String, TemplateFolder>	templateFolders;
+	private final ConcurrentHashMap<WatchKey, String>		watchedTemplateFolders;
+
+	private final WatchService								watchService;
+
+	private static class TemplateFolder {
+		private final MustacheFactory						mustacheFactory;
+		private final ConcurrentHashMap<String, Mustache>	templates;
+		private final boolean								watched;
+
+		private TemplateFolder(final MustacheFactory mustacheFactory,
+				final boolean watched) {
+			this.mustacheFactory = mustacheFactory;
+			this.watched = watched;
+
+			templates = new ConcurrentHashMap<String, Mustache>();
+		}
+	}
+
+	/**
+	 * Creates a new cache and starts watching for changes
+	 *
+	 * @param templatesFolder
+	 *            Folder containing all template folders
+	 */
+	public MustacheTemplateCache(final File templatesFolder) {
+		this.templatesFolder = templatesFolder;
+
+		templateFolders = new ConcurrentHashMap<String, TemplateFolder>();
+		watchedTemplateFolders = new ConcurrentHashMap<WatchKey, String>();
+
+		WatchService createdWatchService = null;
+		try {
+			createdWatchService = FileSystems.getDefault().newWatchService();
+		} catch (final IOException e) {
+			log.warn("Template folders can't be watched for changes: {}",
+					e.getMessage());
+		}
+		watchService = createdWatchService;
+
+		if (watchService != null) {
+			val watchThread = new Thread(this::watchTemplateFolders,
+					"Mustache Template Watcher");
+			watchThread.setDaemon(true);
+			watchThread.start();
+		}
+	}
+
+	/**
+	 * Returns the compiled template
+	 *
+	 * @param templateFolder
+	 *            Template folder relative to the templates folder
+	 * @param templateFile
+	 *            Template file within the template folder
+	 * @return
+	 */
+	public Mustache getTemplate(final String templateFolder,
+			final String templateFile) {
+		val cachedTemplateFolder = templateFolders.computeIfAbsent(
+				templateFolder,
+				folder -> new TemplateFolder(
+						new DefaultMustacheFactory(templatesFolder),
+						watchTemplateFolder(folder)));
+
+		if (!cachedTemplateFolder.watched && !Constants.isCachingActive()) {
+			// Try watching again at the next request
+			templateFolders.remove(templateFolder, cachedTemplateFolder);
+		}
+
+		return cachedTemplateFolder.templates.computeIfAbsent(templateFile,
+				file -> cachedTemplateFolder.mustacheFactory
+						.compile(templateFolder + "/" + file));
+	}
+
+	/**
+	 * Stops watching the template folders
+	 */
+	public void close() {
+		if (watchService != null) {
+			try {
+				watchService.close();
+			} catch (final IOException e) {
+				log.warn("Could not stop watching template folders: {}",
+						e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Registers the template folder and all its subfolders at the
+	 * {@link WatchService}
+	 *
+	 * @param templateFolder
+	 * @return <code>true</code> if the template folder is watched
+	 */
+	private boolean watchTemplateFolder(final String templateFolder) {
+		if (watchService == null) {
+			return false;
+		}
+
+		try {
+			@Cleanup
+			val paths = Files
+					.walk(new File(templatesFolder, templateFolder).toPath());
+			for (val folder : paths.filter(Files::isDirectory)
+					.collect(Collectors.toList())) {
+				watchedTemplateFolders.put(
+						folder.register(watchService,
+								StandardWatchEventKinds.ENTRY_CREATE,
+								StandardWatchEventKinds.ENTRY_DELETE,
+								StandardWatchEventKinds.ENTRY_MODIFY),
+						templateFolder);
+			}
+		} catch (final IOException | ClosedWatchServiceException e) {
+			log.warn("Template folder {} can't be watched for changes: {}",
+					templateFolder, e.getMessage());
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Removes changed template folders from the cache until the
+	 * {@link WatchService} gets closed
+	 */
+	private void watchTemplateFolders() {
+		while (true) {
+			WatchKey watchKey;
+			try {
+				watchKey = watchService.take();
+			} catch (final InterruptedException
+					| ClosedWatchServiceException e) {
+				return;
+			}
+
+			boolean overflow = false;
+			for (val event : watchKey.pollEvents()) {
+				if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+					overflow = true;
+				}
+			}
+
+			val templateFolder = watchedTemplateFolders.get(watchKey);
+			if (overflow) {
+				log.debug("Too many template changes, recompiling all");
+				templateFolders.clear();
+			} else if (templateFolder != null) {
+				log.debug("Template folder {} changed, recompiling",
+						templateFolder);
+				templateFolders.remove(templateFolder);
+			}
+
+			if (!watchKey.reset()) {
+				// Folder is not watched anymore, so its templates could
+				// become outdated unnoticed
+				watchedTemplateFolders.remove(watchKey);
+				if (templateFolder != null) {
+					templateFolders.remove(templateFolder);
+				}
+			}
+		}
+	}
+}
@@ -1,22 +1,14 @@
 package ch.ethz.mc.tools;
 
 /* ##LICENSE## */
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.EnumSet;
-import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
 
-import javax.script.ScriptEngineManager;
-
-import org.apache.commons.collections.IteratorUtils;
 import org.apache.commons.lang3.RandomUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.bson.types.ObjectId;
@@ -26,9 +18,6 @@ import org.joda.time.Days;
 import org.joda.time.Months;
 import org.joda.time.Years;
 
-import com.fathzer.soft.javaluator.AbstractEvaluator;
-import com.fathzer.soft.javaluator.DoubleEvaluator;
-import com.fathzer.soft.javaluator.Function;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
@@ -39,11 +28,13 @@ import com.jayway.jsonpath.spi.mapper.MappingProvider;
 
 import ch.ethz.mc.conf.ImplementationConstants;
 import ch.ethz.mc.model.memory.RuleEvaluationResult;
+import ch.ethz.mc.model.memory.SystemLoad;
 import ch.ethz.mc.model.persistent.Participant;
 import ch.ethz.mc.model.persistent.concepts.AbstractRule;
 import ch.ethz.mc.model.persistent.concepts.AbstractVariableWithValue;
 import ch.ethz.mc.model.persistent.types.RuleEquationSignTypes;
 import ch.ethz.mc.services.internal.VariablesManagerService;
+import ch.ethz.mc.tools.CompiledCalculatedRule.VariableNotBindableException;
 import ch.ethz.mc.tools.VariableStringReplacer.ENCODING;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -82,7 +73,15 @@ public class RuleEvaluator {
 		});
 	}
 
-	private static ScriptEngineManager		scriptEngineManager	= new ScriptEngineManager();
+	private static final CalculatedRuleEvaluator						calculatedRuleEvaluator	= new CalculatedRuleEvaluator();
+	private static final BoundedCache<String, CompiledCalculatedRule>	compiledCalculatedRules	= new BoundedCache<String, CompiledCalculatedRule>(
+			"Compiled calculated rules",
+			ImplementationConstants.COMPILED_CALCULATED_RULES_CACHE_MAXIMUM_SIZE,
+			ImplementationConstants.COMPILED_CALCULATED_RULES_CACHE_MAXIMUM_IDLE_MINUTES);
+
+	static {
+		SystemLoad.getInstance().registerCache(compiledCalculatedRules);
+	}
 
 	@Setter
 	@Getter(value = AccessLevel.PRIVATE)
@@ -584,8 +583,10 @@ public class RuleEvaluator {
 
 					break;
 				case EXECUTE_JAVASCRIPT_IN_X_AND_STORE_VALUES_BUT_RESULT_IS_ALWAYS_TRUE:
-					val scriptExecutionValues = executeJavaScript(
-							ruleEvaluationResult.getTextRuleValue());
+					val scriptExecutionValues = JavaScriptRuleExecutor.execute(
+							rule.getRuleWithPlaceholders(),
+							ruleEvaluationResult.getTextRuleValue(),
+							variablesWithValues);
 
 					for (val entry : scriptExecutionValues.entrySet()) {
 						variablesManagerService
@@ -613,35 +614,6 @@ public class RuleEvaluator {
 		return ruleEvaluationResult;
 	}
 
-	/**
-	 * Executes given script and returns result values, if provided in variable
-	 * results as Map
-	 * 
-	 * @param script
-	 * @return
-	 * @throws Exception
-	 */
-	private static Map<String, String> executeJavaScript(final String script)
-			throws Exception {
-		val resultValuesMap = new HashMap<String, String>();
-
-		val jsEngine = scriptEngineManager.getEngineByName("JavaScript");
-
-		val scriptResultValues = jsEngine.eval(script);
-
-		if (scriptResultValues != null) {
-			@SuppressWarnings("unchecked")
-			final Map<String, Object> scriptResultValuesMap = (Map<String, Object>) scriptResultValues;
-
-			for (val entry : scriptResultValuesMap.entrySet()) {
-				resultValuesMap.put(entry.getKey().toString(),
-						entry.getValue().toString());
-			}
-		}
-
-		return resultValuesMap;
-	}
-
 	/**
 	 * Calculate date difference in days between two dates
 	 *
@@ -781,6 +753,27 @@ public class RuleEvaluator {
 			return 0.0;
 		}
 
+		// Evaluate compiled rule with bound variables if possible
+		CompiledCalculatedRule compiledRule = compiledCalculatedRules
+				.get(rule);
+		if (compiledRule == null) {
+			compiledRule = CompiledCalculatedRule.compile(rule);
+			compiledCalculatedRules.put(rule, compiledRule);
+		}
+
+		if (compiledRule.isCompiled()) {
+			try {
+				val result = compiledRule.evaluate(variablesWithValues);
+				log.debug("Result of compiled rule {} is {}", rule, result);
+
+				return result;
+			} catch (final VariableNotBindableException e) {
+				log.debug(
+						"Variable {} of rule {} can't be bound, so evaluate rule as text",
+						e.getVariable(), rule);
+			}
+		}
+
 		log.debug("Preparing rule {}", rule);
 
 		// Replace variables with their according values
@@ -790,199 +783,7 @@ public class RuleEvaluator {
 
 		// Evaluate rule
 		log.debug("Evaluating rule {}", rule);
-		val params = DoubleEvaluator.getDefaultParameters();
-
-		// Own functions
-		final Function firstPosition = new Function("first", 1,
-				Integer.MAX_VALUE);
-		final Function secondPosition = new Function("second", 1,
-				Integer.MAX_VALUE);
-		final Function thirdPosition = new Function("third", 1,
-				Integer.MAX_VALUE);
-		final Function positionInArray = new Function("position", 2,
-				Integer.MAX_VALUE);
-		final Function digitAtPosition = new Function("digit", 2);
-		final Function inRangeCheck = new Function("inrange", 3);
-
-		params.add(firstPosition);
-		params.add(secondPosition);
-		params.add(thirdPosition);
-		params.add(positionInArray);
-		params.add(digitAtPosition);
-		params.add(inRangeCheck);
-
-		final AbstractEvaluator<Double> evaluator = new DoubleEvaluator(
-				params) {
-			private Double[] argumentsArrays;
-
-			@Override
-			protected Double evaluate(final Function function,
-					final Iterator<Double> arguments,
-					final Object evaluationContext) {
-				if (function == firstPosition) {
-					return topPositionEvaluation(0, arguments);
-				} else if (function == secondPosition) {
-					return topPositionEvaluation(1, arguments);
-				} else if (function == thirdPosition) {
-					return topPositionEvaluation(2, arguments);
-				} else if (function == positionInArray) {
-					return positionInArray(arguments);
-				} else if (function == digitAtPosition) {
-					return digitAtPosition(arguments.next(), arguments.next());
-				} else if (function == inRangeCheck) {
-					return inRangeCheck(arguments.next(), arguments.next(),
-							arguments.next());
-				} else {
-					// If it's another function, pass it to DoubleEvaluator
-					return super.evaluate(function, arguments,
-							evaluationContext);
-				}
-			}
-
-			final class PositionItem implements Comparable<PositionItem> {
-				@Getter
-				@Setter
-				private int		position;
-				@Getter
-				@Setter
-				private double	value;
-				@Getter
-				@Setter
-				private double	shuffleValue;
-
-				public PositionItem(final int position, final double value) {
-					this.position = position;
-					this.value = value;
-
-					shuffleValue = 0;
-				}
-
-				private void swap() {
-					final double remember = shuffleValue;
-					shuffleValue = value;
-					value = remember;
-				}
-
-				@Override
-				public int compareTo(final PositionItem anotherInstance) {
-					return (int) (anotherInstance.getValue() - value);
-				}
-			}
-
-			/**
-			 * Determines the position of the 1st, 2nd, 3rd highest value in the
-			 * list; The result is randomized if all/several values would fit
-			 *
-			 * @param i
-			 * @param arguments
-			 * @return
-			 */
-			private Double topPositionEvaluation(final int position,
-					final Iterator<Double> arguments) {
-				val positionItems = new ArrayList<PositionItem>();
-
-				int i = 0;
-				while (arguments.hasNext()) {
-					i++;
-					positionItems.add(new PositionItem(i, arguments.next()));
-				}
-
-				fakeShuffe(positionItems);
-				Collections.sort(positionItems);
-
-				return (double) positionItems.get(position).getPosition();
-			}
-
-			/**
-			 * Returns the object at the given position in the array
-			 *
-			 * @param arguments
-			 * @return
-			 */
-			private Double positionInArray(final Iterator<Double> arguments) {
-				argumentsArrays = (Double[]) IteratorUtils.toArray(arguments,
-						Double.class);
-
-				return argumentsArrays[argumentsArrays[0].intValue()];
-			}
-
-			/**
-			 * Returns the digit at the position given (counted from right) of
-			 * the given number, e.g. position 2 of 12345 would be 4
-			 *
-			 * @param positionDouble
-			 * @param numberDouble
-			 * @return
-			 */
-			private Double digitAtPosition(final Double positionDouble,
-					final Double numberDouble) {
-				val position = positionDouble.intValue();
-				val number = (int) Math.floor(numberDouble);
-
-				return (double) (int) (number / Math.pow(10, position - 1)
-						% 10);
-			}
-
-			/**
-			 * Returns 1 if the value is between min and max, or 0 if not
-			 *
-			 * @param positionDouble
-			 * @param numberDouble
-			 * @return
-			 */
-			private Double inRangeCheck(final Double valueDouble,
-					final Double minDouble, final Double maxDouble) {
-				if (valueDouble >= minDouble && valueDouble <= maxDouble) {
-					return 1d;
-				} else {
-					return 0d;
-				}
-			}
-
-			/**
-			 * Fake shuffles the position items; fake in this context means that
-			 * it's shuffled, but same dataset return the same result at every
-			 * run
-			 *
-			 * @param positionItems
-			 */
-			public void fakeShuffe(
-					final ArrayList<PositionItem> positionItems) {
-				val items = positionItems.size();
-
-				for (int i = 0; i < items; i++) {
-					final PositionItem positionItem = positionItems.get(i);
-
-					int modifier1;
-					if (i % 2 == 0) {
-						modifier1 = 1;
-					} else {
-						modifier1 = -1;
-					}
-					int modifier2;
-					if (positionItem.value % 2 == 0) {
-						modifier2 = 1;
-					} else {
-						modifier2 = -1;
-					}
-
-					positionItem.shuffleValue = positionItem.value * modifier1
-							* modifier2;
-
-					positionItem.swap();
-				}
-
-				Collections.sort(positionItems);
-
-				for (int i = 0; i < items; i++) {
-					final PositionItem positionItem = positionItems.get(i);
-
-					positionItem.swap();
-				}
-			}
-		};
-
-		val result = evaluator.evaluate(rule);
+		val result = calculatedRuleEvaluator.evaluate(rule);
 		log.debug("Result of rule {} is {}", rule, result);
 
 		return result;
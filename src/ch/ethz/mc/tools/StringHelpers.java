@@ -152,10 +152,25 @@ public class StringHelpers {
 		return name.toString();
 	}
 
+	/**
+	 * Formats the given date or timestamp with the given (shared and therefore
+	 * not thread-safe) {@link SimpleDateFormat}
+	 *
+	 * @param formatter
+	 * @param dateOrTimestamp
+	 * @return
+	 */
+	private static String formatDate(final SimpleDateFormat formatter,
+			final Object dateOrTimestamp) {
+		synchronized (formatter) {
+			return formatter.format(dateOrTimestamp);
+		}
+	}
+
 	public static String createDailyUniqueIndex() {
 		val date = new Date(InternalDateTime.currentTimeMillis());
 
-		return simpleDateFormat.format(date);
+		return formatDate(simpleDateFormat, date);
 	}
 
 	public static String createStringTimestamp(final long timestamp) {
@@ -166,7 +181,7 @@ public class StringHelpers {
 
 		val date = new Date(timestamp);
 
-		return longDateFormat.format(date);
+		return formatDate(longDateFormat, date);
 	}
 
 	/**
@@ -177,7 +192,7 @@ public class StringHelpers {
 	 * @return
 	 */
 	public static String formatInternalDate(long timestamp) {
-		return internalDateRepresentation.format(timestamp);
+		return formatDate(internalDateRepresentation, timestamp);
 	}
 
 	/**
@@ -188,9 +203,10 @@ public class StringHelpers {
 	 */
 	public static String formatInternalTime(long timestamp) {
 		return String.valueOf(Integer
-				.parseInt(internalHourRepresentation.format(timestamp))
+				.parseInt(formatDate(internalHourRepresentation, timestamp))
 				+ Double.parseDouble(
-						internalMinuteRepresentation.format(timestamp)) / 60);
+						formatDate(internalMinuteRepresentation, timestamp))
+						/ 60);
 	}
 
 	/**
@@ -201,7 +217,7 @@ public class StringHelpers {
 	 * @return
 	 */
 	public static String formatDateString(String dateString) {
-		return cleanDateRepresentation.format(
+		return formatDate(cleanDateRepresentation,
 				createInternalDateCalendarRepresentation(dateString).getTime());
 	}
 
@@ -225,7 +241,7 @@ public class StringHelpers {
 		calendar.set(Calendar.MINUTE,
 				(int) (Math.round((timeValue - hour) * 60)));
 
-		return cleanTimeRepresentation.format(calendar.getTime());
+		return formatDate(cleanTimeRepresentation, calendar.getTime());
 	}
 
 	/**
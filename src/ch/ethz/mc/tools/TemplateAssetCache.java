@@ -0,0 +1,339 @@
+package ch.ethz.mc.tools;
+
+/* ##LICENSE## */
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+
+import ch.ethz.mc.conf.ImplementationConstants;
+import ch.ethz.mc.model.memory.SystemLoad;
+import lombok.AllArgsConstructor;
+import lombok.Cleanup;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Sends the static files of the template folders (e.g. CSS, JavaScript or
+ * images) with strong ETags based on their content, so that unchanged files
+ * can be answered with 304 (Not Modified)
+ *
+ * Compressible files are additionally stored gzipped in a separate folder
+ * (named by their content hash), which is filled for all template files at
+ * startup. The files are transferred by the servlet container (sendfile) if
+ * supported or otherwise directly from their {@link FileChannel}.
+ *
+ * @author Andreas Filler
+ */
+@Log4j2
+public class TemplateAssetCache {
+	private static final List<String>			COMPRESSIBLE_FILE_EXTENSIONS	= Arrays
+			.asList("css", "js", "html", "htm", "svg", "json", "txt", "xml",
+					"map");
+
+	private final File							templatesFolder;
+	private final File							compressionFolder;
+
+	private final BoundedCache<String, Asset>	assets;
+
+	@AllArgsConstructor
+	private static class Asset {
+		private final long		length;
+		private final long		lastModified;
+		private final String	hash;
+		private final File		gzipFile;
+	}
+
+	/**
+	 * Creates a new cache and starts compressing all template files
+	 *
+	 * @param templatesFolder
+	 *            Folder containing all template folders
+	 * @param cacheFolder
+	 *            Folder to store the compressed files in
+	 */
+	public TemplateAssetCache(final File templatesFolder,
+			final File cacheFolder) {
+		this.templatesFolder = templatesFolder;
+
+		compressionFolder = new File(cacheFolder,
+				ImplementationConstants.TEMPLATE_ASSET_COMPRESSION_FOLDER);
+		compressionFolder.mkdirs();
+
+		assets = new BoundedCache<String, Asset>("Template assets",
+				ImplementationConstants.TEMPLATE_ASSET_CACHE_MAXIMUM_SIZE,
+				ImplementationConstants.TEMPLATE_ASSET_CACHE_MAXIMUM_IDLE_MINUTES);
+		SystemLoad.getInstance().registerCache(assets);
+
+		val compressionThread = new Thread(this::compressAllTemplateFiles,
+				"Template Asset Compression");
+		compressionThread.setDaemon(true);
+		compressionThread.start();
+	}
+
+	/**
+	 * Sends the given template file or answers with 304 (Not Modified) if the
+	 * client already has the current version; all other headers (e.g. content
+	 * type or caching) have to be set by the caller
+	 *
+	 * @param request
+	 * @param response
+	 * @param file
+	 * @throws IOException
+	 */
+	public void sendAsset(final HttpServletRequest request,
+			final HttpServletResponse response, final File file)
+			throws IOException {
+		val asset = getAsset(file);
+
+		val sendGzipped = asset.gzipFile != null
+				&& acceptsGzip(request.getHeader("Accept-Encoding"));
+		val eTag = "\"" + asset.hash + (sendGzipped ? "-gzip" : "") + "\"";
+
+		response.setHeader("ETag", eTag);
+		response.setDateHeader("Last-Modified", asset.lastModified);
+		if (asset.gzipFile != null) {
+			response.setHeader("Vary", "Accept-Encoding");
+		}
+
+		if (isNotModified(request, eTag, asset.lastModified)) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		final File sentFile;
+		if (sendGzipped) {
+			response.setHeader("Content-Encoding", "gzip");
+			sentFile = asset.gzipFile;
+		} else {
+			sentFile = file;
+		}
+		val length = sentFile.length();
+		response.setContentLengthLong(length);
+
+		// Let the servlet container send the file if possible
+		if (Boolean.TRUE.equals(
+				request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+			request.setAttribute("org.apache.tomcat.sendfile.filename",
+					sentFile.getAbsolutePath());
+			request.setAttribute("org.apache.tomcat.sendfile.start", 0L);
+			request.setAttribute("org.apache.tomcat.sendfile.end", length);
+			return;
+		}
+
+		@Cleanup
+		val fileChannel = FileChannel.open(sentFile.toPath(),
+				StandardOpenOption.READ);
+		@Cleanup
+		val outputChannel = Channels.newChannel(response.getOutputStream());
+
+		long position = 0;
+		while (position < length) {
+			position += fileChannel.transferTo(position, length - position,
+					outputChannel);
+		}
+	}
+
+	/**
+	 * Returns the {@link Asset} of the given file; it is created again if the
+	 * file has been modified
+	 *
+	 * @param file
+	 * @return
+	 * @throws IOException
+	 */
+	private Asset getAsset(final File file) throws IOException {
+		val key = file.getAbsolutePath();
+
+		val asset = assets.get(key);
+		if (asset != null && asset.length == file.length()
+				&& asset.lastModified == file.lastModified()
+				&& (asset.gzipFile == null || asset.gzipFile.exists())) {
+			return asset;
+		}
+
+		val newAsset = createAsset(file);
+		assets.put(key, newAsset);
+
+		return newAsset;
+	}
+
+	private Asset createAsset(final File file) throws IOException {
+		val length = file.length();
+		val lastModified = file.lastModified();
+
+		val hash = createHash(file);
+
+		File gzipFile = null;
+		if (length >= ImplementationConstants.TEMPLATE_ASSET_COMPRESSION_MINIMUM_SIZE_IN_BYTE
+				&& COMPRESSIBLE_FILE_EXTENSIONS.contains(
+						FilenameUtils.getExtension(file.getName())
+								.toLowerCase())) {
+			gzipFile = new File(compressionFolder, hash + ".gz");
+
+			if (!gzipFile.exists()) {
+				compress(file, gzipFile);
+			}
+
+			// Only worth it if the file got smaller
+			if (gzipFile.length() >= length) {
+				gzipFile = null;
+			}
+		}
+
+		return new Asset(length, lastModified, hash, gzipFile);
+	}
+
+	private static String createHash(final File file) throws IOException {
+		@Cleanup
+		val fileInputStream = new FileInputStream(file);
+
+		return DigestUtils.sha256Hex(fileInputStream);
+	}
+
+	/**
+	 * Compresses the file into a temporary file first, so that the gzip file
+	 * is always complete
+	 *
+	 * @param file
+	 * @param gzipFile
+	 * @throws IOException
+	 */
+	private void compress(final File file, final File gzipFile)
+			throws IOException {
+		val temporaryFile = File.createTempFile("compression", ".tmp",
+				compressionFolder);
+		try {
+			{
+				@Cleanup
+				val fileInputStream = new FileInputStream(file);
+				@Cleanup
+				val gzipOutputStream = new GZIPOutputStream(
+						new FileOutputStream(temporaryFile));
+				IOUtils.copy(fileInputStream, gzipOutputStream);
+			}
+
+			Files.move(temporaryFile.toPath(), gzipFile.toPath(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			temporaryFile.delete();
+		}
+	}
+
+	/**
+	 * Creates the {@link Asset}s of all template files and deletes the
+	 * compressed files of former template files
+	 */
+	private void compressAllTemplateFiles() {
+		val startingTime = System.currentTimeMillis();
+		log.debug("Compressing template files...");
+
+		val usedGzipFiles = new HashSet<File>();
+		try {
+			@Cleanup
+			val paths = Files.walk(templatesFolder.toPath());
+			for (val path : paths.filter(Files::isRegularFile)
+					.collect(Collectors.toList())) {
+				try {
+					val asset = getAsset(path.toFile());
+					if (asset.gzipFile != null) {
+						usedGzipFiles.add(asset.gzipFile);
+					}
+				} catch (final IOException e) {
+					log.warn("Could not compress template file {}: {}", path,
+							e.getMessage());
+				}
+			}
+		} catch (final IOException e) {
+			log.warn("Could not compress template files: {}",
+					e.getMessage());
+			return;
+		}
+
+		// Files created meanwhile could be in use by requests already
+		for (val file : compressionFolder.listFiles()) {
+			if (!usedGzipFiles.contains(file)
+					&& file.lastModified() < startingTime) {
+				log.debug("Deleting unused compressed file {}",
+						file.getAbsolutePath());
+				file.delete();
+			}
+		}
+
+		log.debug("Template files compressed.");
+	}
+
+	/**
+	 * Checks if gzip is acceptable according to the Accept-Encoding header
+	 *
+	 * @param acceptEncoding
+	 * @return
+	 */
+	private static boolean acceptsGzip(final String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+
+		for (val encoding : acceptEncoding.split(",")) {
+			val parts = encoding.trim().split(";");
+			if (parts[0].trim().equalsIgnoreCase("gzip")) {
+				// Refused with quality 0
+				return parts.length < 2 || !parts[1].trim()
+						.matches("q=0(\\.0{0,3})?");
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Checks the conditional headers of the request; If-None-Match has
+	 * precedence over If-Modified-Since
+	 *
+	 * @param request
+	 * @param eTag
+	 * @param lastModified
+	 * @return
+	 */
+	private static boolean isNotModified(final HttpServletRequest request,
+			final String eTag, final long lastModified) {
+		val ifNoneMatch = request.getHeader("If-None-Match");
+		if (ifNoneMatch != null) {
+			for (val requestedETag : ifNoneMatch.split(",")) {
+				val trimmedETag = requestedETag.trim();
+				// Weak comparison is sufficient for GET requests
+				if (trimmedETag.equals("*")
+						|| trimmedETag.replaceFirst("^W/", "").equals(eTag)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		try {
+			val ifModifiedSince = request.getDateHeader("If-Modified-Since");
+			return ifModifiedSince != -1
+					&& lastModified / 1000 <= ifModifiedSince / 1000;
+		} catch (final IllegalArgumentException e) {
+			return false;
+		}
+	}
+}
@@ -11,6 +11,7 @@ import java.util.regex.Pattern;
 import org.apache.commons.lang3.StringEscapeUtils;
 
 import ch.ethz.mc.conf.ImplementationConstants;
+import ch.ethz.mc.model.memory.SystemLoad;
 import ch.ethz.mc.model.persistent.Participant;
 import ch.ethz.mc.model.persistent.concepts.AbstractVariableWithValue;
 import lombok.val;
@@ -27,6 +28,15 @@ public class VariableStringReplacer {
 		NONE, JAVASCRIPT, HTML
 	}
 
+	private static final BoundedCache<String, VariableStringTemplate>	templates	= new BoundedCache<String, VariableStringTemplate>(
+			"Variable string templates",
+			ImplementationConstants.VARIABLE_STRING_TEMPLATES_CACHE_MAXIMUM_SIZE,
+			ImplementationConstants.VARIABLE_STRING_TEMPLATES_CACHE_MAXIMUM_IDLE_MINUTES);
+
+	static {
+		SystemLoad.getInstance().registerCache(templates);
+	}
+
 	/**
 	 * Finds variables within the given {@link String} and replaces them with
 	 * the appropriate calculatable variable values
@@ -42,7 +52,7 @@ public class VariableStringReplacer {
 	 * @return The String filled with variable values
 	 */
 	public static String findVariablesAndReplaceWithCalculatableValues(
-			String stringWithVariables,
+			final String stringWithVariables,
 			final Collection<AbstractVariableWithValue> variablesWithValues,
 			final String notFoundReplacer) {
 		// Prevent null pointer exceptions
@@ -51,6 +61,31 @@ public class VariableStringReplacer {
 			return "";
 		}
 
+		val result = getTemplate(stringWithVariables)
+				.renderWithCalculatableValues(variablesWithValues,
+						notFoundReplacer);
+		if (result != null) {
+			return result;
+		}
+
+		return replaceSequentiallyWithCalculatableValues(stringWithVariables,
+				variablesWithValues, notFoundReplacer);
+	}
+
+	/**
+	 * Replaces the variables one after another with the appropriate
+	 * calculatable variable values, required if the
+	 * {@link VariableStringTemplate} can't be rendered in one pass
+	 *
+	 * @param stringWithVariables
+	 * @param variablesWithValues
+	 * @param notFoundReplacer
+	 * @return
+	 */
+	private static String replaceSequentiallyWithCalculatableValues(
+			String stringWithVariables,
+			final Collection<AbstractVariableWithValue> variablesWithValues,
+			final String notFoundReplacer) {
 		// Adjust variables in rule to be unique for later replacement
 		val variablePreFindPattern = Pattern.compile(
 				ImplementationConstants.REGULAR_EXPRESSION_TO_MATCH_VARIABLES_IN_STRING);
@@ -169,7 +204,7 @@ public class VariableStringReplacer {
 	 * @return The String filled with variable values
 	 */
 	public static String findVariablesAndReplaceWithTextValues(
-			final Locale locale, String stringWithVariables,
+			final Locale locale, final String stringWithVariables,
 			final Collection<AbstractVariableWithValue> variablesWithValues,
 			final String notFoundReplacer, final ENCODING encoding) {
 
@@ -179,6 +214,32 @@ public class VariableStringReplacer {
 			return "";
 		}
 
+		val result = getTemplate(stringWithVariables).renderWithTextValues(
+				locale, variablesWithValues, notFoundReplacer, encoding);
+		if (result != null) {
+			return result;
+		}
+
+		return replaceSequentiallyWithTextValues(locale, stringWithVariables,
+				variablesWithValues, notFoundReplacer, encoding);
+	}
+
+	/**
+	 * Replaces the variables one after another with the appropriate text
+	 * variable values, required if the {@link VariableStringTemplate} can't
+	 * be rendered in one pass
+	 *
+	 * @param locale
+	 * @param stringWithVariables
+	 * @param variablesWithValues
+	 * @param notFoundReplacer
+	 * @param encoding
+	 * @return
+	 */
+	private static String replaceSequentiallyWithTextValues(
+			final Locale locale, String stringWithVariables,
+			final Collection<AbstractVariableWithValue> variablesWithValues,
+			final String notFoundReplacer, final ENCODING encoding) {
 		// Adjust variables in rule to be unique for later replacement
 		val variablePreFindPattern = Pattern.compile(
 				ImplementationConstants.REGULAR_EXPRESSION_TO_MATCH_VARIABLES_IN_STRING);
@@ -344,4 +405,22 @@ public class VariableStringReplacer {
 
 		return stringWithVariables;
 	}
+
+	/**
+	 * Returns the cached {@link VariableStringTemplate} of the given
+	 * {@link String}, creates it if required
+	 *
+	 * @param stringWithVariables
+	 * @return
+	 */
+	private static VariableStringTemplate getTemplate(
+			final String stringWithVariables) {
+		VariableStringTemplate template = templates.get(stringWithVariables);
+		if (template == null) {
+			template = new VariableStringTemplate(stringWithVariables);
+			templates.put(stringWithVariables, template);
+		}
+
+		return template;
+	}
 }
@@ -0,0 +1,433 @@
+package ch.ethz.mc.tools;
+
+/* ##LICENSE## */
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringEscapeUtils;
+
+import ch.ethz.mc.conf.ImplementationConstants;
+import ch.ethz.mc.model.persistent.concepts.AbstractVariableWithValue;
+import ch.ethz.mc.tools.VariableStringReplacer.ENCODING;
+import lombok.AllArgsConstructor;
+import lombok.val;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * {@link String} with variables that has been split once into text parts and
+ * variables, so that it can be filled with variable values several times in
+ * one pass
+ *
+ * The variables are found the same way as by the
+ * {@link VariableStringReplacer}. The {@link VariableStringReplacer} replaces
+ * the variables one after another in the whole {@link String}, so a value
+ * containing a variable marker could be replaced again. The template is
+ * therefore only renderable if the text parts can't form variables together
+ * with the values. If a value itself contains the variable marker, the
+ * rendering is cancelled and the {@link VariableStringReplacer} has to replace
+ * the variables the regular way.
+ *
+ * @author Andreas Filler
+ */
+@Log4j2
+public class VariableStringTemplate {
+	private static final Pattern					variablePattern				= Pattern
+			.compile(
+					ImplementationConstants.REGULAR_EXPRESSION_TO_MATCH_VARIABLES_IN_STRING);
+	private static final Pattern					modifiedVariablePattern		= Pattern
+			.compile(
+					ImplementationConstants.REGULAR_EXPRESSION_TO_MATCH_MODIFIED_VARIABLES_IN_STRING);
+	private static final Pattern					valueModifierPattern		= Pattern
+			.compile(
+					ImplementationConstants.REGULAR_EXPRESSION_TO_MATCH_VALUE_MODIFIER);
+
+	private static final ThreadLocal<StringBuilder>	stringBuilders				= ThreadLocal
+			.withInitial(() -> new StringBuilder(1024));
+
+	private static final int						MAXIMUM_REUSED_CAPACITY		= 65536;
+
+	/**
+	 * The template with the variables surrounded by variable markers
+	 */
+	private final String							stringWithModifiedVariables;
+
+	/**
+	 * The text parts before each variable and after the last variable
+	 */
+	private final String[]							texts;
+
+	private final Variable[]						variables;
+
+	private final boolean							renderable;
+
+	@AllArgsConstructor
+	private static class Variable {
+		/**
+		 * Name of the variable without the leading $
+		 */
+		private final String	name;
+
+		/**
+		 * Modifier of the variable or <code>null</code>
+		 */
+		private final String	modifier;
+	}
+
+	/**
+	 * Splits the given {@link String} into text parts and variables
+	 *
+	 * @param stringWithVariables
+	 */
+	public VariableStringTemplate(final String stringWithVariables) {
+		// Surround variables the same way as the VariableStringReplacer does
+		val variableMatcher = variablePattern.matcher(stringWithVariables);
+		val stringWithModifiedVariablesBuffer = new StringBuffer();
+		while (variableMatcher.find()) {
+			variableMatcher.appendReplacement(stringWithModifiedVariablesBuffer,
+					Matcher.quoteReplacement(
+							ImplementationConstants.VARIABLE_MATCH_MODIFIER
+									+ variableMatcher.group().substring(1)
+									+ ImplementationConstants.VARIABLE_MATCH_MODIFIER));
+		}
+		variableMatcher.appendTail(stringWithModifiedVariablesBuffer);
+		stringWithModifiedVariables = stringWithModifiedVariablesBuffer
+				.toString();
+
+		// Split into text parts and variables
+		val texts = new ArrayList<String>();
+		val variables = new ArrayList<Variable>();
+		boolean renderable = true;
+
+		val modifiedVariableMatcher = modifiedVariablePattern
+				.matcher(stringWithModifiedVariables);
+		val valueModifierMatcher = valueModifierPattern
+				.matcher(stringWithModifiedVariables);
+		int textStart = 0;
+		while (modifiedVariableMatcher.find()) {
+			if (modifiedVariableMatcher.start() < textStart) {
+				// Variable within the modifier of the previous variable
+				renderable = false;
+				break;
+			}
+
+			String modifier = null;
+			int variableEnd = modifiedVariableMatcher.end();
+			valueModifierMatcher.region(variableEnd,
+					stringWithModifiedVariables.length());
+			if (valueModifierMatcher.lookingAt()) {
+				modifier = valueModifierMatcher.group().substring(1,
+						valueModifierMatcher.group().length() - 1);
+				variableEnd = valueModifierMatcher.end();
+			}
+
+			texts.add(stringWithModifiedVariables.substring(textStart,
+					modifiedVariableMatcher.start()));
+			variables.add(new Variable(
+					modifiedVariableMatcher.group().substring(1,
+							modifiedVariableMatcher.group().length() - 1),
+					modifier));
+
+			textStart = variableEnd;
+		}
+		texts.add(stringWithModifiedVariables.substring(textStart));
+
+		// Ensure that the text parts can't form additional variables
+		if (renderable && variables.size() > 0) {
+			for (int i = 0; i < texts.size(); i++) {
+				val text = texts.get(i);
+				if (text.contains(
+						ImplementationConstants.VARIABLE_MATCH_MODIFIER)) {
+					renderable = false;
+					break;
+				}
+
+				if (i > 0 && variables.get(i - 1).modifier == null) {
+					if (i < variables.size() && text.length() == 0) {
+						renderable = false;
+						break;
+					} else if (text.length() > 0 && isVariableNamePart(
+							text.charAt(0))) {
+						renderable = false;
+						break;
+					}
+				}
+			}
+		}
+		if (renderable) {
+			for (val variable : variables) {
+				if (variable.modifier != null && variable.modifier.contains(
+						ImplementationConstants.VARIABLE_MATCH_MODIFIER)) {
+					renderable = false;
+					break;
+				}
+			}
+		}
+
+		this.texts = texts.toArray(new String[texts.size()]);
+		this.variables = variables.toArray(new Variable[variables.size()]);
+		this.renderable = renderable;
+	}
+
+	/**
+	 * Fills the template with the appropriate calculatable variable values
+	 *
+	 * @param variablesWithValues
+	 * @param notFoundReplacer
+	 *            The replacement {@link String} if a variable value could not
+	 *            be found, or null if the variable should not be replaced
+	 * @return The filled template or <code>null</code> if it can't be
+	 *         rendered in one pass
+	 */
+	public String renderWithCalculatableValues(
+			final Collection<AbstractVariableWithValue> variablesWithValues,
+			final String notFoundReplacer) {
+		if (!renderable) {
+			return null;
+		}
+		if (variables.length == 0) {
+			return stringWithModifiedVariables;
+		}
+
+		val stringBuilder = getStringBuilder();
+		for (int i = 0; i < variables.length; i++) {
+			stringBuilder.append(texts[i]);
+
+			val variable = variables[i];
+			val variableWithValue = findVariableWithValue(variable,
+					variablesWithValues);
+
+			String replacement;
+			if (variableWithValue != null) {
+				String value = variableWithValue.getValue();
+
+				// Correct value
+				if (value == null || value.equals("")) {
+					value = "0";
+				}
+
+				if (value.contains(",")) {
+					replacement = value;
+				} else {
+					replacement = "(" + value + ")";
+				}
+			} else if (notFoundReplacer != null) {
+				replacement = notFoundReplacer;
+			} else {
+				replacement = ImplementationConstants.VARIABLE_MATCH_MODIFIER
+						+ variable.name
+						+ ImplementationConstants.VARIABLE_MATCH_MODIFIER;
+			}
+
+			if (variableWithValue != null || notFoundReplacer != null) {
+				if (replacement.contains(
+						ImplementationConstants.VARIABLE_MATCH_MODIFIER)) {
+					return null;
+				}
+			}
+
+			stringBuilder.append(replacement);
+			if (variable.modifier != null) {
+				// Modifiers are not supported for calculatable values
+				stringBuilder
+						.append(ImplementationConstants.VARIABLE_VALUE_MODIFIER_START)
+						.append(variable.modifier)
+						.append(ImplementationConstants.VARIABLE_VALUE_MODIFIER_END);
+			}
+		}
+		stringBuilder.append(texts[variables.length]);
+
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * Fills the template with the appropriate text variable values
+	 *
+	 * @param locale
+	 *            The {@link Locale} used to format values with modifiers
+	 * @param variablesWithValues
+	 * @param notFoundReplacer
+	 *            The replacement {@link String} if a variable value could not
+	 *            be found, or null if the variable should not be replaced
+	 * @param encoding
+	 *            If set all variable values will be specifically encoded
+	 * @return The filled template or <code>null</code> if it can't be
+	 *         rendered in one pass
+	 */
+	public String renderWithTextValues(final Locale locale,
+			final Collection<AbstractVariableWithValue> variablesWithValues,
+			final String notFoundReplacer, final ENCODING encoding) {
+		if (!renderable) {
+			return null;
+		}
+		if (variables.length == 0) {
+			return stringWithModifiedVariables;
+		}
+
+		val stringBuilder = getStringBuilder();
+		for (int i = 0; i < variables.length; i++) {
+			stringBuilder.append(texts[i]);
+
+			val variable = variables[i];
+			val variableWithValue = findVariableWithValue(variable,
+					variablesWithValues);
+
+			if (variableWithValue != null) {
+				String value = variableWithValue.getValue();
+
+				// Correct value
+				if (value == null) {
+					value = "";
+				}
+
+				// Care for JavaScript characters
+				switch (encoding) {
+					case HTML:
+						value = StringEscapeUtils.escapeHtml4(value)
+								.replaceAll("(\r\n|\r|\n)", "<br/>");
+						break;
+					case JAVASCRIPT:
+						value = value.replace("\"", "\\x22");
+						value = value.replace("'", "\\x27");
+						value = value.replace("\r", "\\r");
+						value = value.replace("\n", "\\n");
+						break;
+					case NONE:
+						break;
+				}
+
+				if (variable.modifier != null) {
+					value = formatValue(locale, variable, value);
+				}
+
+				if (value.contains(
+						ImplementationConstants.VARIABLE_MATCH_MODIFIER)) {
+					return null;
+				}
+				stringBuilder.append(value);
+			} else {
+				if (notFoundReplacer != null) {
+					if (notFoundReplacer.contains(
+							ImplementationConstants.VARIABLE_MATCH_MODIFIER)) {
+						return null;
+					}
+					stringBuilder.append(notFoundReplacer);
+				} else {
+					stringBuilder
+							.append(ImplementationConstants.VARIABLE_MATCH_MODIFIER)
+							.append(variable.name)
+							.append(ImplementationConstants.VARIABLE_MATCH_MODIFIER);
+				}
+
+				// Only the variable itself gets replaced, not its modifier
+				if (variable.modifier != null) {
+					stringBuilder
+							.append(ImplementationConstants.VARIABLE_VALUE_MODIFIER_START)
+							.append(variable.modifier)
+							.append(ImplementationConstants.VARIABLE_VALUE_MODIFIER_END);
+				}
+			}
+		}
+		stringBuilder.append(texts[variables.length]);
+
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * Formats the value with the modifier of the variable
+	 *
+	 * @param locale
+	 * @param variable
+	 * @param value
+	 * @return The formatted value or the value itself if it can't be formatted
+	 */
+	private static String formatValue(final Locale locale,
+			final Variable variable, final String value) {
+		val modifier = variable.modifier;
+		try {
+			if (modifier.startsWith("#")) {
+				// Own formatter
+				switch (modifier) {
+					case "#d":
+						return StringHelpers.formatDateString(value);
+					case "#t":
+						return StringHelpers.formatTimeString(value);
+					default:
+						return modifier;
+				}
+			} else {
+				if (locale == null) {
+					// Regular Java formatter
+					return String.format(modifier, Double.parseDouble(value));
+				} else {
+					return String.format(locale, modifier,
+							Double.parseDouble(value));
+				}
+			}
+		} catch (final Exception e) {
+			log.warn("Could not modify string {} with modifier {}",
+					ImplementationConstants.VARIABLE_MATCH_MODIFIER
+							+ variable.name
+							+ ImplementationConstants.VARIABLE_MATCH_MODIFIER
+							+ ImplementationConstants.VARIABLE_VALUE_MODIFIER_START
+							+ modifier
+							+ ImplementationConstants.VARIABLE_VALUE_MODIFIER_END,
+					modifier);
+			return value;
+		}
+	}
+
+	/**
+	 * Returns the first {@link AbstractVariableWithValue} with the name of the
+	 * given variable
+	 *
+	 * @param variable
+	 * @param variablesWithValues
+	 * @return
+	 */
+	private static AbstractVariableWithValue findVariableWithValue(
+			final Variable variable,
+			final Collection<AbstractVariableWithValue> variablesWithValues) {
+		val nameLength = variable.name.length();
+
+		for (val variableWithValue : variablesWithValues) {
+			val name = variableWithValue.getName();
+			if (name.length() == nameLength + 1
+					&& name.regionMatches(1, variable.name, 0, nameLength)) {
+				return variableWithValue;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the empty {@link StringBuilder} of the current thread
+	 *
+	 * @return
+	 */
+	private static StringBuilder getStringBuilder() {
+		StringBuilder stringBuilder = stringBuilders.get();
+		if (stringBuilder.capacity() > MAXIMUM_REUSED_CAPACITY) {
+			stringBuilder = new StringBuilder(1024);
+			stringBuilders.set(stringBuilder);
+		}
+		stringBuilder.setLength(0);
+
+		return stringBuilder;
+	}
+
+	/**
+	 * Returns if the given character can be part of a variable name
+	 *
+	 * @param character
+	 * @return
+	 */
+	static boolean isVariableNamePart(final char character) {
+		return character >= 'a' && character <= 'z'
+				|| character >= 'A' && character <= 'Z'
+				|| character >= '0' && character <= '9' || character == '_';
+	}
+}
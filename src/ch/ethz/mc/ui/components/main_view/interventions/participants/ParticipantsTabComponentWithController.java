@@ -181,6 +181,23 @@ public class ParticipantsTabComponentWithController
 								intervention.getId()));
 
 		participantsTable.sort();
+
+		val participantsDeletionProgress = getInterventionAdministrationManagerService()
+				.getParticipantsDeletionProgress();
+		if (participantsDeletionProgress != null) {
+			if (participantsDeletionProgress[2] > 0) {
+				getAdminUI().showWarningNotification(
+						AdminMessageStrings.NOTIFICATION__PARTICIPANTS_DELETION_FAILED,
+						participantsDeletionProgress[2]);
+			}
+			if (participantsDeletionProgress[0]
+					+ participantsDeletionProgress[2] < participantsDeletionProgress[1]) {
+				getAdminUI().showInformationNotification(
+						AdminMessageStrings.NOTIFICATION__PARTICIPANTS_DELETION_IN_PROGRESS,
+						participantsDeletionProgress[0],
+						participantsDeletionProgress[1]);
+			}
+		}
 	}
 
 	private class ButtonClickListener implements Button.ClickListener {
@@ -532,7 +549,8 @@ public class ParticipantsTabComponentWithController
 				}
 
 				getAdminUI().showInformationNotification(
-						AdminMessageStrings.NOTIFICATION__PARTICIPANTS_DELETED);
+						AdminMessageStrings.NOTIFICATION__PARTICIPANTS_DELETION_STARTED,
+						selectedParticipants.size());
 
 				closeWindow();
 			}